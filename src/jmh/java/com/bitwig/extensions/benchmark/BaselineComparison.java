@@ -0,0 +1,143 @@
+package com.bitwig.extensions.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JMH results in CSV format ({@code -rf csv}) with a baseline and reports the benchmarks that got slower or
+ * allocate more. A result counts as regression if it is worse than the baseline by more than the tolerance and by
+ * more than the combined error of both measurements. Exits with 1 if there is a regression, so it can fail a build.
+ * A missing baseline or one without results fails the comparison as well, with instructions to record one, so that
+ * a missing baseline can't pass as a run without regressions.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.csv> <results.csv> [tolerance in percent, default 10]}
+ */
+public final class BaselineComparison {
+   private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+   private record Result(String key, double score, double error, String unit) {
+   }
+
+   private BaselineComparison() {
+   }
+
+   public static void main(final String[] args) throws IOException {
+      if (args.length < 2) {
+         System.err.println("Usage: BaselineComparison <baseline.csv> <results.csv> [tolerance %]");
+         System.exit(2);
+      }
+      final double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.1;
+      final Map<String, Result> baseline = read(Path.of(args[0]));
+      final Map<String, Result> results = read(Path.of(args[1]));
+      if (baseline.isEmpty()) {
+         System.err.printf("The baseline %s has no results, nothing was compared.%n", args[0]);
+         System.err.println("Record it from a full run on the machine the comparisons will run on:");
+         System.err.println("  ./gradlew jmh jmhBaseline");
+         System.err.println("  or: mvn -P benchmarks test-compile exec:exec@jmh && cp target/jmh-results.csv "
+            + args[0]);
+         System.exit(3);
+      }
+      if (results.isEmpty()) {
+         System.err.printf("The results %s are empty, run the benchmarks first.%n", args[1]);
+         System.exit(3);
+      }
+      int regressions = 0;
+      for (final Result result : results.values()) {
+         final Result base = baseline.get(result.key());
+         if (base == null) {
+            System.out.printf("NEW        %-90s %12.3f %s%n", result.key(), result.score(), result.unit());
+            continue;
+         }
+         final double change = base.score() == 0 ? 0 : (result.score() - base.score()) / base.score();
+         final boolean regression = result.score() - base.score() > base.score() * tolerance
+            && result.score() - base.score() > result.error() + base.error();
+         if (regression) {
+            regressions++;
+         }
+         System.out.printf("%-10s %-90s %12.3f -> %12.3f %s (%+.1f%%)%n", regression ? "REGRESSION" : "ok",
+            result.key(), base.score(), result.score(), result.unit(), change * 100);
+      }
+      if (regressions > 0) {
+         System.out.printf("%d regression(s) against %s%n", regressions, args[0]);
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Reads the primary results, which are times per operation, and the normalized allocation rate of the GC
+    * profiler. Other secondary results are skipped.
+    */
+   private static Map<String, Result> read(final Path file) throws IOException {
+      final Map<String, Result> results = new LinkedHashMap<>();
+      if (!Files.exists(file)) {
+         return results;
+      }
+      final List<String> lines = Files.readAllLines(file);
+      if (lines.isEmpty()) {
+         return results;
+      }
+      final List<String> header = parseLine(lines.get(0));
+      final int scoreColumn = header.indexOf("Score");
+      final int errorColumn = header.indexOf("Score Error (99.9%)");
+      final int unitColumn = header.indexOf("Unit");
+      for (final String line : lines.subList(1, lines.size())) {
+         final List<String> values = parseLine(line);
+         if (values.size() < header.size()) {
+            continue;
+         }
+         final String benchmark = values.get(0);
+         final int metric = benchmark.indexOf(':');
+         if (metric >= 0 && !benchmark.endsWith(ALLOCATION_METRIC)) {
+            continue;
+         }
+         final StringBuilder key = new StringBuilder(benchmark);
+         for (int i = unitColumn + 1; i < header.size(); i++) {
+            if (values.get(i).isEmpty()) {
+               continue;
+            }
+            key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(values.get(i));
+         }
+         results.put(key.toString(), new Result(key.toString(), parse(values.get(scoreColumn)),
+            parse(values.get(errorColumn)), values.get(unitColumn)));
+      }
+      return results;
+   }
+
+   private static double parse(final String value) {
+      try {
+         final double parsed = Double.parseDouble(value);
+         return Double.isNaN(parsed) ? 0 : parsed;
+      } catch (final NumberFormatException exception) {
+         return 0;
+      }
+   }
+
+   private static List<String> parseLine(final String line) {
+      final List<String> values = new ArrayList<>();
+      final StringBuilder value = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < line.length(); i++) {
+         final char c = line.charAt(i);
+         if (c == '"') {
+            if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+               value.append('"');
+               i++;
+            } else {
+               quoted = !quoted;
+            }
+         } else if (c == ',' && !quoted) {
+            values.add(value.toString());
+            value.setLength(0);
+         } else {
+            value.append(c);
+         }
+      }
+      values.add(value.toString());
+      return values;
+   }
+}
@@ -0,0 +1,79 @@
+package com.bitwig.extensions.benchmark;
+
+import java.util.Random;
+
+import com.bitwig.extension.api.Color;
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.harness.ApiStubs;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Fixtures shared by the benchmarks. Everything the code under test needs from Bitwig Studio comes from the
+ * {@link OfflineHarness}, so the benchmarks run without the application.
+ */
+public final class Benchmarks {
+   private Benchmarks() {
+   }
+
+   /**
+    * @return an extension without behaviour, for framework classes that only need its host
+    */
+   public static ControllerExtension emptyExtension(final OfflineHarness harness) {
+      return new ControllerExtension(null, harness.getHost()) {
+         @Override
+         public void init() {
+         }
+
+         @Override
+         public void exit() {
+         }
+
+         @Override
+         public void flush() {
+         }
+      };
+   }
+
+   /**
+    * @return a MIDI output that drops everything sent to it. Calls on it go through a dynamic proxy, which
+    * allocates an argument array per message, so allocation rates of code sending MIDI include that array.
+    */
+   public static MidiOut discardingMidiOut() {
+      final MidiOut midiOut = ApiStubs.create(MidiOut.class);
+      ApiStubs.answer(midiOut, "sendMidi", args -> null);
+      ApiStubs.answer(midiOut, "sendSysex", args -> null);
+      return midiOut;
+   }
+
+   /**
+    * @param count the number of colors
+    * @return random colors as 0xRRGGBB, the same for every run
+    */
+   public static int[] randomRgb(final int count) {
+      final Random random = new Random(42);
+      final int[] colors = new int[count];
+      for (int i = 0; i < count; i++) {
+         colors[i] = random.nextInt(0x1000000);
+      }
+      return colors;
+   }
+
+   /**
+    * @param count the number of colors
+    * @return random opaque colors, the same for every run
+    */
+   public static Color[] randomColors(final int count) {
+      final int[] rgb = randomRgb(count);
+      final Color[] colors = new Color[count];
+      for (int i = 0; i < count; i++) {
+         colors[i] = Color.fromRGB255(rgb[i] >> 16 & 0xFF, rgb[i] >> 8 & 0xFF, rgb[i] & 0xFF);
+      }
+      return colors;
+   }
+
+   public static ControllerHost host() {
+      return new OfflineHarness().getHost();
+   }
+}
@@ -0,0 +1,51 @@
+package com.bitwig.extensions.controllers.akai.apc40_mkii;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.bitwig.extension.api.Color;
+import com.bitwig.extensions.benchmark.Benchmarks;
+
+/**
+ * Mapping of track and clip colors to the palette of the APC40 mkII.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RGBLedStateBenchmark
+{
+   private static final int COLORS = 256;
+
+   private Color[] colors;
+
+   @Setup
+   public void setUp()
+   {
+      colors = Benchmarks.randomColors(COLORS);
+      // the lookup table is built on first use
+      RGBLedState.getClosestColorIndex(colors[0]);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void getClosestColorIndex(final Blackhole blackhole)
+   {
+      for (final Color color : colors)
+         blackhole.consume(RGBLedState.getClosestColorIndex(color));
+   }
+}
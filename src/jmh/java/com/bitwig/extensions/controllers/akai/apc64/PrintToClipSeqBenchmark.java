@@ -0,0 +1,108 @@
+package com.bitwig.extensions.controllers.akai.apc64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.bitwig.extension.controller.api.Clip;
+import com.bitwig.extensions.harness.ApiStubs;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Receiving a print to clip of 64 sixteenth steps on 8 tracks, as the APC64 sends it, and writing it to a clip.
+ * The dump holds a note on most steps of every track, 12 notes per body message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrintToClipSeqBenchmark {
+    private static final int STEPS = 64;
+    private static final int TRACKS = 8;
+    private static final int TICKS_PER_STEP = 24;
+    private static final int NOTES_PER_MESSAGE = 12;
+
+    private final List<String> dump = new ArrayList<>();
+    private OfflineHarness harness;
+    private Clip clip;
+    private PrintToClipSeq received;
+
+    @Setup
+    public void setUp() {
+        harness = new OfflineHarness();
+        final Apc64MidiProcessor processor = new Apc64MidiProcessor(harness.getHost(),
+                harness.createTimerWheel(), harness.getMidiIn(0), harness.getMidiOut(0),
+                new ModifierStates(harness.getHost()));
+        processor.setPrintToClipSeqConsumer(seq -> received = seq);
+        clip = ApiStubs.create(Clip.class);
+        ApiStubs.answer(clip, "setStep", args -> null);
+        createDump();
+    }
+
+    private void createDump() {
+        final int length = STEPS * TICKS_PER_STEP;
+        dump.add(Apc64MidiProcessor.PRINT_TO_CLIP_HEAD + "%02x%02xf7".formatted(length >> 7, length & 0x7F));
+        final Random random = new Random(42);
+        final StringBuilder body = new StringBuilder();
+        int notesInBody = 0;
+        for (int track = 0; track < TRACKS; track++) {
+            for (int step = 0; step < STEPS; step++) {
+                if (random.nextInt(4) == 0) {
+                    continue;
+                }
+                final int start = step * TICKS_PER_STEP;
+                final int end = start + TICKS_PER_STEP / 2;
+                body.append("%02x%02x%02x%02x%02x%02x%02x%02x".formatted(track, start >> 7, start & 0x7F,
+                        36 + track, 64 + random.nextInt(64), end >> 7, end & 0x7F, 0));
+                if (++notesInBody == NOTES_PER_MESSAGE) {
+                    addBody(body);
+                    notesInBody = 0;
+                }
+            }
+        }
+        if (notesInBody > 0) {
+            addBody(body);
+        }
+        dump.add(Apc64MidiProcessor.PRINT_TO_CLIP_TAIL);
+    }
+
+    private void addBody(final StringBuilder notes) {
+        dump.add(Apc64MidiProcessor.PRINT_TO_CLIP_BODY + "00" + notes + "00f7");
+        notes.setLength(0);
+    }
+
+    private void receive() {
+        for (final String message : dump) {
+            harness.sendSysex(0, message);
+        }
+    }
+
+    @Benchmark
+    public void receivePrint(final Blackhole blackhole) {
+        receive();
+        blackhole.consume(received.getNoteCount());
+    }
+
+    @Benchmark
+    public void receiveAndApplyPrint() {
+        receive();
+        received.applyToClip(harness.getHost(), clip, 1, () -> true, () -> true);
+        // runs the tasks writing the remaining batches
+        harness.advance(0);
+    }
+}
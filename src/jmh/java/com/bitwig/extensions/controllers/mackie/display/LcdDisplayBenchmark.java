@@ -0,0 +1,74 @@
+package com.bitwig.extensions.controllers.mackie.display;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
+import com.bitwig.extensions.controllers.mackie.definition.MackieMcuProExtensionDefinition;
+import com.bitwig.extensions.controllers.mackie.section.SectionType;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Writing a frame of the eight channel segments of the upper MCU display and flushing it, either with all segments
+ * changed, with one segment changed, as when a single value is turned, or with nothing changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LcdDisplayBenchmark {
+   private static final String[][] FRAMES = {
+      {"Kick", "Snare", "HiHat", "Bass", "Pad", "Lead", "FX", "Master"},
+      {"-6.0dB", "-12dB", "0.0dB", "-3.2dB", "-inf", "+1.5dB", "-24dB", "0.0dB"}};
+   private static final String[] TURNED_VALUES = {"-3.2dB", "-3.1dB"};
+
+   private LcdDisplay display;
+   private int frame;
+
+   @Setup
+   public void setUp() {
+      final MackieMcuProExtension driver =
+         (MackieMcuProExtension) new OfflineHarness().boot(new MackieMcuProExtensionDefinition());
+      display = new LcdDisplay(driver, 0, Benchmarks.discardingMidiOut(), SectionType.MAIN, DisplayPart.UPPER,
+         false);
+      writeFrame(FRAMES[0]);
+   }
+
+   private void writeFrame(final String[] texts) {
+      for (int segment = 0; segment < texts.length; segment++) {
+         display.sendToRow(display, 0, segment, texts[segment]);
+      }
+      display.flush();
+   }
+
+   @Benchmark
+   public void allSegmentsChanged() {
+      frame ^= 1;
+      writeFrame(FRAMES[frame]);
+   }
+
+   @Benchmark
+   public void oneSegmentChanged() {
+      frame ^= 1;
+      display.sendToRow(display, 0, 3, TURNED_VALUES[frame]);
+      display.flush();
+   }
+
+   @Benchmark
+   public void nothingChanged() {
+      writeFrame(FRAMES[0]);
+   }
+}
@@ -0,0 +1,49 @@
+package com.bitwig.extensions.controllers.mackie.display;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+
+/**
+ * Updates of the time code display while the transport is playing. The position advances by a 1/128 beat per
+ * update, about the rate at which the host reports the play position at 120 BPM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeCodeLedBenchmark {
+   private static final double STEP = 1.0 / 128;
+   private static final double WRAP = 4096.0;
+
+   private TimeCodeLed timeCodeLed;
+   private double position;
+
+   @Setup
+   public void setUp() {
+      timeCodeLed = new TimeCodeLed(Benchmarks.discardingMidiOut());
+      timeCodeLed.setDivision("4/4");
+   }
+
+   @Benchmark
+   public void updatePosition() {
+      position += STEP;
+      if (position >= WRAP) {
+         position = 0;
+      }
+      timeCodeLed.updatePosition(position);
+   }
+}
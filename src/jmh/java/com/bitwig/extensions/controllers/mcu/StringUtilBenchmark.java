@@ -0,0 +1,38 @@
+package com.bitwig.extensions.controllers.mcu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Conversion of track and device names for the LCD, with plain ASCII names and names that need transliteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilBenchmark {
+    private static final String[] NAMES = {
+        "Kick", "Snare Top", "Overhead L", "Bass DI", "Synth Pad 2", "Lead Vocal", "Größe Trommel", "Château Hall"
+    };
+    
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void toAsciiDisplay(final Blackhole blackhole) {
+        for (final String name : NAMES) {
+            blackhole.consume(StringUtil.toAsciiDisplay(name, 6));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bitwig.extensions.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Resolution of active bindings when a mode layer is switched. The layers bind overlapping ranges of a shared pool
+ * of controls, like the mode layers of a control surface do, with the first layer always active.
+ * <p>
+ * With {@code resolution=full} the incremental resolution of {@link Layers} is held off by an open update and every
+ * change resolves all bindings of all layers the way {@code Layers} did before it tracked changes per exclusivity
+ * object, which gives the old cost to compare with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayersBenchmark {
+   private static final int CONTROLS = 1024;
+   private static final int LAYERS = 20;
+
+   private static final class NullBinding extends Binding<Object, Object> {
+      private NullBinding(final Object control, final Object target) {
+         super(control, control, target);
+      }
+
+      @Override
+      protected void deactivate() {
+      }
+
+      @Override
+      protected void activate() {
+      }
+   }
+
+   @Param({"1000", "5000", "10000"})
+   private int bindings;
+
+   @Param({"incremental", "full"})
+   private String resolution;
+
+   private Layers layers;
+   private Layer[] modeLayers;
+   private boolean fullResolution;
+   @SuppressWarnings("rawtypes")
+   private final List<Binding> activeBindings = new ArrayList<>();
+   private int next;
+
+   @Setup
+   public void setUp() {
+      layers = new Layers(Benchmarks.emptyExtension(new OfflineHarness()));
+      final Object[] controls = new Object[CONTROLS];
+      for (int i = 0; i < CONTROLS; i++) {
+         controls[i] = new Object();
+      }
+      final int bindingsPerLayer = bindings / LAYERS;
+      modeLayers = new Layer[LAYERS - 1];
+      for (int i = 0; i < LAYERS; i++) {
+         final Layer layer = new Layer(layers, "LAYER_" + i);
+         final int offset = i * bindingsPerLayer / 2 % CONTROLS;
+         for (int j = 0; j < bindingsPerLayer; j++) {
+            layer.addBinding(new NullBinding(controls[(offset + j) % CONTROLS], layer));
+         }
+         if (i == 0) {
+            layer.activate();
+         } else {
+            modeLayers[i - 1] = layer;
+         }
+      }
+      fullResolution = resolution.equals("full");
+      if (fullResolution) {
+         // never ended, the layers only record their changes and resolveAll() does the work
+         layers.beginUpdate();
+      }
+   }
+
+   @Benchmark
+   public boolean toggleModeLayer() {
+      final Layer layer = nextModeLayer();
+      layer.activate();
+      resolveAll();
+      layer.deactivate();
+      resolveAll();
+      return layer.isActive();
+   }
+
+   @Benchmark
+   public boolean switchModeInBatch() {
+      final Layer previous = modeLayers[next];
+      final Layer layer = nextModeLayer();
+      layers.batch(() -> {
+         previous.deactivate();
+         layer.activate();
+      });
+      resolveAll();
+      return layer.isActive();
+   }
+
+   /**
+    * The resolution {@link Layers} did before it became incremental: all bindings of all layers are visited and
+    * every binding of a replacing layer scans the list of active bindings for the ones it shadows.
+    */
+   @SuppressWarnings("rawtypes")
+   private void resolveAll() {
+      if (!fullResolution) {
+         return;
+      }
+      activeBindings.clear();
+      for (final Layer layer : layers.getLayers()) {
+         if (layer.isActive()) {
+            for (final Binding binding : layer.mBindings) {
+               if (layer.shouldReplaceBindingsInLayersBelow()) {
+                  final Object exclusivityObject = binding.getExclusivityObject();
+                  activeBindings.removeIf(activeBinding -> {
+                     if (Objects.equals(activeBinding.getExclusivityObject(), exclusivityObject)
+                        && activeBinding.getLayer() != layer) {
+                        activeBinding.setIsActive(false);
+                        return true;
+                     }
+                     return false;
+                  });
+               }
+               activeBindings.add(binding);
+            }
+         } else {
+            for (final Binding binding : layer.mBindings) {
+               binding.setIsActive(false);
+            }
+         }
+      }
+      for (final Binding binding : activeBindings) {
+         binding.setIsActive(true);
+      }
+   }
+
+   private Layer nextModeLayer() {
+      next = (next + 1) % modeLayers.length;
+      return modeLayers[next];
+   }
+}
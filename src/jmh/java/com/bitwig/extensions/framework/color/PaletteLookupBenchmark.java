@@ -0,0 +1,328 @@
+package com.bitwig.extensions.framework.color;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
+import com.bitwig.extensions.controllers.novation.commonsmk3.ColorLookup;
+
+/**
+ * The palette tables compared to the quantizers they replaced, one pair of benchmarks per controller:
+ * <ul>
+ * <li>APC40 mkII: a search of the 128 palette colors with the combined RGB/HSV distance, which allocated two arrays
+ * per distance, behind a synchronized cache of the last 64 colors.</li>
+ * <li>Novation mk3: the HSB rules, which allocated an {@code Hsb} per color.</li>
+ * <li>Maschine: a {@link Hashtable} keyed by the boxed RGB value, filled by the HSB rules on a miss.</li>
+ * </ul>
+ * The old implementations are copied here as they were before the tables. The tables are built in the setup, the
+ * benchmarks only measure lookups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaletteLookupBenchmark {
+   private static final int COLORS = 256;
+   private static final int APC40_PALETTE_SIZE = 128;
+   private static final int APC40_CACHE_SIZE = 64;
+
+   private int[] rgb;
+   private float[] reds;
+   private float[] greens;
+   private float[] blues;
+
+   private int[] apc40Palette;
+   private final List<int[]> apc40Cache = new ArrayList<>();
+   private PaletteLookup apc40Lookup;
+
+   private final Map<Integer, Integer> maschineCache = new Hashtable<>();
+
+   @Setup
+   public void setUp() {
+      rgb = Benchmarks.randomRgb(COLORS);
+      reds = new float[COLORS];
+      greens = new float[COLORS];
+      blues = new float[COLORS];
+      for (int i = 0; i < COLORS; i++) {
+         reds[i] = (rgb[i] >> 16 & 0xFF) / 255f;
+         greens[i] = (rgb[i] >> 8 & 0xFF) / 255f;
+         blues[i] = (rgb[i] & 0xFF) / 255f;
+      }
+
+      apc40Palette = Benchmarks.randomRgb(APC40_PALETTE_SIZE);
+      apc40Lookup = PaletteLookup.nearest(PaletteLookup.BITS_15, apc40Palette, PaletteLookupBenchmark::apc40Distance)
+         .prepare();
+
+      // the tables of the controllers are built by their first lookup
+      ColorLookup.toColor(0.5f, 0.5f, 0.5f);
+      NIColorUtil.convertColorX(0.5f, 0.5f, 0.5f);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void apc40Search(final Blackhole blackhole) {
+      for (final int color : rgb) {
+         blackhole.consume(apc40CachedSearch(color));
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void apc40Table(final Blackhole blackhole) {
+      for (final int color : rgb) {
+         blackhole.consume(apc40Lookup.lookup(color));
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void novationRules(final Blackhole blackhole) {
+      for (int i = 0; i < COLORS; i++) {
+         blackhole.consume(novationColor(reds[i], greens[i], blues[i]));
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void novationTable(final Blackhole blackhole) {
+      for (int i = 0; i < COLORS; i++) {
+         blackhole.consume(ColorLookup.toColor(reds[i], greens[i], blues[i]));
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void maschineHashtable(final Blackhole blackhole) {
+      for (int i = 0; i < COLORS; i++) {
+         blackhole.consume(maschineColor(reds[i], greens[i], blues[i]));
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(COLORS)
+   public void maschineTable(final Blackhole blackhole) {
+      for (int i = 0; i < COLORS; i++) {
+         blackhole.consume(NIColorUtil.convertColorX(reds[i], greens[i], blues[i]));
+      }
+   }
+
+   // APC40 mkII
+
+   private int apc40CachedSearch(final int color) {
+      synchronized (apc40Cache) {
+         for (final int[] entry : apc40Cache) {
+            if (entry[0] == color) {
+               return entry[1];
+            }
+         }
+         final int index = apc40Search(color);
+         if (apc40Cache.size() == APC40_CACHE_SIZE) {
+            apc40Cache.remove(APC40_CACHE_SIZE - 1);
+         }
+         apc40Cache.add(0, new int[] {color, index});
+         return index;
+      }
+   }
+
+   private int apc40Search(final int color) {
+      final double r = (color >> 16 & 0xFF) / 255.0;
+      final double g = (color >> 8 & 0xFF) / 255.0;
+      final double b = (color & 0xFF) / 255.0;
+      int closestIndex = 0;
+      double closestDistance = Double.MAX_VALUE;
+      for (int i = 0; i < apc40Palette.length; i++) {
+         final double d = 0.5 * ColorDistance.RGB.distance(r, g, b, (apc40Palette[i] >> 16 & 0xFF) / 255.0,
+            (apc40Palette[i] >> 8 & 0xFF) / 255.0, (apc40Palette[i] & 0xFF) / 255.0)
+            + 0.5 * apc40AllocatingHsvDistance(r, g, b, apc40Palette[i]);
+         if (d == 0) {
+            return i;
+         }
+         if (d < closestDistance) {
+            closestIndex = i;
+            closestDistance = d;
+         }
+      }
+      return closestIndex;
+   }
+
+   private static double apc40AllocatingHsvDistance(final double r, final double g, final double b, final int rgb) {
+      final double[] hsv1 = rgbToHsv(r, g, b);
+      final double[] hsv2 = rgbToHsv((rgb >> 16 & 0xFF) / 255.0, (rgb >> 8 & 0xFF) / 255.0, (rgb & 0xFF) / 255.0);
+      final double dh = Math.min(Math.abs(hsv1[0] - hsv2[0]), 1 - Math.abs(hsv1[0] - hsv2[0]));
+      final double ds = Math.abs(hsv1[1] - hsv2[1]);
+      final double dv = Math.abs(hsv1[2] - hsv2[2]);
+      return Math.sqrt(dh * dh + ds * ds + dv * dv);
+   }
+
+   private static double[] rgbToHsv(final double r, final double g, final double b) {
+      final double[] hsv = new double[3];
+      final double max = Math.max(r, Math.max(g, b));
+      final double delta = max - Math.min(r, Math.min(g, b));
+      hsv[0] = hue(r, g, b, max, delta);
+      hsv[1] = max == 0 ? 0 : delta / max;
+      hsv[2] = max;
+      return hsv;
+   }
+
+   private static double apc40Distance(final double r1, final double g1, final double b1, final double r2,
+      final double g2, final double b2) {
+      final double max1 = Math.max(r1, Math.max(g1, b1));
+      final double max2 = Math.max(r2, Math.max(g2, b2));
+      final double delta1 = max1 - Math.min(r1, Math.min(g1, b1));
+      final double delta2 = max2 - Math.min(r2, Math.min(g2, b2));
+      final double hueDistance = Math.abs(hue(r1, g1, b1, max1, delta1) - hue(r2, g2, b2, max2, delta2));
+      final double dh = Math.min(hueDistance, 1 - hueDistance);
+      final double ds = Math.abs((max1 == 0 ? 0 : delta1 / max1) - (max2 == 0 ? 0 : delta2 / max2));
+      final double dv = Math.abs(max1 - max2);
+      return 0.5 * ColorDistance.RGB.distance(r1, g1, b1, r2, g2, b2) + 0.5 * Math.sqrt(dh * dh + ds * ds + dv * dv);
+   }
+
+   private static double hue(final double r, final double g, final double b, final double max, final double delta) {
+      if (delta == 0) {
+         return 0;
+      }
+      if (max == r) {
+         return (60 * ((g - b) / delta) + 360) % 360;
+      }
+      if (max == g) {
+         return (60 * ((b - r) / delta) + 120) % 360;
+      }
+      return (60 * ((r - g) / delta) + 240) % 360;
+   }
+
+   // Novation mk3
+
+   private record Hsb(int hue, int sat, int bright) {
+   }
+
+   private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
+
+   private static int novationColor(final float r, final float g, final float b) {
+      final int rv = (int) Math.floor(r * 255);
+      final int gv = (int) Math.floor(g * 255);
+      final int bv = (int) Math.floor(b * 255);
+      if (rv < 10 && gv < 10 && bv < 10) {
+         return 0;
+      } else if (rv > 230 && gv > 230 && bv > 230) {
+         return 3;
+      } else if (rv == gv && bv == gv) {
+         return rv >> 4 > 7 ? 2 : 1;
+      }
+      final Hsb hsb = novationHsb(rv, gv, bv);
+      final int hueInd = Math.min(13, hsb.hue > 6 ? hsb.hue - 1 : hsb.hue);
+      int color = 5 + hueInd * 4 + 1;
+      if (hsb.sat < 8) {
+         color -= 2;
+      } else if (hsb.bright <= 8) {
+         color += 2;
+      }
+      return (color - 2) % 4 == 0 ? color - 1 : color;
+   }
+
+   private static Hsb novationHsb(final float rv, final float gv, final float bv) {
+      final float max = Math.max(Math.max(rv, gv), bv);
+      final float min = Math.min(Math.min(rv, gv), bv);
+      final int bright = (int) max;
+      if (bright == 0) {
+         return BLACK_HSB;
+      }
+      final int sat = (int) (255 * (max - min) / bright);
+      if (sat == 0) {
+         return BLACK_HSB;
+      }
+      float hue;
+      if (max == rv) {
+         hue = 43 * (gv - bv) / (max - min);
+      } else if (max == gv) {
+         hue = 85 + 43 * (bv - rv) / (max - min);
+      } else {
+         hue = 171 + 43 * (rv - gv) / (max - min);
+      }
+      if (hue < 0) {
+         hue = 256 + hue;
+      }
+      return new Hsb((int) Math.floor(hue / 16.0 + 0.3), sat >> 4, bright >> 4);
+   }
+
+   // Maschine
+
+   private static final Map<Hsb, Integer> MASCHINE_HSB_TABLE = new Hashtable<>();
+
+   static {
+      registerMaschineHsb(new Hsb(1, 5, 15), 16, 3);
+      registerMaschineHsb(new Hsb(3, 8, 15), 3, 1);
+      registerMaschineHsb(new Hsb(3, 12, 15), 3, 1);
+      registerMaschineHsb(new Hsb(3, 12, 12), 3, 1);
+      registerMaschineHsb(new Hsb(5, 8, 11), 6, 1);
+      registerMaschineHsb(new Hsb(5, 5, 14), 6, 1);
+      registerMaschineHsb(new Hsb(5, 8, 13), 6, 1);
+      registerMaschineHsb(new Hsb(8, 10, 14), 8, 1);
+      registerMaschineHsb(new Hsb(8, 15, 13), 8, 1);
+      registerMaschineHsb(new Hsb(8, 15, 11), 8, 1);
+      registerMaschineHsb(new Hsb(8, 10, 12), 8, 1);
+      registerMaschineHsb(new Hsb(8, 15, 10), 8, 1);
+      registerMaschineHsb(new Hsb(8, 10, 15), 9, 1);
+      registerMaschineHsb(new Hsb(8, 15, 15), 9, 1);
+      registerMaschineHsb(new Hsb(8, 15, 12), 9, 1);
+      registerMaschineHsb(new Hsb(13, 2, 13), 15, -1);
+   }
+
+   private static void registerMaschineHsb(final Hsb hsb, final int base, final int offset) {
+      MASCHINE_HSB_TABLE.put(hsb, base * 4 + offset);
+   }
+
+   private int maschineColor(final float red, final float green, final float blue) {
+      final int rv = (int) Math.floor(red * 255);
+      final int gv = (int) Math.floor(green * 255);
+      final int bv = (int) Math.floor(blue * 255);
+      if (rv == 0 && gv == 0 && bv == 0) {
+         return 0;
+      }
+      final int lookupIndex = rv << 16 | gv << 8 | bv;
+      final Integer color = maschineCache.get(lookupIndex);
+      if (color != null) {
+         return color;
+      }
+      return maschineCache.computeIfAbsent(lookupIndex, key -> maschineRules(rv, gv, bv));
+   }
+
+   private static int maschineRules(final int rv, final int gv, final int bv) {
+      final float[] hsbValues = java.awt.Color.RGBtoHSB(rv, gv, bv, new float[3]);
+      final Hsb hsb = new Hsb(Math.round(hsbValues[0] * 15) + 1, Math.round(hsbValues[1] * 15),
+         Math.round(hsbValues[2] * 15));
+      final Integer fixed = MASCHINE_HSB_TABLE.get(hsb);
+      if (fixed != null) {
+         return fixed;
+      }
+      if (hsb.bright < 2 || hsb.sat < 5) {
+         return 68;
+      }
+      int off = 0;
+      if (hsb.hue >= 2 && hsb.hue <= 6) {
+         off = 1;
+      }
+      if (hsb.bright < 13 || hsb.sat < 13) {
+         off++;
+      }
+      return Math.min(hsb.hue + off, 16) << 2;
+   }
+}
@@ -0,0 +1,49 @@
+package com.bitwig.extensions.framework.di;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extensions.controllers.mcu.definitions.IconP1mExtensionDefinition;
+import com.bitwig.extensions.controllers.novation.launchpadmini3.LaunchPadMiniMk3ExtensionDefinition;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Startup of extensions built on the dependency injection context. The component graph is created in the init of
+ * the extension, so each operation boots the extension on a fresh offline host: component lookup, injection plans
+ * and construction of all components and layers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextBenchmark {
+   @Param({"mcu", "launchpadMiniMk3"})
+   private String extension;
+
+   @Benchmark
+   public ControllerExtension boot() {
+      return new OfflineHarness().boot(createDefinition());
+   }
+
+   private ControllerExtensionDefinition createDefinition() {
+      return switch (extension) {
+         case "mcu" -> new IconP1mExtensionDefinition();
+         case "launchpadMiniMk3" -> new LaunchPadMiniMk3ExtensionDefinition();
+         default -> throw new IllegalArgumentException(extension);
+      };
+   }
+}
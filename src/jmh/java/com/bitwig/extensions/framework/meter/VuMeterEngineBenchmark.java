@@ -0,0 +1,52 @@
+package com.bitwig.extensions.framework.meter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+import com.bitwig.extensions.framework.time.TimerWheel;
+
+/**
+ * Level updates from the host for the ten meters of a Mackie Control unit. The updates are only stored, the frames
+ * that send them are not run by the offline host.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VuMeterEngineBenchmark {
+   private static final int METERS = 10;
+
+   private VuMeterEngine meters;
+   private int level;
+
+   @Setup
+   public void setUp() {
+      meters = new VuMeterEngine(new TimerWheel(Benchmarks.host()), METERS);
+      meters.setMeterListener((meter, value) -> {
+      });
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(METERS)
+   public long setLevel() {
+      level = (level + 1) % 14;
+      for (int meter = 0; meter < METERS; meter++) {
+         meters.setLevel(meter, level);
+      }
+      return meters.getReceivedUpdates();
+   }
+}
@@ -0,0 +1,76 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.controllers.akai.apc64.PrintToClipSeq;
+
+/**
+ * Dispatching a print-to-clip dump of the APC64, a head message, 16 body messages of 8 notes each and a tail
+ * message, through the handlers the APC64 registers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysexDispatcherBenchmark {
+   private static final int BODY_MESSAGES = 16;
+   private static final int NOTES_PER_MESSAGE = 8;
+
+   private final SysexDispatcher dispatcher = new SysexDispatcher();
+   private String[] dump;
+   private PrintToClipSeq current;
+   private PrintToClipSeq completed;
+
+   @Setup
+   public void setUp() {
+      dispatcher.register("f0470053200002", message -> current = new PrintToClipSeq(
+         message.value14(message.getPrefixLength())));
+      dispatcher.register("f047005321", message -> {
+         current.addNoteData(message, message.getPrefixLength() + 1, message.length() - 2);
+         current.setHeadValue(message.value(message.getPrefixLength()));
+      });
+      dispatcher.register("f0470053220000f7", message -> completed = current);
+      dispatcher.register("f047005360", message -> {
+      });
+      dispatcher.register("f07e000602", message -> {
+      });
+
+      dump = new String[BODY_MESSAGES + 2];
+      dump[0] = "f04700532000020300f7";
+      for (int i = 0; i < BODY_MESSAGES; i++) {
+         final StringBuilder body = new StringBuilder("f047005321").append(hex(i));
+         for (int j = 0; j < NOTES_PER_MESSAGE; j++) {
+            final int start = (i * NOTES_PER_MESSAGE + j) * 12;
+            body.append(hex(0)).append(hex(start >> 7)).append(hex(start & 0x7F)).append(hex(36 + j))
+               .append(hex(100)).append(hex(start + 6 >> 7)).append(hex(start + 6 & 0x7F)).append(hex(0));
+         }
+         dump[i + 1] = body.append("00f7").toString();
+      }
+      dump[BODY_MESSAGES + 1] = "f0470053220000f7";
+   }
+
+   private static String hex(final int value) {
+      return "%02x".formatted(value & 0x7F);
+   }
+
+   @Benchmark
+   public PrintToClipSeq printToClipDump() {
+      for (final String message : dump) {
+         dispatcher.handleSysex(message);
+      }
+      return completed;
+   }
+}
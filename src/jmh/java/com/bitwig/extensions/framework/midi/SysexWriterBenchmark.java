@@ -0,0 +1,52 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building an LCD segment message of a Mackie Control display with the writer compared to building the hex string
+ * the host would have to parse again, which is how the displays sent text before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysexWriterBenchmark {
+   private static final byte[] HEADER = SysexWriter.fromHex("F0 00 00 66 14 12");
+   private static final String HEX_HEADER = "f0 00 00 66 14 12 ";
+   private static final String[] TEXTS = {"Kick", "Snare", "HiHat", "Bass", "Pad", "Lead", "FX", "Master"};
+
+   private final SysexWriter writer = new SysexWriter();
+   private int segment;
+
+   @Benchmark
+   public byte[] writer() {
+      segment = (segment + 1) % TEXTS.length;
+      return writer.begin(HEADER).data(segment * 7).ascii(TEXTS[segment], 7, ' ').end().toByteArray();
+   }
+
+   @Benchmark
+   public String hexString() {
+      segment = (segment + 1) % TEXTS.length;
+      final String text = TEXTS[segment];
+      final StringBuilder sb = new StringBuilder(HEX_HEADER);
+      sb.append(String.format("%02x ", segment * 7));
+      for (int i = 0; i < 7; i++) {
+         final char c = i < text.length() ? text.charAt(i) : ' ';
+         sb.append(String.format("%02x ", (int) c));
+      }
+      sb.append("f7");
+      return sb.toString();
+   }
+}
@@ -0,0 +1,49 @@
+package com.bitwig.extensions.framework.values;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.bitwig.extensions.benchmark.Benchmarks;
+
+/**
+ * Snapping of incoming pad notes to the selected scale, for all 128 notes in both directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PadScaleHandlerBenchmark {
+   private PadScaleHandler scaleHandler;
+
+   @Setup
+   public void setUp() {
+      scaleHandler = new PadScaleHandler(Benchmarks.host(),
+         List.of(Scale.CHROMATIC, Scale.MAJOR, Scale.MINOR, Scale.PENTATONIC, Scale.DORIAN), 16, false);
+      scaleHandler.incScaleSelection(1);
+      scaleHandler.incBaseNote(2);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(256)
+   public void matchScale(final Blackhole blackhole) {
+      for (int note = 0; note < 128; note++) {
+         blackhole.consume(scaleHandler.matchScale(note, 1));
+         blackhole.consume(scaleHandler.matchScale(note, -1));
+      }
+   }
+}
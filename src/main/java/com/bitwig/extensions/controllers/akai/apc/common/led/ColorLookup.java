@@ -1,12 +1,21 @@
 package com.bitwig.extensions.controllers.akai.apc.common.led;
 
+import com.bitwig.extensions.framework.color.BitwigPalette;
+import com.bitwig.extensions.framework.color.PaletteLookup;
+
 public class ColorLookup {
     private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
+    static final PaletteLookup LOOKUP = new PaletteLookup(PaletteLookup.BITS_15, ColorLookup::computeColor)
+        .exact(BitwigPalette.trackColors());
 
     public static int toColor(final float r, final float g, final float b) {
         final int rv = (int) Math.floor(r * 255);
         final int gv = (int) Math.floor(g * 255);
         final int bv = (int) Math.floor(b * 255);
+        return LOOKUP.lookup(rv, gv, bv);
+    }
+
+    private static int computeColor(final int rv, final int gv, final int bv) {
         if (rv < 10 && gv < 10 && bv < 10) {
             return 0; // black
         } else if (rv > 230 && gv > 230 && bv > 230) {
@@ -155,6 +155,8 @@ class APC40MKIIControllerExtension extends ControllerExtension
    {
       final ControllerHost host = getHost();
 
+      RGBLedState.prepareClosestColorLookup();
+
       mApplication = host.createApplication();
       mProject = host.getProject();
       mRootTrackGroup = mProject.getRootTrackGroup();
@@ -1499,7 +1501,7 @@ class APC40MKIIControllerExtension extends ControllerExtension
          blinkColorValue = RGBLedState.COLOR_NONE;
       }
 
-      return new RGBLedState(colorValue, blinkColorValue, blinkType);
+      return RGBLedState.of(colorValue, blinkColorValue, blinkType);
    }
 
    private RGBLedState computeRGBLedStateForScene(final int sceneButtonIndex)
@@ -1534,7 +1536,7 @@ class APC40MKIIControllerExtension extends ControllerExtension
          blinkColorValue = RGBLedState.COLOR_NONE;
       }
 
-      return new RGBLedState(colorValue, blinkColorValue, blinkType);
+      return RGBLedState.of(colorValue, blinkColorValue, blinkType);
    }
 
    private void flushKnobs()
@@ -1,12 +1,14 @@
 package com.bitwig.extensions.controllers.akai.apc40_mkii;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.LightStateCache;
+import com.bitwig.extensions.framework.color.BitwigPalette;
+import com.bitwig.extensions.framework.color.PaletteLookup;
 
 class RGBLedState extends InternalHardwareLightState
 {
@@ -45,7 +47,11 @@ class RGBLedState extends InternalHardwareLightState
 
    public static final int BLINK_STOP_QUEUED = 13;
 
-   public static final RGBLedState OFF_STATE = new RGBLedState(COLOR_NONE, COLOR_NONE, BLINK_NONE);
+   /** States by color, blink color and blink type, 7 bits each. Steady colors are looked up in an array. */
+   private static final LightStateCache<RGBLedState> STATES =
+      new LightStateCache<>(key -> new RGBLedState(key & 0x7F, key >> 7 & 0x7F, key >> 14), 128);
+
+   public static final RGBLedState OFF_STATE = of(COLOR_NONE, COLOR_NONE, BLINK_NONE);
 
    /**
     * Registers a color as defined in the APC 40 mkii MIDI protocol. The color value is the velocity to use
@@ -68,60 +74,37 @@ class RGBLedState extends InternalHardwareLightState
       return Color.fromRGB255(red, green, blue);
    }
 
-   private static double[] rgbToHsv(final Color color)
+   private static double hue(final double r, final double g, final double b)
    {
-      final double[] hsv = new double[3];
-
-      final double r = color.getRed();
-      final double g = color.getGreen();
-      final double b = color.getBlue();
-
       final double max = Math.max(r, Math.max(g, b));
-      final double min = Math.min(r, Math.min(g, b));
-      final double delta = max - min;
+      final double delta = max - Math.min(r, Math.min(g, b));
 
-      // Calculate hue
       if (delta == 0)
-      {
-         hsv[0] = 0;
-      }
-      else if (max == r)
-      {
-         hsv[0] = (60 * ((g - b) / delta) + 360) % 360;
-      }
-      else if (max == g)
-      {
-         hsv[0] = (60 * ((b - r) / delta) + 120) % 360;
-      }
-      else if (max == b)
-      {
-         hsv[0] = (60 * ((r - g) / delta) + 240) % 360;
-      }
-
-      // Calculate saturation
-      hsv[1] = (max == 0) ? 0 : (delta / max);
-
-      // Calculate value
-      hsv[2] = max;
-
-      return hsv;
+         return 0;
+      if (max == r)
+         return (60 * ((g - b) / delta) + 360) % 360;
+      if (max == g)
+         return (60 * ((b - r) / delta) + 120) % 360;
+      return (60 * ((r - g) / delta) + 240) % 360;
    }
 
-   private static double colorDistance(final Color color1, final Color color2)
+   private static double saturation(final double r, final double g, final double b)
    {
-      return 0.5 * colorDistanceRGB(color1, color2) + 0.5 * colorDistanceHSV(color1, color2);
+      final double max = Math.max(r, Math.max(g, b));
+      return (max == 0) ? 0 : ((max - Math.min(r, Math.min(g, b))) / max);
    }
 
-   private static double colorDistanceRGB(final Color color1, final Color color2)
+   private static double colorDistance(
+      final double r1, final double g1, final double b1,
+      final double r2, final double g2, final double b2)
    {
-      final double r1 = color1.getRed();
-      final double g1 = color1.getGreen();
-      final double b1 = color1.getBlue();
-
-      final double r2 = color2.getRed();
-      final double g2 = color2.getGreen();
-      final double b2 = color2.getBlue();
+      return 0.5 * colorDistanceRGB(r1, g1, b1, r2, g2, b2) + 0.5 * colorDistanceHSV(r1, g1, b1, r2, g2, b2);
+   }
 
+   private static double colorDistanceRGB(
+      final double r1, final double g1, final double b1,
+      final double r2, final double g2, final double b2)
+   {
       final double dr = r2 - r1;
       final double dg = g2 - g1;
       final double db = b2 - b1;
@@ -129,22 +112,19 @@ class RGBLedState extends InternalHardwareLightState
       return Math.sqrt(dr * dr + dg * dg + db * db);
    }
 
-   private static double colorDistanceHSV(final Color color1, final Color color2)
+   private static double colorDistanceHSV(
+      final double r1, final double g1, final double b1,
+      final double r2, final double g2, final double b2)
    {
-      final double[] hsv1 = rgbToHsv(color1);
-      final double[] hsv2 = rgbToHsv(color2);
+      final double hueDistance = Math.abs(hue(r1, g1, b1) - hue(r2, g2, b2));
 
-      final double dh = Math.min(Math.abs(hsv1[0] - hsv2[0]), 1 - Math.abs(hsv1[0] - hsv2[0]));
-      final double ds = Math.abs(hsv1[1] - hsv2[1]);
-      final double dv = Math.abs(hsv1[2] - hsv2[2]);
+      final double dh = Math.min(hueDistance, 1 - hueDistance);
+      final double ds = Math.abs(saturation(r1, g1, b1) - saturation(r2, g2, b2));
+      final double dv = Math.abs(Math.max(r1, Math.max(g1, b1)) - Math.max(r2, Math.max(g2, b2)));
 
       return Math.sqrt(dh * dh + ds * ds + dv * dv);
    }
 
-   private static record ColorToIndexCacheEntry(int rgb, int index)
-   {
-   }
-
    private static final int colorToRGBInt(final Color color)
    {
       return color.getRed255() << 16 | color.getGreen255() << 8 | color.getBlue255();
@@ -202,69 +182,36 @@ class RGBLedState extends InternalHardwareLightState
       registerHandpickedClosestColor(12351216, 49);
    }
 
-   private static final ArrayList<ColorToIndexCacheEntry> RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE = new ArrayList<>();
-
    public static int getClosestColorIndex(final Color color)
    {
       if (color == null || color.getAlpha() == 0)
          return 0;
 
-      final int rgb = colorToRGBInt(color);
-
-      final Integer handPickedColorIndex = HANDPICKED_RGBINT_TO_CLOSEST_COLOR_INDEX.get(rgb);
-
-      if (handPickedColorIndex != null)
-         return handPickedColorIndex;
-
-      final int MAX_CACHE_SIZE = 64;
-
-      synchronized (RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE)
-      {
-         final int cacheSize = RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE.size();
-
-         for (int i = 0; i < cacheSize; i++)
-         {
-            final var cacheEntry = RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE.get(i);
-
-            if (cacheEntry.rgb == rgb)
-               return cacheEntry.index;
-         }
-
-         final int colorIndex = computeClosestColorIndex(color);
-
-         if (cacheSize == MAX_CACHE_SIZE)
-            RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE.remove(MAX_CACHE_SIZE - 1);
-
-         RGB_TO_COMPUTED_CLOSEST_COLOR_INDEX_CACHE.add(0, new ColorToIndexCacheEntry(rgb, colorIndex));
-
-         return colorIndex;
-      }
+      return CLOSEST_COLOR_LOOKUP.lookup(colorToRGBInt(color));
    }
 
-   private static int computeClosestColorIndex(final Color color)
+   /**
+    * The closest color search is too slow to run on every update, so it is done once for every cell of a lookup
+    * table. The table is built by {@link #prepareClosestColorLookup()} during the initialization of the extension,
+    * after {@link #COLORS} has been registered.
+    */
+   private static PaletteLookup createClosestColorLookup()
    {
-      if (color == null || color.getAlpha() == 0)
-         return 0;
-
-      int closestIndex = 0;
-      double closestDistance = Double.MAX_VALUE;
-
+      final int[] palette = new int[COLORS.length];
       for (int i = 0; i < COLORS.length; i++)
-      {
-         final Color currentColor = COLORS[i];
-         final double distance = colorDistance(color, currentColor);
+         palette[i] = colorToRGBInt(COLORS[i]);
 
-         if (distance == 0)
-            return i;
-
-         if (distance < closestDistance)
-         {
-            closestIndex = i;
-            closestDistance = distance;
-         }
-      }
+      final PaletteLookup lookup = PaletteLookup.nearest(PaletteLookup.BITS_15, palette, RGBLedState::colorDistance);
+      HANDPICKED_RGBINT_TO_CLOSEST_COLOR_INDEX.forEach(lookup::override);
+      return lookup.exact(palette).exact(BitwigPalette.trackColors());
+   }
 
-      return closestIndex;
+   /**
+    * Builds the closest color table now, so the first flush doesn't have to wait for it.
+    */
+   static void prepareClosestColorLookup()
+   {
+      CLOSEST_COLOR_LOOKUP.prepare();
    }
 
    public static Color getColorForColorValue(final int colorValue)
@@ -281,10 +228,22 @@ class RGBLedState extends InternalHardwareLightState
    {
       final int colorIndex = getClosestColorIndex(color);
 
-      return new RGBLedState(colorIndex, COLOR_NONE, BLINK_NONE);
+      return of(colorIndex, COLOR_NONE, BLINK_NONE);
+   }
+
+   /**
+    * @return the shared state for the color, blink color and blink type
+    */
+   public static RGBLedState of(final int color, final int blinkColor, final int blinkType)
+   {
+      assert color >= 0 && color <= 127;
+      assert blinkColor >= 0 && blinkColor <= 127;
+      assert blinkType >= 0 && blinkType <= 127;
+
+      return STATES.get(blinkType << 14 | blinkColor << 7 | color);
    }
 
-   public RGBLedState(final int color, final int blinkColor, final int blinkType)
+   private RGBLedState(final int color, final int blinkColor, final int blinkType)
    {
       super();
       mColor = color;
@@ -486,4 +445,6 @@ class RGBLedState extends InternalHardwareLightState
       registerColor(0xB35F00, 126);
       registerColor(0x4B1502, 127);
    }
+
+   static final PaletteLookup CLOSEST_COLOR_LOOKUP = createClosestColorLookup();
 }
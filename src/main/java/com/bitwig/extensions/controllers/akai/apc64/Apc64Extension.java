@@ -21,9 +21,12 @@ import com.bitwig.extensions.controllers.akai.apc64.layer.TrackAndSceneLayer;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.midi.MidiTrafficRecorder;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.framework.values.FocusMode;
 
 import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
 
 public class Apc64Extension extends ControllerExtension {
     private static ControllerHost debugHost;
@@ -41,6 +44,7 @@ public class Apc64Extension extends ControllerExtension {
     private TrackAndSceneLayer sceneAndTrackLayer;
     private PadLayer padLayer;
     private ModifierStates modifierSection;
+    private MidiTrafficRecorder trafficRecorder;
 
     public static void println(final String format, final Object... args) {
         if (debugHost != null) {
@@ -203,13 +207,15 @@ public class Apc64Extension extends ControllerExtension {
 
     protected void initMidi(final Context diContext) {
         final ControllerHost host = diContext.getService(ControllerHost.class);
-        final MidiIn midiIn = host.getMidiInPort(0);
-        final MidiIn midiIn2 = host.getMidiInPort(1);
+        trafficRecorder = MidiTrafficRecorder.create(host, "apc64");
+        final MidiIn midiIn = trafficRecorder.record(0, host.getMidiInPort(0));
+        final MidiIn midiIn2 = trafficRecorder.record(1, host.getMidiInPort(1));
 //        midiIn2.setMidiCallback((msg, d1,d2)-> {
 //            Apc64Extension.println("IN2 = %02X %02X %02X",msg,d1,d2);
 //        });
-        final MidiOut midiOut = host.getMidiOutPort(0);
-        midiProcessor = new Apc64MidiProcessor(host, midiIn, midiOut, diContext.getService(ModifierStates.class));
+        final MidiOut midiOut = trafficRecorder.record(0, host.getMidiOutPort(0));
+        midiProcessor = new Apc64MidiProcessor(host, diContext.getService(TimerWheel.class), midiIn, midiOut,
+            diContext.getService(ModifierStates.class));
         diContext.registerService(MidiProcessor.class, midiProcessor);
         diContext.registerService(Apc64MidiProcessor.class, midiProcessor);
         final NoteInput noteInput = midiIn2.createNoteInput("MIDI", "8?????", "9?????", "A?????", "D?????", "B?????");
@@ -236,19 +242,25 @@ public class Apc64Extension extends ControllerExtension {
     }
 
     private void createClipFromPrint(final PrintToClipSeq printToClipSeq, final ClipLauncherSlot slot) {
+        final BooleanSupplier onTarget = focusClip.isFocusedOn(slot);
+        final BooleanSupplier retarget = focusClip.refocusOn(slot);
         slot.select();
         slot.showInEditor();
         slot.createEmptyClip(4);
-        getHost().scheduleTask(() -> printToClipSeq.applyToClip(viewControl.getCursorClip(), ptcCount++), 40);
+        getHost().scheduleTask(
+            () -> printToClipSeq.applyToClip(getHost(), viewControl.getCursorClip(), ptcCount++, onTarget, retarget),
+            40);
     }
 
     @Override
     public void flush() {
         surface.updateHardware();
+        trafficRecorder.markFlush();
     }
 
     @Override
     public void exit() {
         midiProcessor.exitSessionMode();
+        trafficRecorder.close();
     }
 }
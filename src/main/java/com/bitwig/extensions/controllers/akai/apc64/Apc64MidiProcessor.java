@@ -5,28 +5,31 @@ import com.bitwig.extension.controller.api.MidiIn;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extensions.controllers.akai.apc.common.MidiProcessor;
+import com.bitwig.extensions.framework.midi.SysexDispatcher;
+import com.bitwig.extensions.framework.midi.SysexMessage;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 import com.bitwig.extensions.framework.time.TimedEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.framework.values.BooleanValueObject;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 
 public class Apc64MidiProcessor implements MidiProcessor {
+    private static final String DEVICE_RESPONSE = "f07e000602475300190101000e";
     private static final String MODE_CHANGE_MSG = "f0470053190001";
     public static final String PRINT_TO_CLIP_HEAD = "f0470053200002";
     public static final String PRINT_TO_CLIP_TAIL = "f0470053220000f7";
     public static final String PRINT_TO_CLIP_BODY = "f047005321";
-    private static final String TEXT_PREFIX = "F0 47 00 53 10 00 ";
+    private static final byte[] TEXT_PREFIX = SysexWriter.fromHex("F0 47 00 53 10 00");
     protected final MidiIn midiIn;
     protected final MidiOut midiOut;
     protected final NoteInput noteInput;
-    protected final Queue<TimedEvent> timedEvents = new ConcurrentLinkedQueue<>();
     protected final ControllerHost host;
+    protected final TimerWheel timerWheel;
     protected List<Consumer<PadMode>> modeChangeListeners = new ArrayList<>();
     private final int[] noteState = new int[128];
     private final int[] noteValueState = new int[128];
@@ -38,12 +41,15 @@ public class Apc64MidiProcessor implements MidiProcessor {
     private boolean sessionModeState = false;
     private boolean initState = true;
     private PadMode currentMode = PadMode.SESSION;
+    private final SysexWriter textSysex = new SysexWriter();
+    private final SysexDispatcher sysexDispatcher = new SysexDispatcher();
 
-    public Apc64MidiProcessor(final ControllerHost host, final MidiIn midiIn, final MidiOut midiOut,
-                              final ModifierStates modifierStates) {
+    public Apc64MidiProcessor(final ControllerHost host, final TimerWheel timerWheel, final MidiIn midiIn,
+                              final MidiOut midiOut, final ModifierStates modifierStates) {
         this.host = host;
         this.midiIn = midiIn;
         this.midiOut = midiOut;
+        this.timerWheel = timerWheel;
         noteInput = midiIn.createNoteInput("MIDI", "86????", "96????", "A?????", "D?????");
         setupNoteInput();
         Arrays.fill(noteState, 0);
@@ -51,7 +57,13 @@ public class Apc64MidiProcessor implements MidiProcessor {
         this.shiftMode = modifierStates.getShiftActive();
         this.clearMode = modifierStates.getClearActive();
         midiIn.setMidiCallback(this::handleMidiIn);
-        midiIn.setSysexCallback(this::handleSysEx);
+        sysexDispatcher.register(DEVICE_RESPONSE, this::handleDeviceResponse);
+        sysexDispatcher.register(MODE_CHANGE_MSG,
+                message -> handleModeChange(message.value(message.getPrefixLength())));
+        sysexDispatcher.register(PRINT_TO_CLIP_HEAD, this::handlePrintToClipHead);
+        sysexDispatcher.register(PRINT_TO_CLIP_BODY, this::handlePrintToClipBody);
+        sysexDispatcher.register(PRINT_TO_CLIP_TAIL, this::handlePrintToClipTail);
+        midiIn.setSysexCallback(sysexDispatcher::handleSysex);
     }
 
     private void setupNoteInput() {
@@ -94,7 +106,6 @@ public class Apc64MidiProcessor implements MidiProcessor {
         midiOut.sendSysex("F0 47 00 53 1B 00 01 00 F7");
         midiOut.sendSysex("F0 47 00 53 19 00 01 00 F7");
         midiOut.sendSysex("F0 7E 7F 06 01 F7");
-        host.scheduleTask(this::handlePing, 50);
     }
 
     public NoteInput getNoteInput() {
@@ -140,20 +151,8 @@ public class Apc64MidiProcessor implements MidiProcessor {
         midiOut.sendSysex("F0 47 00 53 1C 00 01 %02X F7".formatted(active ? 1 : 0));
     }
 
-    private void handlePing() {
-        if (!timedEvents.isEmpty()) {
-            for (final TimedEvent event : timedEvents) {
-                event.process();
-                if (event.isCompleted()) {
-                    timedEvents.remove(event);
-                }
-            }
-        }
-        host.scheduleTask(this::handlePing, 50);
-    }
-
     public void queueEvent(final TimedEvent event) {
-        timedEvents.add(event);
+        timerWheel.queueEvent(event);
     }
 
     public MidiIn getMidiIn() {
@@ -192,32 +191,25 @@ public class Apc64MidiProcessor implements MidiProcessor {
     // Confirmation F0 7E 00 06 02 47 53 00 19 01 01 00 0E 00 00 00 00 00 41 34 32 33 30 37 32 35 37 34 30 32 37 31
     // 31 00 F7
 
-    protected void handleSysEx(final String sysExString) {
-        //Apc64Extension.println("SysEx = %s", sysExString);
-        if (sysExString.startsWith("f07e000602475300190101000e")) {
-            Apc64Extension.println("#### Connect to APC #### ");
-            initState = false;
-            enterSessionMode();
-        } else if (sysExString.startsWith(MODE_CHANGE_MSG)) {
-            final int mode = Integer.parseInt(
-                    sysExString.substring(MODE_CHANGE_MSG.length(), MODE_CHANGE_MSG.length() + 2), 16);
-            handleModeChange(mode);
-        } else if (sysExString.startsWith(PRINT_TO_CLIP_HEAD)) {
-            final String value = sysExString.substring(PRINT_TO_CLIP_HEAD.length(), sysExString.length() - 2);
-            final int length = fromHexValue(value);
-            currentPrintToClip = new PrintToClipSeq(length);
-        } else if (sysExString.startsWith(PRINT_TO_CLIP_BODY)) {
-            final String data = sysExString.substring(PRINT_TO_CLIP_BODY.length() + 2, sysExString.length() - 4);
-            final int headValue = fromHexValue(
-                    sysExString.substring(PRINT_TO_CLIP_BODY.length(), PRINT_TO_CLIP_BODY.length() + 2));
-            currentPrintToClip.addNoteData(data);
-            currentPrintToClip.setHeadValue(headValue);
-        } else if (sysExString.startsWith(PRINT_TO_CLIP_TAIL)) {
-            if (printToClipSeqConsumer != null) {
-                printToClipSeqConsumer.accept(currentPrintToClip);
-            }
-        } else {
-            //Apc64Extension.println("Unknown SysEx = %s", sysExString);
+    private void handleDeviceResponse(final SysexMessage message) {
+        Apc64Extension.println("#### Connect to APC #### ");
+        initState = false;
+        enterSessionMode();
+    }
+
+    private void handlePrintToClipHead(final SysexMessage message) {
+        currentPrintToClip = new PrintToClipSeq(readValue(message, message.getPrefixLength(), message.length() - 1));
+    }
+
+    private void handlePrintToClipBody(final SysexMessage message) {
+        final int dataStart = message.getPrefixLength() + 1;
+        currentPrintToClip.addNoteData(message, dataStart, message.length() - 2);
+        currentPrintToClip.setHeadValue(message.value(message.getPrefixLength()));
+    }
+
+    private void handlePrintToClipTail(final SysexMessage message) {
+        if (printToClipSeqConsumer != null) {
+            printToClipSeqConsumer.accept(currentPrintToClip);
         }
     }
 
@@ -237,35 +229,21 @@ public class Apc64MidiProcessor implements MidiProcessor {
         modeChangeListeners.forEach(listener -> listener.accept(currentMode));
     }
 
-    private int fromHexValue(final String hex) {
-        if (hex.length() == 4) {
-            final int v1 = Integer.parseInt(hex.substring(0, 2), 16);
-            final int v2 = Integer.parseInt(hex.substring(2, 4), 16);
-            return (v1 << 7) | v2;
+    private static int readValue(final SysexMessage message, final int from, final int to) {
+        if (to - from == 2) {
+            return message.value14(from);
         }
-        if (hex.length() < 3) {
-            return Integer.parseInt(hex, 16);
+        if (to - from == 1) {
+            return message.value(from);
         }
         return 0;
     }
 
     public void sendText(final int row, final String text) {
-        final StringBuilder sb = new StringBuilder(TEXT_PREFIX);
         final int len = Math.min(14, Math.max(3, text.length()));
-        sb.append("%02X ".formatted(len + 2));
-        sb.append("%02X ".formatted(row));
-        final String asciiText = StringUtil.toAsciiDisplay(text, len);
-        for (int i = 0; i < len; i++) {
-            if (i < asciiText.length()) {
-                sb.append("%02X ".formatted((int) asciiText.charAt(i)));
-            } else {
-                sb.append("20 ");
-            }
-        }
-        sb.append("00 ");
-        sb.append("F7");
+        textSysex.begin(TEXT_PREFIX).data(len + 2).data(row).ascii(text, len, ' ').raw(0x00).end();
         //Apc64Extension.println(" SEND TEXT %d => %s", row, text);
-        midiOut.sendSysex(sb.toString());
+        textSysex.send(midiOut);
     }
 
 
@@ -8,6 +8,7 @@ import com.bitwig.extensions.framework.di.Inject;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 @Component
@@ -41,6 +42,7 @@ public class FocusClip {
         this.project = project;
         this.host = host;
         this.overviewGrid = viewControl.getOverviewGrid();
+        this.cursorTrack.position().markInterested();
         slotBank = cursorTrack.clipLauncherSlotBank();
         for (int i = 0; i < slotBank.getSizeOfBank(); i++) {
             final ClipLauncherSlot slot = slotBank.getItemAt(i);
@@ -143,6 +145,30 @@ public class FocusClip {
                 50);
     }
 
+    /**
+     * @return tells if the slot is still the selected slot of the track the cursor is on now, so that the cursor clip
+     * is the clip of the slot
+     */
+    public BooleanSupplier isFocusedOn(final ClipLauncherSlot slot) {
+        final int trackPosition = cursorTrack.position().get();
+        return () -> slot == focusSlot && cursorTrack.position().get() == trackPosition;
+    }
+
+    /**
+     * @return selects the slot again if the cursor is still on its track and tells if it did. The slots of the bank
+     * follow the cursor track, so on another track the slot would select a clip of that track.
+     */
+    public BooleanSupplier refocusOn(final ClipLauncherSlot slot) {
+        final int trackPosition = cursorTrack.position().get();
+        return () -> {
+            if (cursorTrack.position().get() != trackPosition) {
+                return false;
+            }
+            slot.select();
+            return true;
+        };
+    }
+
     private boolean focusSlotIsEmpty() {
         return focusSlot != null && !focusSlot.hasContent().get() && focusSlot.exists().get();
     }
@@ -1,35 +1,46 @@
 package com.bitwig.extensions.controllers.akai.apc64;
 
 import com.bitwig.extension.controller.api.Clip;
-
-import java.util.ArrayList;
-import java.util.List;
-
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extensions.framework.midi.SysexMessage;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A sequence the APC64 prints to a clip. The body messages are decoded as they arrive, every note is packed into a
+ * long and the step resolution that fits all start positions is kept up to date, so nothing is left to compute when
+ * the print is complete. The notes are then written to the clip ordered by position, in batches spread over tasks,
+ * which keeps long sequences from stalling the controller thread. The cursor clip may move to another slot between
+ * two tasks, so every batch first checks that it is still on the slot printed to.
+ */
 public class PrintToClipSeq {
     public static final double PPQ_RESOLUTION = 96.0;
-    private static int[] STEP_DIVISOR = {96, 64, 48, 32, 24, 16, 12, 8};
+    /**
+     * Number of notes written to the clip per task.
+     */
+    public static final int BATCH_SIZE = 64;
+    /**
+     * Number of times the slot printed to is selected again when the cursor clip left it, before giving up.
+     */
+    private static final int MAX_RETARGETS = 3;
+    private static final int RETARGET_DELAY = 40;
+    private static final int NOTE_DATA_SIZE = 8;
+    private static final int[] STEP_DIVISOR = {96, 64, 48, 32, 24, 16, 12, 8};
     private static final double[] RESOLUTIONS = {1.0, 0.666666, 0.5, 0.33333, 0.25, 0.1666666, 0.125, 0.0833333};
 
-    private List<StepNote> notes = new ArrayList<>();
-    private int length;
+    // start (14 bits) | note (7 bits) | end (14 bits) | velocity (7 bits), so sorting orders by position and pitch
+    private long[] notes = new long[128];
+    private int noteCount;
+    private int resolutionIndex;
+    private final int length;
     private int headValue;
 
-    public record StepNote(int start, int end, int note, int vel, int block, int tail) {
-        public StepNote(String sysEx) {
-            this(fromHexValueMask(sysEx, 1), fromHexValueMask(sysEx, 5), fromHexValue(sysEx, 3), fromHexValue(sysEx, 4),
-                    fromHexValue(sysEx, 0), fromHexValue(sysEx, 7));
-        }
-    }
-
-    public PrintToClipSeq(int length) {
+    public PrintToClipSeq(final int length) {
         this.length = length;
     }
 
-    public void setNotes(List<StepNote> notes) {
-        this.notes = notes;
-    }
-
-    public void setHeadValue(int headValue) {
+    public void setHeadValue(final int headValue) {
         this.headValue = headValue;
     }
 
@@ -45,31 +56,38 @@ public class PrintToClipSeq {
         return (double) length / PPQ_RESOLUTION;
     }
 
-    private static int fromHexValue(String overall, int offset) {
-        return Integer.parseInt(overall.substring(offset * 2, offset * 2 + 2), 16);
+    public boolean hasNotes() {
+        return noteCount > 0;
     }
 
-    public boolean hasNotes() {
-        return !notes.isEmpty();
+    public int getNoteCount() {
+        return noteCount;
     }
 
-    private static int fromHexValueMask(String overall, int offset) {
-        String hex = overall.substring(offset * 2, offset * 2 + 4);
-        int v1 = Integer.parseInt(hex.substring(0, 2), 16);
-        int v2 = Integer.parseInt(hex.substring(2, 4), 16);
-        return ((v1 & 0x3F) << 7) | v2;
+    private static int valueMasked(final SysexMessage message, final int offset) {
+        return ((message.value(offset) & 0x3F) << 7) | message.value(offset + 1);
     }
 
-    public void addNoteData(String data) {
-        int nrOfNotes = data.length() / 16;
+    /**
+     * Decodes the notes of a body message, 8 bytes each: block, start (2 bytes), note, velocity, end (2 bytes) and
+     * tail.
+     */
+    public void addNoteData(final SysexMessage message, final int from, final int to) {
+        final int nrOfNotes = (to - from) / NOTE_DATA_SIZE;
+        if (noteCount + nrOfNotes > notes.length) {
+            notes = Arrays.copyOf(notes, Math.max(noteCount + nrOfNotes, notes.length * 2));
+        }
         for (int i = 0; i < nrOfNotes; i++) {
-            int offset = i * 16;
-            String noteData = data.substring(offset, offset + 16);
-            notes.add(new StepNote(noteData));
+            final int offset = from + i * NOTE_DATA_SIZE;
+            final int start = valueMasked(message, offset + 1);
+            final int end = valueMasked(message, offset + 5);
+            notes[noteCount++] = (long) start << 28 | (long) message.value(offset + 3) << 21 | (long) end << 7
+                | message.value(offset + 4);
+            resolutionIndex = Math.max(resolutionIndex, getFittingIndex(start));
         }
     }
 
-    public int getFittingIndex(int position) {
+    public int getFittingIndex(final int position) {
         for (int i = 0; i < STEP_DIVISOR.length; i++) {
             if (position % STEP_DIVISOR[i] == 0) {
                 return i;
@@ -78,26 +96,51 @@ public class PrintToClipSeq {
         return -1;
     }
 
-    private int calculateResolutionIndex() {
-        int res = 0;
-        for (StepNote note : notes) {
-            res = Math.max(res, getFittingIndex(note.start));
-        }
-        return res;
+    /**
+     * Writes the sequence to a clip. The first batch of notes is written immediately, the others in tasks
+     * scheduled one after the other. The clip is only written to while the cursor clip is on the slot printed to,
+     * otherwise the slot is selected again and the batch retried a little later. If the slot can't be selected again,
+     * the print stops.
+     *
+     * @param clip     the cursor clip
+     * @param onTarget tells if the cursor clip is still on the slot printed to
+     * @param retarget selects the slot printed to again, false if that isn't possible anymore
+     */
+    public void applyToClip(final ControllerHost host, final Clip clip, final int count, final BooleanSupplier onTarget,
+        final BooleanSupplier retarget) {
+        Arrays.sort(notes, 0, noteCount);
+        applyBatch(host, clip, count, 0, onTarget, retarget, 0);
     }
 
-    public void applyToClip(final Clip clip, int count) {
-        double clipLen = getClipLen();
-        clip.getPlayStop().set(clipLen);
-        clip.getLoopLength().set(clipLen);
-        clip.setName(String.format("SEQ APC %d".formatted(count)));
-        final int resIndex = calculateResolutionIndex();
-        clip.setStepSize(RESOLUTIONS[resIndex]);
-        for (StepNote note : notes) {
-            int x = note.start / STEP_DIVISOR[resIndex];
-            int y = note.note;
-            double len = (note.end - note.start) / PPQ_RESOLUTION;
-            clip.setStep(x, y, note.vel, len);
+    private void applyBatch(final ControllerHost host, final Clip clip, final int count, final int from,
+        final BooleanSupplier onTarget, final BooleanSupplier retarget, final int retargets) {
+        if (!onTarget.getAsBoolean()) {
+            if (retargets == MAX_RETARGETS || !retarget.getAsBoolean()) {
+                host.showPopupNotification("Print to clip incomplete, the clip was deselected");
+                return;
+            }
+            host.scheduleTask(() -> applyBatch(host, clip, count, from, onTarget, retarget, retargets + 1),
+                RETARGET_DELAY);
+            return;
+        }
+        if (from == 0) {
+            final double clipLen = getClipLen();
+            clip.getPlayStop().set(clipLen);
+            clip.getLoopLength().set(clipLen);
+            clip.setName("SEQ APC %d".formatted(count));
+            clip.setStepSize(RESOLUTIONS[resolutionIndex]);
+        }
+        final int to = Math.min(noteCount, from + BATCH_SIZE);
+        final int divisor = STEP_DIVISOR[resolutionIndex];
+        for (int i = from; i < to; i++) {
+            final long note = notes[i];
+            final int start = (int) (note >>> 28) & 0x3FFF;
+            final int end = (int) (note >>> 7) & 0x3FFF;
+            clip.setStep(start / divisor, (int) (note >>> 21) & 0x7F, (int) note & 0x7F,
+                (end - start) / PPQ_RESOLUTION);
+        }
+        if (to < noteCount) {
+            host.scheduleTask(() -> applyBatch(host, clip, count, to, onTarget, retarget, 0), 0);
         }
     }
 }
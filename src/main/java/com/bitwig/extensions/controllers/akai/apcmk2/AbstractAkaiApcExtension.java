@@ -14,6 +14,7 @@ import com.bitwig.extensions.controllers.akai.apc.common.led.SingleLedState;
 import com.bitwig.extensions.controllers.akai.apc.common.MidiProcessor;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public abstract class AbstractAkaiApcExtension extends ControllerExtension {
    protected Layer mainLayer;
@@ -65,7 +66,7 @@ public abstract class AbstractAkaiApcExtension extends ControllerExtension {
       diContext.activate();
    }
 
-   protected abstract MidiProcessor createMidiProcessor(MidiIn midiIn, MidiOut midiOut);
+   protected abstract MidiProcessor createMidiProcessor(TimerWheel timerWheel, MidiIn midiIn, MidiOut midiOut);
 
    protected abstract void init(Context diContext);
 
@@ -75,7 +76,7 @@ public abstract class AbstractAkaiApcExtension extends ControllerExtension {
       final MidiIn midiIn2 = host.getMidiInPort(1);
 
       MidiOut midiOut = host.getMidiOutPort(0);
-      final MidiProcessor midiProcessor = createMidiProcessor(midiIn, midiOut);
+      final MidiProcessor midiProcessor = createMidiProcessor(diContext.getService(TimerWheel.class), midiIn, midiOut);
       diContext.registerService(MidiProcessor.class, midiProcessor);
       final NoteInput noteInput = midiIn2.createNoteInput("MIDI", "8?????", "9?????", "A?????", "D?????", "B?????");
       noteInput.setShouldConsumeEvents(true);
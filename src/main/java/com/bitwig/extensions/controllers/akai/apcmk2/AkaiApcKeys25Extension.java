@@ -10,6 +10,7 @@ import com.bitwig.extensions.controllers.akai.apc.common.led.SingleLedState;
 import com.bitwig.extensions.controllers.akai.apc.common.MidiProcessor;
 import com.bitwig.extensions.controllers.akai.apcmk2.midi.MidiProcessorDirect;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.framework.values.FocusMode;
 
 public class AkaiApcKeys25Extension extends AbstractAkaiApcExtension {
@@ -21,8 +22,8 @@ public class AkaiApcKeys25Extension extends AbstractAkaiApcExtension {
    }
 
    @Override
-   protected MidiProcessor createMidiProcessor(MidiIn midiIn, MidiOut midiOut) {
-      return new MidiProcessorDirect(getHost(), midiIn, midiOut);
+   protected MidiProcessor createMidiProcessor(TimerWheel timerWheel, MidiIn midiIn, MidiOut midiOut) {
+      return new MidiProcessorDirect(getHost(), timerWheel, midiIn, midiOut);
    }
 
    @Override
@@ -9,6 +9,7 @@ import com.bitwig.extensions.controllers.akai.apcmk2.layer.SessionLayer;
 import com.bitwig.extensions.controllers.akai.apcmk2.layer.SliderLayer;
 import com.bitwig.extensions.controllers.akai.apcmk2.midi.MidiProcessorBuffered;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public class AkaiApcMiniExtension extends AbstractAkaiApcExtension {
 
@@ -19,8 +20,8 @@ public class AkaiApcMiniExtension extends AbstractAkaiApcExtension {
     }
 
     @Override
-    protected MidiProcessor createMidiProcessor(MidiIn midiIn, MidiOut midiOut) {
-        return new MidiProcessorBuffered(getHost(), midiIn, midiOut);
+    protected MidiProcessor createMidiProcessor(TimerWheel timerWheel, MidiIn midiIn, MidiOut midiOut) {
+        return new MidiProcessorBuffered(getHost(), timerWheel, midiIn, midiOut);
     }
 
     @Override
@@ -4,37 +4,20 @@ import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.MidiIn;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.akai.apcmk2.AbstractAkaiApcExtension;
-import com.bitwig.extensions.framework.time.TimedEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public class MidiProcessorDirect extends AbstractMidiProcessor {
 
-    public MidiProcessorDirect(final ControllerHost host, final MidiIn midiIn, final MidiOut midiOut) {
-        super(host, midiIn, midiOut);
+    public MidiProcessorDirect(final ControllerHost host, final TimerWheel timerWheel, final MidiIn midiIn,
+                               final MidiOut midiOut) {
+        super(host, timerWheel, midiIn, midiOut);
+        sysexDispatcher.register(KEYS_DEVICE_RESPONSE, message -> AbstractAkaiApcExtension.println(" Response KEYS"));
     }
 
     public void start() {
         midiOut.sendSysex(DEVICE_INQUIRY);
-        host.scheduleTask(this::handlePing, 50);
     }
 
-    private void handlePing() {
-        if (!timedEvents.isEmpty()) {
-            for (final TimedEvent event : timedEvents) {
-                event.process();
-                if (event.isCompleted()) {
-                    timedEvents.remove(event);
-                }
-            }
-        }
-        host.scheduleTask(this::handlePing, 50);
-    }
-
-
-    protected void handleSysEx(final String sysExString) {
-        if (sysExString.startsWith(KEYS_DEVICE_RESPONSE)) {
-            AbstractAkaiApcExtension.println(" Response KEYS");
-        }
-    }
 
     public void sendMidi(final int status, final int val1, final int val2) {
         midiOut.sendMidi(status, val1, val2);
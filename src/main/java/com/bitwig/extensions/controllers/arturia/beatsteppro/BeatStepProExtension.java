@@ -6,6 +6,8 @@ import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.*;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.midi.PacedMidiSender;
+import com.bitwig.extensions.framework.midi.PacedMidiSender.Priority;
 import com.bitwig.extensions.framework.values.Midi;
 
 import java.util.ArrayList;
@@ -21,6 +23,7 @@ public class BeatStepProExtension extends ControllerExtension {
 
     private MidiIn midiIn;
     private MidiOut midiOut;
+    private PacedMidiSender configSender;
     private MidiIn mcuMidiIn;
     private MidiOut mcuMidiOut;
 
@@ -50,6 +53,8 @@ public class BeatStepProExtension extends ControllerExtension {
         midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi0(msg));
         midiIn.setSysexCallback(this::onSysEx);
         midiOut = host.getMidiOutPort(0);
+        // the device takes a few parameter changes at once, then needs a short break
+        configSender = new PacedMidiSender(host, midiOut, 6, 2);
         mcuMidiIn = host.getMidiInPort(1);
         mcuMidiOut = host.getMidiOutPort(1);
         mcuMidiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi1(msg));
@@ -127,55 +132,50 @@ public class BeatStepProExtension extends ControllerExtension {
     private void initCcModeMapping() {
         for (int i = 0; i < 16; i++) {
             configureCCEncoder(i, 0, 10 + i);
-            wait(2);
             configureStepButtons(i, 0, STEP_BUTTON_CC_BASE + i);
-            wait(2);
             configurePadButtons(i, 12, 36 + i);
-            wait(2);
         }
+        configSender.then(Priority.CONFIG, () -> host.println(" ... Bitwig Mapping sent to Beat Step Pro"));
     }
 
-    private static void wait(int timeInMs) {
-        try {
-            Thread.sleep(timeInMs);
-        }
-        catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    private void sendParameter(final int parameterId, final int itemId, final int value) {
+        // sending the mapping again while it is still queued replaces the pending values
+        configSender.sendSysex(Priority.CONFIG, parameterId << 8 | itemId,
+            String.format(SYSEX_PARAM_CHANGE, parameterId, itemId, value));
     }
-    
+
     private void configureCCEncoder(final int encoderIndex, final int channel, final int ccNr) {
         final int itemId = 0x20 + encoderIndex;
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 1, itemId, 1)); // Type CC
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 2, itemId, channel)); // Channel No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 3, itemId, ccNr)); // CC No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 6, itemId, 1)); // Mode Rel #1
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 7, itemId, 3)); // Acceleration
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 8, itemId, 1)); // just USB
+        sendParameter(1, itemId, 1); // Type CC
+        sendParameter(2, itemId, channel); // Channel No
+        sendParameter(3, itemId, ccNr); // CC No
+        sendParameter(6, itemId, 1); // Mode Rel #1
+        sendParameter(7, itemId, 3); // Acceleration
+        sendParameter(8, itemId, 1); // just USB
     }
 
     private void configureStepButtons(final int buttonIndex, final int channel, final int ccNr) {
         final int itemId = 0x30 + buttonIndex;
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 1, itemId, 8)); // Type CC for pad
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 2, itemId, channel)); // Channel No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 3, itemId, ccNr)); // CC No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 4, itemId, 0)); // Min Value
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 5, itemId, 127)); // Max Value
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 6, itemId, 1)); // Gate
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 8, itemId, 1)); // just USB
-        //midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 0x10, itemId, 127)); // Color
+        sendParameter(1, itemId, 8); // Type CC for pad
+        sendParameter(2, itemId, channel); // Channel No
+        sendParameter(3, itemId, ccNr); // CC No
+        sendParameter(4, itemId, 0); // Min Value
+        sendParameter(5, itemId, 127); // Max Value
+        sendParameter(6, itemId, 1); // Gate
+        sendParameter(8, itemId, 1); // just USB
+        //sendParameter(0x10, itemId, 127); // Color
     }
 
     private void configurePadButtons(final int buttonIndex, final int channel, final int noteNr) {
         final int itemId = 0x70 + buttonIndex;
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 1, itemId, 9)); // Type CC for pad
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 2, itemId, channel)); // Channel No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 3, itemId, noteNr)); // CC No
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 4, itemId, 0)); // Min Value
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 5, itemId, 127)); // Max Value
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 6, itemId, 1)); // Gate
-        midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 8, itemId, 1)); // just USB
-        //midiOut.sendSysex(String.format(SYSEX_PARAM_CHANGE, 0x10, itemId, 127)); // Color
+        sendParameter(1, itemId, 9); // Type CC for pad
+        sendParameter(2, itemId, channel); // Channel No
+        sendParameter(3, itemId, noteNr); // CC No
+        sendParameter(4, itemId, 0); // Min Value
+        sendParameter(5, itemId, 127); // Max Value
+        sendParameter(6, itemId, 1); // Gate
+        sendParameter(8, itemId, 1); // just USB
+        //sendParameter(0x10, itemId, 127); // Color
     }
 
     private RelativeHardwareKnob createAcceleratedEncoder(final String name, final int channel, final int ccNr) {
@@ -5,16 +5,15 @@ import com.bitwig.extension.callback.ShortMidiMessageReceivedCallback;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PinnableCursorDevice;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 import com.bitwig.extensions.framework.values.Midi;
 
-import java.util.Arrays;
-
 public class PadLayer extends Layer {
     public static final int PAD_CHANNEL = 0xC;
     public final static String[] NOTES = {" C", "C#", " D", "D#", " E", " F", "F#", " G", "G#", " A", "A#", " B"};
     private final BeatStepProExtension driver;
     private final NoteInput noteInput;
-    private final Integer[] noteTable = new Integer[128];
+    private final KeyTranslationTable keyTranslation;
     private final int[] hangingNotes = new int[16];
     private Scale basicScale = Scale.MINOR;
     private Scale currentScale = Scale.CHROMATIC;
@@ -31,8 +30,8 @@ public class PadLayer extends Layer {
 
         noteInput = driver.getMidiIn().createNoteInput("MIDI_PAD", "8C????", "9C????", "AC????");
         noteInput.setShouldConsumeEvents(false);
-
-        Arrays.fill(noteTable, -1);
+        keyTranslation = KeyTranslationTable.of(noteInput);
+        keyTranslation.setScrollSteps(12);
     }
 
     private void handleHasDrumsChanged(final boolean hasDrums) {
@@ -89,16 +88,19 @@ public class PadLayer extends Layer {
     }
     
     private void applyNotes() {
-        Arrays.fill(noteTable, -1);
-        final int base = currentScale.isDrum() ? 36 : baseNote + octave * 12;
+        final Scale scale = currentScale;
+        final int base = scale.isDrum() ? 36 : baseNote + octave * 12;
+        keyTranslation.apply(scale, base, (table, offset) -> fillNotes(table, scale, offset));
+    }
+
+    private static void fillNotes(final int[] table, final Scale scale, final int base) {
         for (int i = 0; i < 16; i++) {
-            final int offset = currentScale.getOffset(i);
+            final int offset = scale.getOffset(i);
             if (offset != -1) {
                 final int value = base + offset;
-                noteTable[36 + i] = value < 128 ? value : -1;
+                table[36 + i] = value < 128 ? value : -1;
             }
         }
-        noteInput.setKeyTranslationTable(noteTable);
     }
 
     public String getCurrentScale() {
@@ -153,8 +155,7 @@ public class PadLayer extends Layer {
     }
 
     private void resetNotes() {
-        Arrays.fill(noteTable, -1);
-        noteInput.setKeyTranslationTable(noteTable);
+        keyTranslation.clear();
     }
 
     @Override
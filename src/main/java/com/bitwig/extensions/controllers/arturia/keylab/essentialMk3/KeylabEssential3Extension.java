@@ -295,7 +295,7 @@ public class KeylabEssential3Extension extends ControllerExtension {
    public void exit() {
       final CompletableFuture<Boolean> shutdown = new CompletableFuture<>();
       Executors.newSingleThreadExecutor().execute(() -> {
-         sysExHandler.disconnectState();
+         sysExHandler.shutdown();
          try {
             Thread.sleep(100);
          } catch (final InterruptedException e) {
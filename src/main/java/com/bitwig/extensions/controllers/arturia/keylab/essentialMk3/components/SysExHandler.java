@@ -9,6 +9,8 @@ import com.bitwig.extensions.controllers.arturia.keylab.essentialMk3.RgbButton;
 import com.bitwig.extensions.framework.di.Activate;
 import com.bitwig.extensions.framework.di.Component;
 import com.bitwig.extensions.framework.di.Inject;
+import com.bitwig.extensions.framework.midi.PacedMidiSender;
+import com.bitwig.extensions.framework.midi.PacedMidiSender.Priority;
 import com.bitwig.extensions.framework.time.TimedDelayEvent;
 import com.bitwig.extensions.framework.time.TimedEvent;
 
@@ -50,6 +52,7 @@ public class SysExHandler {
    @Inject
    private ControllerHost host;
    private final MidiIn midiIn;
+   private PacedMidiSender configSender;
 
    private final List<RgbButton> buttons = new ArrayList<>();
    private final List<Consumer<SysexEventType>> sysExEventListener = new ArrayList<>();
@@ -70,6 +73,9 @@ public class SysExHandler {
 
    @Activate
    public void activate() {
+      if (configSender == null) {
+         configSender = new PacedMidiSender(host, midiOut);
+      }
       host.scheduleTask(this::processMidi, 0);
       midiProcessingRunning = true;
    }
@@ -103,8 +109,8 @@ public class SysExHandler {
             KeylabEssential3Extension.println(" Not Connected after %d ms", diff);
             disconnectState();
             midiProcessingRunning = false;
-            pause(100);
-            deviceInquiry();
+            configSender.delay(Priority.CONFIG, 100);
+            configSender.then(Priority.CONFIG, this::deviceInquiry);
             return;
          }
       }
@@ -135,12 +141,15 @@ public class SysExHandler {
          KeylabEssential3Extension.println("Device Inquiry Response = %s after %d ms MIDI Processing=%s", value, diff,
             midiProcessingRunning);
          requestInitState();
-         pause(30);
-         notify(SysexEventType.INIT);
-         if (!midiProcessingRunning) {
-            KeylabEssential3Extension.println(" REACTIVATING ");
-            activate();
-         }
+         // give the device time to switch to DAW mode before the layers send their state
+         configSender.delay(Priority.CONFIG, 30);
+         configSender.then(Priority.CONFIG, () -> {
+            notify(SysexEventType.INIT);
+            if (!midiProcessingRunning) {
+               KeylabEssential3Extension.println(" REACTIVATING ");
+               activate();
+            }
+         });
       } else if (sysEx.startsWith(MODE_CHANGE_HEADER)) {
          final String mode = extractSysexRest(sysEx, MODE_CHANGE_HEADER);
          KeylabEssential3Extension.println(" MODE = %s", mode);
@@ -188,15 +197,23 @@ public class SysExHandler {
    }
 
    public void requestInitState() {
-      midiOut.sendSysex("f0 00 20 6B 7f 42 02 0F 40 5A 01 F7");
+      configSender.sendSysex(Priority.CONFIG, null, "f0 00 20 6B 7f 42 02 0F 40 5A 01 F7");
       processingReady = true;
    }
 
    public void disconnectState() {
       KeylabEssential3Extension.println(" Disconnect ");
-      midiOut.sendSysex("f0 00 20 6B 7f 42 02 0F 40 5A 00 F7");
+      configSender.sendSysex(Priority.CONFIG, null, "f0 00 20 6B 7f 42 02 0F 40 5A 00 F7");
       processingReady = false;
-      pause(20);
+      configSender.delay(Priority.CONFIG, 20);
+   }
+
+   /**
+    * Releases the device on exit, when scheduled tasks don't run anymore.
+    */
+   public void shutdown() {
+      disconnectState();
+      configSender.drain();
    }
 
    public void sendRgb(final CCAssignment hwElement, final int red, final int green, final int blue) {
@@ -228,13 +245,5 @@ public class SysExHandler {
       return (hexValue.length() < 2 ? "0" + hexValue : hexValue) + " ";
    }
 
-   void pause(final int millis) {
-      try {
-         Thread.sleep(millis);
-      } catch (final InterruptedException e) {
-         Thread.currentThread().interrupt();
-      }
-   }
-
 
 }
@@ -43,6 +43,7 @@ import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.time.BeatClock;
 
 public abstract class ArturiaKeylabMkII extends ControllerExtension
 {
@@ -86,7 +87,7 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
       mTransport.isPunchInEnabled().markInterested();
       mTransport.isPunchOutEnabled().markInterested();
       mTransport.isMetronomeEnabled().markInterested();
-      mTransport.getPosition().markInterested();
+      mBeatClock = new BeatClock(mTransport);
       mCursorTrack = host.createCursorTrack(0, LAUNCHER_SCENES);
       mSceneBank = host.createSceneBank(LAUNCHER_SCENES);
       mCursorTrack.volume().setIndication(true);
@@ -601,6 +602,7 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
    @Override
    public void flush()
    {
+      mBeatClock.sample();
       mHardwareSurface.updateHardware();
    }
 
@@ -748,8 +750,7 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
 
    private float getTransportPulse(final double multiplier, final double amount)
    {
-      final double p = mTransport.getPosition().get() * multiplier;
-      return (float)((0.5 + 0.5 * Math.cos(p * 2 * Math.PI)) * amount);
+      return (float)(mBeatClock.pulse(multiplier) * amount);
    }
 
    private void startPresetBrowsing()
@@ -907,6 +908,8 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
 
    private Transport mTransport;
 
+   private BeatClock mBeatClock;
+
    private CursorTrack mCursorTrack;
 
    private CursorDevice mDevice;
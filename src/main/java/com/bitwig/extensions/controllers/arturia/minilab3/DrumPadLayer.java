@@ -2,6 +2,7 @@ package com.bitwig.extensions.controllers.arturia.minilab3;
 
 import com.bitwig.extension.controller.api.*;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 import com.bitwig.extensions.framework.values.Midi;
 
 import java.util.Arrays;
@@ -9,14 +10,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 public class DrumPadLayer extends Layer {
+   private static final KeyTranslationTable.Layout PAD_LAYOUT = KeyTranslationTable.consecutive(0x2c, 8);
    private static final String[] noteValues = {"C ", "C#", "D ", "D#", "E ", "F ", "F#", "G ", "G#", "A ", "A#", "B "};
 
    private final RgbLightState[] colorSlots = new RgbLightState[8];
    //protected final Integer[] velTable = new Integer[128];
-   private final Integer[] noteTable = new Integer[128];
    private final boolean[] isPlaying = new boolean[128];
    private final Set<Integer> padNotes = new HashSet<>();
    private final NoteInput noteInput;
+   private final KeyTranslationTable keyTranslation;
    private final DrumPadBank padBank;
    private final MiniLab3Extension driver;
    private RgbLightState trackColor = RgbLightState.OFF;
@@ -31,6 +33,8 @@ public class DrumPadLayer extends Layer {
       noteInput = driver.getMidiIn().createNoteInput("MIDI", "89????", "99????", "A9????");
 
       noteInput.setShouldConsumeEvents(false);
+      keyTranslation = KeyTranslationTable.of(noteInput);
+      keyTranslation.setScrollSteps(4);
       final PinnableCursorDevice primaryDevice = driver.getPrimaryDevice();
       primaryDevice.hasDrumPads().addValueObserver(this::handleHasDrumsChanged);
       padBank = primaryDevice.createDrumPadBank(8);
@@ -52,7 +56,6 @@ public class DrumPadLayer extends Layer {
       });
 
       padsNoteOffset = padBank.scrollPosition().get();
-      Arrays.fill(noteTable, -1);
       Arrays.fill(colorSlots, RgbLightState.BLUE);
       Arrays.fill(hangingNotes, -1);
 
@@ -158,17 +161,11 @@ public class DrumPadLayer extends Layer {
    }
 
    public void applyNotes(final int noteOffset) {
-      Arrays.fill(noteTable, -1);
-      for (int note = 0; note < 8; note++) {
-         final int value = noteOffset + note;
-         noteTable[0x2c + note] = value < 128 ? value : -1;
-      }
-      noteInput.setKeyTranslationTable(noteTable);
+      keyTranslation.apply(PAD_LAYOUT, noteOffset);
    }
 
    private void resetNotes() {
-      Arrays.fill(noteTable, -1);
-      noteInput.setKeyTranslationTable(noteTable);
+      keyTranslation.clear();
    }
 
    @Override
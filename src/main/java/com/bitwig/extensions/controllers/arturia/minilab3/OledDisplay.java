@@ -1,13 +1,12 @@
 package com.bitwig.extensions.controllers.arturia.minilab3;
 
 import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
 public class OledDisplay {
 
     private static final int OLED_TRANSIENT_DELAY = 2000;
-    private static final String SYSEX_HEADER_COMP = "F0 00 20 6B 7F 42 04 02 60";
-    private static final String SYSEX_END = "F7";
-    public static final String SYSEX_FORMAT_OLED_PICT_UPDATE_ID_07 = "%s 1F 07 01 %02X %02X 01 00 01 %s00 02 %s00 %s";
+    private static final byte[] SYSEX_HEADER_COMP = SysexWriter.fromHex("F0 00 20 6B 7F 42 04 02 60");
     public static final int MAX_SLIDER_VALUE = 126;
     private Runnable updateAction;
 
@@ -33,6 +32,7 @@ public class OledDisplay {
 
     private final SysExHandler sysExHandler;
     private final ControllerHost host;
+    private final SysexWriter sysex = new SysexWriter();
     private DisplayMode acceptValue;
     private DisplayMode mainDisplayMode;
     private long acceptTime;
@@ -81,25 +81,22 @@ public class OledDisplay {
 
     public void clearText() {
         acceptValue = DisplayMode.INIT;
-        final String express = String.format(SYSEX_FORMAT_OLED_PICT_UPDATE_ID_07, SYSEX_HEADER_COMP,
-                Pict.NONE.getCode(), Pict.NONE.getCode(), toSysEx(""), toSysEx(""), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writePictUpdate(0x01, Pict.NONE, Pict.NONE, "", "");
+        sysExHandler.sendSysex(sysex);
     }
 
     public void sendText(final DisplayMode mode, final String text1, final String text2) {
         enableValues(mode);
-        final String express = String.format(SYSEX_FORMAT_OLED_PICT_UPDATE_ID_07, SYSEX_HEADER_COMP,
-                Pict.NONE.getCode(), Pict.NONE.getCode(), toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writePictUpdate(0x01, Pict.NONE, Pict.NONE, text1, text2);
+        sysExHandler.sendSysex(sysex);
     }
 
     public void sendTextCond(final DisplayMode mode, final String text1, final String text2) {
         if (acceptValue != mode) {
             return;
         }
-        final String express = String.format(SYSEX_FORMAT_OLED_PICT_UPDATE_ID_07, SYSEX_HEADER_COMP,
-                Pict.NONE.getCode(), Pict.NONE.getCode(), toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writePictUpdate(0x01, Pict.NONE, Pict.NONE, text1, text2);
+        sysExHandler.sendSysex(sysex);
     }
 
 
@@ -108,9 +105,8 @@ public class OledDisplay {
         if (acceptValue != mode) {
             return;
         }
-        final String express = String.format("%s 01 %s00 02 %s%s", SYSEX_HEADER_COMP, toSysEx(text1), toSysEx(text2),
-                SYSEX_END);
-        sysExHandler.sendSysex(express);
+        sysex.begin(SYSEX_HEADER_COMP).raw(0x01).ascii(text1).raw(0x00).raw(0x02).ascii(text2).end();
+        sysExHandler.sendSysex(sysex);
     }
 
     public void sendPictogramInfo(final DisplayMode mode, final Pict pic1, final Pict pic2, final String title,
@@ -118,16 +114,14 @@ public class OledDisplay {
         if (mode != acceptValue) {
             return;
         }
-        final String express = String.format("%s 1F 07 02 %02X %02X 01 00 01 %s00 02 %s00 %s", SYSEX_HEADER_COMP,
-                pic1.getCode(), pic2.getCode(), toSysEx(title), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writePictUpdate(0x02, pic1, pic2, title, text2);
+        sysExHandler.sendSysex(sysex);
     }
 
     public void sendPadInfo(final double value, final String text1, final String text2) {
         final int val = (int) (value * MAX_SLIDER_VALUE);
-        final String express = String.format("%s 1F 05 00 %02X 00 00 01 %s00 02 %s%s", SYSEX_HEADER_COMP, val,
-                toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writeValueUpdate(0x05, 0x00, val, text1, text2);
+        sysExHandler.sendSysex(sysex.end());
     }
 
     public void sendSliderInfo(final DisplayMode mode, final double value, final String text1, final String text2) {
@@ -135,9 +129,8 @@ public class OledDisplay {
             return;
         }
         final int val = (int) (value * MAX_SLIDER_VALUE);
-        final String express = String.format("%s 1F 04 02 %02X 00 00 01 %s00 02 %s%s", SYSEX_HEADER_COMP, val,
-                toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writeValueUpdate(0x04, 0x02, val, text1, text2);
+        sysExHandler.sendSysex(sysex.end());
     }
 
     public void sendEncoderInfo(final DisplayMode mode, final double value, final String text1, final String text2) {
@@ -145,58 +138,28 @@ public class OledDisplay {
             return;
         }
         final int val = (int) (value * MAX_SLIDER_VALUE);
-        final String express = String.format("%s 1F 03 02 %02X 00 00 01 %s00 02 %s00 %s", SYSEX_HEADER_COMP, val,
-                toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
+        writeValueUpdate(0x03, 0x02, val, text1, text2);
+        sysExHandler.sendSysex(sysex.raw(0x00).end());
     }
 
     public void sendScrollInfo(final int pos, final int len, final String text1, final String text2) {
-        final String express = String.format("%s 1F 06 00 %02X 00 %02X 00 00 01 %s00 02 %s00 %s", SYSEX_HEADER_COMP,
-                pos, len, toSysEx(text1), toSysEx(text2), SYSEX_END);
-        sysExHandler.sendSysex(express);
-    }
-
-    public static String toSysEx(final String text) {
-        final StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            final char c = convert(text.charAt(i));
-            final String hexValue = Integer.toHexString((byte) c);
-            sb.append(hexValue.length() < 2 ? "0" + hexValue : hexValue);
-            sb.append(" ");
-        }
-        return sb.toString();
+        sysex.begin(SYSEX_HEADER_COMP).raw(0x1F).raw(0x06).raw(0x00).data(pos).raw(0x00).data(len).raw(0x00) //
+                .raw(0x00).raw(0x01).ascii(text1).raw(0x00).raw(0x02).ascii(text2).raw(0x00).end();
+        sysExHandler.sendSysex(sysex);
     }
 
-    private static char convert(final char c) {
-        if (c < 128) {
-            return c;
-        }
-        switch (c) {
-            case 'Á':
-            case 'À':
-            case 'Ä':
-                return 'A';
-            case 'É':
-            case 'È':
-                return 'E';
-            case 'á':
-            case 'à':
-            case 'ä':
-                return 'a';
-            case 'Ö':
-                return 'O';
-            case 'Ü':
-                return 'U';
-            case 'è':
-            case 'é':
-                return 'e';
-            case 'ö':
-                return 'o';
-            case 'ü':
-                return 'u';
-            case 'ß':
-                return 's';
-        }
-        return '?';
+    private void writePictUpdate(final int type, final Pict pic1, final Pict pic2, final String text1,
+                                 final String text2) {
+        sysex.begin(SYSEX_HEADER_COMP).raw(0x1F).raw(0x07).raw(type).data(pic1.getCode()).data(pic2.getCode()) //
+                .raw(0x01).raw(0x00).raw(0x01).ascii(text1).raw(0x00).raw(0x02).ascii(text2).raw(0x00).end();
+    }
+
+    /**
+     * Writes the value display message without the trailing F7, as some types end the second line with a 0.
+     */
+    private void writeValueUpdate(final int type, final int subType, final int value, final String text1,
+                                  final String text2) {
+        sysex.begin(SYSEX_HEADER_COMP).raw(0x1F).raw(type).raw(subType).data(value).raw(0x00).raw(0x00).raw(0x01) //
+                .ascii(text1).raw(0x00).raw(0x02).ascii(text2);
     }
 }
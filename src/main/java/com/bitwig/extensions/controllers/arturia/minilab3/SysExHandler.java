@@ -5,11 +5,15 @@ import java.util.Queue;
 
 import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.midi.PacedMidiSender;
+import com.bitwig.extensions.framework.midi.PacedMidiSender.Priority;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
 public class SysExHandler {
 
     public static final String MINILAB_PREFIX = "f000206b7f42020040";
     public static final String ARTURIA_CLEAR_SCREEN = "f0 00 20 6B 7f 42 04 01 60 0a 0a 5f 51 00 f7";
+    private static final String OLED_TARGET = "oled";
 
     public enum GeneralMode {
         DAW_MODE,
@@ -52,12 +56,14 @@ public class SysExHandler {
             (byte) 0xF7};
 
     private final MidiOut midiOut;
+    private final PacedMidiSender sender;
     private final ControllerHost host;
-    private String lastExpression = "";
+    private byte[] lastMessage = new byte[128];
+    private int lastMessageLength = 0;
     private final byte[][] padCommands = new byte[128][14];
     private final byte[][] bankCommands = new byte[2][35];
     private boolean toConsole;
-    private final int delaySysex = 2;
+    private final Integer[] padTargets = new Integer[128];
     private boolean processingReady = false;
     private final Queue<Runnable> preprocessTasks = new LinkedList<>();
     private final RgbBankLightState[] lastBankState = new RgbBankLightState[2];
@@ -66,10 +72,13 @@ public class SysExHandler {
     public SysExHandler(final MidiOut midiOut, final ControllerHost host) {
         this.midiOut = midiOut;
         this.host = host;
+        // the device drops SysEx messages that follow each other within less than 2 ms
+        this.sender = new PacedMidiSender(host, midiOut, 2);
 
         for (int i = 0; i < padCommands.length; i++) {
             System.arraycopy(RGB_PAD_COMMAND, 0, padCommands[i], 0, RGB_PAD_COMMAND.length);
             padCommands[i][9] = (byte) i;
+            padTargets[i] = i;
         }
         for (int i = 0; i < bankCommands.length; i++) {
             System.arraycopy(RGB_BANK_COMMAND, 0, bankCommands[i], 0, RGB_BANK_COMMAND.length);
@@ -88,31 +97,36 @@ public class SysExHandler {
     }
 
     public void deviceInquiry() {
-        midiOut.sendSysex("f0 7e 7f 06 01 f7"); // Universal Request
+        sender.sendSysex("f0 7e 7f 06 01 f7"); // Universal Request
     }
 
     public void requestInitState() {
-        midiOut.sendSysex("f0 00 20 6B 7f 42 02 02 40 6A 21 f7");
-        pause(3);
-        midiOut.sendSysex("f0 00 20 6B 7f 42 01 00 40 03 f7"); // REQUEST PAD
-        pause(3);
-        midiOut.sendSysex("f0 00 20 6B 7f 42 01 00 40 01 f7"); // REQUEST MODE
-        pause(3);
+        sender.sendSysex(Priority.CONFIG, null, "f0 00 20 6B 7f 42 02 02 40 6A 21 f7");
+        sender.delay(Priority.CONFIG, 3);
+        sender.sendSysex(Priority.CONFIG, null, "f0 00 20 6B 7f 42 01 00 40 03 f7"); // REQUEST PAD
+        sender.delay(Priority.CONFIG, 3);
+        sender.sendSysex(Priority.CONFIG, null, "f0 00 20 6B 7f 42 01 00 40 01 f7"); // REQUEST MODE
+        sender.delay(Priority.CONFIG, 3);
     }
 
+    /**
+     * Sends what is still queued and releases the device, called on exit.
+     */
     public void disconnectState() {
+        sender.drain();
         midiOut.sendSysex("f0 00 20 6B 7f 42 02 02 40 6A 20 f7");
-        pause(20);
     }
 
-    public void sendSysex(final String sysExExpression) {
-        if (!lastExpression.equals(sysExExpression)) {
-            midiOut.sendSysex(sysExExpression);
-            lastExpression = sysExExpression;
+    public void sendSysex(final SysexWriter message) {
+        if (!message.contentEquals(lastMessage, lastMessageLength)) {
+            final byte[] data = message.toByteArray();
+            // every message redraws the whole screen, so a newer one replaces a queued one
+            sender.sendSysex(Priority.LIVE, OLED_TARGET, data);
+            lastMessage = message.copyInto(lastMessage);
+            lastMessageLength = message.length();
             if (toConsole) {
-                host.println(String.format("OLED : %s ", sysExExpression));
+                host.println(String.format("OLED : %s ", byteArrayToHex(data)));
             }
-            pause(delaySysex);
         }
     }
 
@@ -123,9 +137,9 @@ public class SysExHandler {
         System.arraycopy(state.getColors(), 0, bankCommand, 10, state.getColors().length);
         lastBankState[bank.getIndex()] = state;
         if (processingReady) {
-            midiOut.sendSysex(bankCommand);
+            sender.sendSysex(Priority.LIVE, bank, bankCommand);
         } else {
-            preprocessTasks.add(() -> midiOut.sendSysex(bankCommand));
+            preprocessTasks.add(() -> sender.sendSysex(Priority.LIVE, bank, bankCommand));
         }
         if (toConsole) {
             host.println(String.format("SysEx => PAD Bank %s : changed %s", bank, byteArrayToHex(bankCommand)));
@@ -137,12 +151,11 @@ public class SysExHandler {
         command[10] = red;
         command[11] = green;
         command[12] = blue;
-        midiOut.sendSysex(command);
+        sender.sendSysex(Priority.LIVE, padTargets[padId], command);
         if (toConsole) {
             host.println(String.format("SysEx => PAD Single padId=%d r=%02X g=%02X b=%02X %s", padId, red, green, blue,
                     byteArrayToHex(command)));
         }
-        pause(2);
     }
 
     public void sendColor(final int padId, final PadBank bank, final byte red, final byte green, final byte blue) {
@@ -157,14 +170,6 @@ public class SysExHandler {
         return sb.toString();
     }
 
-    private void pause(final int milis) {
-        try {
-            Thread.sleep(milis);
-        } catch (final InterruptedException e) {
-            //
-        }
-    }
-
     /**
      * Invoke change for Arturia Mode.
      *
@@ -176,14 +181,14 @@ public class SysExHandler {
             return;
         }
         if (mode == GeneralMode.DAW_MODE) {
-            midiOut.sendSysex(ARTURIA_CLEAR_SCREEN);
+            sender.sendSysex(ARTURIA_CLEAR_SCREEN);
         }
         final String command = String.format("f0 00 20 6B 7f 42 02 02 40 6A %02x f7",
                 mode == GeneralMode.ANALOG_LAB ? 0x11 : 0x10);
-        midiOut.sendSysex(command);
+        sender.sendSysex(command);
         if (mode == GeneralMode.ANALOG_LAB) {
             // Not needed with upcoming FW
-            midiOut.sendSysex(ARTURIA_MODE_BANK_UPDATE);
+            sender.sendSysex(ARTURIA_MODE_BANK_UPDATE);
         } else if (!inArturiaMode) {
             updateBankState(0);
             updateBankState(1);
@@ -1,21 +1,15 @@
 package com.bitwig.extensions.controllers.mackie;
 
-public class DelayAction {
+import com.bitwig.extensions.framework.time.TimedDelayEvent;
+
+public class DelayAction extends TimedDelayEvent {
     private final Runnable execution;
-    private final int duration;
     private final String actionId;
-    private final long time;
 
     public DelayAction(final int duration, final String actionId, final Runnable execution) {
-        super();
-        this.duration = duration;
+        super(execution, duration);
         this.actionId = actionId;
         this.execution = execution;
-        this.time = System.currentTimeMillis();
-    }
-
-    public boolean isReady() {
-        return System.currentTimeMillis() - this.time > duration;
     }
 
     public String getActionId() {
@@ -23,6 +17,7 @@ public class DelayAction {
     }
 
     public void run() {
+        cancel();
         this.execution.run();
     }
 
@@ -2,18 +2,30 @@ package com.bitwig.extensions.controllers.mackie;
 
 import java.util.function.IntConsumer;
 
+import com.bitwig.extensions.framework.time.TimeRepeatEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
+
 /**
  * This tracks holding down a button over time. Use for fast forward/reverse.
  * While holding down the action is repeated and goes through stages in which
- * the behavior can change over time.
+ * the behavior can change over time. The action is only repeated on the timer
+ * wheel while the button is held.
  *
  */
 public class HoldMenuButtonState {
+	private static final int REPEAT_TIME = 100;
+
+	private final TimerWheel timerWheel;
+	private TimeRepeatEvent repeatEvent = null;
 	private long startTime = 0;
 	private IntConsumer executor = null;
 	private long[] times;
 	private boolean first = false;
 
+	public HoldMenuButtonState(final TimerWheel timerWheel) {
+		this.timerWheel = timerWheel;
+	}
+
 	/**
 	 * @return if the action is still active
 	 */
@@ -26,6 +38,10 @@ public class HoldMenuButtonState {
 	 */
 	public void stop() {
 		executor = null;
+		if (repeatEvent != null) {
+			repeatEvent.cancel();
+			repeatEvent = null;
+		}
 	}
 
 	/**
@@ -40,12 +56,15 @@ public class HoldMenuButtonState {
 		executor = consumer;
 		this.times = times;
 		this.first = true;
+		if (repeatEvent == null) {
+			repeatEvent = timerWheel.repeat(this::execute, 0, REPEAT_TIME);
+		}
 	}
 
 	/**
-	 * Triggers an a single execution. This is meant to be called in intervals.
+	 * Triggers an a single execution, called in intervals while the action runs.
 	 */
-	void execute() {
+	private void execute() {
 		if (executor == null) {
 			return;
 		}
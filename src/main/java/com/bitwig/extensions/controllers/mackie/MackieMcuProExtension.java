@@ -24,6 +24,9 @@ import com.bitwig.extensions.controllers.mackie.section.*;
 import com.bitwig.extensions.controllers.mackie.value.*;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
+import com.bitwig.extensions.framework.time.TimedDelayEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -34,6 +37,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 public class MackieMcuProExtension extends ControllerExtension {
@@ -81,7 +85,10 @@ public class MackieMcuProExtension extends ControllerExtension {
    private boolean forcedIntoDrumMixMode = false;
 
    private final ValueObject<ButtonViewState> buttonViewMode = new ValueObject<>(ButtonViewState.MIXER);
+   private static final long BLINK_TICK_NANOS = 100_000_000L;
    private int blinkTicks = 0;
+   private boolean blinkRead = false;
+   private TimedDelayEvent blinkFlush = null;
 
    private final ModifierValueObject modifier = new ModifierValueObject();
    private final TrackModeValue trackChannelMode = new TrackModeValue();
@@ -89,8 +96,10 @@ public class MackieMcuProExtension extends ControllerExtension {
    private VuMode vuMode = VuMode.LED;
    private final int nrOfExtenders;
    private DelayAction delayedAction = null; // TODO this needs to be a queue
+   private LongSupplier clock = System::nanoTime;
+   private TimerWheel timerWheel;
 
-   private final HoldMenuButtonState holdAction = new HoldMenuButtonState();
+   private HoldMenuButtonState holdAction;
    private final int[] lightStatusMap = new int[127];
 
    private LayoutType currentLayoutType;
@@ -123,6 +132,16 @@ public class MackieMcuProExtension extends ControllerExtension {
       this.controllerConfig = controllerConfig;
    }
 
+   /**
+    * Runs the timer wheel and the blinking of the extension on another clock than {@link System#nanoTime()}, e.g. a
+    * virtual time line. Has to be set before {@link #init()}.
+    *
+    * @param clock the time in ns
+    */
+   void setClock(final LongSupplier clock) {
+      this.clock = clock;
+   }
+
    @Override
    public void init() {
       host = getHost();
@@ -133,6 +152,8 @@ public class MackieMcuProExtension extends ControllerExtension {
       arranger = host.createArranger();
       project = host.getProject();
       layers = new Layers(this);
+      timerWheel = new TimerWheel(host, clock);
+      holdAction = new HoldMenuButtonState(timerWheel);
       mainLayer = new Layer(layers, "MainLayer");
       shiftLayer = new Layer(layers, "GlobalShiftLayer");
       optionLayer = new Layer(layers, "OptionLayer");
@@ -187,7 +208,6 @@ public class MackieMcuProExtension extends ControllerExtension {
       sections.forEach(MixControl::resetFaders);
       sections.forEach(MixControl::clearAll);
       ledDisplay.refreshMode();
-      host.scheduleTask(this::handlePing, 100);
 
 //		final Action[] as = application.getActions();
 //		for (final Action action : as) {
@@ -233,7 +253,7 @@ public class MackieMcuProExtension extends ControllerExtension {
    }
 
    public void doActionImmediate(final String actionId) {
-      if (delayedAction != null && actionId.equals(delayedAction.getActionId())) {
+      if (delayedAction != null && !delayedAction.isCompleted() && actionId.equals(delayedAction.getActionId())) {
          delayedAction.run();
          delayedAction = null;
       }
@@ -241,25 +261,47 @@ public class MackieMcuProExtension extends ControllerExtension {
 
    public void cancelAction(final String actionId) {
       if (delayedAction != null && actionId.equals(delayedAction.getActionId())) {
+         delayedAction.cancel();
          delayedAction = null;
       }
    }
 
    public void scheduleAction(final String actionId, final int duration, final Runnable action) {
+      if (delayedAction != null) {
+         delayedAction.cancel();
+      }
       delayedAction = new DelayAction(duration, actionId, action);
+      timerWheel.queueEvent(delayedAction);
    }
 
-   private void handlePing() {
-      if (delayedAction != null && delayedAction.isReady()) {
-         delayedAction.run();
-         delayedAction = null;
+   /**
+    * The blink ticks are derived from the clock when the hardware is updated. Lights that blink read them with
+    * {@link #getBlinkTicks()}, which keeps a flush scheduled for the next tick, so the timer wheel only has work
+    * while something blinks or delayed or held actions are pending.
+    */
+   private void updateBlinkTicks() {
+      final int ticks = (int) (timerWheel.getTime() / BLINK_TICK_NANOS & Integer.MAX_VALUE);
+      if (ticks != blinkTicks) {
+         blinkTicks = ticks;
+         sections.forEach(section -> section.notifyBlink(ticks));
       }
-      if (holdAction.isRunning()) {
-         holdAction.execute();
+   }
+
+   /**
+    * @return the blink ticks, counting up every 100 ms. Only to be read by light and display suppliers, reading them
+    * requests a flush for the next tick.
+    */
+   public int getBlinkTicks() {
+      blinkRead = true;
+      return blinkTicks;
+   }
+
+   private void scheduleBlinkFlush() {
+      if (blinkFlush != null && !blinkFlush.isCompleted()) {
+         return;
       }
-      sections.forEach(section -> section.notifyBlink(blinkTicks));
-      blinkTicks++;
-      host.scheduleTask(this::handlePing, 100);
+      final long untilNextTick = BLINK_TICK_NANOS - timerWheel.getTime() % BLINK_TICK_NANOS;
+      blinkFlush = timerWheel.delay(host::requestFlush, (untilNextTick + 999_999L) / 1_000_000L);
    }
 
    private void initJogWheel() {
@@ -313,7 +355,9 @@ public class MackieMcuProExtension extends ControllerExtension {
    private void initMasterSection() {
       masterTrack = getHost().createMasterTrack(8);
       final int touchNoteNr = get(BasicNoteOnAssignment.TOUCH_VOLUME).getNoteNo() + 8;
-      masterSlider = new MotorSlider("MASTER", 8, touchNoteNr, surface, midiIn, midiOut);
+      final MotorFaderScheduler masterFaderScheduler = new MotorFaderScheduler(timerWheel, midiOut);
+      masterFaderScheduler.setDeadband(MixerSectionHardware.FADER_DEADBAND);
+      masterSlider = new MotorSlider("MASTER", 8, touchNoteNr, surface, midiIn, masterFaderScheduler);
       controllerConfig.getSimulationLayout().layoutMainSlider(masterSlider.getFader());
    }
 
@@ -581,7 +625,7 @@ public class MackieMcuProExtension extends ControllerExtension {
          application.undo();
          host.showPopupNotification("Undo");
       });
-      undoButton.bindLight(shiftLayer, () -> application.canRedo().get() && blinkTicks % 8 < 3);
+      undoButton.bindLight(shiftLayer, () -> application.canRedo().get() && getBlinkTicks() % 8 < 3);
       undoButton.bindPressed(shiftLayer, () -> {
          application.redo();
          host.showPopupNotification("Redo");
@@ -658,7 +702,7 @@ public class MackieMcuProExtension extends ControllerExtension {
       if (trackChannelMode.getMode() == mode) {
          return true;
       } else if (trackChannelMode.getMode() == shiftMode) {
-         return blinkTicks % 8 >= 3;
+         return getBlinkTicks() % 8 >= 3;
       }
       return false;
    }
@@ -1037,7 +1081,7 @@ public class MackieMcuProExtension extends ControllerExtension {
       if (buttonViewMode.get() == ButtonViewState.GLOBAL_VIEW) {
          return true;
       } else if (valueState.get() == MixerMode.DRUM) {
-         return blinkTicks % 8 >= 3;
+         return getBlinkTicks() % 8 >= 3;
       }
       return false;
    }
@@ -1153,6 +1197,10 @@ public class MackieMcuProExtension extends ControllerExtension {
       return layers;
    }
 
+   public TimerWheel getTimerWheel() {
+      return timerWheel;
+   }
+
    public MidiIn getMidiIn() {
       return midiIn;
    }
@@ -1163,7 +1211,13 @@ public class MackieMcuProExtension extends ControllerExtension {
 
    @Override
    public void flush() {
+      blinkRead = false;
+      updateBlinkTicks();
       surface.updateHardware();
+      sections.forEach(MixControl::flushMidi);
+      if (blinkRead) {
+         scheduleBlinkFlush();
+      }
    }
 
    public Project getProject() {
@@ -22,7 +22,6 @@ public class GlovalViewLayerConfiguration extends LayerConfiguration {
    private final DisplayLayer displayLayer;
    private final Layer buttonLayer;
    private final Layer globalButtonLayer;
-   private int blinkTicks;
    private boolean showTrackNames = false;
 
    public GlovalViewLayerConfiguration(final String name, final MixControl mixControl) {
@@ -73,10 +72,6 @@ public class GlovalViewLayerConfiguration extends LayerConfiguration {
       return getMixControl().getActiveMixGroup().getDisplayConfiguration(ParamElement.VOLUME, DisplayLocation.BOTTOM);
    }
 
-   public void notifyBlink(final int ticks) {
-      blinkTicks = ticks;
-   }
-
    public void init(final TrackBank mixerTrackBank, final TrackBank globalTrackBank) {
       final MixerSectionHardware hwControls = mixControl.getHwControls();
       displayLayer.setText(0, "[ShowSends]  Mute=->Drum Mix  Select=Group Fold", false);
@@ -150,7 +145,7 @@ public class GlovalViewLayerConfiguration extends LayerConfiguration {
          return false;
       }
       if (track.isGroupExpanded().get()) {
-         return blinkTicks % 4 != 0;
+         return mixControl.getDriver().getBlinkTicks() % 4 != 0;
       }
       return true;
    }
@@ -1,16 +1,20 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
 import com.bitwig.extension.controller.api.*;
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.devices.ParameterPage;
 import com.bitwig.extensions.controllers.mackie.section.MixerSectionHardware;
 import com.bitwig.extensions.controllers.mackie.value.*;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.time.TimedDelayEvent;
 
 import java.util.HashMap;
 import java.util.Map;
 
 public class DisplayLayer extends Layer implements DisplaySource {
+   private static final long EXPANSION_TIME = 1000;
+
    private LcdDisplay display;
 
    private final LcdDisplay mainDisplay;
@@ -20,6 +24,7 @@ public class DisplayLayer extends Layer implements DisplaySource {
    private final DisplayRow bottomRow = new DisplayRow(1);
 
    private final ExpansionTask expansionTask = new ExpansionTask();
+   private TimedDelayEvent expansionTimeout = null;
    private final Map<Integer, CellExpander> expanders = new HashMap<>();
    private final Map<Integer, CellExpander> fixedExpanders = new HashMap<>();
    private boolean usesLevelMeteringInLcd = true;
@@ -673,13 +678,19 @@ public class DisplayLayer extends Layer implements DisplaySource {
 
    public void triggerTimer() {
       final long duration = expansionTask.getDuration();
-      if (duration > 1000) {
+      if (duration > EXPANSION_TIME) {
          expansionTask.reset();
       }
    }
 
    public void tickExpansion(final int index) {
       expansionTask.trigger(index, expanders.get(index));
+      if (expansionTimeout != null) {
+         expansionTimeout.cancel();
+      }
+      // ends the expansion even if no blink tick reaches this layer
+      final MackieMcuProExtension driver = (MackieMcuProExtension) getLayers().getControllerExtension();
+      expansionTimeout = driver.getTimerWheel().delay(this::triggerTimer, EXPANSION_TIME + 100);
    }
 
 }
@@ -1,35 +1,37 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
 
 public class FaderResponse {
-   private final MidiOut midi;
-   private final int aftertouchValue;
-   int lastValue = -1;
+   private final MotorFaderScheduler scheduler;
+   private final int which;
 
-   public FaderResponse(final MidiOut midi, final int which) {
-      aftertouchValue = 0xE0 | which;
-      this.midi = midi;
+   public FaderResponse(final MotorFaderScheduler scheduler, final int which) {
+      this.which = which;
+      this.scheduler = scheduler;
    }
 
    public void sendValue(final double v) {
-      final int value = (int) (v * 16383);
-      if (value != lastValue) {
-         lastValue = value;
-         final int lsb = value & 0x7F;
-         final int msb = value >> 7;
-         midi.sendMidi(aftertouchValue, lsb, msb);
-      }
+      scheduler.setTarget(which, (int) (v * 16383));
+   }
+
+   /**
+    * Moves the fader right away instead of with the next frame of the scheduler, e.g. on exit.
+    */
+   public void sendValueNow(final double v) {
+      scheduler.sendNow(which, (int) (v * 16383));
+   }
+
+   public void setTouched(final boolean touched) {
+      scheduler.setTouched(which, touched);
    }
 
    public int getWhich() {
-      return aftertouchValue & 0xF;
+      return which;
    }
 
    public void refresh() {
-      final int lsb = lastValue & 0x7F;
-      final int msb = lastValue >> 7;
-      midi.sendMidi(aftertouchValue, lsb, msb);
+      scheduler.refresh(which);
    }
 
 }
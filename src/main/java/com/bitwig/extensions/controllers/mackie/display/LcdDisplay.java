@@ -6,8 +6,9 @@ import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.Midi;
 import com.bitwig.extensions.controllers.mackie.StringUtil;
 import com.bitwig.extensions.controllers.mackie.section.SectionType;
+import com.bitwig.extensions.framework.display.LcdFrameBuffer;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
@@ -17,17 +18,9 @@ public class LcdDisplay implements DisplaySource {
    private static final int DISPLAY_LEN = 55;
    private static final int ROW2_START = 56;
 
-   private final byte[] rowDisplayBuffer = { //
-      (byte) 0XF0, 0, 0, 0X66, 0x14, 0x12, 0, // z: the grid number Zone number 0-3 * 28
-      32, 32, 32, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-      0, 0, 0, 0, 0, 32, 32, (byte) 247};
-
-   private final byte[] segBuffer;
-   private final byte[] segBufferExp;
+   private final byte[] header;
+   private final SysexWriter sysex = new SysexWriter();
+   private final LcdFrameBuffer frameBuffer;
    private final DisplayPart part;
    private final HardwareTextDisplay displayRep;
    public String sysHead;
@@ -50,8 +43,6 @@ public class LcdDisplay implements DisplaySource {
    private final int segmentOffset;
    private final boolean hasDedicatedVu;
 
-   private final char[][] lines = new char[2][60];
-
    /**
     * @param driver  the parent
     * @param midiOut the MIDI out destination for the Display
@@ -68,35 +59,17 @@ public class LcdDisplay implements DisplaySource {
 
       if (part == DisplayPart.LOWER) {
          isLowerDisplay = true;
-         rowDisplayBuffer[3] = 0X67;
-         rowDisplayBuffer[4] = 0x15;
-         rowDisplayBuffer[5] = 0x13;
+         header = SysexWriter.fromHex("F0 00 00 67 15 13");
          sysHead = "f0 00 00 67 15 ";
-         segBuffer = new byte[]{ //
-            (byte) 240, 0, 0, 0X67, 0x15, 0x13, 0, // z: the grid number Zone number 0-3 * 28
-            0, 0, 0, 0, 0, 32,   // 7: 10 Chars
-            (byte) 247};
-         segBufferExp = new byte[]{ //
-            (byte) 240, 0, 0, 0X67, 0x15, 0x13, 0, // z: the grid number Zone number 0-3 * 28
-            0, 0, 0, 0, 0, 0, 32,   // 7: 10 Chars
-            (byte) 247};
+      } else if (type == SectionType.XTENDER) {
+         header = SysexWriter.fromHex("F0 00 00 66 15 12");
+         sysHead = "f0 00 00 66 15 ";
       } else {
-         segBuffer = new byte[]{ //
-            (byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-            0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-            (byte) 247};
-         segBufferExp = new byte[]{ //
-            (byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-            0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-            (byte) 247};
-         if (type == SectionType.XTENDER) {
-            rowDisplayBuffer[4] = 0x15;
-            segBuffer[4] = 0x15;
-            sysHead = "f0 00 00 66 15 ";
-         } else {
-            sysHead = "f0 00 00 66 14 ";
-         }
+         header = SysexWriter.fromHex("F0 00 00 66 14 12");
+         sysHead = "f0 00 00 66 14 ";
       }
+      // a write consists of the header, the start address, the characters and the closing F7
+      frameBuffer = new LcdFrameBuffer(2, ROW2_START, header.length + 2);
       displayLen = LcdDisplay.DISPLAY_LEN + (part == DisplayPart.LOWER && type != SectionType.XTENDER ? 1 : 0);
 
       if (part == DisplayPart.LOWER) {
@@ -111,9 +84,6 @@ public class LcdDisplay implements DisplaySource {
 
    private void initSimulation(final MackieMcuProExtension driver, final int sectionIndex, final DisplayPart part) {
       driver.getControllerConfig().getSimulationLayout().layoutDisplay(part, sectionIndex, displayRep);
-      for (int i = 0; i < 2; i++) {
-         Arrays.fill(lines[i], ' ');
-      }
    }
 
    public int getSegmentLength() {
@@ -233,13 +203,7 @@ public class LcdDisplay implements DisplaySource {
    }
 
    private void sendFullRow(final int row, final String text) {
-      rowDisplayBuffer[6] = (byte) (row * LcdDisplay.ROW2_START);
-      final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-      for (int i = 0; i < displayLen; i++) {
-         rowDisplayBuffer[i + 7] = i < ca.length ? ca[i] : 32;
-      }
-      displayRep.line(row).text().setValue(text);
-      midiOut.sendSysex(rowDisplayBuffer);
+      frameBuffer.write(row, 0, text, displayLen);
    }
 
    public void sendToRow(final DisplaySource source, final int row, final int segment, final String text) {
@@ -263,45 +227,17 @@ public class LcdDisplay implements DisplaySource {
    }
 
    private void sendTextSegFull(final DisplaySource source, final int row, final int segment, final String text) {
-      segBuffer[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-      final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-      for (int i = 0; i < segmentLength; i++) {
-         segBuffer[i + 7] = i < ca.length ? ca[i] : 32;
-         lines[row][segment * 7 + i] = (char) segBuffer[i + 7];
-      }
-      midiOut.sendSysex(segBuffer);
-      displayRep.line(row).text().setValue(String.valueOf(lines[row]));
+      frameBuffer.write(row, segment * segmentLength + segmentOffset, text, segmentLength);
    }
 
    private void sendTextSeg(final DisplaySource source, final int row, final int segment, final String text) {
-      final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-      if (segment == 8) {
-         if (isLowerDisplay()) {
-            handleLastCell(row, segment, ca);
-         }
-      } else {
-         segBuffer[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-         for (int i = 0; i < segmentLength - 1; i++) {
-            segBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
-            lines[row][segment * 7 + i] = (char) segBuffer[i + 7];
-         }
-         if (segment < segmentLength) {
-            segBuffer[6 + segmentLength] = ' ';
-         }
-         midiOut.sendSysex(segBuffer);
-         displayRep.line(row).text().setValue(String.valueOf(lines[row]));
-      }
-   }
-
-   private void handleLastCell(final int row, final int segment, final byte[] ca) {
-      segBufferExp[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-      for (int i = 0; i < segmentLength; i++) {
-         segBufferExp[i + 7] = i < ca.length ? ca[i] : 32;
-      }
-      if (segment < segmentLength + 1) {
-         segBufferExp[6 + segmentLength] = ' ';
+      if (segment == 8 && !isLowerDisplay()) {
+         return;
       }
-      midiOut.sendSysex(segBufferExp);
+      // the last character of a segment is kept blank to separate it from the next one
+      final int column = segment * segmentLength + segmentOffset;
+      frameBuffer.write(row, column, text, segmentLength - 1);
+      frameBuffer.write(row, column + segmentLength - 1, "", 1);
    }
 
    public void refreshDisplay() {
@@ -314,6 +250,26 @@ public class LcdDisplay implements DisplaySource {
             }
          }
       }
+      frameBuffer.invalidate();
+   }
+
+   /**
+    * Sends the characters changed since the last flush and updates the simulation.
+    */
+   public void flush() {
+      if (frameBuffer.isDirty()) {
+         frameBuffer.flush(this::sendChars);
+      }
+      final int changedRows = frameBuffer.takeChangedRows();
+      for (int row = 0; row < 2; row++) {
+         if ((changedRows & 1 << row) != 0) {
+            displayRep.line(row).text().setValue(frameBuffer.getText(row, displayLen));
+         }
+      }
+   }
+
+   private void sendChars(final int position, final byte[] chars, final int offset, final int length) {
+      sysex.begin(header).raw(position).bytes(chars, offset, length).end().send(midiOut);
    }
 
    public void sendChar(final int index, final char cx) {
@@ -331,14 +287,17 @@ public class LcdDisplay implements DisplaySource {
 
    public void clearAll() {
       midiOut.sendSysex(sysHead + "62 f7");
+      frameBuffer.invalidate();
       sendToDisplay(this, 0, "");
       sendToDisplay(this, 1, "");
+      flush();
    }
 
    public void exitMessage() {
       midiOut.sendSysex(sysHead + "62 f7");
       centerText(this, 0, "Bitwig Studio");
       centerText(this, 1, "... not running ...");
+      flush();
    }
 
    public void clearText() {
@@ -4,6 +4,7 @@ import com.bitwig.extension.controller.api.*;
 import com.bitwig.extensions.controllers.mackie.bindings.FaderBinding;
 import com.bitwig.extensions.framework.AbsoluteHardwareControlBinding;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
 
 public class MotorSlider {
 
@@ -12,16 +13,17 @@ public class MotorSlider {
    private final HardwareButton touchButton;
 
    public MotorSlider(final String name, final int pitchBendChannel, final int touchNote, final HardwareSurface surface,
-                      final MidiIn midiIn, final MidiOut midiOut) {
+                      final MidiIn midiIn, final MotorFaderScheduler faderScheduler) {
       fader = surface.createHardwareSlider(name + "_FADER");
       fader.setAdjustValueMatcher(midiIn.createAbsolutePitchBendValueMatcher(8));
 
-      response = new FaderResponse(midiOut, 8);
+      response = new FaderResponse(faderScheduler, 8);
 
       touchButton = surface.createHardwareButton(name + "_TOUCH");
       touchButton.pressedAction().setActionMatcher(midiIn.createNoteOnActionMatcher(0, touchNote));
       touchButton.releasedAction().setActionMatcher(midiIn.createNoteOffActionMatcher(0, touchNote));
       fader.setHardwareButton(touchButton);
+      touchButton.isPressed().addValueObserver(response::setTouched);
    }
 
    public void bindParameter(final Layer layer, final Parameter parameter) {
@@ -34,7 +36,7 @@ public class MotorSlider {
    }
 
    public void sendValue(final int value) {
-      response.sendValue(0);
+      response.sendValueNow(0);
    }
 
 }
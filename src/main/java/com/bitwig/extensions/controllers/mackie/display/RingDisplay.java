@@ -1,14 +1,14 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
-import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.framework.midi.MidiOutBuffer;
 
 public class RingDisplay {
-	private final MidiOut midi;
+	private final MidiOutBuffer midi;
 	private final int index;
 	private int lastValue = -1;
 
-	public RingDisplay(final MidiOut midi, final int index) {
+	public RingDisplay(final MidiOutBuffer midi, final int index) {
 		this.index = index;
 		this.midi = midi;
 	}
@@ -19,18 +19,19 @@ public class RingDisplay {
 
 	public void sendValue(final int value, final boolean showDot) {
 		final int newValue = value | (showDot ? 0x40 : 0x00);
-		if (newValue != lastValue) {
-			midi.sendMidi(Midi.CC, 0x30 | index, newValue);
-			lastValue = value;
-		}
+		// the buffer drops the value if it is already shown
+		midi.sendMidi(Midi.CC, 0x30 | index, newValue);
+		lastValue = newValue;
 	}
 
 	public void refresh() {
-		midi.sendMidi(Midi.CC, 0x30 | index, lastValue);
+		if (lastValue != -1) {
+			midi.sendMidiImmediate(Midi.CC, 0x30 | index, lastValue);
+		}
 	}
 
 	public void clear() {
-		midi.sendMidi(Midi.CC, 0x30 | index, 0);
+		midi.sendMidiImmediate(Midi.CC, 0x30 | index, 0);
 	}
 
 }
@@ -14,7 +14,6 @@ public class ClipLaunchButtonLayer extends Layer {
    private TrackBank trackBank;
    private final MackieMcuProExtension driver;
    private final Clip mainCursorClip;
-   private int blinkTicks;
    private int trackOffset;
    private final Layer launcherLayer;
    private final Layer arrangerLayer;
@@ -73,17 +72,13 @@ public class ClipLaunchButtonLayer extends Layer {
       slotHandler.handleSlotPressed(track, slot, mainCursorClip, modifier);
    }
 
-   public void notifyBlink(final int ticks) {
-      blinkTicks = ticks;
-   }
-
    public boolean lightState(final ClipLauncherSlot slot) {
       if (slot.isPlaybackQueued().get() || slot.isRecordingQueued().get()) {
-         return blinkTicks % 2 != 0;
+         return driver.getBlinkTicks() % 2 != 0;
       } else if (slot.isRecording().get()) {
-         return blinkTicks % 4 != 0;
+         return driver.getBlinkTicks() % 4 != 0;
       } else if (slot.isPlaying().get()) {
-         return blinkTicks % 8 >= 3;
+         return driver.getBlinkTicks() % 8 >= 3;
       }
       return slot.hasContent().get();
    }
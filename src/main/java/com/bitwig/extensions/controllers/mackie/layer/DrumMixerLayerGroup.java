@@ -38,10 +38,6 @@ public class DrumMixerLayerGroup extends MixerLayerGroup {
       }
    }
 
-   public void notifyBlink(final int ticks) {
-      drumSequencerLayer.notifyBlink(ticks);
-   }
-
    @Override
    public void navigateVertically(final int direction) {
       if (editMode == EditorMode.MIX) {
@@ -12,7 +12,6 @@ import com.bitwig.extensions.controllers.mackie.value.ValueObject;
 public class NotePlayingButtonLayer extends ButtonLayer {
 
    private ScaleNoteHandler scaleHandler;
-   private int blinkTicks;
 
    public NotePlayingButtonLayer(final MixControl mixControl) {
       super("NOTEPLAYER", mixControl, BasicNoteOnAssignment.REC_BASE);
@@ -42,10 +41,6 @@ public class NotePlayingButtonLayer extends ButtonLayer {
       scaleHandler.deactivate();
    }
 
-   public void notifyBlink(final int ticks) {
-      blinkTicks = ticks;
-   }
-
    public void navigateHorizontal(final int direction, final boolean pressed) {
       if (!isActive()) {
          return;
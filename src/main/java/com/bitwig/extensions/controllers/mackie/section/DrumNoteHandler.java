@@ -7,10 +7,11 @@ import com.bitwig.extension.controller.api.DrumPadBank;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PlayingNote;
 import com.bitwig.extensions.controllers.mackie.value.BooleanValueObject;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 
 public class DrumNoteHandler {
-	private final NoteInput noteInput;
-	private final Integer[] notesToDrumTable = new Integer[128];
+	private final KeyTranslationTable keyTranslation;
+	private final int[] notesToDrumTable = new int[128];
 	private final int[] notesToPadsTable = new int[128];
 	private final BooleanValueObject[] playing = new BooleanValueObject[8];
 	private final boolean drumTracker[] = new boolean[8];
@@ -22,12 +23,12 @@ public class DrumNoteHandler {
 	private int padOffset;
 
 	public DrumNoteHandler(final NoteInput noteInput, final DrumPadBank drumPadBank, final CursorTrack cursorTrack) {
-		this.noteInput = noteInput;
+		keyTranslation = KeyTranslationTable.of(noteInput);
 		for (int i = 0; i < notesToDrumTable.length; i++) {
-			notesToDrumTable[i] = Integer.valueOf(-1);
+			notesToDrumTable[i] = -1;
 			notesToPadsTable[i] = -1;
 		}
-		noteInput.setKeyTranslationTable(notesToDrumTable);
+		keyTranslation.apply(notesToDrumTable);
 		drumPadBank.scrollPosition().addValueObserver(offset -> {
 			drumScrollOffset = offset;
 			applyScale();
@@ -82,7 +83,7 @@ public class DrumNoteHandler {
 				notesToPadsTable[noteToPadIndex] = i;
 			}
 		}
-		noteInput.setKeyTranslationTable(notesToDrumTable);
+		keyTranslation.apply(notesToDrumTable);
 	}
 
 	public void deactivate() {
@@ -92,7 +93,7 @@ public class DrumNoteHandler {
 		for (int i = 0; i < 8; i++) {
 			notesToDrumTable[i] = -1;
 		}
-		noteInput.setKeyTranslationTable(notesToDrumTable);
+		keyTranslation.apply(notesToDrumTable);
 	}
 
 	public BooleanSupplier isPlaying(final int index) {
@@ -43,6 +43,7 @@ import com.bitwig.extensions.controllers.mackie.value.BooleanValueObject;
 import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.controllers.mackie.value.TrackColor;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
 public class MixControl implements LayerStateHandler {
    private final MixerSectionHardware hwControls;
@@ -92,9 +93,10 @@ public class MixControl implements LayerStateHandler {
          .createMultiStateHardwareLight(String.format("BACKGROUND_COLOR_" + "%d_%s", sectionIndex, type));
 
       if (hasTrackColoring) {
+         final SysexWriter colorSysex = new SysexWriter();
          backgroundColoring.state().onUpdateHardware(state -> {
             if (state instanceof final TrackColor trackColor) {
-               trackColor.send(midiOut);
+               trackColor.send(midiOut, colorSysex);
             }
          });
       }
@@ -278,6 +280,10 @@ public class MixControl implements LayerStateHandler {
       hwControls.resetFaders();
    }
 
+   public void flushMidi() {
+      hwControls.flushMidi();
+   }
+
    public LcdDisplay getDisplay() {
       return hwControls.getMainDisplay();
    }
@@ -499,13 +505,6 @@ public class MixControl implements LayerStateHandler {
    }
 
    public void notifyBlink(final int ticks) {
-      launchButtonLayer.notifyBlink(ticks);
-      scaleButtonLayer.notifyBlink(ticks);
-      drumGroup.notifyBlink(ticks);
-      if (noteSequenceLayer != null) {
-         noteSequenceLayer.notifyBlink(ticks);
-      }
-      globalViewLayerConfiguration.notifyBlink(ticks);
       activeDisplayLayer.triggerTimer();
    }
 
@@ -19,6 +19,9 @@ import com.bitwig.extensions.controllers.mackie.layer.EncoderMode;
 import com.bitwig.extensions.framework.AbsoluteHardwareControlBinding;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.RelativeHardwareControlToRangedValueBinding;
+import com.bitwig.extensions.framework.meter.VuMeterEngine;
+import com.bitwig.extensions.framework.midi.MidiOutBuffer;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
 
 import java.util.Arrays;
 import java.util.function.BooleanSupplier;
@@ -29,6 +32,13 @@ public class MixerSectionHardware {
    public static final int SOLO_INDEX = 1;
    public static final int MUTE_INDEX = 2;
    public static final int SELECT_INDEX = 3;
+   /**
+    * The faders resolve 10 bits, smaller steps aren't worth a motor move while automation is running.
+    */
+   public static final int FADER_DEADBAND = 16;
+
+   private static final int MASTER_VU_LEFT = 8;
+   private static final int MASTER_VU_RIGHT = 9;
 
    private final int[] lightStatusMap = new int[127];
    private final HardwareSlider[] volumeKnobs = new HardwareSlider[8];
@@ -43,6 +53,9 @@ public class MixerSectionHardware {
 
    private final MidiIn midiIn;
    private final MidiOut midiOut;
+   private final MidiOutBuffer midiOutBuffer;
+   private final VuMeterEngine vuMeters;
+   private final MotorFaderScheduler faderScheduler;
    private final MackieMcuProExtension driver;
    private final int sectionIndex;
    private final LcdDisplay mainDisplay;
@@ -52,6 +65,11 @@ public class MixerSectionHardware {
                                final int sectionIndex, final SectionType type) {
       this.midiIn = midiIn;
       this.midiOut = midiOut;
+      this.midiOutBuffer = new MidiOutBuffer(midiOut);
+      this.vuMeters = new VuMeterEngine(driver.getTimerWheel(), 10);
+      vuMeters.setMeterListener(this::transmitVu);
+      this.faderScheduler = new MotorFaderScheduler(driver.getTimerWheel(), midiOut);
+      faderScheduler.setDeadband(FADER_DEADBAND);
       this.driver = driver;
       this.sectionIndex = sectionIndex;
       final ControllerConfig controllerConfig = driver.getControllerConfig();
@@ -95,8 +113,9 @@ public class MixerSectionHardware {
 
          driver.getControllerConfig().getSimulationLayout().layoutSlider(sectionIndex, i, slider);
 
-         motorFaderDest[i] = new FaderResponse(midiOut, i);
-         ringDisplays[i] = new RingDisplay(midiOut, i);
+         motorFaderDest[i] = new FaderResponse(faderScheduler, i);
+         faderTouch[i].isPressed().addValueObserver(motorFaderDest[i]::setTouched);
+         ringDisplays[i] = new RingDisplay(midiOutBuffer, i);
 
          final RelativeHardwareKnob encoder = surface.createRelativeHardwareKnob("PAN_KNOB" + sectionIndex + "_" + i);
          encoders[i] = encoder;
@@ -139,15 +158,29 @@ public class MixerSectionHardware {
    }
 
    public void sendVuUpdate(final int index, final int value) {
-      midiOut.sendMidi(Midi.CHANNEL_AT, index << 4 | value, 0);
+      vuMeters.setLevel(index, value);
    }
 
    public void sendMasterVuUpdateL(final int value) {
-      midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, value, 0);
+      vuMeters.setLevel(MASTER_VU_LEFT, value);
    }
 
    public void sendMasterVuUpdateR(final int value) {
-      midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, 0x10 | value, 0);
+      vuMeters.setLevel(MASTER_VU_RIGHT, value);
+   }
+
+   private void transmitVu(final int meter, final int value) {
+      if (meter == MASTER_VU_LEFT) {
+         midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, value, 0);
+      } else if (meter == MASTER_VU_RIGHT) {
+         midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, 0x10 | value, 0);
+      } else {
+         midiOut.sendMidi(Midi.CHANNEL_AT, meter << 4 | value, 0);
+      }
+   }
+
+   public VuMeterEngine getVuMeters() {
+      return vuMeters;
    }
 
    public MidiIn getMidiIn() {
@@ -202,11 +235,12 @@ public class MixerSectionHardware {
    public void resetLeds() {
       final NoteAssignment[] nv = BasicNoteOnAssignment.values();
       for (final NoteAssignment noteOnAssignment : nv) {
-         sendLedLightStatus(noteOnAssignment.getNoteNo(), 0);
+         lightStatusMap[noteOnAssignment.getNoteNo()] = 0;
+         midiOutBuffer.sendMidiImmediate(Midi.NOTE_ON, noteOnAssignment.getNoteNo(), 0);
       }
       for (int i = 0; i < 127; i++) {
          if (lightStatusMap[i] > 0) {
-            midiOut.sendMidi(Midi.NOTE_ON, i, 0);
+            midiOutBuffer.sendMidiImmediate(Midi.NOTE_ON, i, 0);
          }
       }
       for (final RingDisplay ringDisplay : ringDisplays) {
@@ -216,12 +250,23 @@ public class MixerSectionHardware {
 
    private void sendLedLightStatus(final int noteNr, final int value) {
       lightStatusMap[noteNr] = value;
-      midiOut.sendMidi(Midi.NOTE_ON, noteNr, value);
+      midiOutBuffer.sendMidi(Midi.NOTE_ON, noteNr, value);
+   }
+
+   /**
+    * Sends the LED and ring updates collected since the last flush.
+    */
+   public void flushMidi() {
+      midiOutBuffer.flush();
+      mainDisplay.flush();
+      if (bottomDisplay != null) {
+         bottomDisplay.flush();
+      }
    }
 
    public void resetFaders() {
       for (final FaderResponse fader : motorFaderDest) {
-         fader.sendValue(0);
+         fader.sendValueNow(0);
       }
    }
 
@@ -245,7 +290,7 @@ public class MixerSectionHardware {
 
       for (int i = 0; i < lightStatusMap.length; i++) {
          if (lightStatusMap[i] >= 0) {
-            midiOut.sendMidi(Midi.NOTE_ON, i, lightStatusMap[i]);
+            midiOutBuffer.sendMidiImmediate(Midi.NOTE_ON, i, lightStatusMap[i]);
          }
       }
    }
@@ -5,15 +5,16 @@ import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PlayingNote;
 import com.bitwig.extensions.controllers.mackie.NotePlayingSetup;
 import com.bitwig.extensions.controllers.mackie.value.ValueObject;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 
 import java.util.*;
 
 public class ScaleNoteHandler {
    private static final int PLAYING_BUTTONS = 32;
 
-   private final NoteInput noteInput;
-   private final Integer[] notesTable = new Integer[128];
-   protected final Integer[] velTable = new Integer[128];
+   private final KeyTranslationTable keyTranslation;
+   private final int[] notesTable = new int[128];
+   protected final int[] velTable = new int[128];
    private final Map<Integer, List<Integer>> notesToButtonsTable = new HashMap<>();
 
    private final List<ValueObject<NoteState>> playing = new ArrayList<>(PLAYING_BUTTONS);
@@ -26,11 +27,11 @@ public class ScaleNoteHandler {
 
    public ScaleNoteHandler(final NoteInput noteInput, final NotePlayingSetup notePlaying,
                            final CursorTrack cursorTrack) {
-      this.noteInput = noteInput;
+      keyTranslation = KeyTranslationTable.of(noteInput);
       this.notePlaying = notePlaying;
       Arrays.fill(notesTable, -1);
       notesToButtonsTable.clear();
-      noteInput.setKeyTranslationTable(notesTable);
+      keyTranslation.apply(notesTable);
       for (int i = 0; i < PLAYING_BUTTONS; i++) {
          playing.add(new ValueObject<>(NoteState.OFF));
       }
@@ -70,7 +71,7 @@ public class ScaleNoteHandler {
             }
          }
       }
-      noteInput.setVelocityTranslationTable(velTable);
+      keyTranslation.applyVelocities(velTable);
    }
 
    private void applyVelTable() {
@@ -78,7 +79,7 @@ public class ScaleNoteHandler {
          velTable[i] = notePlaying.getVelocity().get();
       }
       if (active) {
-         noteInput.setVelocityTranslationTable(velTable);
+         keyTranslation.applyVelocities(velTable);
       }
    }
 
@@ -138,7 +139,7 @@ public class ScaleNoteHandler {
          }
       }
 
-      noteInput.setKeyTranslationTable(notesTable);
+      keyTranslation.apply(notesTable);
    }
 
    public void deactivate() {
@@ -148,7 +149,7 @@ public class ScaleNoteHandler {
       for (int i = 0; i < PLAYING_BUTTONS; i++) {
          notesTable[i] = -1;
       }
-      noteInput.setKeyTranslationTable(notesTable);
+      keyTranslation.apply(notesTable);
    }
 
    public ValueObject<NoteState> isPlaying(final int index) {
@@ -9,6 +9,7 @@ import com.bitwig.extensions.controllers.mackie.value.ValueObject;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 public class ChordHandler {
@@ -124,8 +125,8 @@ public class ChordHandler {
       }
    }
 
-   public void playNotes(final NoteStepSlot slot) {
-      for (final NoteStep step : slot.steps()) {
+   public void playNotes(final Collection<NoteStep> steps) {
+      for (final NoteStep step : steps) {
          noteInput.sendRawMidiEvent(Midi.NOTE_ON, step.y(), (int) Math.round(step.velocity() * 127));
          heldNotes[step.y()]++;
       }
@@ -214,7 +214,7 @@ public class DrumSequencerLayer extends SequencerLayer {
       //if (step < steps) {
       if (state == NoteStep.State.NoteOn) {
          if (copyNote != null && assignments[step] != null && assignments[step].x() == copyNote.x()) {
-            return blinkTicks % 2 == 1;
+            return driver.getBlinkTicks() % 2 == 1;
          }
          return playingStep != step;
       } else {
@@ -9,6 +9,7 @@ import com.bitwig.extensions.controllers.mackie.section.MixControl;
 import com.bitwig.extensions.controllers.mackie.section.MixerSectionHardware;
 import com.bitwig.extensions.controllers.mackie.value.BasicStringValue;
 import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
+import com.bitwig.extensions.framework.sequencer.NoteStepIndex;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,7 +18,7 @@ import java.util.stream.Collectors;
 public class NoteSequenceLayer extends SequencerLayer {
    public final static String[] NOTES = {" C", "C#", " D", "D#", " E", " F", "F#", " G", "G#", " A", "A#", " B"};
    private static final int STEPS = 16;
-   protected final NoteStepSlot[] assignments = new NoteStepSlot[STEPS];
+   protected final NoteStepIndex stepIndex = new NoteStepIndex(STEPS);
    private final EditorValue noteValue = new EditorValue(60, (edit, value) -> {
       final String base = NOTES[value % 12];
       final int octave = value / 12 - 2;
@@ -70,9 +71,6 @@ public class NoteSequenceLayer extends SequencerLayer {
 
    public NoteSequenceLayer(final String name, final MixControl mixControl) {
       super("NoteSeq_" + mixControl.getHwControls().getSectionIndex(), mixControl, BasicNoteOnAssignment.REC_BASE);
-      for (int i = 0; i < STEPS; i++) {
-         assignments[i] = new NoteStepSlot(i);
-      }
       chordBank.init();
       control.getModifier().addValueObserver(this::handleModifierChanged);
       velocityValue.addIntValueObserver(vel -> {
@@ -90,9 +88,9 @@ public class NoteSequenceLayer extends SequencerLayer {
       } else if (modifierValueObject.isDuplicateSet() && !heldSteps.isEmpty()) {
          getHeldNotes().stream()
             .findFirst()
-            .map(noteStep -> assignments[noteStep.x()])
-            .filter(NoteStepSlot::hasNotes)
-            .ifPresent(slot -> copyNote = slot.copy());
+            .map(NoteStep::x)
+            .filter(stepIndex::hasNoteOn)
+            .ifPresent(step -> copyNote = new NoteStepSlot(step, stepIndex.getNoteOns(step)));
       }
       if (chordCopy != null) {
          if (!modifierValueObject.isDuplicateSet()) {
@@ -171,7 +169,7 @@ public class NoteSequenceLayer extends SequencerLayer {
 
    private boolean chordSlot(final int index) {
       if (chordCopy != null && chordCopy.getSlotIndex() == index) {
-         return blinkTicks % 2 == 1;
+         return driver.getBlinkTicks() % 2 == 1;
       }
       return chordBank.getSelectedIndex().get() == index;
    }
@@ -211,11 +209,11 @@ public class NoteSequenceLayer extends SequencerLayer {
    }
 
    public boolean stepState(final int step) {
-      final boolean hasStep = assignments[step].hasNotes();
+      final boolean hasStep = stepIndex.hasNoteOn(step);
       final int steps = positionHandler.getAvailableSteps();
       if (hasStep) {
-         if (copyNote != null && assignments[step] != null && assignments[step].getSlotNr() == copyNote.getSlotNr()) {
-            return blinkTicks % 2 == 1;
+         if (copyNote != null && step == copyNote.getSlotNr()) {
+            return driver.getBlinkTicks() % 2 == 1;
          }
          return playingStep != step;
       } else {
@@ -233,24 +231,24 @@ public class NoteSequenceLayer extends SequencerLayer {
 
    public void handleStepPressed(final int step) {
       if (prehearSteps) {
-         if (assignments[step].hasNotes()) {
-            chordHandler.playNotes(assignments[step]);
+         if (stepIndex.hasNoteOn(step)) {
+            chordHandler.playNotes(stepIndex.getNoteOns(step));
          }
       } else if (copyNote != null) {
          handleNoteCopyAction(step, copyNote);
       } else if (control.getModifier().isClearSet()) {
-         if (assignments[step].hasNotes() && !addedSteps.contains(step)) {
+         if (stepIndex.hasNoteOn(step) && !addedSteps.contains(step)) {
             cursorClip.clearStepsAtX(0, step);
          }
       } else {
          heldSteps.add(step);
-         if (!assignments[step].hasNotes()) {
+         if (!stepIndex.hasNoteOn(step)) {
             placeNotes(step);
             noteValue.setEditValue(noteValue.getSetValue());
             velocityValue.setEditValue(noteValue.getSetValue());
             addedSteps.add(step);
          } else if (control.getModifier().isDuplicateSet()) {
-            copyNote = assignments[step].copy();
+            copyNote = new NoteStepSlot(step, stepIndex.getNoteOns(step));
             heldSteps.remove(step);
          }
       }
@@ -265,7 +263,7 @@ public class NoteSequenceLayer extends SequencerLayer {
       }
 
       final boolean doToggle = deselectEnabled && diff < 1000; // && copyNote != null
-      if (assignments[step].hasNotes() && !addedSteps.contains(step)) {
+      if (stepIndex.hasNoteOn(step) && !addedSteps.contains(step)) {
          if (doToggle) {
             cursorClip.clearStepsAtX(0, step);
          }
@@ -516,16 +514,15 @@ public class NoteSequenceLayer extends SequencerLayer {
    @Override
    List<NoteStep> getHeldNotes() {
       return heldSteps.stream()//
-         .map(idx -> assignments[idx].steps())//
+         .map(stepIndex::getNoteOns)//
          .flatMap(Collection::stream) //
          .filter(ns -> ns.state() == NoteStep.State.NoteOn) //
          .collect(Collectors.toList());
    }
 
    private void handleNoteStep(final NoteStep noteStep) {
-      final int newStep = noteStep.x();
       final int xyIndex = noteStep.x() << 8 | noteStep.y();
-      assignments[newStep].updateNote(noteStep);
+      stepIndex.update(noteStep);
 
       if (isActive()) {
          updateNotesSelected();
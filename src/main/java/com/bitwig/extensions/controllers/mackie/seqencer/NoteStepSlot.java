@@ -3,43 +3,29 @@ package com.bitwig.extensions.controllers.mackie.seqencer;
 import com.bitwig.extension.controller.api.NoteStep;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 
+/**
+ * The notes of a step taken at one point in time, e.g. to copy them to another step.
+ */
 public class NoteStepSlot {
-   private final HashMap<Integer, NoteStep> map = new HashMap<>();
+   private final List<NoteStep> steps;
    private final int slotNr;
 
-   public NoteStepSlot(final int slotNumber) {
+   public NoteStepSlot(final int slotNumber, final Collection<NoteStep> steps) {
       slotNr = slotNumber;
-   }
-
-   public void updateNote(final NoteStep step) {
-      if (step.state() == NoteStep.State.NoteOn) {
-         map.put(step.y(), step);
-      } else {
-         map.remove(step.y());
-      }
+      this.steps = List.copyOf(steps);
    }
 
    public int getSlotNr() {
       return slotNr;
    }
 
-   public void clear() {
-      map.clear();
-   }
-
    public boolean hasNotes() {
-      return !map.isEmpty();
+      return !steps.isEmpty();
    }
 
    public Collection<NoteStep> steps() {
-      return map.values();
-   }
-
-   public NoteStepSlot copy() {
-      final NoteStepSlot copy = new NoteStepSlot(slotNr);
-      copy.map.putAll(map);
-      return copy;
+      return steps;
    }
 }
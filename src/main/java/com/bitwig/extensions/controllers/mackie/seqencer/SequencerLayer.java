@@ -28,7 +28,6 @@ public abstract class SequencerLayer extends ButtonLayer {
    protected final Set<Integer> modifiedSteps = new HashSet<>();
    protected final IntValueObject menuPageIndex = new IntValueObject(0, 0, 2);
 
-   protected int blinkTicks;
    protected int playingStep;
    protected final double gatePercent = 0.98;
    protected int selectedPadIndex = -1;
@@ -426,14 +425,10 @@ public abstract class SequencerLayer extends ButtonLayer {
       if ((mask & recurrenceMask.get()) != 0) {
          return true;
       }
-      return blinkTicks % 4 == 1;
+      return driver.getBlinkTicks() % 4 == 1;
    }
 
 
-   public void notifyBlink(final int ticks) {
-      blinkTicks = ticks;
-   }
-
    void handlePlayingStep(final int playingStep) {
       if (playingStep == -1) {
          this.playingStep = -1;
@@ -3,8 +3,10 @@ package com.bitwig.extensions.controllers.mackie.value;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
 public class TrackColor extends InternalHardwareLightState {
+   private static final byte[] SYSEX_HEADER = SysexWriter.fromHex("F0 00 00 68 16 14");
 
    private final int[] colors = new int[8];
 
@@ -39,16 +41,12 @@ public class TrackColor extends InternalHardwareLightState {
       return true;
    }
 
-   public void send(final MidiOut midiOut) {
-      final StringBuilder sysEx = new StringBuilder("F0 00 00 68 16 14 ");
+   public void send(final MidiOut midiOut, final SysexWriter sysex) {
+      sysex.begin(SYSEX_HEADER);
       for (int i = 0; i < colors.length; i++) {
-         final int red = colors[i] >> 16;
-         final int green = colors[i] >> 8 & 0x7F;
-         final int blue = colors[i] & 0x7F;
-         sysEx.append(String.format("%02x %02x %02x ", red, green, blue));
+         sysex.data(colors[i] >> 16).data(colors[i] >> 8).data(colors[i]);
       }
-      sysEx.append("F7");
-      midiOut.sendSysex(sysEx.toString());
+      sysex.end().send(midiOut);
    }
 
    public void set(final int index, final double r, final double g, final double b) {
@@ -14,6 +14,7 @@ import com.bitwig.extensions.controllers.mcu.layer.MainSection;
 import com.bitwig.extensions.controllers.mcu.layer.MixerSection;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.midi.MidiTrafficRecorder;
 
 public class McuExtension extends ControllerExtension {
     private static ControllerHost debugHost;
@@ -23,6 +24,7 @@ public class McuExtension extends ControllerExtension {
     private final List<MixerSectionHardware> mixerHardwareSections = new ArrayList<>();
     private final List<MainHardwareSection> mainHardwareSections = new ArrayList<>();
     private final List<MidiProcessor> midiProcessors = new ArrayList<>();
+    private MidiTrafficRecorder trafficRecorder;
     
     public static void println(final String format, final Object... args) {
         if (debugHost != null) {
@@ -44,6 +46,8 @@ public class McuExtension extends ControllerExtension {
         //this.project = getHost().getProject();
         final Context diContext = new Context(this);
         diContext.registerService(ControllerConfig.class, controllerConfig);
+        trafficRecorder = MidiTrafficRecorder.create(host, "mcu");
+        diContext.registerService(MidiTrafficRecorder.class, trafficRecorder);
         mainLayer = diContext.createLayer("MAIN_LAYER");
         surface = diContext.getService(HardwareSurface.class);
         MainSection mainControl = null;
@@ -79,10 +83,13 @@ public class McuExtension extends ControllerExtension {
         midiProcessors.forEach(MidiProcessor::exit);
         mainHardwareSections.forEach(MainHardwareSection::clearAll);
         mixerHardwareSections.forEach(MixerSectionHardware::clearAll);
+        trafficRecorder.close();
     }
     
     @Override
     public void flush() {
         surface.updateHardware();
+        midiProcessors.forEach(MidiProcessor::flush);
+        trafficRecorder.markFlush();
     }
 }
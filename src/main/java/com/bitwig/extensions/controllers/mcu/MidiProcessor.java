@@ -16,10 +16,19 @@ import com.bitwig.extensions.controllers.mcu.display.ControllerDisplay;
 import com.bitwig.extensions.controllers.mcu.display.DisplayPart;
 import com.bitwig.extensions.controllers.mcu.display.LcdDisplay;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.meter.VuMeterEngine;
+import com.bitwig.extensions.framework.midi.MidiOutBuffer;
+import com.bitwig.extensions.framework.midi.MidiTrafficRecorder;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 import com.bitwig.extensions.framework.values.BooleanValueObject;
 import com.bitwig.extensions.framework.values.Midi;
 
 public class MidiProcessor implements ControllerDisplay {
+    private static final byte[] ICON_COLOR_HEADER = SysexWriter.fromHex("F0 00 00 68 16 14");
+    private static final int MASTER_VU_LEFT = 8;
+    private static final int MASTER_VU_RIGHT = 9;
+
     private final ControllerHost host;
     private final MidiIn midiIn;
     private final MidiOut midiOut;
@@ -31,8 +40,12 @@ public class MidiProcessor implements ControllerDisplay {
     private final BooleanValueObject slidersTouched = new BooleanValueObject();
     private int touchCount = 0;
     private boolean segmentedDisplay = false;
-    private long touchReleaseTime = -1;
+    private TimedDelayEvent touchReleaseEvent = null;
     private final TimedProcessor timedProcessor;
+    private final MidiOutBuffer ledOut;
+    private final SysexWriter sysex = new SysexWriter();
+    private final VuMeterEngine vuMeters;
+    private final MotorFaderScheduler faderScheduler;
     
     public MidiProcessor(final Context context, final int portIndex) {
         this.portIndex = portIndex;
@@ -40,8 +53,15 @@ public class MidiProcessor implements ControllerDisplay {
         this.timedProcessor = context.getService(TimedProcessor.class);
         final ControllerConfig controllerConfig = context.getService(ControllerConfig.class);
         this.has2ClickResolution = controllerConfig.isHas2ClickResolution();
-        this.midiIn = host.getMidiInPort(portIndex);
-        this.midiOut = host.getMidiOutPort(portIndex);
+        final MidiTrafficRecorder trafficRecorder = context.getService(MidiTrafficRecorder.class);
+        this.midiIn = trafficRecorder.record(portIndex, host.getMidiInPort(portIndex));
+        this.midiOut = trafficRecorder.record(portIndex, host.getMidiOutPort(portIndex));
+        this.ledOut = new MidiOutBuffer(midiOut);
+        this.vuMeters = new VuMeterEngine(timedProcessor.getTimerWheel(), 10);
+        vuMeters.setMeterListener(this::transmitVu);
+        this.faderScheduler = new MotorFaderScheduler(timedProcessor.getTimerWheel(), midiOut);
+        // the faders resolve 10 bits, smaller steps aren't worth a motor move while automation is running
+        faderScheduler.setDeadband(16);
         this.segmentedDisplay = controllerConfig.isDisplaySegmented();
         
         midiIn.setMidiCallback(this::handleMidiIn);
@@ -56,12 +76,6 @@ public class MidiProcessor implements ControllerDisplay {
             controllerConfig.hasLowerDisplay() ? new LcdDisplay(context, portIndex, midiOut, sectionType,
                 DisplayPart.LOWER, controllerConfig) : null;
         Arrays.fill(lightStatusMap, -1);
-        timedProcessor.addActionListener(() -> {
-            if (touchReleaseTime != -1 && (System.currentTimeMillis() - touchReleaseTime) > 400) {
-                slidersTouched.set(false);
-                touchReleaseTime = -1;
-            }
-        });
     }
     
     private void handleMidiIn(final int status, final int data1, final int data2) {
@@ -81,16 +95,24 @@ public class MidiProcessor implements ControllerDisplay {
             if (touchCount == 0 && !slidersTouched.get()) {
                 slidersTouched.set(true);
             }
-            touchReleaseTime = -1;
+            cancelTouchRelease();
             touchCount++;
         } else {
             touchCount = Math.max(0, touchCount - 1);
             if (touchCount == 0) {
-                touchReleaseTime = System.currentTimeMillis();
+                cancelTouchRelease();
+                touchReleaseEvent = timedProcessor.delayEvent(() -> slidersTouched.set(false), 400);
             }
         }
     }
     
+    private void cancelTouchRelease() {
+        if (touchReleaseEvent != null) {
+            touchReleaseEvent.cancel();
+            touchReleaseEvent = null;
+        }
+    }
+    
     public void exit() {
         upperDisplay.exitMessage();
         if (lowerDisplay != null) {
@@ -104,7 +126,18 @@ public class MidiProcessor implements ControllerDisplay {
     
     public void sendLedLightStatus(final int noteNr, final int value) {
         lightStatusMap[noteNr] = value; // TODO Consider Midi Channels
-        midiOut.sendMidi(Midi.NOTE_ON, noteNr, value);
+        ledOut.sendMidi(Midi.NOTE_ON, noteNr, value);
+    }
+    
+    /**
+     * Sends the LED and display updates collected since the last flush.
+     */
+    public void flush() {
+        ledOut.flush();
+        upperDisplay.flush();
+        if (lowerDisplay != null) {
+            lowerDisplay.flush();
+        }
     }
     
     public void attachNoteOnOffMatcher(final HardwareButton button, final int channel, final int note) {
@@ -129,30 +162,44 @@ public class MidiProcessor implements ControllerDisplay {
     }
     
     public void updateIconColors(final int[] colors) {
-        final StringBuilder sysEx = new StringBuilder("F0 00 00 68 16 14 ");
+        sysex.begin(ICON_COLOR_HEADER);
         for (int i = 0; i < colors.length; i++) {
-            final int red = colors[i] >> 16;
-            final int green = colors[i] >> 8 & 0x7F;
-            final int blue = colors[i] & 0x7F;
-            sysEx.append(String.format("%02x %02x %02x ", red, green, blue));
+            sysex.data(colors[i] >> 16).data(colors[i] >> 8).data(colors[i]);
         }
-        sysEx.append("F7");
-        midiOut.sendSysex(sysEx.toString());
+        sysex.end().send(midiOut);
     }
     
     @Override
     public void sendVuUpdate(final int index, final int value) {
-        midiOut.sendMidi(Midi.CHANNEL_AT, index << 4 | value, 0);
+        vuMeters.setLevel(index, value);
     }
     
     @Override
     public void sendMasterVuUpdateL(final int value) {
-        midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, value, 0);
+        vuMeters.setLevel(MASTER_VU_LEFT, value);
     }
     
     @Override
     public void sendMasterVuUpdateR(final int value) {
-        midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, 0x10 | value, 0);
+        vuMeters.setLevel(MASTER_VU_RIGHT, value);
+    }
+    
+    private void transmitVu(final int meter, final int value) {
+        if (meter == MASTER_VU_LEFT) {
+            midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, value, 0);
+        } else if (meter == MASTER_VU_RIGHT) {
+            midiOut.sendMidi(Midi.CHANNEL_AT | 0x1, 0x10 | value, 0);
+        } else {
+            midiOut.sendMidi(Midi.CHANNEL_AT, meter << 4 | value, 0);
+        }
+    }
+    
+    public VuMeterEngine getVuMeters() {
+        return vuMeters;
+    }
+    
+    public MotorFaderScheduler getFaderScheduler() {
+        return faderScheduler;
     }
     
     public HardwareActionBindable createAction(final Runnable action) {
@@ -1,67 +1,46 @@
 package com.bitwig.extensions.controllers.mcu;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 import com.bitwig.extension.controller.api.ControllerHost;
-import com.bitwig.extensions.framework.di.Activate;
 import com.bitwig.extensions.framework.di.Component;
 import com.bitwig.extensions.framework.time.TimedDelayEvent;
 import com.bitwig.extensions.framework.time.TimedEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 @Component
 public class TimedProcessor {
     
+    private static final long BLINK_TICK_NANOS = 50_000_000L;
+    
     private final ControllerHost host;
-    private final Queue<TimedEvent> timedEvents = new ConcurrentLinkedQueue<>();
-    private final List<Runnable> timedAction = new ArrayList<>();
-    private int blinkCounter = 0;
+    private final TimerWheel timerWheel;
     private TimedDelayEvent holdEvent = null;
     
-    public TimedProcessor(final ControllerHost host) {
+    public TimedProcessor(final ControllerHost host, final TimerWheel timerWheel) {
         this.host = host;
+        this.timerWheel = timerWheel;
     }
     
-    private void handlePing() {
-        blinkCounter = (blinkCounter + 1) % 8;
-        if (!timedEvents.isEmpty()) {
-            for (final TimedEvent event : timedEvents) {
-                event.process();
-                if (event.isCompleted()) {
-                    timedEvents.remove(event);
-                }
-            }
-        }
-        for (final Runnable action : timedAction) {
-            action.run();
-        }
-        host.scheduleTask(this::handlePing, 50);
-    }
-    
-    public void addActionListener(final Runnable action) {
-        timedAction.add(action);
-    }
-    
-    @Activate
-    public void start() {
-        host.scheduleTask(this::handlePing, 100);
+    /**
+     * The blink phase is derived from the clock of the timer wheel, so the light suppliers don't need a ticking task.
+     */
+    private int blinkCounter() {
+        return (int) ((timerWheel.getTime() / BLINK_TICK_NANOS) % 8);
     }
     
     public boolean blinkSlow() {
-        return blinkCounter % 8 < 4;
+        return blinkCounter() % 8 < 4;
     }
     
     public boolean blinkMid() {
-        return blinkCounter % 4 < 2;
+        return blinkCounter() % 4 < 2;
     }
     
     public boolean blinkFast() {
-        return blinkCounter % 2 == 0;
+        return blinkCounter() % 2 == 0;
     }
     
     public boolean blinkPeriodic() {
+        final int blinkCounter = blinkCounter();
         return blinkCounter == 0 || blinkCounter == 3;
     }
     
@@ -70,6 +49,14 @@ public class TimedProcessor {
         host.scheduleTask(action, delay);
     }
     
+    public TimedDelayEvent delayEvent(final Runnable action, final long delay) {
+        return timerWheel.delay(action, delay);
+    }
+    
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+    
     public void startHoldEvent(final Runnable delayedAction) {
         if (holdEvent != null) {
             holdEvent.cancel();
@@ -79,7 +66,7 @@ public class TimedProcessor {
     }
     
     public void queueEvent(final TimedEvent event) {
-        timedEvents.add(event);
+        timerWheel.queueEvent(event);
     }
     
     public void completeHoldEvent(final Runnable releaseAction) {
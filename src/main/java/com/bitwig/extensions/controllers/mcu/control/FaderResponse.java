@@ -1,35 +1,31 @@
 package com.bitwig.extensions.controllers.mcu.control;
 
 import com.bitwig.extensions.controllers.mcu.MidiProcessor;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
 
 public class FaderResponse {
-   private final MidiProcessor midiProcessor;
-   private final int aftertouchValue;
-   int lastValue = -1;
+   private final MotorFaderScheduler scheduler;
+   private final int which;
 
    public FaderResponse(final MidiProcessor midi, final int which) {
-      aftertouchValue = 0xE0 | which;
-      this.midiProcessor = midi;
+      this.which = which;
+      this.scheduler = midi.getFaderScheduler();
    }
 
    public void sendValue(final double v) {
-      final int value = (int) (v * 16383);
-      if (value != lastValue) {
-         lastValue = value;
-         final int lsb = value & 0x7F;
-         final int msb = value >> 7;
-         midiProcessor.sendMidi(aftertouchValue, lsb, msb);
-      }
+      scheduler.setTarget(which, (int) (v * 16383));
+   }
+
+   public void setTouched(final boolean touched) {
+      scheduler.setTouched(which, touched);
    }
 
    public int getWhich() {
-      return aftertouchValue & 0xF;
+      return which;
    }
 
    public void refresh() {
-      final int lsb = lastValue & 0x7F;
-      final int msb = lastValue >> 7;
-      midiProcessor.sendMidi(aftertouchValue, lsb, msb);
+      scheduler.refresh(which);
    }
 
 }
@@ -30,6 +30,7 @@ public class MotorSlider {
         int touchNote = McuAssignments.TOUCH_VOLUME.getNoteNo() + channel;
         midiProcessor.attachNoteOnOffMatcher(touchButton, 0, touchNote);
         fader.setHardwareButton(touchButton);
+        touchButton.isPressed().addValueObserver(response::setTouched);
     }
 
     public void addTouchAction(BooleanValueChangedCallback touchAction) {
@@ -18,13 +18,25 @@ class DeviceParameter {
                            final double sensitivity) {
         super();
         this.parameter = parameter;
-        this.parameter.displayedValue().markInterested();
-        this.parameter.value().markInterested();
         this.name = StringUtil.toDisplayName(name);
         this.ringDisplayType = ringDisplayType;
         this.sensitivity = sensitivity;
     }
 
+    public void setSubscribed(final boolean subscribed) {
+        if (subscribed) {
+            parameter.value().subscribe();
+            parameter.displayedValue().subscribe();
+        } else {
+            parameter.value().unsubscribe();
+            parameter.displayedValue().unsubscribe();
+        }
+    }
+
+    public int getSubscribedValueCount() {
+        return (parameter.value().isSubscribed() ? 1 : 0) + (parameter.displayedValue().isSubscribed() ? 1 : 0);
+    }
+
     public String getName() {
         return name;
     }
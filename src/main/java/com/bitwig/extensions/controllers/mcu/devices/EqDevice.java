@@ -58,6 +58,10 @@ public class EqDevice extends SpecificDevice {
             final Parameter enableParam = bitwigDevice.createParameter("ENABLE%d".formatted(i + 1));
             enableParams.add(enableParam);
             enableParam.value().addValueObserver(2, enabled -> updateEnablement(bandIndex, enabled));
+            // the type parameter of the band pages is only subscribed while its page is shown, the enablement
+            // needs the type of every band
+            final Parameter typeParam = bitwigDevice.createParameter("TYPE%d".formatted(i + 1));
+            typeParam.value().addValueObserver(14, type -> updateTypeOn(bandIndex, type));
         }
         applyPageValues(0);
     }
@@ -84,6 +88,14 @@ public class EqDevice extends SpecificDevice {
         }
     }
     
+    private void updateTypeOn(final int bandIndex, final int type) {
+        typeOn[bandIndex] = type > 0;
+        final int pageIndex = bandIndex / 2;
+        if (this.pageIndex == pageIndex) {
+            notifyEnablement(bandIndex);
+        }
+    }
+    
     @Override
     public void applyPageValues(final int page) {
         if (page < 4) {
@@ -105,12 +117,6 @@ public class EqDevice extends SpecificDevice {
             final int bandIndex = page * 2 + index / 4;
             parameter.setCustomResetAction(p -> handleReset(bandIndex, p));
             parameter.setCustomValueConverter(value -> TYPES[(int) (value * 14)]);
-            parameter.getParameter().value().addValueObserver(14, v -> {
-                typeOn[bandIndex] = v > 0;
-                if (this.pageIndex == pageIndex) {
-                    notifyEnablement(bandIndex);
-                }
-            });
         }
         return parameter;
     }
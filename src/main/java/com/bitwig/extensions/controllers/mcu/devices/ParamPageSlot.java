@@ -33,6 +33,7 @@ public class ParamPageSlot {
     private final BasicDoubleValue doubleValue = new BasicDoubleValue();
     private final BooleanValueObject existsValue = new BooleanValueObject();
     private final BooleanValueObject enabledValue = new BooleanValueObject();
+    private int subscribedIndex = -1;
 
     public ParamPageSlot(final int index, final SpecificDevice device) {
         this.slotIndex = index;
@@ -53,12 +54,42 @@ public class ParamPageSlot {
         param.value().addValueObserver(v -> handleValueChanged(runningIndex, v));
         param.displayedValue().addValueObserver(v -> handleDisplayValueChanged(runningIndex, v));
         parameters.add(deviceParameter);
-        if (runningIndex == 0) {
+        // observing subscribes the values, only the parameter of the current page needs to stay subscribed
+        deviceParameter.setSubscribed(false);
+        if (runningIndex == device.getCurrentPage()) {
             update();
         }
     }
 
+    /**
+     * Subscribes the parameter of the current page and unsubscribes the one of the previous page, so the host only
+     * reports the values that are displayed.
+     */
+    public void updateSubscription() {
+        final int page = device.getCurrentPage();
+        if (page == subscribedIndex || page >= parameters.size()) {
+            return;
+        }
+        if (subscribedIndex >= 0) {
+            parameters.get(subscribedIndex).setSubscribed(false);
+        }
+        parameters.get(page).setSubscribed(true);
+        subscribedIndex = page;
+    }
+
+    /**
+     * @return the number of parameter values of this slot the host currently reports
+     */
+    public int getSubscribedValueCount() {
+        int count = 0;
+        for (final DeviceParameter parameter : parameters) {
+            count += parameter.getSubscribedValueCount();
+        }
+        return count;
+    }
+
     public void update() {
+        updateSubscription();
         final DeviceParameter currentParameter = getCurrentParameter();
         nameValue.set(currentParameter.getName());
         displayValue.set(currentParameter.getStringValue());
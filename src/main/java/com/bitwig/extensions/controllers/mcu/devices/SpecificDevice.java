@@ -51,6 +51,7 @@ public abstract class SpecificDevice implements DeviceManager {
     public void navigateToDeviceParameters(final int index) {
         if (index >= 0 && index < getPageCount()) {
             pageIndex = index;
+            this.pageSlots.forEach(ParamPageSlot::updateSubscription);
             this.applyPageValues(pageIndex);
             this.pageSlots.forEach(ParamPageSlot::update);
             updateListeners.forEach(Runnable::run);
@@ -71,6 +72,18 @@ public abstract class SpecificDevice implements DeviceManager {
         return pageIndex;
     }
     
+    /**
+     * @return the number of parameter values of all slots the host currently reports, only the values of the
+     * current page are subscribed
+     */
+    public int getSubscribedValueCount() {
+        int count = 0;
+        for (final ParamPageSlot slot : pageSlots) {
+            count += slot.getSubscribedValueCount();
+        }
+        return count;
+    }
+    
     @Override
     public boolean isSpecificDevicePresent() {
         return deviceFollower.getFocusDevice().exists().get();
@@ -1,6 +1,5 @@
 package com.bitwig.extensions.controllers.mcu.display;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -12,6 +11,8 @@ import com.bitwig.extensions.controllers.mcu.SectionType;
 import com.bitwig.extensions.controllers.mcu.StringUtil;
 import com.bitwig.extensions.controllers.mcu.config.ControllerConfig;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.display.LcdFrameBuffer;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 import com.bitwig.extensions.framework.values.Midi;
 
 /**
@@ -21,18 +22,9 @@ public class LcdDisplay {
     private static final int DISPLAY_LEN = 55;
     private static final int ROW2_START = 56;
 
-    private final byte[] rowDisplayBuffer = { //
-        (byte) 0XF0, 0, 0, 0X66, 0x14, 0x12, 0, // z: the grid number Zone number 0-3 * 28
-        32, 32, 32, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-        0, 0, 0, 0, 0, 32, 32, (byte) 247
-    };
-
-    private final byte[] segBuffer;
-    private final byte[] segBufferExp;
+    private final byte[] header;
+    private final SysexWriter sysex = new SysexWriter();
+    private final LcdFrameBuffer frameBuffer;
     private final DisplayPart part;
     private final HardwareTextDisplay displayRep;
     private final boolean topRowFlipped;
@@ -50,7 +42,6 @@ public class LcdDisplay {
     private final int segmentLength;
     private final int segmentOffset;
     private final boolean hasDedicatedVu;
-    private final char[][] lines = new char[2][60];
     public String sysHead;
 
     public LcdDisplay(final Context context, final int sectionIndex, final MidiOut midiOut, final SectionType type,
@@ -67,39 +58,17 @@ public class LcdDisplay {
 
         if (part == DisplayPart.LOWER) {
             isLowerDisplay = true;
-            rowDisplayBuffer[3] = 0X67;
-            rowDisplayBuffer[4] = 0x15;
-            rowDisplayBuffer[5] = 0x13;
+            header = SysexWriter.fromHex("F0 00 00 67 15 13");
             sysHead = "f0 00 00 67 15 ";
-            segBuffer = new byte[] { //
-                (byte) 240, 0, 0, 0X67, 0x15, 0x13, 0, // z: the grid number Zone number 0-3 * 28
-                0, 0, 0, 0, 0, 32,   // 7: 10 Chars
-                (byte) 247
-            };
-            segBufferExp = new byte[] { //
-                (byte) 240, 0, 0, 0X67, 0x15, 0x13, 0, // z: the grid number Zone number 0-3 * 28
-                0, 0, 0, 0, 0, 0, 32,   // 7: 10 Chars
-                (byte) 247
-            };
+        } else if (type == SectionType.XTENDER) {
+            header = SysexWriter.fromHex("F0 00 00 66 15 12");
+            sysHead = "f0 00 00 66 15 ";
         } else {
-            segBuffer = new byte[] { //
-                (byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-                0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-                (byte) 247
-            };
-            segBufferExp = new byte[] { //
-                (byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-                0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-                (byte) 247
-            };
-            if (type == SectionType.XTENDER) {
-                rowDisplayBuffer[4] = 0x15;
-                segBuffer[4] = 0x15;
-                sysHead = "f0 00 00 66 15 ";
-            } else {
-                sysHead = "f0 00 00 66 14 ";
-            }
+            header = SysexWriter.fromHex("F0 00 00 66 14 12");
+            sysHead = "f0 00 00 66 14 ";
         }
+        // a write consists of the header, the start address, the characters and the closing F7
+        frameBuffer = new LcdFrameBuffer(2, ROW2_START, header.length + 2);
         displayLen = LcdDisplay.DISPLAY_LEN + (part == DisplayPart.LOWER && type != SectionType.XTENDER ? 1 : 0);
 
         if (part == DisplayPart.LOWER) {
@@ -240,13 +209,7 @@ public class LcdDisplay {
     }
 
     public void sendFullRow(final int row, final String text) {
-        rowDisplayBuffer[6] = (byte) (row * LcdDisplay.ROW2_START);
-        final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-        for (int i = 0; i < displayLen; i++) {
-            rowDisplayBuffer[i + 7] = i < ca.length ? ca[i] : 32;
-        }
-        displayRep.line(row).text().setValue(text);
-        midiOut.sendSysex(rowDisplayBuffer);
+        frameBuffer.write(row, 0, text, displayLen);
     }
 
     public void sendToRow(final int row, final int segment, final String text) {
@@ -270,45 +233,17 @@ public class LcdDisplay {
     }
 
     private void sendTextSegFull(final int row, final int segment, final String text) {
-        segBuffer[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-        final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-        for (int i = 0; i < segmentLength; i++) {
-            segBuffer[i + 7] = i < ca.length ? ca[i] : 32;
-            lines[row][segment * 7 + i] = (char) segBuffer[i + 7];
-        }
-        midiOut.sendSysex(segBuffer);
-        displayRep.line(row).text().setValue(String.valueOf(lines[row]));
+        frameBuffer.write(row, segment * segmentLength + segmentOffset, text, segmentLength);
     }
 
     private void sendTextSeg(final int row, final int segment, final String text) {
-        final byte[] ca = text.getBytes(StandardCharsets.US_ASCII);
-        if (segment == 8) {
-            if (isLowerDisplay()) {
-                handleLastCell(row, segment, ca);
-            }
-        } else {
-            segBuffer[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-            for (int i = 0; i < segmentLength - 1; i++) {
-                segBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
-                lines[row][segment * 7 + i] = (char) segBuffer[i + 7];
-            }
-            if (segment < segmentLength) {
-                segBuffer[6 + segmentLength] = ' ';
-            }
-            midiOut.sendSysex(segBuffer);
-            displayRep.line(row).text().setValue(String.valueOf(lines[row]));
-        }
-    }
-
-    private void handleLastCell(final int row, final int segment, final byte[] ca) {
-        segBufferExp[6] = (byte) (row * LcdDisplay.ROW2_START + segment * segmentLength + segmentOffset);
-        for (int i = 0; i < segmentLength; i++) {
-            segBufferExp[i + 7] = i < ca.length ? ca[i] : 32;
-        }
-        if (segment < segmentLength + 1) {
-            segBufferExp[6 + segmentLength] = ' ';
+        if (segment == 8 && !isLowerDisplay()) {
+            return;
         }
-        midiOut.sendSysex(segBufferExp);
+        // the last character of a segment is kept blank to separate it from the next one
+        final int column = segment * segmentLength + segmentOffset;
+        frameBuffer.write(row, column, text, segmentLength - 1);
+        frameBuffer.write(row, column + segmentLength - 1, "", 1);
     }
 
     public void refreshDisplay() {
@@ -321,6 +256,26 @@ public class LcdDisplay {
                 }
             }
         }
+        frameBuffer.invalidate();
+    }
+
+    /**
+     * Sends the characters changed since the last flush and updates the simulation.
+     */
+    public void flush() {
+        if (frameBuffer.isDirty()) {
+            frameBuffer.flush(this::sendChars);
+        }
+        final int changedRows = frameBuffer.takeChangedRows();
+        for (int row = 0; row < 2; row++) {
+            if ((changedRows & 1 << row) != 0) {
+                displayRep.line(row).text().setValue(frameBuffer.getText(row, displayLen));
+            }
+        }
+    }
+
+    private void sendChars(final int position, final byte[] chars, final int offset, final int length) {
+        sysex.begin(header).raw(position).bytes(chars, offset, length).end().send(midiOut);
     }
 
     public void sendChar(final int index, final char cx) {
@@ -329,14 +284,17 @@ public class LcdDisplay {
 
     public void clearAll() {
         midiOut.sendSysex(sysHead + "62 f7");
+        frameBuffer.invalidate();
         sendToDisplay(0, "");
         sendToDisplay(1, "");
+        flush();
     }
 
     public void exitMessage() {
         midiOut.sendSysex(sysHead + "62 f7");
         centerText(topRowFlipped ? 1 : 0, "Bitwig Studio");
         centerText(topRowFlipped ? 0 : 1, "... not running ...");
+        flush();
     }
 
     public void clearText() {
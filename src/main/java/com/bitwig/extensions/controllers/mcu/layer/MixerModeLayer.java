@@ -89,9 +89,11 @@ public class MixerModeLayer {
     }
     
     public void reassign() {
-        activateLayers(false);
-        this.assign();
-        activateLayers(true);
+        mixer.getLayers().batch(() -> {
+            activateLayers(false);
+            this.assign();
+            activateLayers(true);
+        });
     }
     
     public void handleInfoState(final boolean start, final Orientation orientation) {
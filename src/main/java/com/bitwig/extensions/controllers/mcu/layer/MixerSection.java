@@ -58,10 +58,11 @@ public class MixerSection {
     private final MixingModeLayerCollection globalMixerLayerCollection;
     private final ClipLaunchingLayer clipLaunchingLayer;
     private final TimedProcessor timedProcessor;
+    private final Layers layers;
     
     public MixerSection(final Context diContext, final MixerSectionHardware hwElements, final MainSection mainSection,
         final int sectionIndex, final boolean isMain) {
-        final Layers layers = diContext.getService(Layers.class);
+        layers = diContext.getService(Layers.class);
         this.sectionIndex = sectionIndex;
         viewControl = diContext.getService(ViewControl.class);
         globalStates = diContext.getService(GlobalStates.class);
@@ -226,8 +227,10 @@ public class MixerSection {
     }
     
     private void handleGlobalStates(final boolean globalStatesActive) {
-        activateButtonLayer();
-        modeLayers.get(controlMode).reassign();
+        layers.batch(() -> {
+            activateButtonLayer();
+            modeLayers.get(controlMode).reassign();
+        });
     }
     
     public void activateButtonLayer() {
@@ -252,10 +255,12 @@ public class MixerSection {
         deviceModeLayer.setPotMode(potMode);
         final ControlMode newControlMode = controlModeByVPotMode();
         if (newControlMode != controlMode) {
-            modeLayers.get(controlMode).setIsActive(false);
-            controlMode = newControlMode;
-            modeLayers.get(controlMode).assign();
-            modeLayers.get(controlMode).setIsActive(true);
+            layers.batch(() -> {
+                modeLayers.get(controlMode).setIsActive(false);
+                controlMode = newControlMode;
+                modeLayers.get(controlMode).assign();
+                modeLayers.get(controlMode).setIsActive(true);
+            });
         }
     }
     
@@ -272,7 +277,7 @@ public class MixerSection {
     }
     
     private void handleClipLaunchingState(final boolean active) {
-        activateButtonLayer();
+        layers.batch(this::activateButtonLayer);
     }
     
     private void setUpMasterVu() {
@@ -328,6 +333,10 @@ public class MixerSection {
         return emptyEncoderLayer;
     }
     
+    public Layers getLayers() {
+        return layers;
+    }
+    
     public boolean isFlipped() {
         return globalStates.getFlipped().get();
     }
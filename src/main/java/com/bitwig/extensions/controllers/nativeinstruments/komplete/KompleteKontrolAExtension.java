@@ -5,7 +5,6 @@ import com.bitwig.extension.controller.api.*;
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.midi.TextCommand;
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.midi.ValueCommand;
 import com.bitwig.extensions.framework.Layer;
-import com.bitwig.extensions.framework.Layers;
 
 public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 
@@ -21,7 +20,6 @@ public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 
       surface.setPhysicalSize(200, 100);
 
-      layers = new Layers(this);
       mainLayer = new Layer(layers, "Main");
       arrangeFocusLayer = new Layer(layers, "ArrangeFocus");
       sessionFocusLayer = new Layer(layers, "SessionFocus");
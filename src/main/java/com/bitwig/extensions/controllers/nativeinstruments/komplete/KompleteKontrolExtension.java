@@ -31,6 +31,8 @@ import com.bitwig.extensions.controllers.nativeinstruments.komplete.midi.TextCom
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.midi.ValueCommand;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.framework.values.FocusMode;
 
 public abstract class KompleteKontrolExtension extends ControllerExtension {
@@ -81,7 +83,10 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
         debugHost = host;
         application = host.createApplication();
         surface = host.createHardwareSurface();
-        midiProcessor = new MidiProcessor(host, surface);
+        final ExtensionMetrics metrics = new ExtensionMetrics();
+        layers = new Layers(this, metrics);
+        metrics.createSettings(host);
+        midiProcessor = new MidiProcessor(host, surface, metrics, new TimerWheel(host));
         clipSceneCursor = new ClipSceneCursor(host, navigationState);
     }
 
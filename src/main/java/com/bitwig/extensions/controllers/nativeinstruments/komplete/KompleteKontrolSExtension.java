@@ -3,7 +3,6 @@ package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 import com.bitwig.extension.controller.api.*;
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.definition.AbstractKompleteKontrolExtensionDefinition;
 import com.bitwig.extensions.framework.Layer;
-import com.bitwig.extensions.framework.Layers;
 
 public class KompleteKontrolSExtension extends KompleteKontrolExtension {
 
@@ -21,7 +20,6 @@ public class KompleteKontrolSExtension extends KompleteKontrolExtension {
       final ControllerHost host = getHost();
 
       midiProcessor.intoDawMode();
-      layers = new Layers(this);
       mainLayer = new Layer(layers, "Main");
       arrangeFocusLayer = new Layer(layers, "ArrangeFocus");
       sessionFocusLayer = new Layer(layers, "SessionFocus");
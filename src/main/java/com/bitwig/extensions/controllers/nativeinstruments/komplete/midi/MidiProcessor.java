@@ -9,6 +9,9 @@ import com.bitwig.extension.controller.api.MidiIn;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.CcAssignment;
 import com.bitwig.extensions.controllers.nativeinstruments.komplete.KompleteKontrolExtension;
+import com.bitwig.extensions.framework.meter.VuMeterEngine;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public class MidiProcessor {
     final NhiaSyexLevelsCommand trackLevelMeterCommand = new NhiaSyexLevelsCommand(0x49);
@@ -22,12 +25,20 @@ public class MidiProcessor {
     private boolean dawModeConfirmed;
     private String lastReportedKKInstance = null;
     private final HardwareSurface surface;
+    private final VuMeterEngine vuMeters;
+    private final ExtensionMetrics metrics;
 
-    public MidiProcessor(ControllerHost host, HardwareSurface surface) {
+    public MidiProcessor(ControllerHost host, HardwareSurface surface, final ExtensionMetrics metrics,
+                         final TimerWheel timerWheel) {
         this.midiIn = host.getMidiInPort(0);
-        this.midiOut = host.getMidiOutPort(0);
+        this.midiOut = metrics.instrument(0, host.getMidiOutPort(0));
+        this.metrics = metrics;
         this.surface = surface;
         this.host = host;
+        // left and right level of the 8 tracks, all levels go out in a single SysEx per frame
+        this.vuMeters = new VuMeterEngine(timerWheel, 16);
+        vuMeters.setMeterListener(this::updateLevel);
+        vuMeters.setFrameListener(() -> trackLevelMeterCommand.update(midiOut));
         midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) this::onMidi0);
     }
 
@@ -95,18 +106,31 @@ public class MidiProcessor {
     }
 
     public void updateVuLeft(int index, byte value) {
-        trackLevelMeterCommand.updateLeft(index, value);
+        vuMeters.setLevel(index * 2, value);
     }
 
     public void updateVuRight(int index, byte value) {
-        trackLevelMeterCommand.updateRight(index, value);
-        trackLevelMeterCommand.update(midiOut);
+        vuMeters.setLevel(index * 2 + 1, value);
+    }
+
+    private void updateLevel(int meter, int value) {
+        if (meter % 2 == 0) {
+            trackLevelMeterCommand.updateLeft(meter / 2, value);
+        } else {
+            trackLevelMeterCommand.updateRight(meter / 2, value);
+        }
+    }
+
+    public VuMeterEngine getVuMeters() {
+        return vuMeters;
     }
 
     public void doFlush() {
+        final long start = metrics.beginFlush();
         if (dawModeConfirmed) {
             surface.updateHardware();
         }
+        metrics.endFlush(start);
     }
 
     public void resetAllLEDs() {
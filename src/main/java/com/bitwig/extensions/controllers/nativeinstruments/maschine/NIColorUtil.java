@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine;
 
 import com.bitwig.extension.controller.api.SettableColorValue;
+import com.bitwig.extensions.framework.color.PaletteLookup;
 
 import java.awt.*;
 import java.util.Hashtable;
@@ -10,8 +11,8 @@ public class NIColorUtil {
 
    private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
    private static final Map<Integer, Integer> fixedColorTable = new Hashtable<>();
-   private static final Map<Integer, Integer> colorTable = new Hashtable<>();
    private static final Map<Hsb, Integer> hsbTable = new Hashtable<>();
+   static final PaletteLookup colorLookup = new PaletteLookup(PaletteLookup.BITS_15, NIColorUtil::calcColor);
 
    public static void registerHsb(Hsb hsb, int base, int offset) {
       hsbTable.put(hsb, base * 4 + offset);
@@ -65,6 +66,9 @@ public class NIColorUtil {
       fixedColorTable.put(4444857, 36);
       fixedColorTable.put(4507903, 40);
       fixedColorTable.put(8355711, 68);
+
+      // the fixed table holds the Bitwig track colors
+      fixedColorTable.keySet().forEach(colorLookup::exact);
    }
 
    // TODO This dude needs to go
@@ -91,21 +95,14 @@ public class NIColorUtil {
       if (rv == 0 && gv == 0 && bv == 0) {
          return 0;
       }
-      final int lookupIndex = rv << 16 | gv << 8 | bv;
-      Integer color = colorTable.get(lookupIndex);
-      if (color != null) {
-         return color.intValue();
-      }
-      return colorTable.computeIfAbsent(lookupIndex, key -> calcColor(rv, gv, bv));
+      return colorLookup.lookup(rv, gv, bv);
    }
 
    private static int calcColor(int rv, int gv, int bv) {
       final Hsb hsb = rgbToHsb(rv, gv, bv);
 
-      DebugOutMs.println(" %d %d %d => HSB = %s ", rv, gv, bv, hsb);
       Integer fixed = hsbTable.get(hsb);
       if (fixed != null) {
-         //DebugOutMs.println(" FIXED %s", fixed);
          return fixed;
       }
 
@@ -121,38 +118,10 @@ public class NIColorUtil {
          off++;
       }
       int color_index = Math.min(hsb.hue + off, 16);
-      DebugOutMs.println(" off = %d ci=%d bright=%d ", off, color_index, bright);
       int color = (color_index << 2) + bright;
       return color;
    }
 
-   public static int convertColor_(final float red, final float green, final float blue) {
-      final int rv = (int) Math.floor(red * 255);
-      final int gv = (int) Math.floor(green * 255);
-      final int bv = (int) Math.floor(blue * 255);
-      if (rv == 0 && gv == 0 && bv == 0) {
-         return 0;
-      }
-      final int lookupIndex = rv << 16 | gv << 8 | bv;
-
-      final Hsb hsb = rgbToHsb(rv, gv, bv);
-      if (hsb.bright < 1 || hsb.sat < 3) {
-         colorTable.put(lookupIndex, 68);
-         return colorTable.get(lookupIndex);
-      }
-      int off = 0;
-      if (hsb.bright + hsb.sat < 22) {
-         off = 1;
-      }
-      if (2 <= hsb.hue && hsb.hue <= 6 && hsb.bright < 13) {
-         off = 2;
-      }
-      final int color_index = Math.min(hsb.hue + off + 1, 16);
-      final int color = color_index << 2;
-      colorTable.put(lookupIndex, color);
-      return color;
-   }
-
    private static Hsb rgbToHsb(final int rv, final int gv, final int bv) {
       float[] hsbValues = new float[3];
       Color.RGBtoHSB(rv, gv, bv, hsbValues);
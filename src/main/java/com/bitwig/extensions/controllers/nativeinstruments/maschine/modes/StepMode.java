@@ -14,6 +14,7 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLed;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayUtil;
+import com.bitwig.extensions.framework.sequencer.NoteStepIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,7 +32,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
 
    private Consumer<String> focusChangerListener;
 
-   private final NoteStep[] assignments = new NoteStep[16];
+   private final NoteStepIndex stepIndex = new NoteStepIndex(16);
    private final PressState[] pressStates = new PressState[16];
 
    private int padColor;
@@ -130,7 +131,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
    public void changeNoteVelocity(final int amount) {
       for (int i = 0; i < 16; i++) {
          if (pressStates[i] != PressState.None) {
-            final NoteStep note = assignments[i];
+            final NoteStep note = stepIndex.getNoteStep(i, 0);
             if (note != null && note.state() == State.NoteOn) {
                final double vel = Math.max(0, Math.min(1.0, note.velocity() + amount / 128.0));
                note.setVelocity(vel);
@@ -143,7 +144,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
    public void updateHeldNoteLength(final int amount) {
       for (int i = 0; i < 16; i++) {
          if (pressStates[i] != PressState.None) {
-            final NoteStep note = assignments[i];
+            final NoteStep note = stepIndex.getNoteStep(i, 0);
             if (note != null && note.state() == State.NoteOn) {
                final double duration = note.duration() + amount * positionHandler.getGridResolution();
                if (duration >= positionHandler.getGridResolution()) {
@@ -156,7 +157,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
    }
 
    private void handleSelection(final int index) {
-      final NoteStep note = assignments[index];
+      final NoteStep note = stepIndex.getNoteStep(index, 0);
       if (note == null || note.state() == State.Empty) {
          clip.setStep(index, 0, refVelocity, positionHandler.getGridResolution());
          pressStates[index] = PressState.New;
@@ -183,7 +184,8 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
    }
 
    private InternalHardwareLightState computeGridLedState(final int index) {
-      if (assignments[index] == null || assignments[index].state() == State.Empty) {
+      final State state = stepIndex.getState(index);
+      if (state == State.Empty) {
          if (index == playingStep) {
             return RgbLed.WHITE_BRIGHT;
          }
@@ -191,14 +193,14 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
       } else if (isDrumEdit) {
          if (index == playingStep) {
             return RgbLed.of(padColor + 3);
-         } else if (assignments[index].state() == State.NoteSustain) {
+         } else if (state == State.NoteSustain) {
             return RgbLed.of(padColor);
          }
          return RgbLed.of(padColor + 2);
       } else {
          if (index == playingStep) {
             return RgbLed.of(clipColor + 3);
-         } else if (assignments[index].state() == State.NoteSustain) {
+         } else if (state == State.NoteSustain) {
             return RgbLed.of(clipColor);
          }
          return RgbLed.of(clipColor + 2);
@@ -275,7 +277,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
 
    private void handleNoteStep(final NoteStep noteStep) {
       // Which grid step contains Notes
-      assignments[noteStep.x()] = noteStep;
+      stepIndex.update(noteStep);
    }
 
    @Override
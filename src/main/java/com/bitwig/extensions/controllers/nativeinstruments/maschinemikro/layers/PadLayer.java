@@ -12,6 +12,7 @@ import com.bitwig.extensions.framework.di.Component;
 import com.bitwig.extensions.framework.di.Inject;
 import com.bitwig.extensions.framework.values.BooleanValueObject;
 import com.bitwig.extensions.framework.values.PadScaleHandler;
+import com.bitwig.extensions.framework.values.PlayingNotes;
 import com.bitwig.extensions.framework.values.Scale;
 
 import java.util.ArrayList;
@@ -59,7 +60,7 @@ public class PadLayer extends Layer {
 
    private final boolean[] isSelected = new boolean[16];
    private final boolean[] isBaseNote = new boolean[16];
-   private final boolean[] playing = new boolean[16];
+   private final PlayingNotes playingNotes;
    private final RgbColor[] padColors = new RgbColor[16];
    private MuteSoloMode muteSoloMode = MuteSoloMode.NONE;
 
@@ -134,7 +135,7 @@ public class PadLayer extends Layer {
       hwElements.bindEncoder(this, hwElements.getMainEncoder(), dir -> handleEncoder(dir));
       hwElements.getButton(CcAssignment.ENCODER_PRESS).bindIsPressed(this, this::handleEncoderPress);
 
-      viewControl.getCursorTrack().playingNotes().addValueObserver(this::handleNotePlaying);
+      playingNotes = PlayingNotes.of(viewControl.getCursorTrack());
       midiProcessor.addNoteListener((note, vel) -> {
          if (vel > 0) {
             this.stepEditor.setSelectedNote(noteTable[note], -1);
@@ -463,34 +464,25 @@ public class PadLayer extends Layer {
       return RgbColor.OFF;
    }
 
-   private void handleNotePlaying(PlayingNote[] notes) {
-      if (isActive()) {
-         for (int i = 0; i < 16; i++) {
-            playing[i] = false;
-         }
-         for (final PlayingNote playingNote : notes) {
-            final int padIndex = noteToPad[playingNote.pitch()];
-            if (padIndex != -1) {
-               playing[padIndex] = true;
-            }
-         }
-      }
+   private boolean isPadPlaying(final int padIndex) {
+      final int note = padToNote[padIndex];
+      return note != -1 && playingNotes.isPlaying(note);
    }
 
    private RgbColor soloLedState(int index, final DrumPad pad) {
       if (!pad.exists().get()) {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return RgbColor.WHITE.brightness(ColorBrightness.DIMMED);
          }
          return RgbColor.OFF;
       }
       if (pad.solo().get()) {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return SOLO_COLOR.brightness(ColorBrightness.SUPERBRIGHT);
          }
          return SOLO_COLOR.brightness(ColorBrightness.BRIGHT);
       }
-      if (playing[index]) {
+      if (isPadPlaying(index)) {
          return SOLO_PLAY_COLOR.brightness(ColorBrightness.BRIGHT);
       }
       return SOLO_PLAY_COLOR;
@@ -498,18 +490,18 @@ public class PadLayer extends Layer {
 
    private RgbColor muteModeLedState(int index, final DrumPad pad) {
       if (!pad.exists().get()) {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return RgbColor.WHITE.brightness(ColorBrightness.DIMMED);
          }
          return RgbColor.OFF;
       }
       if (pad.mute().get()) {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return MUTE_COLOR.brightness(ColorBrightness.SUPERBRIGHT);
          }
          return MUTE_COLOR.brightness(ColorBrightness.BRIGHT);
       }
-      if (playing[index]) {
+      if (isPadPlaying(index)) {
          return MUTE_COLOR.brightness(ColorBrightness.BRIGHT);
       }
       return MUTE_COLOR.brightness(ColorBrightness.DARKENED);
@@ -521,7 +513,7 @@ public class PadLayer extends Layer {
             return getPadColors(index);
          } else {
             RgbColor color = cursorTrackColor;
-            if (playing[index]) {
+            if (isPadPlaying(index)) {
                return color.brightness(ColorBrightness.SUPERBRIGHT);
             }
             return color.brightness(ColorBrightness.DIMMED);
@@ -531,7 +523,7 @@ public class PadLayer extends Layer {
             return RgbColor.OFF;
          }
          RgbColor color = isBaseNote[index] ? RgbColor.GREEN : cursorTrackColor;
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return color.brightness(ColorBrightness.SUPERBRIGHT);
          }
          return color.brightness(ColorBrightness.DIMMED);
@@ -541,12 +533,12 @@ public class PadLayer extends Layer {
    private RgbColor getPadColors(int index) {
       RgbColor color = padColors[index];
       if (isSelected[index]) {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return RgbColor.WHITE.brightness(ColorBrightness.BRIGHT);
          }
          return color.brightness(ColorBrightness.BRIGHT);
       } else {
-         if (playing[index]) {
+         if (isPadPlaying(index)) {
             return color.brightness(ColorBrightness.SUPERBRIGHT);
          }
          return color.brightness(ColorBrightness.DIMMED);
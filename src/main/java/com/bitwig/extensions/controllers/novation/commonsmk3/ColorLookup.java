@@ -1,9 +1,12 @@
 package com.bitwig.extensions.controllers.novation.commonsmk3;
 
 import com.bitwig.extension.api.Color;
+import com.bitwig.extensions.framework.color.BitwigPalette;
+import com.bitwig.extensions.framework.color.PaletteLookup;
 
 public class ColorLookup {
    private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
+   static final PaletteLookup LOOKUP = new PaletteLookup(PaletteLookup.BITS_15, ColorLookup::computeColor);
 
    public static int toColor(final Color color) {
       if (color == null || color.getAlpha() == 0) {
@@ -16,6 +19,10 @@ public class ColorLookup {
       final int rv = (int) Math.floor(r * 255);
       final int gv = (int) Math.floor(g * 255);
       final int bv = (int) Math.floor(b * 255);
+      return LOOKUP.lookup(rv, gv, bv);
+   }
+
+   private static int computeColor(final int rv, final int gv, final int bv) {
       if (rv < 10 && gv < 10 && bv < 10) {
          return 0; // black
       } else if (rv > 230 && gv > 230 && bv > 230) {
@@ -169,6 +176,13 @@ public class ColorLookup {
       rgb(246, 119, 104)
    };
 
+   static {
+      for (final Color color : PALETTE) {
+         LOOKUP.exact(color.getRed255() << 16 | color.getGreen255() << 8 | color.getBlue255());
+      }
+      LOOKUP.exact(BitwigPalette.trackColors());
+   }
+
    private static Color rgb(final int r, final int g, final int b) {
       return Color.fromRGB255(r, g, b);
    }
@@ -23,26 +23,27 @@ public class DrumButton extends LaunchPadButton {
     private void updateState(final InternalHardwareLightState state) {
         if (state instanceof RgbState) {
             final RgbState rgbState = (RgbState) state;
-            midiProcessor.sendMidi(midiState, notevalue, rgbState.getColorIndex());
+            midiProcessor.sendLed(midiState, notevalue, rgbState.getColorIndex());
             switch (rgbState.getState()) {
                 case NORMAL:
-                    midiProcessor.sendMidi(midiState, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(midiState, notevalue, rgbState.getColorIndex());
                     break;
                 case FLASHING:
-                    midiProcessor.sendMidi(midiState, notevalue, rgbState.getAltColor());
-                    midiProcessor.sendMidi(midiState + 1, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(midiState, notevalue, rgbState.getAltColor());
+                    midiProcessor.sendLed(midiState + 1, notevalue, rgbState.getColorIndex());
                     break;
                 case PULSING:
-                    midiProcessor.sendMidi(midiState + 2, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(midiState + 2, notevalue, rgbState.getColorIndex());
                     break;
             }
         } else {
-            midiProcessor.sendMidi(midiState, notevalue, 0);
+            midiProcessor.sendLed(midiState, notevalue, 0);
         }
     }
 
     @Override
     public void refresh() {
+        midiProcessor.invalidateLed(midiState, notevalue);
         updateState(light.state().currentValue());
     }
 }
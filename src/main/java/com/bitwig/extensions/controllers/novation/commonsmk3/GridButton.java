@@ -21,23 +21,24 @@ public class GridButton extends LaunchPadButton {
             final RgbState rgbState = (RgbState) state;
             switch (rgbState.getState()) {
                 case NORMAL:
-                    midiProcessor.sendMidi(Midi.NOTE_ON, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(Midi.NOTE_ON, notevalue, rgbState.getColorIndex());
                     break;
                 case FLASHING:
-                    midiProcessor.sendMidi(Midi.NOTE_ON, notevalue, rgbState.getAltColor());
-                    midiProcessor.sendMidi(Midi.NOTE_ON + 1, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(Midi.NOTE_ON, notevalue, rgbState.getAltColor());
+                    midiProcessor.sendLed(Midi.NOTE_ON + 1, notevalue, rgbState.getColorIndex());
                     break;
                 case PULSING:
-                    midiProcessor.sendMidi(Midi.NOTE_ON + 2, notevalue, rgbState.getColorIndex());
+                    midiProcessor.sendLed(Midi.NOTE_ON + 2, notevalue, rgbState.getColorIndex());
                     break;
             }
         } else {
-            midiProcessor.sendMidi(Midi.NOTE_ON, notevalue, 0);
+            midiProcessor.sendLed(Midi.NOTE_ON, notevalue, 0);
         }
     }
 
     @Override
     public void refresh() {
+        midiProcessor.invalidateLed(Midi.NOTE_ON, notevalue);
         updateState(light.state().currentValue());
     }
 
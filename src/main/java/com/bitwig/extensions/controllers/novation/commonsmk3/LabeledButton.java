@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.novation.commonsmk3;
 
 import com.bitwig.extension.controller.api.HardwareSurface;
+import com.bitwig.extensions.framework.values.Midi;
 
 public class LabeledButton extends LaunchPadButton {
     private final int ccValue;
@@ -23,6 +24,7 @@ public class LabeledButton extends LaunchPadButton {
 
     @Override
     public void refresh() {
+        midiProcessor.invalidateLed(Midi.CC, ccValue);
         midiProcessor.updatePadLed(light.state().currentValue(), ccValue);
     }
 
@@ -1,13 +1,13 @@
 package com.bitwig.extensions.controllers.novation.commonsmk3;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 import com.bitwig.extension.controller.api.MidiIn;
 import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.midi.MidiOutBuffer;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 import com.bitwig.extensions.framework.time.TimedEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.framework.values.Midi;
 
 public class MidiProcessor {
@@ -16,28 +16,32 @@ public class MidiProcessor {
     private static final String LAYOUT_COMMAND = "F0 00 20 29 02 %02X 00 %02X F7";
     private static final String NOTE_LAYOUT_COMMAND = "F0 00 20 29 02 %02X 0F %02X F7";
     private static final String BUTTON_ID_SYSEX = "F0 00 20 29 02 %02X %02X %02X 01 F7";
-    private static final String FADER_SET = "%02X %02X %02X %02X ";
-    public static final String FADER_CONFIG = "F0 00 20 29 02 %02X 01 00 %02X ";
     
     private final MidiIn midiIn;
     private final MidiOut midiOut;
-    private final Queue<TimedEvent> timedEvents = new ConcurrentLinkedQueue<>();
+    private final MidiOutBuffer padOut;
     private final ControllerHost host;
+    private final TimerWheel timerWheel;
     private final int deviceSysExCode;
     private final int sliderValueStatus;
+    private final byte[] sysExHeader;
+    private final SysexWriter sysex = new SysexWriter();
     
-    public MidiProcessor(final ControllerHost host, final MidiIn midiIn, final MidiOut midiOut,
-        final LaunchpadDeviceConfig config) {
+    public MidiProcessor(final ControllerHost host, final TimerWheel timerWheel, final MidiIn midiIn,
+        final MidiOut midiOut, final LaunchpadDeviceConfig config) {
         this.host = host;
         this.midiIn = midiIn;
         this.midiOut = midiOut;
+        this.padOut = new MidiOutBuffer(midiOut);
+        this.timerWheel = timerWheel;
         deviceSysExCode = config.getSysExId();
         sliderValueStatus = config.getSliderValueStatus();
+        sysExHeader = new byte[] {(byte) SysexWriter.SYSEX_START, 0x00, 0x20, 0x29, 0x02, (byte) deviceSysExCode};
         //DebugMini.println(" MIDI PROC %02X", sliderValueStatus);
     }
     
     public void queueEvent(final TimedEvent event) {
-        timedEvents.add(event);
+        timerWheel.queueEvent(event);
     }
     
     public MidiIn getMidiIn() {
@@ -48,23 +52,6 @@ public class MidiProcessor {
         return midiOut;
     }
     
-    public void start() {
-        host.scheduleTask(this::handlePing, 50);
-    }
-    
-    private void handlePing() {
-        if (!timedEvents.isEmpty()) {
-            
-            for (final TimedEvent event : timedEvents) {
-                event.process();
-                if (event.isCompleted()) {
-                    timedEvents.remove(event);
-                }
-            }
-        }
-        host.scheduleTask(this::handlePing, 100);
-    }
-    
     public void sendMidi(final int status, final int val1, final int val2) {
         midiOut.sendMidi(status, val1, val2);
     }
@@ -95,12 +82,11 @@ public class MidiProcessor {
     }
     
     public void setFaderBank(final int orient, final int[] colorIndex, final boolean uniPolar, final int ccNrOffset) {
-        final StringBuilder sysEx = new StringBuilder(String.format(FADER_CONFIG, deviceSysExCode, orient));
+        sysex.begin(sysExHeader).raw(0x01).raw(0x00).data(orient);
         for (int i = 0; i < 8; i++) {
-            sysEx.append(String.format(FADER_SET, i, uniPolar ? 0 : 1, ccNrOffset + i, colorIndex[i]));
+            sysex.data(i).data(uniPolar ? 0 : 1).data(ccNrOffset + i).data(colorIndex[i]);
         }
-        sysEx.append("F7");
-        midiOut.sendSysex(sysEx.toString());
+        sysex.end().send(midiOut);
         toLayout(0x0D);
     }
     
@@ -108,21 +94,43 @@ public class MidiProcessor {
         if (state instanceof final RgbState rgbState) {
             switch (rgbState.getState()) {
                 case NORMAL:
-                    sendMidi(Midi.CC, ccValue, rgbState.getColorIndex());
+                    padOut.sendMidi(Midi.CC, ccValue, rgbState.getColorIndex());
                     break;
                 case FLASHING:
-                    sendMidi(Midi.CC, ccValue, rgbState.getAltColor());
-                    sendMidi(Midi.CC + 1, ccValue, rgbState.getColorIndex());
+                    padOut.sendMidi(Midi.CC, ccValue, rgbState.getAltColor());
+                    padOut.sendMidi(Midi.CC + 1, ccValue, rgbState.getColorIndex());
                     break;
                 case PULSING:
-                    sendMidi(Midi.CC + 2, ccValue, rgbState.getColorIndex());
+                    padOut.sendMidi(Midi.CC + 2, ccValue, rgbState.getColorIndex());
                     break;
             }
         } else {
-            sendMidi(Midi.NOTE_ON, ccValue, 0);
+            padOut.sendMidi(Midi.NOTE_ON, ccValue, 0);
         }
     }
     
+    /**
+     * Sends the pad LED updates collected since the last flush.
+     */
+    public void flush() {
+        padOut.flush();
+    }
+    
+    /**
+     * Sends a pad or button LED message with the next flush. Superseded and unchanged colors are not sent.
+     */
+    public void sendLed(final int status, final int val1, final int val2) {
+        padOut.sendMidi(status, val1, val2);
+    }
+    
+    /**
+     * Forgets the colors last sent to a pad, so the next update is sent even if it didn't change.
+     */
+    public void invalidateLed(final int status, final int val1) {
+        padOut.invalidate(status, val1);
+        host.requestFlush();
+    }
+    
     public void delayAction(final int delayTime, final Runnable action) {
         this.host.scheduleTask(action, delayTime);
     }
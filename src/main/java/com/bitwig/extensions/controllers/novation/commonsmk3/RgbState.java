@@ -1,11 +1,11 @@
 package com.bitwig.extensions.controllers.novation.commonsmk3;
 
-import java.util.HashMap;
 import java.util.Objects;
 
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.LightStateCache;
 
 public class RgbState extends InternalHardwareLightState
 {
@@ -13,7 +13,8 @@ public class RgbState extends InternalHardwareLightState
 
     private static final RgbState[] pulseRegistry = new RgbState[128];
 
-    private static final HashMap<Integer, RgbState> flashingRegistry = new HashMap<>();
+    private static final LightStateCache<RgbState> flashingRegistry =
+        new LightStateCache<>(key -> new RgbState(key >> 8, LightState.FLASHING, key & 0xFF));
 
     public static final RgbState OFF = RgbState.of(0);
 
@@ -87,9 +88,7 @@ public class RgbState extends InternalHardwareLightState
     {
         final int index = Math.min(Math.max(0, colorIndex), 127);
         final int altInd = Math.min(Math.max(0, altColor), 127);
-        final int lookUp = index << 8 | altInd;
-        return flashingRegistry.computeIfAbsent(lookUp,
-            key -> new RgbState(index, LightState.FLASHING, altInd));
+        return flashingRegistry.get(index << 8 | altInd);
     }
 
     public static RgbState pulse(final int colorIndex)
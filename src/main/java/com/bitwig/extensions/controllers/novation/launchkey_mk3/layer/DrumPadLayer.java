@@ -9,23 +9,25 @@ import com.bitwig.extensions.controllers.novation.launchkey_mk3.RgbState;
 import com.bitwig.extensions.controllers.novation.launchkey_mk3.control.RgbCcButton;
 import com.bitwig.extensions.controllers.novation.launchkey_mk3.control.RgbNoteButton;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
 public class DrumPadLayer extends Layer {
+   private static final KeyTranslationTable.Layout PAD_LAYOUT = KeyTranslationTable.consecutive(36, 16);
 
    private final DrumPadBank padBank;
 
    private final NoteInput noteInput;
+   private final KeyTranslationTable keyTranslation;
    private final Set<Integer> padNotes = new HashSet<>();
    private final PinnableCursorDevice cursorDevice;
    private boolean selectModeActive = false;
    private int padsNoteOffset = 32;
    private int keyNoteOffset = 32;
    private final int[] hangingNotes = new int[16];
-   private final Integer[] noteTable = new Integer[128];
    private final boolean[] isPlaying = new boolean[128];
 
    private final PadSlot[] padSlots = new PadSlot[16];
@@ -65,7 +67,6 @@ public class DrumPadLayer extends Layer {
 
    public DrumPadLayer(final LaunchkeyMk3Extension driver) {
       super(driver.getLayers(), "DRUM_LAYER");
-      Arrays.fill(noteTable, -1);
       Arrays.fill(hangingNotes, -1);
       shiftLayer = new Layer(driver.getLayers(), "DRUM_PAD_SHIFT_LAYER");
 
@@ -73,6 +74,8 @@ public class DrumPadLayer extends Layer {
       final CursorTrack cursorTrack = driver.getCursorTrack();
       noteInput = driver.getMidiIn().createNoteInput("MIDI", "89????", "99????", "A9????");
       noteInput.setShouldConsumeEvents(false);
+      keyTranslation = KeyTranslationTable.of(noteInput);
+      keyTranslation.setScrollSteps(4, 16);
       final PinnableCursorDevice primaryDevice = driver.getPrimaryDevice();
       cursorDevice = driver.getCursorDevice();
       padBank = primaryDevice.createDrumPadBank(16);
@@ -264,17 +267,11 @@ public class DrumPadLayer extends Layer {
    }
 
    public void applyNotes(final int noteOffset) {
-      Arrays.fill(noteTable, -1);
-      for (int note = 0; note < 16; note++) {
-         final int value = noteOffset + note;
-         noteTable[36 + note] = value < 128 ? value : -1;
-      }
-      noteInput.setKeyTranslationTable(noteTable);
+      keyTranslation.apply(PAD_LAYOUT, noteOffset);
    }
 
    private void resetNotes() {
-      Arrays.fill(noteTable, -1);
-      noteInput.setKeyTranslationTable(noteTable);
+      keyTranslation.clear();
    }
 
    @Override
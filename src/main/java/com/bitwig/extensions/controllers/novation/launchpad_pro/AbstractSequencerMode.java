@@ -51,9 +51,9 @@ abstract class AbstractSequencerMode extends Mode
 
       bindPressed(mDriver.mUpButton, cursorClip.selectPreviousAction());
       bindPressed(mDriver.mDownButton, cursorClip.selectNextAction());
-      bindLightState(() -> cursorClip.hasPrevious().get() ? new LedState(cursorTrack.color()) : new LedState(Color.scale(new Color(cursorTrack.color()), .2f)),
+      bindLightState(() -> cursorClip.hasPrevious().get() ? LedState.of(cursorTrack.color()) : LedState.of(cursorTrack.color(), .2f),
          mDriver.mUpButton);
-      bindLightState(() -> cursorClip.hasNext().get() ? new LedState(cursorTrack.color()) : new LedState(Color.scale(new Color(cursorTrack.color()), .2f)),
+      bindLightState(() -> cursorClip.hasNext().get() ? LedState.of(cursorTrack.color()) : LedState.of(cursorTrack.color(), .2f),
          mDriver.mDownButton);
 
       bindLayer(mDriver.mShiftButton, mShiftLayer);
@@ -177,8 +177,8 @@ abstract class AbstractSequencerMode extends Mode
             {
                case 0 -> LedState.VOLUME_MODE_LOW;
                case 1 -> LedState.PAN_MODE_LOW;
-               case 2 -> new LedState(Color.CYAN_LOW);
-               case 3 -> new LedState(Color.WHITE_LOW);
+               case 2 -> LedState.of(Color.CYAN_LOW);
+               case 3 -> LedState.of(Color.WHITE_LOW);
                default -> throw new IllegalStateException();
             };
       }
@@ -196,7 +196,7 @@ abstract class AbstractSequencerMode extends Mode
       {
          case 0 ->
          {
-            return new LedState(x <= gain * 7 ? Color.VOLUME_MODE : Color.VOLUME_MODE_LOW);
+            return LedState.of(x <= gain * 7 ? Color.VOLUME_MODE : Color.VOLUME_MODE_LOW);
          }
          case 1 ->
          {
@@ -207,11 +207,11 @@ abstract class AbstractSequencerMode extends Mode
          }
          case 2 ->
          {
-            return new LedState(computeDuration(x) <= duration ? Color.CYAN : Color.CYAN_LOW);
+            return LedState.of(computeDuration(x) <= duration ? Color.CYAN : Color.CYAN_LOW);
          }
          case 3 ->
          {
-            return new LedState(x <= velocity * 7 ? Color.WHITE : Color.WHITE_LOW);
+            return LedState.of(x <= velocity * 7 ? Color.WHITE : Color.WHITE_LOW);
          }
          default -> throw new IllegalStateException();
       }
@@ -226,9 +226,9 @@ abstract class AbstractSequencerMode extends Mode
          return switch (y)
             {
                case 0 -> LedState.OFF;
-               case 1 -> new LedState(Color.BLUE_LOW);
-               case 2 -> new LedState(Color.YELLOW_LOW);
-               case 3 -> new LedState(Color.WHITE_LOW);
+               case 1 -> LedState.of(Color.BLUE_LOW);
+               case 2 -> LedState.of(Color.YELLOW_LOW);
+               case 3 -> LedState.of(Color.WHITE_LOW);
                default -> throw new IllegalStateException();
             };
       }
@@ -249,22 +249,22 @@ abstract class AbstractSequencerMode extends Mode
          }
          case 1 ->
          {
-            return new LedState(x <= pressure * 7 ? Color.BLUE : Color.BLUE_LOW);
+            return LedState.of(x <= pressure * 7 ? Color.BLUE : Color.BLUE_LOW);
          }
          case 2 ->
          {
             final double itimbre = (x - 3.5) / 3.5;
             if ((timbre > 0 && itimbre > 0 && itimbre <= timbre) || (timbre < 0 && itimbre < 0 && timbre <= itimbre))
-               return new LedState(Color.YELLOW);
-            return new LedState(Color.YELLOW_LOW);
+               return LedState.of(Color.YELLOW);
+            return LedState.of(Color.YELLOW_LOW);
          }
          case 3 ->
          {
             final double itranspose = computeTranspose(x);
             if ((transpose > 0 && itranspose > 0 && itranspose <= transpose) || (transpose < 0 && itranspose < 0
                && transpose <= itranspose))
-               return new LedState(Color.WHITE);
-            return new LedState(Color.WHITE_LOW);
+               return LedState.of(Color.WHITE);
+            return LedState.of(Color.WHITE_LOW);
          }
          default -> throw new IllegalStateException();
       }
@@ -278,21 +278,21 @@ abstract class AbstractSequencerMode extends Mode
       {
          case 0 ->
          {
-            return new LedState(mDataMode == DataMode.SoundData ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.SoundData ? Color.YELLOW : Color.YELLOW_LOW);
          }
          case 1 ->
          {
-            return new LedState(mDataMode == DataMode.MixData ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.MixData ? Color.YELLOW : Color.YELLOW_LOW);
          }
          case 2 ->
          {
-            return new LedState(hasMainAltMode()
+            return LedState.of(hasMainAltMode()
                ? mDataMode == DataMode.MainAlt ? Color.YELLOW : Color.YELLOW_LOW
                : Color.OFF);
          }
          case 3 ->
          {
-            return new LedState(mDataMode == DataMode.Main ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.Main ? Color.YELLOW : Color.YELLOW_LOW);
          }
       }
       throw new IllegalStateException();
@@ -308,9 +308,9 @@ abstract class AbstractSequencerMode extends Mode
       final int playingStep = clip.playingStep().get();
 
       if (playingStep / 32 == y)
-         return new LedState(mPage == y ? Color.GREEN : Color.GREEN_LOW);
+         return LedState.of(mPage == y ? Color.GREEN : Color.GREEN_LOW);
       else if (8 * y < length)
-         return new LedState(mPage == y ? Color.WHITE : Color.WHITE_LOW);
+         return LedState.of(mPage == y ? Color.WHITE : Color.WHITE_LOW);
       return LedState.OFF;
    }
 
@@ -320,7 +320,7 @@ abstract class AbstractSequencerMode extends Mode
       final SettableBeatTimeValue loopLength = clip.getLoopLength();
       final double duration = loopLength.get();
 
-      return new LedState((y + 1) * 4 <= duration ? Color.WHITE : Color.WHITE_LOW);
+      return LedState.of((y + 1) * 4 <= duration ? Color.WHITE : Color.WHITE_LOW);
    }
 
    protected void setClipLength(final double lengthInBars)
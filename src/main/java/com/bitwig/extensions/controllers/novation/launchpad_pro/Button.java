@@ -54,7 +54,7 @@ final class Button
 
       final MultiStateHardwareLight light = hardwareSurface.createMultiStateHardwareLight(id + "-light");
       light.state().setValue(LedState.OFF);
-      light.setColorToStateFunction(color -> new LedState(color));
+      light.setColorToStateFunction(LedState::of);
       light.state().onUpdateHardware(internalHardwareLightState -> mDriver.updateButtonLed(Button.this, (LedState)internalHardwareLightState));
       bt.setBackgroundLight(light);
 
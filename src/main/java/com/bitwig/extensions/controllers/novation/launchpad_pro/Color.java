@@ -138,6 +138,12 @@ final class Color
       mBlue = (byte) (color.mBlue * scale);
    }
 
+   /** The color of a color value as shared instance, which doesn't allocate when called on every flush. */
+   static Color of(final ColorValue value)
+   {
+      return LedState.of(value).mColor;
+   }
+
    static Color fromRgb255(final int r, final int g, final int b)
    {
       return new Color(r / 255.0f, g / 255.0f, b / 255.0f);
@@ -155,6 +161,35 @@ final class Color
          (byte) (color.mBlue * scale));
    }
 
+   /** The components packed into 18 bits, 6 bits each. */
+   int packed()
+   {
+      return pack(mRed, mGreen, mBlue);
+   }
+
+   /** The components of this color scaled like {@link #scale(Color, float)}, packed into 18 bits. */
+   int packed(final float scale)
+   {
+      return pack((byte) (mRed * scale), (byte) (mGreen * scale), (byte) (mBlue * scale));
+   }
+
+   /** Packs a color value like {@link #Color(ColorValue)} followed by {@link #scale(Color, float)}. */
+   static int pack(final ColorValue value, final float scale)
+   {
+      return pack((byte) ((byte) (63 * value.red()) * scale), (byte) ((byte) (63 * value.green()) * scale),
+         (byte) ((byte) (63 * value.blue()) * scale));
+   }
+
+   static int pack(final byte red, final byte green, final byte blue)
+   {
+      return (red & 0x3F) << 12 | (green & 0x3F) << 6 | blue & 0x3F;
+   }
+
+   static Color fromPacked(final int packed)
+   {
+      return new Color((byte) (packed >> 12 & 0x3F), (byte) (packed >> 6 & 0x3F), (byte) (packed & 0x3F));
+   }
+
    public boolean isBlack()
    {
       return mRed == 0 && mGreen == 0 && mBlue == 0;
@@ -1,14 +1,13 @@
 package com.bitwig.extensions.controllers.novation.launchpad_pro;
 
 import com.bitwig.extension.controller.api.CursorTrack;
-import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 
 final class DrumMode extends Mode
 {
-   private static final LedState DRUM1_LED = new LedState(Color.fromRgb255(255, 170, 0));
-   private static final LedState DRUM2_LED = new LedState(Color.fromRgb255(0, 170, 127));
-   private static final LedState DRUM3_LED = new LedState(Color.fromRgb255(255, 0, 255));
-   private static final LedState DRUM4_LED = new LedState(Color.fromRgb255(255, 0, 0));
+   private static final LedState DRUM1_LED = LedState.of(Color.fromRgb255(255, 170, 0));
+   private static final LedState DRUM2_LED = LedState.of(Color.fromRgb255(0, 170, 127));
+   private static final LedState DRUM3_LED = LedState.of(Color.fromRgb255(255, 0, 255));
+   private static final LedState DRUM4_LED = LedState.of(Color.fromRgb255(255, 0, 0));
 
    public DrumMode(final LaunchpadProControllerExtension driver)
    {
@@ -44,10 +43,9 @@ final class DrumMode extends Mode
 
    private LedState computeGridLedState(final int x, final int y)
    {
-      final PlayingNoteArrayValue playingNotes = mDriver.mCursorTrack.playingNotes();
       final int pitch = calculatePitch(x, y);
 
-      if (playingNotes.isNotePlaying(pitch))
+      if (mDriver.mCursorTrackNotes.isPlaying(pitch))
          return LedState.STEP_PLAY;
 
       switch (x / 4 + 2 * (y / 4))
@@ -89,7 +87,7 @@ final class DrumMode extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       for (int x = 0; x < 8; ++x)
       {
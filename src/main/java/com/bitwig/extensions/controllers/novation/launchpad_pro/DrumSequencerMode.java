@@ -10,12 +10,10 @@ import com.bitwig.extension.controller.api.DrumPad;
 import com.bitwig.extension.controller.api.DrumPadBank;
 import com.bitwig.extension.controller.api.Arpeggiator;
 import com.bitwig.extension.controller.api.PinnableCursorClip;
-import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 import com.bitwig.extension.controller.api.RemoteControl;
 import com.bitwig.extension.controller.api.SettableIntegerValue;
 import com.bitwig.extension.controller.api.NoteStep;
 import com.bitwig.extension.controller.api.Track;
-import com.bitwig.extensions.util.NoteInputUtils;
 
 final class DrumSequencerMode extends AbstractSequencerMode
 {
@@ -135,25 +133,25 @@ final class DrumSequencerMode extends AbstractSequencerMode
          }
       }
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadSelectOn() ? Color.TRACK : Color.TRACK_LOW), mDriver.getPadButton(4, 0));
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadMuteOn() || mDriver.isDeleteOn() ? Color.MUTE : Color.MUTE_LOW), mDriver.getPadButton(5, 0));
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadSoloOn() || mDriver.isDeleteOn() ? Color.SOLO : Color.SOLO_LOW), mDriver.getPadButton(6, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadSelectOn() ? Color.TRACK : Color.TRACK_LOW), mDriver.getPadButton(4, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadMuteOn() || mDriver.isDeleteOn() ? Color.MUTE : Color.MUTE_LOW), mDriver.getPadButton(5, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadSoloOn() || mDriver.isDeleteOn() ? Color.SOLO : Color.SOLO_LOW), mDriver.getPadButton(6, 0));
       mMainActionsLayer.bindLightState(LedState.OFF, mDriver.getPadButton(7, 0));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 1) ? Color.BLUE : Color.BLUE_LOW), mDriver.getPadButton(4, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 1) ? Color.RED : Color.RED_LOW), mDriver.getPadButton(5, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 1) ? Color.GREEN : Color.GREEN_LOW), mDriver.getPadButton(6, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 1) ? Color.WHITE : Color.WHITE_LOW), mDriver.getPadButton(7, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 1) ? Color.BLUE : Color.BLUE_LOW), mDriver.getPadButton(4, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 1) ? Color.RED : Color.RED_LOW), mDriver.getPadButton(5, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 1) ? Color.GREEN : Color.GREEN_LOW), mDriver.getPadButton(6, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 1) ? Color.WHITE : Color.WHITE_LOW), mDriver.getPadButton(7, 1));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 2) ? Color.PURPLE : Color.PURPLE_LOW), mDriver.getPadButton(4, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(5, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(6, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(7, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 2) ? Color.PURPLE : Color.PURPLE_LOW), mDriver.getPadButton(4, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(5, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(6, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(7, 2));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(4, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(5, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(6, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(7, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(4, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(5, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(6, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(7, 3));
    }
 
    @Override
@@ -319,7 +317,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       if (mDriver.isShiftOn() || (mDataMode != DataMode.Main && mDataMode != DataMode.MainAlt))
          return;
@@ -394,7 +392,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
             mDriver.mDrumPadBank.clearMutedPads();
          if (mDriver.isDeleteOn() && x == 2 && y == 0)
             mDriver.mDrumPadBank.clearSoloedPads();
-         mDriver.mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+         mDriver.mKeyTranslation.clear();
       }
       else if (y == 1)
       {
@@ -648,13 +646,13 @@ final class DrumSequencerMode extends AbstractSequencerMode
       {
          final RemoteControl perfParam = drumPerfsRemoteControls.getParameter(x + (3 - y) * 4);
          if (perfParam.exists().get())
-            return new LedState(Color.scale(Color.CYAN, (float) (0.95 * perfParam.get() + 0.05)));
+            return LedState.of(Color.CYAN, (float) (0.95 * perfParam.get() + 0.05));
       }
       else
       {
          final RemoteControl sceneParam = drumScenesRemoteControls.getParameter(x + (1 - y) * 4);
          if (sceneParam.exists().get())
-            return new LedState(Color.scale(Color.YELLOW, (float) (0.9 * sceneParam.get() + 0.1)));
+            return LedState.of(Color.YELLOW, (float) (0.9 * sceneParam.get() + 0.1));
       }
       return LedState.OFF;
    }
@@ -667,14 +665,14 @@ final class DrumSequencerMode extends AbstractSequencerMode
       final NoteStep noteStep = clip.getStep(0, calculateClipStepIndex(x, y), mCurrentPitch);
 
       if (playingStep == mPage * 32 + 8 * y + x)
-         return new LedState(noteStep.state() == NoteStep.State.NoteOn ? Color.STEP_PLAY : Color.STEP_PLAY_HEAD);
+         return LedState.of(noteStep.state() == NoteStep.State.NoteOn ? Color.STEP_PLAY : Color.STEP_PLAY_HEAD);
       if (mDriver.getPadButton(x, 7- y).getButtonState() == Button.State.HOLD)
-         return new LedState(Color.STEP_HOLD);
+         return LedState.of(Color.STEP_HOLD);
       return switch (noteStep.state())
          {
-            case NoteOn -> new LedState(Color.STEP_ON);
-            case NoteSustain -> new LedState(Color.STEP_SUSTAIN);
-            case Empty -> new LedState(Color.STEP_OFF);
+            case NoteOn -> LedState.of(Color.STEP_ON);
+            case NoteSustain -> LedState.of(Color.STEP_SUSTAIN);
+            case Empty -> LedState.of(Color.STEP_OFF);
          };
 
    }
@@ -682,31 +680,33 @@ final class DrumSequencerMode extends AbstractSequencerMode
    private LedState computeDrumPadLedState(final int x, final int y)
    {
       final Clip clip = mDriver.mCursorClip;
-      final PlayingNoteArrayValue playingNotes = mDriver.mCursorTrack.playingNotes();
       final CursorDevice cursorDevice = mDriver.mCursorDevice;
       final boolean hasDrumPads = cursorDevice.hasDrumPads().get();
       final DrumPadBank drumPads = mDriver.mDrumPadBank;
 
       final int pitch = calculateDrumPadKey(x, y);
-      final boolean isPlaying = playingNotes.isNotePlaying(pitch);
+      final boolean isPlaying = mDriver.mCursorTrackNotes.isPlaying(pitch);
       final DrumPad drumPad = drumPads.getItemAt(x + 4 * y);
       final boolean drumPadExists = hasDrumPads & drumPad.exists().get();
       final boolean drumPadIsSolo = drumPadExists & drumPad.solo().get();
       final boolean drumPadIsMuted = drumPadExists & !drumPadIsSolo & (drumPad.mute().get() | drumPad.isMutedBySolo().get());
-      final Color color = new Color(drumPad.color());
 
       if (isPlaying)
-         return new LedState(drumPadIsMuted ? Color.GREEN_LOW : Color.GREEN);
+         return LedState.of(drumPadIsMuted ? Color.GREEN_LOW : Color.GREEN);
       if (mCurrentPitch == pitch)
-         return new LedState(drumPadIsMuted ? Color.TRACK_LOW : Color.TRACK);
+         return LedState.of(drumPadIsMuted ? Color.TRACK_LOW : Color.TRACK);
       if (hasDrumPads)
       {
          if (drumPadExists)
-            return new LedState(drumPadIsSolo ? Color.YELLOW : drumPadIsMuted ? Color.scale(color, .1f) : color);
+         {
+            if (drumPadIsSolo)
+               return LedState.of(Color.YELLOW);
+            return drumPadIsMuted ? LedState.of(drumPad.color(), .1f) : LedState.of(drumPad.color());
+         }
          else
-            return new LedState(Color.WHITE_LOW);
+            return LedState.of(Color.WHITE_LOW);
       }
-      return new LedState(clip.color());
+      return LedState.of(clip.color());
    }
 
    @Override
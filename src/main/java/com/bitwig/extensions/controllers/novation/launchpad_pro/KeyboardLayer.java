@@ -136,9 +136,9 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(midiNote))
          return LedState.STEP_PLAY;
       if (mDriver.mHighlightRootKeySetting.get() && midiNoteBase == mDriver.getMusicalKey())
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else if (!mDriver.mHighlightScaleSetting.get() || scale.isMidiNoteInScale(mDriver.getMusicalKey(), midiNoteBase))
-         return new LedState(isBlackKey(midiNote) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
+         return LedState.of(isBlackKey(midiNote) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
       return LedState.OFF;
    }
 
@@ -154,15 +154,15 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(pitch))
          return LedState.STEP_PLAY;
       if ((noteIndex % 12) == mDriver.getMusicalKey())
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else if (scale.isMidiNoteInScale(mDriver.getMusicalKey(), noteIndex))
       {
          /* note in scale */
-         return new LedState(isBlackKey(pitch) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
+         return LedState.of(isBlackKey(pitch) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
       }
 
       /* note not in scale */
-      return new LedState(UNUSED_KEY_COLOR);
+      return LedState.of(UNUSED_KEY_COLOR);
    }
 
    private LedState computeLineLedState(final int X, final int x, final int y, final Color trackColor)
@@ -178,12 +178,12 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(midiNode))
          return LedState.STEP_PLAY;
       if (noteIndex % scaleSize == 0)
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else
-         return new LedState(USED_WHITE_KEY_COLOR);
+         return LedState.of(USED_WHITE_KEY_COLOR);
    }
 
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       assert table.length == 128;
 
@@ -4,9 +4,7 @@ import com.bitwig.extension.controller.api.Arpeggiator;
 import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.NoteLatch;
-import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 import com.bitwig.extension.controller.api.SettableIntegerValue;
-import com.bitwig.extensions.util.NoteInputUtils;
 
 final class KeyboardMode extends Mode
 {
@@ -15,9 +13,8 @@ final class KeyboardMode extends Mode
       super(driver, "keyboard");
 
       final CursorTrack cursorTrack = driver.mCursorTrack;
-      final PlayingNoteArrayValue playingNotes = cursorTrack.playingNotes();
-      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> new Color(cursorTrack.color()),
-         playingNotes::isNotePlaying, null);
+      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> Color.of(cursorTrack.color()),
+         driver.mCursorTrackNotes::isPlaying, null);
 
       bindPressed(driver.mRightButton, cursorTrack.selectNextAction());
       bindPressed(driver.mLeftButton, cursorTrack.selectPreviousAction());
@@ -76,7 +73,7 @@ final class KeyboardMode extends Mode
    {
       mConfigLayer.deactivate();
       mKeyboardLayer.deactivate();
-      mDriver.mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+      mDriver.mKeyTranslation.clear();
 
       final CursorTrack cursorTrack = mDriver.mCursorTrack;
       cursorTrack.playingNotes().unsubscribe();
@@ -87,7 +84,7 @@ final class KeyboardMode extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       mKeyboardLayer.updateKeyTranslationTable(table);
       if (mConfigLayer.isActive())
@@ -1,7 +1,10 @@
 package com.bitwig.extensions.controllers.novation.launchpad_pro;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.Application;
@@ -43,7 +46,11 @@ import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
 import com.bitwig.extensions.framework.MusicalScale;
 import com.bitwig.extensions.framework.MusicalScaleLibrary;
-import com.bitwig.extensions.util.NoteInputUtils;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
+import com.bitwig.extensions.framework.midi.PacedMidiSender;
+import com.bitwig.extensions.framework.midi.PacedMidiSender.Priority;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
+import com.bitwig.extensions.framework.values.PlayingNotes;
 
 final class LaunchpadProControllerExtension extends ControllerExtension
 {
@@ -54,6 +61,16 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    private static final String[] KEY_NAMES = new String[]{ "C", "C#", "D", "D#", "E", "F", "F#", "G", "G#", "A", "A#", "B" };
 
+   /** Time in ms the device needs after it was connected before it takes messages. */
+   private static final int DEVICE_STARTUP_TIME = 4000;
+   /* larger LED update frames are split */
+   private static final int MAX_LED_UPDATE_LENGTH = 4 * 3 * 48;
+   private static final int LED_COUNT = 100;
+   /* targets of the LED frames, a newer frame replaces the one still queued behind the startup time */
+   private static final Object LED_CLEAR_TARGET = "LED 0A";
+   private static final Object[] LED_COLOR_TARGETS = { "LED 0B 0", "LED 0B 1", "LED 0B 2" };
+   private static final Object LED_PULSE_TARGET = "LED 28";
+
    public LaunchpadProControllerExtension(final LaunchpadProControllerExtensionDefinition driverDefinition, final ControllerHost host)
    {
       super(driverDefinition, host);
@@ -61,7 +78,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    private void createLayers()
    {
-      mLayers = new Layers(this);
+      mLayers = new Layers(this, mMetrics);
 
       mMainLayer = new LaunchpadLayer(this, "main");
 
@@ -282,20 +299,22 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       return x + y * 10;
    }
 
+   /**
+    * Paces the MIDI output on another clock than {@link System#nanoTime()}, e.g. a virtual time line. Has to be set
+    * before {@link #init()}.
+    *
+    * @param clock the time in ms
+    */
+   void setClock(final LongSupplier clock)
+   {
+      mClock = clock;
+   }
+
    @Override
    public void init()
    {
       final ControllerHost host = getHost();
 
-      try
-      {
-         Thread.sleep(4000);
-      }
-      catch (final InterruptedException e)
-      {
-         host.println(e.toString());
-      }
-
       mApplication = host.createApplication();
       mApplication.recordQuantizationGrid().markInterested();
 
@@ -316,7 +335,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       mCursorTrack.color().markInterested();
       mCursorTrack.hasPrevious().markInterested();
       mCursorTrack.hasNext().markInterested();
-      mCursorTrack.playingNotes().markInterested();
+      mCursorTrackNotes = PlayingNotes.of(mCursorTrack);
 
       mCursorDevice = mCursorTrack.createCursorDevice();
       mCursorDevice.hasDrumPads().markInterested();
@@ -336,7 +355,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       mCursorClip.getLoopStart().markInterested();
       mCursorClip.getLoopLength().markInterested();
       mCursorClip.playingStep().markInterested();
-      mCursorClip.getTrack().playingNotes().markInterested();
+      mCursorClipTrackNotes = PlayingNotes.of(mCursorClip.getTrack());
       final ClipLauncherSlot cursorClipSlot = mCursorClip.clipLauncherSlot();
       cursorClipSlot.sceneIndex().markInterested();
 
@@ -410,16 +429,23 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
       mArpOctaveSetting = mDocumentState.getNumberSetting("Octave", ARP_CATEGORY, 0, 4, 1, "", 1);
       mArpOctaveSetting.markInterested();
+
+      mMetrics.createSettings(getHost());
    }
 
    private void initMidi()
    {
       final ControllerHost host = getHost();
       mMidiIn = host.getMidiInPort(0);
-      mMidiOut = host.getMidiOutPort(0);
+      mMidiOut = mMetrics.instrument(0, host.getMidiOutPort(0));
+
+      /* the device isn't ready to take messages right after it was connected, hold them back for a while */
+      mSysexSender = new PacedMidiSender(host, mMidiOut, 1, 0, mClock);
+      mSysexSender.delay(Priority.LIVE, DEVICE_STARTUP_TIME);
 
       mNoteInput = mMidiIn.createNoteInput("Input", "8?????", "9?????", "A?????", "D?????", "E?????");
-      mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+      mKeyTranslation = KeyTranslationTable.of(mNoteInput);
+      mKeyTranslation.clear();
       mNoteInput.includeInAllInputs().markInterested();
 
       mNoteLatch = mNoteInput.noteLatch();
@@ -439,10 +465,10 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       mArpeggiator.humanize().markInterested();
 
       /* select the programmer layout */
-      mMidiOut.sendSysex("F0 00 20 29 02 10 2C 03 F7");
+      mSysexSender.sendSysex("F0 00 20 29 02 10 2C 03 F7");
 
       /* light off every leds */
-      mMidiOut.sendSysex("F0 00 20 29 02 10 0E 00 F7");
+      mSysexSender.sendSysex("F0 00 20 29 02 10 0E 00 F7");
 
       /* light shift */
       sendLedUpdateSysex(" 50 63 63 63");
@@ -550,26 +576,78 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    {
       assert !ledUpdate.isEmpty();
 
-      mMidiOut.sendSysex("F0 00 20 29 02 10 0B" + ledUpdate + " F7");
+      mSysexSender.sendSysex("F0 00 20 29 02 10 0B" + ledUpdate + " F7");
    }
 
    @Override
    public void exit()
    {
+      mSysexSender.drain();
+
       /* light off every leds */
       mMidiOut.sendSysex("F0 00 20 29 02 10 0E 00 F7");
    }
 
    public void updateButtonLed(final Button button, final LedState ledState)
    {
-      button.appendLedUpdate(ledState, mLedClearSysexBuffer, mLedColorUpdateSysexBuffer, mLedPulseUpdateSysexBuffer);
+      mLedButtons[button.mIndex] = button;
+      mLedStates[button.mIndex] = ledState;
+      mPendingLeds.set(button.mIndex);
+      mLedsChanged = true;
+   }
+
+   private boolean isLedUpdateQueued()
+   {
+      if (mSysexSender.isQueued(LED_CLEAR_TARGET) || mSysexSender.isQueued(LED_PULSE_TARGET))
+         return true;
+
+      for (final Object target : LED_COLOR_TARGETS)
+         if (mSysexSender.isQueued(target))
+            return true;
+
+      return false;
+   }
+
+   /**
+    * Sends the latest state of every pending LED. While the frames of the previous flushes are still queued, the LEDs
+    * they contain stay pending, so the new frames replace them with the complete state and a LED is never left in a
+    * frame of another kind.
+    */
+   private void sendLedUpdates()
+   {
+      mLedClearSysexBuffer.setLength(0);
+      mLedColorUpdateSysexBuffer.setLength(0);
+      mLedPulseUpdateSysexBuffer.setLength(0);
+
+      int colorFrame = 0;
+      for (int i = mPendingLeds.nextSetBit(0); i >= 0; i = mPendingLeds.nextSetBit(i + 1))
+      {
+         mLedButtons[i].appendLedUpdate(mLedStates[i], mLedClearSysexBuffer, mLedColorUpdateSysexBuffer,
+            mLedPulseUpdateSysexBuffer);
 
-      // Let's not send sysex that are too big
-      if (mLedColorUpdateSysexBuffer.length() >= 4 * 3 * 48)
+         // Let's not send sysex that are too big
+         if (mLedColorUpdateSysexBuffer.length() >= MAX_LED_UPDATE_LENGTH)
+         {
+            sendLedFrame(LED_COLOR_TARGETS[colorFrame++], "0B", mLedColorUpdateSysexBuffer);
+            mLedColorUpdateSysexBuffer.setLength(0); // clears it
+         }
+      }
+
+      sendLedFrame(LED_CLEAR_TARGET, "0A", mLedClearSysexBuffer);
+      for (; colorFrame < LED_COLOR_TARGETS.length; colorFrame++)
       {
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
-         mLedColorUpdateSysexBuffer.setLength(0); // clears it
+         sendLedFrame(LED_COLOR_TARGETS[colorFrame], "0B", mLedColorUpdateSysexBuffer);
+         mLedColorUpdateSysexBuffer.setLength(0);
       }
+      sendLedFrame(LED_PULSE_TARGET, "28", mLedPulseUpdateSysexBuffer);
+   }
+
+   private void sendLedFrame(final Object target, final String command, final StringBuilder ledUpdate)
+   {
+      if (ledUpdate.length() > 0)
+         mSysexSender.sendSysex(Priority.LIVE, target, "F0 00 20 29 02 10 " + command + ledUpdate + " F7");
+      else
+         mSysexSender.cancel(target);
    }
 
    public int getFlushIteration()
@@ -580,21 +658,20 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    @Override
    public void flush()
    {
+      final long flushStart = mMetrics.beginFlush();
       ++mFlushIteration;
-      mLedClearSysexBuffer.setLength(0);
-      mLedColorUpdateSysexBuffer.setLength(0);
-      mLedPulseUpdateSysexBuffer.setLength(0);
 
-      mHardwareSurface.updateHardware();
+      // the LEDs of frames that went out are up to date
+      if (!isLedUpdateQueued())
+         mPendingLeds.clear();
 
-      if (mLedClearSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 0A" + mLedClearSysexBuffer + " F7");
+      mLedsChanged = false;
+      mHardwareSurface.updateHardware();
 
-      if (mLedColorUpdateSysexBuffer.length() > 0)
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
+      if (mLedsChanged)
+         sendLedUpdates();
 
-      if (mLedPulseUpdateSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 28" + mLedPulseUpdateSysexBuffer + " F7");
+      mMetrics.endFlush(flushStart);
    }
 
    private boolean isRecording()
@@ -610,9 +687,11 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       if (mCurrentMode == mode)
          return;
 
-      mCurrentMode.deactivate();
-      mCurrentMode = mode;
-      mCurrentMode.activate();
+      mLayers.batch(() -> {
+         mCurrentMode.deactivate();
+         mCurrentMode = mode;
+         mCurrentMode.activate();
+      });
 
       updateKeyTranslationTable();
    }
@@ -624,35 +703,37 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       if (isPressed)
          bt.onButtonPressed(getHost());
 
-      if (mBottomOverlay != null)
-         mBottomOverlay.deactivate();
+      mLayers.batch(() -> {
+         if (mBottomOverlay != null)
+            mBottomOverlay.deactivate();
 
-      if (isPressed)
-      {
-         if (mBottomOverlay != overlay)
-            mBottomOverlay = overlay;
+         if (isPressed)
+         {
+            if (mBottomOverlay != overlay)
+               mBottomOverlay = overlay;
+            else
+               mBottomOverlay = null;
+         }
          else
-            mBottomOverlay = null;
-      }
-      else
-      {
-         if (mBottomOverlay == overlay && bt.getButtonState() == Button.State.HOLD)
-            mBottomOverlay = null;
-      }
+         {
+            if (mBottomOverlay == overlay && bt.getButtonState() == Button.State.HOLD)
+               mBottomOverlay = null;
+         }
 
-      if (mBottomOverlay != null)
-         mBottomOverlay.activate();
+         if (mBottomOverlay != null)
+            mBottomOverlay.activate();
+      });
 
       updateKeyTranslationTable();
    }
 
    void updateKeyTranslationTable()
    {
-      final Integer[] table = NoteInputUtils.NO_NOTES.clone();
-      mCurrentMode.updateKeyTranslationTable(table);
+      Arrays.fill(mKeyTable, -1);
+      mCurrentMode.updateKeyTranslationTable(mKeyTable);
       if (mBottomOverlay != null)
-         mBottomOverlay.updateKeyTranslationTable(table);
-      mNoteInput.setKeyTranslationTable(table);
+         mBottomOverlay.updateKeyTranslationTable(mKeyTable);
+      mKeyTranslation.apply(mKeyTable);
    }
 
    /**
@@ -713,12 +794,12 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    Color getTrackColor(final int i)
    {
-      return new Color(mTrackBank.getItemAt(i).color());
+      return Color.of(mTrackBank.getItemAt(i).color());
    }
 
    Color getCursorTrackColor()
    {
-      return new Color(mCursorTrack.color());
+      return Color.of(mCursorTrack.color());
    }
 
    private void setKeyboardLayout(final KeyboardLayout keyboardLayout)
@@ -738,20 +819,26 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       return mLayers;
    }
 
+   private LongSupplier mClock = () -> System.nanoTime() / 1_000_000L;
+
    /* API Objects */
    Application mApplication;
    Transport mTransport;
    MidiIn mMidiIn;
    MidiOut mMidiOut;
+   PacedMidiSender mSysexSender;
    NoteInput mNoteInput;
+   KeyTranslationTable mKeyTranslation;
    MasterTrack mMasterTrack;
    TrackBank mTrackBank;
    SceneBank mSceneBank;
    CursorTrack mCursorTrack;
+   PlayingNotes mCursorTrackNotes;
    CursorDevice mCursorDevice;
    UserControlBank mUserControls;
    DocumentState mDocumentState;
    PinnableCursorClip mCursorClip;
+   PlayingNotes mCursorClipTrackNotes;
    CursorRemoteControlsPage mDrumScenesRemoteControls;
    CursorRemoteControlsPage mDrumPerfsRemoteControls;
    Arpeggiator mArpeggiator;
@@ -797,6 +884,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    SettableEnumValue mKeyboardLayoutSetting;
 
    /* Layers */
+   private final ExtensionMetrics mMetrics = new ExtensionMetrics();
    private Layers mLayers;
    private LaunchpadLayer mMainLayer;
 
@@ -832,6 +920,15 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    /* Used to cache complex computed values during the flush required for painting */
    private int mFlushIteration = 0;
 
+   /* Key translation table composed by the current mode and the overlay */
+   private final int[] mKeyTable = new int[128];
+
+   /* LEDs whose latest state may not have reached the device yet */
+   private final Button[] mLedButtons = new Button[LED_COUNT];
+   private final LedState[] mLedStates = new LedState[LED_COUNT];
+   private final BitSet mPendingLeds = new BitSet(LED_COUNT);
+   private boolean mLedsChanged;
+
    /* Sysex buffer for flushing */
    private final StringBuilder mLedClearSysexBuffer = new StringBuilder();
    private final StringBuilder mLedColorUpdateSysexBuffer = new StringBuilder();
@@ -3,86 +3,91 @@ package com.bitwig.extensions.controllers.novation.launchpad_pro;
 import com.bitwig.extension.controller.api.ColorValue;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.LightStateCache;
 
 final class LedState extends InternalHardwareLightState
 {
-   static final LedState OFF = new LedState(Color.OFF, 0);
+   /** States by packed color in bits 0-17 and pulse color in bits 18-24. */
+   private static final LightStateCache<LedState> STATES =
+      new LightStateCache<>(key -> new LedState(Color.fromPacked(key & 0x3FFFF), key >> 18));
 
-   static final LedState SESSION_MODE_ON = new LedState(Color.SESSION_MODE_ON);
-   static final LedState SESSION_MODE_OFF = new LedState(Color.SESSION_MODE_OFF);
+   static final LedState OFF = of(Color.OFF);
 
-   static final LedState PAN_MODE = new LedState(Color.PAN_MODE);
-   static final LedState PAN_MODE_LOW = new LedState(Color.PAN_MODE_LOW);
+   static final LedState SESSION_MODE_ON = of(Color.SESSION_MODE_ON);
+   static final LedState SESSION_MODE_OFF = of(Color.SESSION_MODE_OFF);
 
-   static final LedState SENDS_MODE = new LedState(Color.SENDS_MODE);
-   static final LedState SENDS_MODE_LOW = new LedState(Color.SENDS_MODE_LOW);
+   static final LedState PAN_MODE = of(Color.PAN_MODE);
+   static final LedState PAN_MODE_LOW = of(Color.PAN_MODE_LOW);
 
-   static final LedState VOLUME_MODE = new LedState(Color.VOLUME_MODE);
-   static final LedState VOLUME_MODE_LOW = new LedState(Color.VOLUME_MODE_LOW);
+   static final LedState SENDS_MODE = of(Color.SENDS_MODE);
+   static final LedState SENDS_MODE_LOW = of(Color.SENDS_MODE_LOW);
 
-   static final LedState PLAY_MODE = new LedState(Color.PLAY_MODE);
-   static final LedState PLAY_MODE_OFF = new LedState(Color.PLAY_MODE_OFF);
+   static final LedState VOLUME_MODE = of(Color.VOLUME_MODE);
+   static final LedState VOLUME_MODE_LOW = of(Color.VOLUME_MODE_LOW);
 
-   static final LedState DRUM_SEQ_MODE = new LedState(Color.DRUM_SEQ_MODE);
-   static final LedState DRUM_SEQ_MODE_OFF = new LedState(Color.DRUM_SEQ_MODE_OFF);
+   static final LedState PLAY_MODE = of(Color.PLAY_MODE);
+   static final LedState PLAY_MODE_OFF = of(Color.PLAY_MODE_OFF);
 
-   static final LedState STEP_SEQ_MODE = new LedState(Color.STEP_SEQ_MODE);
-   static final LedState STEP_SEQ_MODE_OFF = new LedState(Color.STEP_SEQ_MODE_OFF);
+   static final LedState DRUM_SEQ_MODE = of(Color.DRUM_SEQ_MODE);
+   static final LedState DRUM_SEQ_MODE_OFF = of(Color.DRUM_SEQ_MODE_OFF);
 
-   static final LedState TRACK = new LedState(Color.TRACK);
-   static final LedState TRACK_LOW = new LedState(Color.TRACK_LOW);
+   static final LedState STEP_SEQ_MODE = of(Color.STEP_SEQ_MODE);
+   static final LedState STEP_SEQ_MODE_OFF = of(Color.STEP_SEQ_MODE_OFF);
 
-   static final LedState SCENE = new LedState(Color.SCENE);
-   static final LedState SCENE_LOW = new LedState(Color.SCENE_LOW);
+   static final LedState TRACK = of(Color.TRACK);
+   static final LedState TRACK_LOW = of(Color.TRACK_LOW);
 
-   static final LedState SHIFT_ON = new LedState(Color.SHIFT_ON);
-   static final LedState SHIFT_OFF = new LedState(Color.SHIFT_OFF);
+   static final LedState SCENE = of(Color.SCENE);
+   static final LedState SCENE_LOW = of(Color.SCENE_LOW);
 
-   static final LedState CLICK_ON = new LedState(Color.CLICK_ON);
-   static final LedState CLICK_OFF = new LedState(Color.CLICK_OFF);
+   static final LedState SHIFT_ON = of(Color.SHIFT_ON);
+   static final LedState SHIFT_OFF = of(Color.SHIFT_OFF);
 
-   static final LedState UNDO_ON = new LedState(Color.UNDO_ON);
-   static final LedState UNDO_OFF = new LedState(Color.UNDO_OFF);
+   static final LedState CLICK_ON = of(Color.CLICK_ON);
+   static final LedState CLICK_OFF = of(Color.CLICK_OFF);
 
-   static final LedState REC_ON = new LedState(Color.REC_ON);
-   static final LedState REC_OFF = new LedState(Color.REC_OFF);
+   static final LedState UNDO_ON = of(Color.UNDO_ON);
+   static final LedState UNDO_OFF = of(Color.UNDO_OFF);
 
-   static final LedState PLAY_ON = new LedState(Color.PLAY_ON);
-   static final LedState PLAY_OFF = new LedState(Color.PLAY_OFF);
+   static final LedState REC_ON = of(Color.REC_ON);
+   static final LedState REC_OFF = of(Color.REC_OFF);
 
-   static final LedState DELETE_ON = new LedState(Color.DELETE_ON);
-   static final LedState DELETE_OFF = new LedState(Color.DELETE_OFF);
+   static final LedState PLAY_ON = of(Color.PLAY_ON);
+   static final LedState PLAY_OFF = of(Color.PLAY_OFF);
 
-   static final LedState QUANTIZE_ON = new LedState(Color.QUANTIZE_ON);
-   static final LedState QUANTIZE_OFF = new LedState(Color.QUANTIZE_OFF);
+   static final LedState DELETE_ON = of(Color.DELETE_ON);
+   static final LedState DELETE_OFF = of(Color.DELETE_OFF);
 
-   static final LedState DUPLICATE_ON = new LedState(Color.DUPLICATE_ON);
-   static final LedState DUPLICATE_OFF = new LedState(Color.DUPLICATE_OFF);
+   static final LedState QUANTIZE_ON = of(Color.QUANTIZE_ON);
+   static final LedState QUANTIZE_OFF = of(Color.QUANTIZE_OFF);
 
-   static final LedState MUTE = new LedState(Color.MUTE);
-   static final LedState MUTE_LOW = new LedState(Color.MUTE_LOW);
+   static final LedState DUPLICATE_ON = of(Color.DUPLICATE_ON);
+   static final LedState DUPLICATE_OFF = of(Color.DUPLICATE_OFF);
 
-   static final LedState SOLO = new LedState(Color.SOLO);
-   static final LedState SOLO_LOW = new LedState(Color.SOLO_LOW);
+   static final LedState MUTE = of(Color.MUTE);
+   static final LedState MUTE_LOW = of(Color.MUTE_LOW);
 
-   static final LedState STOP_CLIP_ON = new LedState(Color.STOP_CLIP_ON);
-   static final LedState STOP_CLIP_OFF = new LedState(Color.STOP_CLIP_OFF);
+   static final LedState SOLO = of(Color.SOLO);
+   static final LedState SOLO_LOW = of(Color.SOLO_LOW);
 
-   static final LedState STEP_HOLD = new LedState(Color.STEP_HOLD);
-   static final LedState STEP_PLAY_HEAD = new LedState(Color.STEP_PLAY_HEAD);
-   static final LedState STEP_PLAY = new LedState(Color.STEP_PLAY);
-   static final LedState STEP_ON = new LedState(Color.STEP_ON);
-   static final LedState STEP_SUSTAIN = new LedState(Color.STEP_SUSTAIN);
-   static final LedState STEP_OFF = new LedState(Color.STEP_OFF);
+   static final LedState STOP_CLIP_ON = of(Color.STOP_CLIP_ON);
+   static final LedState STOP_CLIP_OFF = of(Color.STOP_CLIP_OFF);
 
-   static final LedState PITCH = new LedState(Color.PITCH);
-   static final LedState PITCH_LOW = new LedState(Color.PITCH_LOW);
+   static final LedState STEP_HOLD = of(Color.STEP_HOLD);
+   static final LedState STEP_PLAY_HEAD = of(Color.STEP_PLAY_HEAD);
+   static final LedState STEP_PLAY = of(Color.STEP_PLAY);
+   static final LedState STEP_ON = of(Color.STEP_ON);
+   static final LedState STEP_SUSTAIN = of(Color.STEP_SUSTAIN);
+   static final LedState STEP_OFF = of(Color.STEP_OFF);
 
-   final static LedState ROOT_KEY_COLOR = new LedState(Color.fromRgb255(11, 100, 63));
-   final static LedState USED_KEY_COLOR = new LedState(Color.fromRgb255(255, 240, 240));
-   final static LedState UNUSED_KEY_COLOR = new LedState(Color.fromRgb255(40, 40, 40));
-   final static LedState SCALE_ON_COLOR = new LedState(Color.fromRgb255(50, 167, 202));
-   final static LedState SCALE_OFF_COLOR = new LedState(Color.scale(SCALE_ON_COLOR.mColor, 0.2f));
+   static final LedState PITCH = of(Color.PITCH);
+   static final LedState PITCH_LOW = of(Color.PITCH_LOW);
+
+   final static LedState ROOT_KEY_COLOR = of(Color.fromRgb255(11, 100, 63));
+   final static LedState USED_KEY_COLOR = of(Color.fromRgb255(255, 240, 240));
+   final static LedState UNUSED_KEY_COLOR = of(Color.fromRgb255(40, 40, 40));
+   final static LedState SCALE_ON_COLOR = of(Color.fromRgb255(50, 167, 202));
+   final static LedState SCALE_OFF_COLOR = of(Color.scale(SCALE_ON_COLOR.mColor, 0.2f));
 
    static final int NO_PULSE = 0;
    static final int PULSE_PLAYING = 88;
@@ -91,22 +96,45 @@ final class LedState extends InternalHardwareLightState
    static final int PULSE_RECORDING_QUEUED = 56;
    static final int PULSE_STOP_QUEUED = 118;
 
-   LedState(final ColorValue color)
+   static LedState of(final Color color)
+   {
+      return of(color, NO_PULSE);
+   }
+
+   static LedState of(final Color color, final int pulse)
+   {
+      return STATES.get(pulse << 18 | color.packed());
+   }
+
+   /** The state of the color scaled with {@link Color#scale(Color, float)}. */
+   static LedState of(final Color color, final float scale)
+   {
+      return STATES.get(color.packed(scale));
+   }
+
+   static LedState of(final ColorValue color)
+   {
+      return STATES.get(Color.pack(color, 1.f));
+   }
+
+   static LedState of(final ColorValue color, final int pulse)
    {
-      this(new Color(color));
+      return STATES.get(pulse << 18 | Color.pack(color, 1.f));
    }
 
-   LedState(final Color color)
+   /** The state of the color value scaled with {@link Color#scale(Color, float)}. */
+   static LedState of(final ColorValue color, final float scale)
    {
-      this(color, NO_PULSE);
+      return STATES.get(Color.pack(color, scale));
    }
 
-   LedState(final com.bitwig.extension.api.Color color)
+   static LedState of(final com.bitwig.extension.api.Color color)
    {
-      this(new Color(color));
+      return STATES.get(Color.pack((byte) (63 * (float) color.getRed()), (byte) (63 * (float) color.getGreen()),
+         (byte) (63 * (float) color.getBlue())));
    }
 
-   LedState(final Color color, final int pulse)
+   private LedState(final Color color, final int pulse)
    {
       mColor = color;
       mPulse = pulse;
@@ -14,7 +14,7 @@ abstract class Overlay extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       /* Don't send notes on the bottom overlay */
       for (int x = 0; x < 8; ++x)
@@ -76,24 +76,17 @@ final class SessionMode extends Mode
 
    private InternalHardwareLightState computeSceneLedState(final Scene scene)
    {
-      Color color;
-      if (scene.exists().get())
-      {
-         color = new Color(scene.color());
-         if (color.isBlack())
-            color = Color.SCENE;
-      }
-      else
-         color = Color.OFF;
+      if (!scene.exists().get())
+         return LedState.OFF;
 
-      return new LedState(color);
+      final LedState state = LedState.of(scene.color());
+      return state.mColor.isBlack() ? LedState.of(Color.SCENE) : state;
    }
 
    private InternalHardwareLightState computeGridLedState(final ClipLauncherSlot slot)
    {
       assert slot.isSubscribed();
 
-      final Color color = new Color(slot.color());
       final int pulse;
 
       if (slot.isStopQueued().get())
@@ -109,7 +102,7 @@ final class SessionMode extends Mode
       else
          pulse = LedState.NO_PULSE;
 
-      return new LedState(color, pulse);
+      return LedState.of(slot.color(), pulse);
    }
 
    @Override
@@ -6,6 +6,7 @@ import com.bitwig.extension.controller.api.Clip;
 import com.bitwig.extension.controller.api.NoteStep;
 import com.bitwig.extension.controller.api.PinnableCursorClip;
 import com.bitwig.extension.controller.api.Track;
+import com.bitwig.extensions.framework.sequencer.NoteStepIndex;
 
 final class StepSequencerMode extends AbstractSequencerMode
 {
@@ -14,9 +15,10 @@ final class StepSequencerMode extends AbstractSequencerMode
       super(driver, "step-sequencer");
 
       final PinnableCursorClip cursorClip = driver.mCursorClip;
+      cursorClip.addNoteStepObserver(mStepIndex::update);
 
       mKeyboardLayer = new KeyboardLayer(driver, "step-sequencer-keyboard", 0, 0, 8, 4,
-         () -> new Color(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
+         () -> Color.of(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
       mMixDataLayer = new LaunchpadLayer(driver, "drum-seq-mix-data");
       mSoundDataLayer = new LaunchpadLayer(driver, "drum-seq-sound-data");
 
@@ -141,42 +143,34 @@ final class StepSequencerMode extends AbstractSequencerMode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       if (mDataMode == DataMode.Main && mStepPressedCount == 0)
          mKeyboardLayer.updateKeyTranslationTable(table);
-
-      mDriver.mNoteInput.setKeyTranslationTable(table);
    }
 
    @Override
    protected NoteStep findStepInfo(final int clipStepIndex)
    {
-      final Clip cursorClip = mDriver.mCursorClip;
-      for (int key = 0; key < 128; ++key)
-      {
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         if (noteStep.state() == NoteStep.State.NoteOn)
-            return noteStep;
-      }
-      return cursorClip.getStep(0, clipStepIndex, 0);
+      final NoteStep noteStep = mStepIndex.getFirstNoteOn(clipStepIndex);
+      if (noteStep != null)
+         return noteStep;
+      return mDriver.mCursorClip.getStep(0, clipStepIndex, 0);
    }
 
    private boolean isKeyOn(final int key)
    {
       assert key >= 0 && key < 127;
 
-      if (mDriver.mCursorClip.getTrack().playingNotes().isNotePlaying(key))
+      if (mDriver.mCursorClipTrackNotes.isPlaying(key))
          return true;
 
-      final Clip cursorClip = mDriver.mCursorClip;
       final List<Button> stepsInHoldState = getStepsInHoldState();
       for (final Button button : stepsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(button.mX - 1, 8 - button.mY);
 
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         return noteStep.state() == NoteStep.State.NoteOn;
+         return mStepIndex.isNoteOn(clipStepIndex, key);
       }
 
       return false;
@@ -188,13 +182,13 @@ final class StepSequencerMode extends AbstractSequencerMode
       final int playingStep = clip.playingStep().get();
 
       final int clipStepIndex = calculateClipStepIndex(x, y);
-      final NoteStep noteStep = computeVerticalStepState(clipStepIndex);
+      final NoteStep.State stepState = mStepIndex.getState(clipStepIndex);
 
       if (playingStep == mPage * 32 + 8 * y + x)
          return LedState.STEP_PLAY_HEAD;
       if (mDriver.getPadButton(x, 7- y).getButtonState() == Button.State.HOLD)
          return LedState.STEP_HOLD;
-      return switch (noteStep.state())
+      return switch (stepState)
          {
             case NoteOn -> LedState.STEP_ON;
             case NoteSustain -> LedState.STEP_SUSTAIN;
@@ -203,28 +197,6 @@ final class StepSequencerMode extends AbstractSequencerMode
          };
    }
 
-   private NoteStep computeVerticalStepState(final int absoluteStepIndex)
-   {
-      final Clip clip = mDriver.mCursorClip;
-      NoteStep value = clip.getStep(0, absoluteStepIndex, 0);
-
-      for (int i = 0; i < 128; ++i)
-      {
-         final NoteStep noteStep = clip.getStep(0, absoluteStepIndex, i);
-         switch (noteStep.state())
-         {
-            case NoteOn:
-               return noteStep;
-            case NoteSustain:
-               value = noteStep;
-               break;
-            case Empty:
-               /* Nothing to do */
-         }
-      }
-      return value;
-   }
-
    void invalidate()
    {
       if (!isActive())
@@ -235,19 +207,13 @@ final class StepSequencerMode extends AbstractSequencerMode
 
    private void onMixDataPressed(final int x, final int y)
    {
-      final Clip clip = mDriver.mCursorClip;
       final List<Button> padsInHoldState = mDriver.findPadsInHoldState();
 
       for (final Button buttonState : padsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
-         {
-            final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
-
+         mStepIndex.forEachNoteOn(clipStepIndex, noteStep -> {
             switch (y)
             {
                case 0 -> noteStep.setVelocity(x / 7.0);
@@ -255,32 +221,26 @@ final class StepSequencerMode extends AbstractSequencerMode
                case 2 -> noteStep.setPan((3 <= x && x <= 4) ? 0 : (x - 3.5) / 3.5);
                case 3 -> noteStep.setGain(x / 7.0);
             }
-         }
+         });
       }
    }
 
    private void onSoundDataPressed(final int x, final int y)
    {
-      final Clip clip = mDriver.mCursorClip;
       final List<Button> padsInHoldState = mDriver.findPadsInHoldState();
 
       for (final Button buttonState : padsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
-         {
-            final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
-
+         mStepIndex.forEachNoteOn(clipStepIndex, noteStep -> {
             switch (y)
             {
                case 0 -> noteStep.setTranspose(computeTranspose(x));
                case 1 -> noteStep.setTimbre((3 <= x && x <= 4) ? 0 : (x - 3.5) / 3.5);
                case 2 -> noteStep.setPressure(x / 7.0);
             }
-         }
+         });
       }
    }
 
@@ -321,8 +281,7 @@ final class StepSequencerMode extends AbstractSequencerMode
       if (mDriver.isShiftOn() || mDriver.isDeleteOn())
          return;
 
-      final NoteStep noteStep = computeVerticalStepState(absoluteStep);
-      if (noteStep.state() == NoteStep.State.NoteOn && !wasHeld)
+      if (mStepIndex.hasNoteOn(absoluteStep) && !wasHeld)
          cursorClip.clearStepsAtX(0, absoluteStep);
    }
 
@@ -363,4 +322,5 @@ final class StepSequencerMode extends AbstractSequencerMode
    private final LaunchpadLayer mMixDataLayer;
    private final LaunchpadLayer mSoundDataLayer;
    private int mStepPressedCount = 0;
+   private final NoteStepIndex mStepIndex = new NoteStepIndex(32, 0);
 }
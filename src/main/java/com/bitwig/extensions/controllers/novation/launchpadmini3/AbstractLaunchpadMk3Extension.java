@@ -26,6 +26,8 @@ import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.di.Context;
 import com.bitwig.extensions.framework.di.TrackerRegistration;
 import com.bitwig.extensions.framework.di.ViewTracker;
+import com.bitwig.extensions.framework.midi.MidiTrafficRecorder;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public abstract class AbstractLaunchpadMk3Extension extends ControllerExtension {
     
@@ -39,6 +41,7 @@ public abstract class AbstractLaunchpadMk3Extension extends ControllerExtension
     protected MidiProcessor midiProcessor;
     protected LpMiniHwElements hwElements;
     private TrackerRegistration trackerRegistration;
+    private MidiTrafficRecorder trafficRecorder;
     
     private static ControllerHost debugHost;
     
@@ -91,15 +94,15 @@ public abstract class AbstractLaunchpadMk3Extension extends ControllerExtension
     }
     
     protected void initMidi(final Context diContext, final ControllerHost host) {
-        final MidiIn midiIn = host.getMidiInPort(0);
-        final MidiIn midiIn2 = host.getMidiInPort(1);
+        trafficRecorder = MidiTrafficRecorder.create(host, getExtensionDefinition().getName());
+        final MidiIn midiIn = trafficRecorder.record(0, host.getMidiInPort(0));
+        final MidiIn midiIn2 = trafficRecorder.record(1, host.getMidiInPort(1));
         
-        midiOut = host.getMidiOutPort(0);
-        midiProcessor = new MidiProcessor(host, midiIn, midiOut, deviceConfig);
+        midiOut = trafficRecorder.record(0, host.getMidiOutPort(0));
+        midiProcessor = new MidiProcessor(host, diContext.getService(TimerWheel.class), midiIn, midiOut, deviceConfig);
         diContext.registerService(MidiProcessor.class, midiProcessor);
         midiIn2.createNoteInput("MIDI", "8?????", "9?????", "A?????", "D?????");
         midiIn.setSysexCallback(this::handleSysEx);
-        midiProcessor.start();
     }
     
     protected abstract void handleSysEx(String sysEx);
@@ -118,6 +121,8 @@ public abstract class AbstractLaunchpadMk3Extension extends ControllerExtension
     @Override
     public void flush() {
         surface.updateHardware();
+        midiProcessor.flush();
+        trafficRecorder.markFlush();
     }
     
     @Override
@@ -133,6 +138,7 @@ public abstract class AbstractLaunchpadMk3Extension extends ControllerExtension
         catch (final InterruptedException | ExecutionException e) {
             e.printStackTrace();
         }
+        trafficRecorder.close();
     }
     
     
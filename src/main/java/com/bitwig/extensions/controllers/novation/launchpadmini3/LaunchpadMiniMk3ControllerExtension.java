@@ -72,13 +72,15 @@ public class LaunchpadMiniMk3ControllerExtension extends AbstractLaunchpadMk3Ext
         if (this.mode == mode) {
             return;
         }
-        if (this.mode == LpMode.OVERVIEW) {
-            overviewLayer.setIsActive(false);
-        }
-        if (mode == LpMode.OVERVIEW) {
-            overviewLayer.setIsActive(true);
-        }
-        sessionLayer.setMode(mode);
+        sessionLayer.getLayers().batch(() -> {
+            if (this.mode == LpMode.OVERVIEW) {
+                overviewLayer.setIsActive(false);
+            }
+            if (mode == LpMode.OVERVIEW) {
+                overviewLayer.setIsActive(true);
+            }
+            sessionLayer.setMode(mode);
+        });
         this.mode = mode;
     }
     
@@ -87,18 +89,11 @@ public class LaunchpadMiniMk3ControllerExtension extends AbstractLaunchpadMk3Ext
         if (sysExString.startsWith(DEVICE_RESPONSE)) {
             midiProcessor.enableDawMode(true);
             midiProcessor.toLayout(0);
-            pause(20);
-            hwElements.refresh();
-            midiProcessor.setButtonLed(0x14, 0x18);
-        }
-    }
-    
-    private void pause(int time) {
-        try {
-            Thread.sleep(time);
-        }
-        catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            // the device needs a moment to switch the layout before it takes the LED state
+            midiProcessor.delayAction(20, () -> {
+                hwElements.refresh();
+                midiProcessor.setButtonLed(0x14, 0x18);
+            });
         }
     }
     
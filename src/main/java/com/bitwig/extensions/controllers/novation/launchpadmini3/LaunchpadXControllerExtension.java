@@ -144,22 +144,24 @@ public class LaunchpadXControllerExtension extends AbstractLaunchpadMk3Extension
         if (this.mode == mode) {
             return;
         }
-        if (recordButtonAsAlt.get()) {
-            altModeLayer.setIsActive(true);
-        }
-        if (this.mode == LpMode.OVERVIEW) {
-            overviewLayer.setIsActive(false);
-        }
-        if (mode == LpMode.OVERVIEW) {
-            if (this.mode == LpMode.MIXER) {
-                sessionLayer.setMode(LpMode.SESSION);
+        sessionLayer.getLayers().batch(() -> {
+            if (recordButtonAsAlt.get()) {
+                altModeLayer.setIsActive(true);
             }
-            sessionLayer.setIsActive(false);
-            overviewLayer.setIsActive(true);
-        } else {
-            sessionLayer.setIsActive(true);
-            sessionLayer.setMode(mode);
-        }
+            if (this.mode == LpMode.OVERVIEW) {
+                overviewLayer.setIsActive(false);
+            }
+            if (mode == LpMode.OVERVIEW) {
+                if (this.mode == LpMode.MIXER) {
+                    sessionLayer.setMode(LpMode.SESSION);
+                }
+                sessionLayer.setIsActive(false);
+                overviewLayer.setIsActive(true);
+            } else {
+                sessionLayer.setIsActive(true);
+                sessionLayer.setMode(mode);
+            }
+        });
         this.mode = mode;
     }
     
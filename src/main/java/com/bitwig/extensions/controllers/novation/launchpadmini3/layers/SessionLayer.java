@@ -172,22 +172,24 @@ public class SessionLayer extends AbstractLpSessionLayer {
         }
         panelLayout = layout;
         
-        horizontalLayer.setIsActive(panelLayout == PanelLayout.HORIZONTAL);
-        verticalLayer.setIsActive(panelLayout == PanelLayout.VERTICAL);
-        
-        currentTrackControlLayer.reset();
-        currentTrackControlLayer.deactivateLayer();
-        currentTrackControlLayer =
-            panelLayout == PanelLayout.VERTICAL ? verticalTrackControlLayer : horizontalTrackControlLayer;
-        currentTrackControlLayer.applyMode(trackMode);
-        currentTrackControlLayer.activateControlLayer(true);
+        getLayers().batch(() -> {
+            horizontalLayer.setIsActive(panelLayout == PanelLayout.HORIZONTAL);
+            verticalLayer.setIsActive(panelLayout == PanelLayout.VERTICAL);
         
-        currentSceneControl.setActive(false);
-        applyPanelModeToSceneControl();
-        if (lpMode == LpMode.MIXER) {
+            currentTrackControlLayer.reset();
+            currentTrackControlLayer.deactivateLayer();
+            currentTrackControlLayer =
+                panelLayout == PanelLayout.VERTICAL ? verticalTrackControlLayer : horizontalTrackControlLayer;
             currentTrackControlLayer.applyMode(trackMode);
-            currentTrackControlLayer.activateControlLayer(lpMode == LpMode.MIXER);
-        }
+            currentTrackControlLayer.activateControlLayer(true);
+        
+            currentSceneControl.setActive(false);
+            applyPanelModeToSceneControl();
+            if (lpMode == LpMode.MIXER) {
+                currentTrackControlLayer.applyMode(trackMode);
+                currentTrackControlLayer.activateControlLayer(lpMode == LpMode.MIXER);
+            }
+        });
     }
     
     private void applyPanelModeToSceneControl() {
@@ -476,23 +478,25 @@ public class SessionLayer extends AbstractLpSessionLayer {
         if (modeLayer != null && !modeLayer.canBeEntered(mode)) {
             return;
         }
-        if (currentMode != null) {
-            currentMode.setIsActive(false);
-        }
-        if (controlMode == mode) {
-            controlMode = ControlMode.NONE;
-            midiProcessor.toLayout(0x00);
-        } else {
-            controlMode = mode;
-            if (modeLayer != null) {
-                modeLayer.setIsActive(true);
-                if (modeLayer instanceof SendsSliderLayer sendsSliderLayer) {
-                    sendsSliderLayer.setControl(mode);
+        getLayers().batch(() -> {
+            if (currentMode != null) {
+                currentMode.setIsActive(false);
+            }
+            if (controlMode == mode) {
+                controlMode = ControlMode.NONE;
+                midiProcessor.toLayout(0x00);
+            } else {
+                controlMode = mode;
+                if (modeLayer != null) {
+                    modeLayer.setIsActive(true);
+                    if (modeLayer instanceof SendsSliderLayer sendsSliderLayer) {
+                        sendsSliderLayer.setControl(mode);
+                    }
                 }
             }
-        }
-        trackMode = TrackMode.NONE;
-        currentTrackControlLayer.applyMode(trackMode);
+            trackMode = TrackMode.NONE;
+            currentTrackControlLayer.applyMode(trackMode);
+        });
     }
     
     public void returnToPreviousMode(final boolean longPress) {
@@ -516,32 +520,36 @@ public class SessionLayer extends AbstractLpSessionLayer {
         if (modeLayer != null && !modeLayer.canBeEntered(newMode)) {
             return;
         }
-        if (currentMode != null) {
-            currentMode.setIsActive(false);
-        }
-        if (modeLayer instanceof final SendsSliderLayer sendingLayer) {
-            sendingLayer.setControl(newMode);
-        }
-        if (modeLayer != null) {
-            modeLayer.setIsActive(true);
-        }
-        if (newMode == ControlMode.NONE && controlMode != ControlMode.NONE) {
-            midiProcessor.toLayout(0x00);
-        }
-        controlMode = newMode;
+        getLayers().batch(() -> {
+            if (currentMode != null) {
+                currentMode.setIsActive(false);
+            }
+            if (modeLayer instanceof final SendsSliderLayer sendingLayer) {
+                sendingLayer.setControl(newMode);
+            }
+            if (modeLayer != null) {
+                modeLayer.setIsActive(true);
+            }
+            if (newMode == ControlMode.NONE && controlMode != ControlMode.NONE) {
+                midiProcessor.toLayout(0x00);
+            }
+            controlMode = newMode;
+        });
     }
     
     public void setMode(final LpMode lpMode) {
         this.lpMode = lpMode;
-        applyPanelModeToSceneControl();
-        final AbstractSliderLayer currentSliderMode = controlSliderLayers.get(controlMode.getRefMode());
-        if (currentSliderMode != null) {
-            currentSliderMode.setIsActive(lpMode != LpMode.SESSION);
-        }
-        currentTrackControlLayer.activateControlLayer(lpMode == LpMode.MIXER);
-        if (lpMode == LpMode.MIXER) {
-            currentTrackControlLayer.applyMode(trackMode);
-        }
+        getLayers().batch(() -> {
+            applyPanelModeToSceneControl();
+            final AbstractSliderLayer currentSliderMode = controlSliderLayers.get(controlMode.getRefMode());
+            if (currentSliderMode != null) {
+                currentSliderMode.setIsActive(lpMode != LpMode.SESSION);
+            }
+            currentTrackControlLayer.activateControlLayer(lpMode == LpMode.MIXER);
+            if (lpMode == LpMode.MIXER) {
+                currentTrackControlLayer.applyMode(trackMode);
+            }
+        });
     }
     
     private void changeModeMini() { // change to sequence
@@ -40,10 +40,12 @@ import com.bitwig.extensions.controllers.novation.launchpadpromk3.sliderlayers.S
 import com.bitwig.extensions.controllers.novation.launchpadpromk3.sliderlayers.VolumeSliderLayer;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.di.Context;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 public class LaunchpadProMk3ControllerExtension extends ControllerExtension implements ModeHandler {
     
     private Transport transport;
+    private MidiProcessor midiProcessor;
     
     // Main Grid Buttons counting from top to bottom
     
@@ -93,7 +95,7 @@ public class LaunchpadProMk3ControllerExtension extends ControllerExtension impl
         midiIn2.setMidiCallback((ShortMidiMessageReceivedCallback) this::onMidi1);
         
         final MidiOut midiOut = host.getMidiOutPort(0);
-        final MidiProcessor midiProcessor = new MidiProcessor(host, midiIn, midiOut,
+        midiProcessor = new MidiProcessor(host, diContext.getService(TimerWheel.class), midiIn, midiOut,
             new LaunchpadDeviceConfig("LaunchPadProMk3", 0x0E, 0xB4, 0xB5, false));
         diContext.registerService(MidiProcessor.class, midiProcessor);
         
@@ -136,7 +138,6 @@ public class LaunchpadProMk3ControllerExtension extends ControllerExtension impl
         sysExHandler.addModeChangeListener(this::handleModeChanged);
         sysExHandler.deviceInquiry();
         diContext.activate();
-        midiProcessor.start();
     }
     
     private void initSliderLayers(final Context diContext) {
@@ -345,6 +346,7 @@ public class LaunchpadProMk3ControllerExtension extends ControllerExtension impl
     @Override
     public void flush() {
         surface.updateHardware();
+        midiProcessor.flush();
     }
     
     @Override
@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.novation.commonsmk3.MidiProcessor;
 import com.bitwig.extensions.controllers.novation.launchpadpromk3.layers.ControlMode;
+import com.bitwig.extensions.framework.midi.SysexWriter;
 
 public class SysExHandler {
     private static final String SYSEX_HEADER = "F0 00 20 29 02 0E ";
@@ -15,7 +16,7 @@ public class SysExHandler {
     private static final String LAYOUT_REQUEST = SYSEX_HEADER + "00 F7";
     private static final String DEVICE_INQUIRY = "F0 7E 7F 06 01 F7";
     private static final String PRINT_TO_CLIP_ENABLE = "F0 00 20 29 02 0E 18 %02X F7";
-    private static final String FADER_SET = "%02X %02X %02X %02X ";
+    private static final byte[] SYSEX_HEADER_BYTES = SysexWriter.fromHex(SYSEX_HEADER);
     private static final String DAW_FADER = "F0 00 20 29 02 0E 00 %02X %02X 00 F7";
     
     private static final String DAW_MODE = SYSEX_HEADER + "0E %02X F7";
@@ -27,6 +28,7 @@ public class SysExHandler {
     private static final String PTC_HEAD = "f0002029020e03";
     
     private final MidiOut midiOut;
+    private final SysexWriter sysex = new SysexWriter();
     
     private LpBaseMode mode = LpBaseMode.SESSION;
     private int page = 0;
@@ -54,13 +56,11 @@ public class SysExHandler {
         if (mode == ControlMode.NONE) {
             return;
         }
-        final StringBuilder sysEx = new StringBuilder(SYSEX_HEADER);
-        sysEx.append(String.format("01 %02X %02X ", mode.getBankId(), orient));
+        sysex.begin(SYSEX_HEADER_BYTES).raw(0x01).data(mode.getBankId()).data(orient);
         for (int i = 0; i < 8; i++) {
-            sysEx.append(String.format(FADER_SET, i, mode.getType(), mode.getCcNr() + i, colorIndex[i]));
+            sysex.data(i).data(mode.getType()).data(mode.getCcNr() + i).data(colorIndex[i]);
         }
-        sysEx.append("F7");
-        midiOut.sendSysex(sysEx.toString());
+        sysex.end().send(midiOut);
         midiOut.sendSysex("F0 00 20 29 02 0E 00 0D F7");
     }
     
@@ -27,13 +27,15 @@ import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
 import com.bitwig.extensions.framework.di.Inject;
 import com.bitwig.extensions.framework.di.PostConstruct;
+import com.bitwig.extensions.framework.values.KeyTranslationTable;
 
 public class DrumLayer extends Layer {
+    private static final KeyTranslationTable.Layout PAD_LAYOUT = KeyTranslationTable.consecutive(36, 64);
     
     private DrumPadBank drumPadBank;
     private NoteInput noteInput;
+    private KeyTranslationTable keyTranslation;
     private final int[] padColors = new int[64];
-    private final Integer[] noteTable = new Integer[128];
     private final boolean[] isPlaying = new boolean[128];
     private final Set<Integer> padNotes = new HashSet<>();
     @Inject
@@ -50,6 +52,8 @@ public class DrumLayer extends Layer {
     public void init(final ControllerHost host, final MidiProcessor midiProcessor, final LpProHwElements hwElements) {
         noteInput = midiProcessor.getMidiIn().createNoteInput("MIDI", "88????", "98????");
         noteInput.setShouldConsumeEvents(false);
+        keyTranslation = KeyTranslationTable.of(noteInput);
+        keyTranslation.setScrollSteps(4, 16);
         final CursorTrack cursorTrack = viewCursorControl.getCursorTrack();
         cursorTrack.playingNotes().addValueObserver(this::handleNotes);
         
@@ -127,12 +131,7 @@ public class DrumLayer extends Layer {
     }
     
     public void applyNotes(final int noteOffset) {
-        Arrays.fill(noteTable, -1);
-        for (int note = 0; note < 64; note++) {
-            final int value = noteOffset + note;
-            noteTable[36 + note] = value < 128 ? value : -1;
-        }
-        noteInput.setKeyTranslationTable(noteTable);
+        keyTranslation.apply(PAD_LAYOUT, noteOffset);
     }
     
     private void handleNotes(final PlayingNote[] playingNotes) {
@@ -31,7 +31,6 @@ import com.bitwig.extension.controller.api.NoteStep;
 import com.bitwig.extension.controller.api.OnOffHardwareLight;
 import com.bitwig.extension.controller.api.Parameter;
 import com.bitwig.extension.controller.api.PinnableCursorDevice;
-import com.bitwig.extension.controller.api.PlayingNote;
 import com.bitwig.extension.controller.api.RelativeHardwareKnob;
 import com.bitwig.extension.controller.api.Scene;
 import com.bitwig.extension.controller.api.SceneBank;
@@ -39,6 +38,9 @@ import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.BooleanObject;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.sequencer.NoteStepIndex;
+import com.bitwig.extensions.framework.time.BeatClock;
+import com.bitwig.extensions.framework.values.PlayingNotes;
 import com.bitwig.extensions.util.NoteInputUtils;
 
 public class PresonusAtom extends ControllerExtension
@@ -155,7 +157,7 @@ public class PresonusAtom extends ControllerExtension
 
       mTransport = host.createTransport();
       mTransport.isPlaying().markInterested();
-      mTransport.getPosition().markInterested();
+      mBeatClock = new BeatClock(mTransport);
 
       mCursorClip = mCursorTrack.createLauncherCursorClip(16, 1);
       mCursorClip.color().markInterested();
@@ -169,23 +171,8 @@ public class PresonusAtom extends ControllerExtension
       mCursorClip.getLoopStart().markInterested();
       mCursorClip.playingStep().addValueObserver(s -> mPlayingStep = s, -1);
       mCursorClip.scrollToKey(36);
-      mCursorClip.addNoteStepObserver(d -> {
-         final int x = d.x();
-         final int y = d.y();
-
-         if (y == 0 && x >= 0 && x < mStepData.length)
-         {
-            final NoteStep.State state = d.state();
-
-            if (state == NoteStep.State.NoteOn)
-               mStepData[x] = 2;
-            else if (state == NoteStep.State.NoteSustain)
-               mStepData[x] = 1;
-            else
-               mStepData[x] = 0;
-         }
-      });
-      mCursorTrack.playingNotes().addValueObserver(notes -> mPlayingNotes = notes);
+      mCursorClip.addNoteStepObserver(mStepIndex::update);
+      mPlayingNotes = PlayingNotes.of(mCursorTrack);
 
       mDrumPadBank = mCursorDevice.createDrumPadBank(16);
       mDrumPadBank.exists().markInterested();
@@ -202,6 +189,7 @@ public class PresonusAtom extends ControllerExtension
    @Override
    public void flush()
    {
+      mBeatClock.sample();
       mHardwareSurface.updateHardware();
    }
 
@@ -649,8 +637,9 @@ public class PresonusAtom extends ControllerExtension
          return WHITE;
       }
 
-      final boolean isNewNote = mStepData[padIndex] == 2;
-      final boolean hasData = mStepData[padIndex] > 0;
+      final NoteStep.State state = mStepIndex.getState(padIndex);
+      final boolean isNewNote = state == NoteStep.State.NoteOn;
+      final boolean hasData = state != NoteStep.State.Empty;
 
       if (isNewNote)
          return Color.mix(mCursorClip.color().get(), WHITE, 0.5f);
@@ -720,18 +709,7 @@ public class PresonusAtom extends ControllerExtension
 
    private int velocityForPlayingNote(final int padIndex)
    {
-      if (mPlayingNotes != null)
-      {
-         for (final PlayingNote playingNote : mPlayingNotes)
-         {
-            if (playingNote.pitch() == 36 + padIndex)
-            {
-               return playingNote.velocity();
-            }
-         }
-      }
-
-      return 0;
+      return mPlayingNotes.velocity(36 + padIndex);
    }
 
    private double getPageLengthInBeatTime()
@@ -781,7 +759,7 @@ public class PresonusAtom extends ControllerExtension
 
       light.state().onUpdateHardware(new LightStateSender(0xB0, controlNumber));
 
-      light.setColorToStateFunction(color -> new RGBLightState(color));
+      light.setColorToStateFunction(RGBLightState::forColor);
 
       button.setBackgroundLight(light);
 
@@ -818,7 +796,7 @@ public class PresonusAtom extends ControllerExtension
 
       light.state().onUpdateHardware(new LightStateSender(0x90, 0x24 + index));
 
-      light.setColorToStateFunction(color -> new RGBLightState(color));
+      light.setColorToStateFunction(RGBLightState::forColor);
 
       pad.setBackgroundLight(light);
 
@@ -938,8 +916,7 @@ public class PresonusAtom extends ControllerExtension
 
    private float getTransportPulse(final double multiplier, final double amount)
    {
-      final double p = mTransport.getPosition().get() * multiplier;
-      return (float)((0.5 + 0.5 * Math.cos(p * 2 * Math.PI)) * amount);
+      return (float)(mBeatClock.pulse(multiplier) * amount);
    }
 
    /* API Objects */
@@ -951,6 +928,8 @@ public class PresonusAtom extends ControllerExtension
 
    private Transport mTransport;
 
+   private BeatClock mBeatClock;
+
    private MidiIn mMidiIn;
 
    private MidiOut mMidiOut;
@@ -963,13 +942,13 @@ public class PresonusAtom extends ControllerExtension
 
    private NoteInput mNoteInput;
 
-   private PlayingNote[] mPlayingNotes;
+   private PlayingNotes mPlayingNotes;
 
    private Clip mCursorClip;
 
    private int mPlayingStep;
 
-   private int[] mStepData = new int[16];
+   private final NoteStepIndex mStepIndex = new NoteStepIndex(16);
 
    private int mCurrentPadForSteps;
 
@@ -3,6 +3,7 @@ package com.bitwig.extensions.controllers.presonus.atom;
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.LightStateCache;
 
 class RGBLightState extends InternalHardwareLightState
 {
@@ -11,6 +12,19 @@ class RGBLightState extends InternalHardwareLightState
       return Math.max(0, Math.min((int)(127.0 * x), 127));
    }
 
+   /** States by their RGB components, 7 bits each. */
+   private static final LightStateCache<RGBLightState> STATES =
+      new LightStateCache<>(key -> new RGBLightState(key >> 14, key >> 7 & 0x7F, key & 0x7F));
+
+   /**
+    * @return the shared state showing the color
+    */
+   public static RGBLightState forColor(final Color color)
+   {
+      return STATES.get(colorPartFromDouble(color.getRed()) << 14 | colorPartFromDouble(color.getGreen()) << 7
+         | colorPartFromDouble(color.getBlue()));
+   }
+
    public RGBLightState(final int red, final int green, final int blue)
    {
       super();
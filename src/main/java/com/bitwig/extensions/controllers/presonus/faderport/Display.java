@@ -48,7 +48,7 @@ class Display
       final int barValue = target.getBarValue();
       final ValueBarMode valueBarMode = target.getValueBarMode();
 
-      final MidiOut midiOutPort = mExtension.getMidiOutPort(0);
+      final MidiOut midiOutPort = mExtension.getMidiOut();
       if (valueBarMode != mLastValueBarMode || barValue != mLastBarValue)
       {
          if (mChannel >= 8)
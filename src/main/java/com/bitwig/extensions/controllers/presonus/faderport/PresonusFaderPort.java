@@ -36,6 +36,9 @@ import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.LayerGroup;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
+import com.bitwig.extensions.framework.midi.MotorFaderScheduler;
+import com.bitwig.extensions.framework.time.TimerWheel;
 import com.bitwig.extensions.util.ValueUtils;
 
 public abstract class PresonusFaderPort extends ControllerExtension
@@ -152,7 +155,10 @@ public abstract class PresonusFaderPort extends ControllerExtension
       mMidiIn = host.getMidiInPort(0);
       mMidiIn.setMidiCallback((ShortMidiMessageReceivedCallback)this::onMidi);
 
-      mMidiOut = host.getMidiOutPort(0);
+      mMetrics.createSettings(host);
+      mMidiOut = mMetrics.instrument(0, host.getMidiOutPort(0));
+      mFaderScheduler = new MotorFaderScheduler(new TimerWheel(host), mMidiOut);
+      mFaderScheduler.setDeadband(16);
 
       mCursorTrack = host.createCursorTrack(0, 0);
       mCursorTrack.position().markInterested();
@@ -278,7 +284,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
       final MultiStateHardwareLight light = mHardwareSurface.createMultiStateHardwareLight(id + "_light");
       button.setBackgroundLight(light);
 
-      light.setColorToStateFunction(color -> new RGBLightState(color));
+      light.setColorToStateFunction(RGBLightState::forColor);
 
       final Consumer<RGBLightState> sendState = new Consumer<RGBLightState>()
       {
@@ -345,31 +351,13 @@ public abstract class PresonusFaderPort extends ControllerExtension
       fader.isUpdatingTargetValue().markInterested();
       fader.hasTargetValue().markInterested();
 
-      final DoubleValueChangedCallback moveFader = new DoubleValueChangedCallback()
-      {
-         @Override
-         public void valueChanged(final double value)
-         {
-            // getHost().println("Moving fader to " + value + ", " + fader.isUpdatingTargetValue().get() + ",
-            // "
-            // + fader.hasTargetValue().get());
-
-            if (!fader.isUpdatingTargetValue().get())
-            {
-               final int faderValue = Math.max(0, Math.min(16383, (int)(value * 16384.0)));
-
-               if (mLastSentValue != value)
-               {
-                  mMidiOut.sendMidi(0xE0 | channel, faderValue & 0x7f, faderValue >> 7);
-                  mLastSentValue = faderValue;
-               }
-            }
-         }
-
-         private int mLastSentValue = -1;
+      final DoubleValueChangedCallback moveFader = value -> {
+         if (!fader.isUpdatingTargetValue().get())
+            mFaderScheduler.setTarget(channel, (int)(value * 16384.0));
       };
 
       fader.targetValue().addValueObserver(moveFader);
+      fader.isBeingTouched().addValueObserver(touched -> mFaderScheduler.setTouched(channel, touched));
 
       return fader;
    }
@@ -728,15 +716,25 @@ public abstract class PresonusFaderPort extends ControllerExtension
       // getHost().println(data.toString());
    }
 
+   /** The output port, counted by the metrics of the layers. */
+   MidiOut getMidiOut()
+   {
+      return mMidiOut;
+   }
+
    @Override
    public void flush()
    {
+      final long flushStart = mMetrics.beginFlush();
+
       mHardwareSurface.updateHardware();
 
       for (int index = 0; index < mChannelCount; index++)
       {
          mChannels[index].display.updateHardware();
       }
+
+      mMetrics.endFlush(flushStart);
    }
 
    private SettableIntegerValue getPageIndex()
@@ -958,7 +956,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private void runningStatusTimer()
    {
-      getMidiOutPort(0).sendMidi(0xA0, 0, 0);
+      mMidiOut.sendMidi(0xA0, 0, 0);
 
       getHost().scheduleTask(this::runningStatusTimer, 1000);
    }
@@ -979,6 +977,8 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private MidiOut mMidiOut;
 
+   private MotorFaderScheduler mFaderScheduler;
+
    private Application mApplication;
 
    private Project mProject;
@@ -1100,5 +1100,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
    private boolean mIsRewinding;
    private boolean mIsForwarding;
 
-   private final Layers mLayers = new Layers(this);
+   private final ExtensionMetrics mMetrics = new ExtensionMetrics();
+
+   private final Layers mLayers = new Layers(this, mMetrics);
 }
@@ -34,6 +34,7 @@ import com.bitwig.extensions.framework.DebugUtilities;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
 import com.bitwig.extensions.framework.animation.BlinkAnimation;
+import com.bitwig.extensions.framework.midi.SysexDispatcher;
 
 public class SLMixfaceExtension extends ControllerExtension
 {
@@ -62,7 +63,8 @@ public class SLMixfaceExtension extends ControllerExtension
       mMidiOut = host.getMidiOutPort(0);
 
       midiIn.setMidiCallback((ShortMidiMessageReceivedCallback)msg -> onMidi0(msg));
-      midiIn.setSysexCallback((final String data) -> onSysex0(data));
+      defineSysex0();
+      midiIn.setSysexCallback(mSysexDispatcher::handleSysex);
 
       defineHardwareControls(host, midiIn);
 
@@ -502,22 +504,19 @@ public class SLMixfaceExtension extends ControllerExtension
       getHost().println(msg.toString());
    }
 
-   /** Called when we receive sysex MIDI message on port 0. */
-   private void onSysex0(final String data)
+   /** Registers the sysex MIDI messages we handle on port 0. */
+   private void defineSysex0()
    {
       // MMC Transport Controls:
-      if (data.equals("f07f7f0605f7"))
-         mTransport.rewind();
-      else if (data.equals("f07f7f0604f7"))
-         mTransport.fastForward();
-      else if (data.equals("f07f7f0601f7"))
-         mTransport.stop();
-      else if (data.equals("f07f7f0602f7"))
-         mTransport.play();
-      else if (data.equals("f07f7f0606f7"))
-         mTransport.record();
+      mSysexDispatcher.register("f07f7f0605f7", message -> mTransport.rewind());
+      mSysexDispatcher.register("f07f7f0604f7", message -> mTransport.fastForward());
+      mSysexDispatcher.register("f07f7f0601f7", message -> mTransport.stop());
+      mSysexDispatcher.register("f07f7f0602f7", message -> mTransport.play());
+      mSysexDispatcher.register("f07f7f0606f7", message -> mTransport.record());
    }
 
+   private final SysexDispatcher mSysexDispatcher = new SysexDispatcher();
+
    private Transport mTransport;
 
    private TrackBank mTrackBank;
@@ -72,6 +72,17 @@ public abstract class Binding<SourceType, TargetType>
       mLayer = layer;
    }
 
+   /** Position of this binding in the overall layer order, used to activate bindings in a stable order. */
+   long getResolutionOrder()
+   {
+      return mResolutionOrder;
+   }
+
+   void setResolutionOrder(final long resolutionOrder)
+   {
+      mResolutionOrder = resolutionOrder;
+   }
+
    protected abstract void deactivate();
 
    protected abstract void activate();
@@ -85,4 +96,6 @@ public abstract class Binding<SourceType, TargetType>
    private boolean mIsActive;
 
    private Layer mLayer;
+
+   private long mResolutionOrder;
 }
@@ -4,6 +4,7 @@ import java.util.function.Supplier;
 
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 import com.bitwig.extension.controller.api.MultiStateHardwareLight;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
 
 public class InternalLightStateBinding extends Binding<Supplier<InternalHardwareLightState>, MultiStateHardwareLight>
 {
@@ -22,6 +23,19 @@ public class InternalLightStateBinding extends Binding<Supplier<InternalHardware
    @Override
    protected void activate()
    {
-      getTarget().state().setValueSupplier(getSource());
+      if (mCountingSource == null)
+      {
+         final ExtensionMetrics metrics = getLayer().getLayers().getMetrics();
+         final Supplier<InternalHardwareLightState> source = getSource();
+         mCountingSource = metrics == null ? source : () -> {
+            metrics.lightStateEvaluated();
+            return source.get();
+         };
+      }
+
+      getTarget().state().setValueSupplier(mCountingSource);
    }
+
+   /** Supplies the state of the source and counts the evaluations in the metrics of the layers, if they have any. */
+   private Supplier<InternalHardwareLightState> mCountingSource;
 }
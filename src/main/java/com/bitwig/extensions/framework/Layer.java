@@ -60,6 +60,8 @@ public class Layer {
       mBindings.add(binding);
 
       binding.setLayer(this);
+
+      mLayers.bindingAdded(binding);
    }
 
    public AbsoluteHardwareControlBinding bind(
@@ -330,6 +332,7 @@ public class Layer {
    private final void doSetIsActive(final boolean isActive) {
       if (isActive != mIsActive) {
          mIsActive = isActive;
+         mLayers.layerChanged(this);
 
          isActiveChanged();
 
@@ -380,7 +383,18 @@ public class Layer {
    }
 
    public void setShouldReplaceBindingsInLayersBelow(final boolean value) {
-      mShouldReplaceBindingsInLayersBelow = value;
+      if (value != mShouldReplaceBindingsInLayersBelow) {
+         mShouldReplaceBindingsInLayersBelow = value;
+         mLayers.layerChanged(this);
+      }
+   }
+
+   int getIndex() {
+      return mIndex;
+   }
+
+   void setIndex(final int index) {
+      mIndex = index;
    }
 
    private boolean mIsActive;
@@ -396,4 +410,6 @@ public class Layer {
    private LayerGroup mLayerGroup;
 
    private boolean mShouldReplaceBindingsInLayersBelow = true;
+
+   private int mIndex;
 }
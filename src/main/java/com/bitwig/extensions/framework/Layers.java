@@ -2,18 +2,39 @@ package com.bitwig.extensions.framework;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 
 import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
 
+/**
+ * Owns all the layers of an extension and resolves which bindings are active.
+ *
+ * Bindings are indexed by their exclusivity object, ordered by layer priority (the order in which layers were
+ * added). When layers are activated or deactivated only the bindings sharing an exclusivity object with a
+ * binding of a changed layer are re-evaluated, instead of recomputing the whole set of active bindings.
+ */
 public class Layers
 {
    public Layers(final ControllerExtension controllerExtension)
+   {
+      this(controllerExtension, null);
+   }
+
+   /**
+    * @param metrics the metrics of the extension, which count the bindings the layers (de)activate and the light
+    *           states the hardware evaluates, or null to not count anything
+    */
+   public Layers(final ControllerExtension controllerExtension, final ExtensionMetrics metrics)
    {
       super();
       mControllerExtension = controllerExtension;
+      mMetrics = metrics;
    }
 
    public ControllerExtension getControllerExtension()
@@ -21,8 +42,15 @@ public class Layers
       return mControllerExtension;
    }
 
+   /** The metrics the light bindings count their evaluations in, null if nothing is counted. */
+   ExtensionMetrics getMetrics()
+   {
+      return mMetrics;
+   }
+
    public void addLayer(final Layer layer)
    {
+      layer.setIndex(mLayers.size());
       mLayers.add(layer);
    }
 
@@ -36,60 +64,171 @@ public class Layers
       return Collections.unmodifiableList(mLayers);
    }
 
+   @SuppressWarnings("rawtypes")
+   void bindingAdded(final Binding binding)
+   {
+      final Layer layer = binding.getLayer();
+      binding.setResolutionOrder((long)layer.getIndex() << 32 | (layer.mBindings.size() - 1));
+
+      final List<Binding> bindings = mBindingsByExclusivityObject
+         .computeIfAbsent(binding.getExclusivityObject(), key -> new ArrayList<>(2));
+
+      int insertIndex = bindings.size();
+
+      while (insertIndex > 0 && bindings.get(insertIndex - 1).getResolutionOrder() > binding.getResolutionOrder())
+         insertIndex--;
+
+      bindings.add(insertIndex, binding);
+
+      if (layer.isActive())
+         mChangedLayers.add(layer);
+   }
+
+   /** Marks a layer whose activation (or replacement policy) changed so its bindings get resolved again. */
+   void layerChanged(final Layer layer)
+   {
+      mChangedLayers.add(layer);
+   }
+
    @SuppressWarnings("rawtypes")
    private void updateActiveBindings()
    {
-      mActiveBindings.clear();
+      if (mChangedLayers.isEmpty())
+         return;
 
-      for (final Layer layer : mLayers)
+      for (final Layer layer : mChangedLayers)
       {
-         if (layer.isActive())
+         for (final Binding binding : layer.mBindings)
+            mChangedExclusivityObjects.add(binding.getExclusivityObject());
+      }
+
+      mChangedLayers.clear();
+
+      // All deactivations happen while resolving so that bindings sharing a target are released before the
+      // replacing bindings get activated.
+
+      for (final Object exclusivityObject : mChangedExclusivityObjects)
+         resolveBindings(mBindingsByExclusivityObject.get(exclusivityObject));
+
+      mChangedExclusivityObjects.clear();
+
+      if (mBindingsToActivate.size() > 1)
+         mBindingsToActivate.sort(RESOLUTION_ORDER);
+
+      for (final Binding binding : mBindingsToActivate)
+         binding.setIsActive(true);
+
+      if (mMetrics != null)
+         mMetrics.bindingsActivated(mBindingsToActivate.size());
+
+      mBindingsToActivate.clear();
+   }
+
+   /**
+    * Resolves the bindings sharing one exclusivity object. The topmost active layer that replaces bindings in
+    * layers below shadows all bindings of the layers under it; bindings of active layers from there on up
+    * are active.
+    */
+   @SuppressWarnings("rawtypes")
+   private void resolveBindings(final List<Binding> bindings)
+   {
+      int shadowingLayerIndex = -1;
+
+      for (int i = bindings.size() - 1; i >= 0; i--)
+      {
+         final Layer layer = bindings.get(i).getLayer();
+
+         if (layer.isActive() && layer.shouldReplaceBindingsInLayersBelow())
          {
-            for (final Binding binding : layer.mBindings)
-            {
-               if (layer.shouldReplaceBindingsInLayersBelow())
-               {
-                  final Object exclusivityObject = binding.getExclusivityObject();
-
-                  for (final Iterator<Binding> i = mActiveBindings.iterator(); i.hasNext();)
-                  {
-                     final Binding activeBinding = i.next();
-
-                     if (Objects.equals(activeBinding.getExclusivityObject(), exclusivityObject)
-                        && activeBinding.getLayer() != layer)
-                     {
-                        i.remove();
-                        activeBinding.setIsActive(false);
-                     }
-                  }
-               }
-
-               mActiveBindings.add(binding);
-            }
+            shadowingLayerIndex = layer.getIndex();
+            break;
          }
-         else
+      }
+
+      for (final Binding binding : bindings)
+      {
+         final Layer layer = binding.getLayer();
+         final boolean shouldBeActive = layer.isActive() && layer.getIndex() >= shadowingLayerIndex;
+
+         if (!shouldBeActive)
          {
-            for (final Binding binding : layer.mBindings)
+            if (binding.isActive())
             {
                binding.setIsActive(false);
+
+               if (mMetrics != null)
+                  mMetrics.bindingDeactivated();
             }
          }
+         else if (!binding.isActive())
+            mBindingsToActivate.add(binding);
       }
+   }
+
+   protected void activeLayersChanged()
+   {
+      if (mUpdateDepth > 0)
+         return;
+
+      updateActiveBindings();
+   }
+
+   /**
+    * Starts a batch of layer changes. Bindings are not resolved until the outermost batch is ended with
+    * {@link #endUpdate()}, so intermediate states of a mode switch never reach the hardware and only bindings
+    * whose final state differs get (de)activated.
+    */
+   public void beginUpdate()
+   {
+      mUpdateDepth++;
+   }
+
+   /** Ends a batch started with {@link #beginUpdate()} and resolves the bindings when it was the outermost. */
+   public void endUpdate()
+   {
+      assert mUpdateDepth > 0;
+
+      mUpdateDepth--;
 
-      for (final Binding binding : mActiveBindings)
+      if (mUpdateDepth == 0 && !mChangedLayers.isEmpty())
+         activeLayersChanged();
+   }
+
+   /** Runs the supplied layer changes as one batch, see {@link #beginUpdate()}. */
+   public void batch(final Runnable layerChanges)
+   {
+      beginUpdate();
+
+      try
       {
-         binding.setIsActive(true);
+         layerChanges.run();
+      }
+      finally
+      {
+         endUpdate();
       }
    }
 
-   protected void activeLayersChanged()
+   public boolean isUpdating()
    {
-      updateActiveBindings();
+      return mUpdateDepth > 0;
    }
 
+   @SuppressWarnings("rawtypes")
    public List<Binding> getActiveBindings()
    {
-      return Collections.unmodifiableList(mActiveBindings);
+      final List<Binding> activeBindings = new ArrayList<>();
+
+      for (final Layer layer : mLayers)
+      {
+         for (final Binding binding : layer.mBindings)
+         {
+            if (binding.isActive())
+               activeBindings.add(binding);
+         }
+      }
+
+      return Collections.unmodifiableList(activeBindings);
    }
 
    public double getGlobalSensitivity()
@@ -117,9 +256,23 @@ public class Layers
    private final List<Layer> mLayers = new ArrayList<>(4);
 
    @SuppressWarnings("rawtypes")
-   private final List<Binding> mActiveBindings = new ArrayList<>();
+   private static final Comparator<Binding> RESOLUTION_ORDER = Comparator.comparingLong(Binding::getResolutionOrder);
+
+   @SuppressWarnings("rawtypes")
+   private final Map<Object, List<Binding>> mBindingsByExclusivityObject = new HashMap<>();
+
+   private final Set<Layer> mChangedLayers = new LinkedHashSet<>();
+
+   private final Set<Object> mChangedExclusivityObjects = new LinkedHashSet<>();
+
+   @SuppressWarnings("rawtypes")
+   private final List<Binding> mBindingsToActivate = new ArrayList<>();
 
    private final ControllerExtension mControllerExtension;
 
+   private final ExtensionMetrics mMetrics;
+
    private double mGlobalSensitivity = 1;
+
+   private int mUpdateDepth;
 }
@@ -4,6 +4,7 @@ import java.util.function.Supplier;
 
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.MultiStateHardwareLight;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
 
 class LightColorOutputBinding extends Binding<Supplier<Color>, MultiStateHardwareLight>
 {
@@ -22,7 +23,20 @@ class LightColorOutputBinding extends Binding<Supplier<Color>, MultiStateHardwar
    @Override
    protected void activate()
    {
-      getTarget().setColorSupplier(getSource());
+      if (mCountingSource == null)
+      {
+         final ExtensionMetrics metrics = getLayer().getLayers().getMetrics();
+         final Supplier<Color> source = getSource();
+         mCountingSource = metrics == null ? source : () -> {
+            metrics.lightStateEvaluated();
+            return source.get();
+         };
+      }
+
+      getTarget().setColorSupplier(mCountingSource);
    }
 
+   /** Supplies the color of the source and counts the evaluations in the metrics of the layers, if they have any. */
+   private Supplier<Color> mCountingSource;
+
 }
@@ -0,0 +1,130 @@
+package com.bitwig.extensions.framework;
+
+import java.util.function.IntFunction;
+
+import com.bitwig.extension.controller.api.InternalHardwareLightState;
+
+/**
+ * Interns immutable light states by a packed int key, so light suppliers that are evaluated on every flush can
+ * return a shared instance instead of allocating a new state each time.
+ * <p>
+ * The key packs everything that distinguishes two states of a light class, e.g. a color index and a blink mode, or
+ * the RGB components of a color. The first request for a key creates the state with the factory, every later request
+ * returns the same instance, so states from the cache can also be compared by identity. Keys below the dense size
+ * are looked up in an array, other keys in an open addressing hash table. Neither allocates once the state exists.
+ * <p>
+ * The caches are usually static and so shared by all instances of a driver, whose controllers run on threads of their
+ * own. Looking up an existing state doesn't lock: the slots hold immutable entries, which are safe to read without
+ * synchronization. Creating a state locks the cache, and a grown hash table is filled completely before it replaces
+ * the old one.
+ *
+ * @param <T> the type of light state
+ */
+public class LightStateCache<T extends InternalHardwareLightState> {
+   private static final int INITIAL_CAPACITY = 64;
+
+   private record Entry(int key, Object state) {
+   }
+
+   private final IntFunction<T> factory;
+   private final Entry[] dense;
+   private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+   private int size;
+
+   /**
+    * Creates a cache that hashes all keys.
+    *
+    * @param factory creates the state for a key
+    */
+   public LightStateCache(final IntFunction<T> factory) {
+      this(factory, 0);
+   }
+
+   /**
+    * @param factory   creates the state for a key
+    * @param denseSize keys from 0 to denseSize - 1 are looked up in an array, e.g. 128 for velocity color indexes
+    */
+   public LightStateCache(final IntFunction<T> factory, final int denseSize) {
+      this.factory = factory;
+      this.dense = new Entry[denseSize];
+   }
+
+   /**
+    * @param key the packed state
+    * @return the state for the key, created on first use
+    */
+   @SuppressWarnings("unchecked")
+   public T get(final int key) {
+      final Entry entry = key >= 0 && key < dense.length ? dense[key] : find(table, key);
+      return entry != null ? (T) entry.state() : create(key);
+   }
+
+   private static Entry find(final Entry[] table, final int key) {
+      final int mask = table.length - 1;
+      int slot = mix(key) & mask;
+      Entry entry;
+      while ((entry = table[slot]) != null && entry.key() != key) {
+         slot = (slot + 1) & mask;
+      }
+      return entry;
+   }
+
+   /**
+    * Creates the state of a key that wasn't found, unless another thread created it in the meantime.
+    */
+   @SuppressWarnings("unchecked")
+   private synchronized T create(final int key) {
+      if (key >= 0 && key < dense.length) {
+         if (dense[key] == null) {
+            dense[key] = new Entry(key, factory.apply(key));
+         }
+         return (T) dense[key].state();
+      }
+      final Entry existing = find(table, key);
+      if (existing != null) {
+         return (T) existing.state();
+      }
+      final Entry entry = new Entry(key, factory.apply(key));
+      size++;
+      if (size * 2 > table.length) {
+         final Entry[] grown = new Entry[table.length * 2];
+         for (final Entry other : table) {
+            if (other != null) {
+               insert(grown, other);
+            }
+         }
+         insert(grown, entry);
+         table = grown;
+      } else {
+         insert(table, entry);
+      }
+      return (T) entry.state();
+   }
+
+   private static void insert(final Entry[] table, final Entry entry) {
+      final int mask = table.length - 1;
+      int slot = mix(entry.key()) & mask;
+      while (table[slot] != null) {
+         slot = (slot + 1) & mask;
+      }
+      table[slot] = entry;
+   }
+
+   private static int mix(final int key) {
+      final int h = key * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   /**
+    * @return the number of states created so far
+    */
+   public synchronized int size() {
+      int count = size;
+      for (final Entry entry : dense) {
+         if (entry != null) {
+            count++;
+         }
+      }
+      return count;
+   }
+}
@@ -1,26 +1,35 @@
 package com.bitwig.extensions.framework.animation;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import com.bitwig.extension.controller.ControllerExtension;
-import com.bitwig.extension.controller.api.ControllerHost;
 
+/**
+ * A value that changes over time while it is on. Every evaluation while it is on reports the time of its next
+ * change to the {@link AnimationScheduler} of the extension, which requests a flush for it, so the animation keeps
+ * running as long as the hardware evaluates it and stops requesting flushes as soon as it is off.
+ */
 public abstract class Animation<ValueType> implements Supplier<ValueType>
 {
+   /** The frame rate of animations that don't know when their value changes next. */
    private static final int FRAMES_PER_SEC = 20;
 
    protected Animation(
       final ControllerExtension controllerExtension,
       final BooleanSupplier isOnSupplier,
       final Supplier<ValueType> offValueSupplier)
+   {
+      this(AnimationScheduler.forExtension(controllerExtension), isOnSupplier, offValueSupplier);
+   }
+
+   protected Animation(
+      final AnimationScheduler scheduler,
+      final BooleanSupplier isOnSupplier,
+      final Supplier<ValueType> offValueSupplier)
    {
       super();
-      mControllerExtension = controllerExtension;
+      mScheduler = scheduler;
       mIsOnSupplier = isOnSupplier;
       mOffValueSupplier = offValueSupplier;
    }
@@ -32,91 +41,66 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
 
       if (isOn)
       {
-         long timeSinceStartInMs = 0;
+         final long now = mScheduler.getTime();
 
          if (mAnimationStartTime == -1)
          {
             // Animation started
 
-            mAnimationStartTime = System.currentTimeMillis();
-
-            startedAnimation(this);
-         }
-         else
-         {
-            timeSinceStartInMs = System.currentTimeMillis() - mAnimationStartTime;
+            mAnimationStartTime = now;
          }
 
-         final double timeSinceStartInSec = timeSinceStartInMs / 1000.0;
+         final long startTime = isPhaseShared() ? mScheduler.getPhaseOrigin() : mAnimationStartTime;
+         final double timeInSec = (now - startTime) / 1000.0;
+         final double nextChangeInSec = getNextChangeTime(timeInSec);
 
-         return getAnimatedValueAtTime(timeSinceStartInSec);
+         mScheduler.requestFrameAt(startTime + (long)Math.ceil(nextChangeInSec * 1000.0));
+
+         return getAnimatedValueAtTime(timeInSec);
       }
       else
       {
-         if (mAnimationStartTime != -1)
-         {
-            // Animation stopped
+         // Animation stopped, it doesn't request any more frames
 
-            mAnimationStartTime = -1;
-
-            stoppedAnimation(this);
-         }
+         mAnimationStartTime = -1;
 
          return mOffValueSupplier.get();
       }
    }
 
-   private static void startedAnimation(final Animation animation)
+   public AnimationScheduler getScheduler()
    {
-      final ControllerHost host = animation.mControllerExtension.getHost();
-
-      List<Animation> runningAnimations = HOST_TO_RUNNING_ANIMATIONS_MAP.get(host);
-
-      if (runningAnimations == null)
-      {
-         runningAnimations = new ArrayList<>();
-         HOST_TO_RUNNING_ANIMATIONS_MAP.put(host, runningAnimations);
-      }
-
-      runningAnimations.add(animation);
-
-      if (runningAnimations.size() == 1)
-      {
-         // Start pumping the animations for this host.
-
-         pumpFlush(host, runningAnimations);
-      }
+      return mScheduler;
    }
 
-   private static void stoppedAnimation(final Animation animation)
+   /**
+    * Whether the time of the animation is the phase time of the scheduler, shared by all animations, instead of the
+    * time since the animation was turned on.
+    */
+   protected boolean isPhaseShared()
    {
-      final ControllerHost host = animation.mControllerExtension.getHost();
-
-      final List<Animation> runningAnimations = HOST_TO_RUNNING_ANIMATIONS_MAP.get(host);
-
-      assert runningAnimations != null;
-      assert runningAnimations.contains(animation);
-
-      runningAnimations.remove(animation);
+      return false;
    }
 
-   private static void pumpFlush(final ControllerHost host, final List<Animation> runningAnimations)
+   /**
+    * The time of the next change of the value, used to request a flush only when the output changes. Animations
+    * that change continuously don't need to override this, they are updated at a fixed frame rate.
+    *
+    * @param timeInSec the current time of the animation
+    * @return the time of the next change, after the current time
+    */
+   protected double getNextChangeTime(final double timeInSec)
    {
-      host.requestFlush();
-
-      if (!runningAnimations.isEmpty())
-         host.scheduleTask(() -> pumpFlush(host, runningAnimations), 1000 / FRAMES_PER_SEC);
+      return timeInSec + 1.0 / FRAMES_PER_SEC;
    }
 
    protected abstract ValueType getAnimatedValueAtTime(double timeInSec);
 
-   private final ControllerExtension mControllerExtension;
+   private final AnimationScheduler mScheduler;
 
    private final BooleanSupplier mIsOnSupplier;
 
    private long mAnimationStartTime = -1;
 
    private final Supplier<ValueType> mOffValueSupplier;
-
-   private static final Map<ControllerHost, List<Animation>> HOST_TO_RUNNING_ANIMATIONS_MAP = new HashMap<>();
 }
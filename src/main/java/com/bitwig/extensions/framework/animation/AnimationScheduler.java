@@ -0,0 +1,131 @@
+package com.bitwig.extensions.framework.animation;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.api.ControllerHost;
+
+/**
+ * Requests flushes for the running {@link Animation}s of an extension at the instants their values change.
+ *
+ * Whenever an animation is evaluated during a flush it reports when its value changes next, e.g. when a blinking
+ * light toggles. The scheduler keeps the earliest of these instants and requests a single flush for it, so a light
+ * blinking at 2 Hz costs 4 flushes a second instead of a flush at a fixed frame rate, and no flush is requested once
+ * all animations stopped. A frame rate cap limits how close requested flushes can follow each other.
+ *
+ * The scheduler also has a phase clock. Periodic animations like {@link BlinkAnimation} can derive their phase from
+ * it instead of from the time they were turned on, which keeps blinking lights in sync regardless of when they
+ * started.
+ */
+public class AnimationScheduler
+{
+   private static final long NONE = Long.MAX_VALUE;
+
+   public AnimationScheduler(final ControllerHost host)
+   {
+      this(host, () -> System.nanoTime() / 1_000_000L);
+   }
+
+   /**
+    * @param host  the host to request flushes from and to schedule the frames with
+    * @param clock the time in ms, e.g. a virtual clock when running without Bitwig Studio
+    */
+   public AnimationScheduler(final ControllerHost host, final LongSupplier clock)
+   {
+      super();
+      mHost = host;
+      mClock = clock;
+      mPhaseOrigin = clock.getAsLong();
+   }
+
+   /**
+    * @return the scheduler shared by all animations of the extension, created on first use
+    */
+   public static AnimationScheduler forExtension(final ControllerExtension extension)
+   {
+      synchronized (EXTENSION_TO_SCHEDULER_MAP)
+      {
+         return EXTENSION_TO_SCHEDULER_MAP.computeIfAbsent(extension,
+            key -> new AnimationScheduler(key.getHost()));
+      }
+   }
+
+   /** The current time in ms. */
+   public long getTime()
+   {
+      return mClock.getAsLong();
+   }
+
+   /** The time in ms at which the shared phase clock started. */
+   public long getPhaseOrigin()
+   {
+      return mPhaseOrigin;
+   }
+
+   public int getMaxFramesPerSecond()
+   {
+      return mMaxFramesPerSecond;
+   }
+
+   /**
+    * Limits the rate of the flushes requested for animations, e.g. for devices that can't take LED updates at a
+    * higher rate.
+    *
+    * @param maxFramesPerSecond the maximum number of requested flushes per second, 0 for no limit
+    */
+   public void setMaxFramesPerSecond(final int maxFramesPerSecond)
+   {
+      assert maxFramesPerSecond >= 0;
+
+      mMaxFramesPerSecond = maxFramesPerSecond;
+      mMinFrameInterval = maxFramesPerSecond > 0 ? (1000 + maxFramesPerSecond - 1) / maxFramesPerSecond : 0;
+   }
+
+   /**
+    * Requests a flush at the given time, called by animations for their next change.
+    *
+    * @param time the time in ms as returned by {@link #getTime()}
+    */
+   public void requestFrameAt(final long time)
+   {
+      final long frameTime = Math.max(time, mLastFrameTime + mMinFrameInterval);
+
+      if (frameTime >= mPendingFrameTime)
+         return;
+
+      mPendingFrameTime = frameTime;
+
+      mHost.scheduleTask(() -> onFrame(frameTime), Math.max(0, frameTime - getTime()));
+   }
+
+   private void onFrame(final long frameTime)
+   {
+      // A frame that was superseded by an earlier one is dropped, the animations report their next change again
+      // when they are evaluated in the flush of the earlier frame.
+      if (frameTime != mPendingFrameTime)
+         return;
+
+      mPendingFrameTime = NONE;
+      mLastFrameTime = getTime();
+      mHost.requestFlush();
+   }
+
+   private final ControllerHost mHost;
+
+   private final LongSupplier mClock;
+
+   private final long mPhaseOrigin;
+
+   private int mMaxFramesPerSecond;
+
+   private long mMinFrameInterval;
+
+   private long mPendingFrameTime = NONE;
+
+   private long mLastFrameTime = Long.MIN_VALUE / 2;
+
+   private static final Map<ControllerExtension, AnimationScheduler> EXTENSION_TO_SCHEDULER_MAP =
+      new WeakHashMap<>();
+}
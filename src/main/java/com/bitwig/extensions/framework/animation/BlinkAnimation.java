@@ -42,6 +42,19 @@ public class BlinkAnimation extends BooleanAnimation
       mOffDuration = offDuration;
    }
 
+   public BlinkAnimation(
+      final AnimationScheduler scheduler,
+      final BooleanSupplier isOnSupplier,
+      final BooleanSupplier offValueSupplier,
+      final double onDuration,
+      final double offDuration)
+   {
+      super(scheduler, isOnSupplier, offValueSupplier);
+
+      mOnDuration = onDuration;
+      mOffDuration = offDuration;
+   }
+
    @Override
    protected boolean getAnimatedBoolValueAtTime(final double timeInSec)
    {
@@ -51,6 +64,36 @@ public class BlinkAnimation extends BooleanAnimation
       return timeInCycle <= mOnDuration;
    }
 
+   /**
+    * By default a blink starts with its on phase when it is turned on. With a shared phase it follows the phase clock
+    * of the {@link AnimationScheduler} instead, so it toggles together with all other blinks sharing it, but may start
+    * in its off phase.
+    */
+   @Override
+   protected boolean isPhaseShared()
+   {
+      return mIsPhaseShared;
+   }
+
+   public void setPhaseShared(final boolean isPhaseShared)
+   {
+      mIsPhaseShared = isPhaseShared;
+   }
+
+   @Override
+   protected double getNextChangeTime(final double timeInSec)
+   {
+      final double cycleDuration = mOnDuration + mOffDuration;
+      final double timeInCycle = timeInSec % cycleDuration;
+      final double cycleStart = timeInSec - timeInCycle;
+
+      // the light is still on at the end of the on duration, it turns off right after
+      if (timeInCycle <= mOnDuration)
+         return cycleStart + mOnDuration + 0.001;
+
+      return cycleStart + cycleDuration;
+   }
+
    public double getOnDuration()
    {
       return mOnDuration;
@@ -74,4 +117,6 @@ public class BlinkAnimation extends BooleanAnimation
    private double mOnDuration = 0.1;
 
    private double mOffDuration = 0.1;
+
+   private boolean mIsPhaseShared;
 }
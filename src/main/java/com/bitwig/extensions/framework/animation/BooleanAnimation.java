@@ -30,6 +30,20 @@ public abstract class BooleanAnimation extends Animation<Boolean> implements Boo
          ((BooleanValue)offValueSupplier).markInterested();
    }
 
+   protected BooleanAnimation(
+      final AnimationScheduler scheduler,
+      final BooleanSupplier isOnSupplier,
+      final BooleanSupplier offValueSupplier)
+   {
+      super(scheduler, isOnSupplier, (Supplier<Boolean>)() -> offValueSupplier.getAsBoolean());
+
+      if (isOnSupplier instanceof BooleanValue)
+         ((BooleanValue)isOnSupplier).markInterested();
+
+      if (offValueSupplier instanceof BooleanValue)
+         ((BooleanValue)offValueSupplier).markInterested();
+   }
+
    @Override
    public final boolean getAsBoolean()
    {
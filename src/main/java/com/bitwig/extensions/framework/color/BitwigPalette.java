@@ -0,0 +1,29 @@
+package com.bitwig.extensions.framework.color;
+
+/**
+ * The colors of the Bitwig track color palette. Tracks, clips and scenes are mostly shown in these colors, so palette
+ * lookups register them with {@link PaletteLookup#exact(int...)}.
+ */
+public final class BitwigPalette {
+   private static final int[] TRACK_COLORS = {
+      0xD93871, 0xE16691, 0x545454,
+      0xD92E24, 0xEC6157, 0x7A7A7A,
+      0xFF5706, 0xFF833E, 0xC9C9C9,
+      0xD99D10, 0xE4B74E, 0x8689AC,
+      0x739814, 0xA0C04C, 0xA37943,
+      0x009D47, 0x3EBB62, 0xC69F70,
+      0x00A694, 0x43D2B9, 0x5761C6,
+      0x0099D9, 0x44C8FF, 0x848AE0,
+      0x9549CB, 0xBC76F0
+   };
+
+   private BitwigPalette() {
+   }
+
+   /**
+    * @return the track colors as 0xRRGGBB
+    */
+   public static int[] trackColors() {
+      return TRACK_COLORS.clone();
+   }
+}
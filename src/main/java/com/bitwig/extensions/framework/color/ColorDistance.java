@@ -0,0 +1,19 @@
+package com.bitwig.extensions.framework.color;
+
+/**
+ * Measures how different two colors look. The color components are in the range 0 to 1.
+ */
+@FunctionalInterface
+public interface ColorDistance {
+   /**
+    * The euclidean distance in RGB space.
+    */
+   ColorDistance RGB = (red1, green1, blue1, red2, green2, blue2) -> {
+      final double dr = red2 - red1;
+      final double dg = green2 - green1;
+      final double db = blue2 - blue1;
+      return Math.sqrt(dr * dr + dg * dg + db * db);
+   };
+
+   double distance(double red1, double green1, double blue1, double red2, double green2, double blue2);
+}
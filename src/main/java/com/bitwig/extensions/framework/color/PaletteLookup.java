@@ -0,0 +1,234 @@
+package com.bitwig.extensions.framework.color;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maps RGB colors to the color index of a device palette with a precomputed table.
+ * <p>
+ * The table holds the palette index for every color at a reduced resolution of 5 or 6 bits per component, so a
+ * lookup is a single array read instead of a search through the palette. It is built on the first lookup, or
+ * earlier with {@link #prepare()}, by running the quantizer of the device once for every cell. Expensive quantizers
+ * should use {@link #BITS_15}, an 18-bit table runs them eight times as often. Overrides map exact RGB values to a
+ * handpicked index, which takes precedence over the table. Colors registered with {@link #exact(int...)} keep the
+ * index the quantizer computes for them, even where their table cell holds a neighbouring index.
+ */
+public class PaletteLookup {
+   /** 5 bits per component, a table of 32768 entries. */
+   public static final int BITS_15 = 5;
+   /** 6 bits per component, a table of 262144 entries. */
+   public static final int BITS_18 = 6;
+
+   private static final int OVERRIDE_FLAG = 0x8000;
+
+   /**
+    * Computes the palette index of a color.
+    */
+   @FunctionalInterface
+   public interface Quantizer {
+      /**
+       * @param red   the red component 0-255
+       * @param green the green component 0-255
+       * @param blue  the blue component 0-255
+       * @return the palette index, in the range 0 to 32767
+       */
+      int toIndex(int red, int green, int blue);
+   }
+
+   private final int bits;
+   private final int shift;
+   private final Quantizer quantizer;
+   private final Map<Integer, Integer> overrides = new TreeMap<>();
+   private final Set<Integer> exactColors = new TreeSet<>();
+   private volatile short[] table;
+   private int[] overrideColors;
+   private int[] overrideIndexes;
+
+   /**
+    * @param bits      the resolution of the table per color component, {@link #BITS_15} or {@link #BITS_18}
+    * @param quantizer computes the palette index of a color when the table is built
+    */
+   public PaletteLookup(final int bits, final Quantizer quantizer) {
+      if (bits < BITS_15 || bits > BITS_18) {
+         throw new IllegalArgumentException("Unsupported table resolution " + bits);
+      }
+      this.bits = bits;
+      this.shift = 8 - bits;
+      this.quantizer = quantizer;
+   }
+
+   /**
+    * Creates a lookup that maps a color to the palette entry with the smallest distance. On equal distances the
+    * lower index wins.
+    *
+    * @param bits     the resolution of the table per color component
+    * @param palette  the RGB values of the palette as 0xRRGGBB, indexed by the palette index
+    * @param distance the distance metric
+    * @return the lookup
+    */
+   public static PaletteLookup nearest(final int bits, final int[] palette, final ColorDistance distance) {
+      final double[] components = new double[palette.length * 3];
+      for (int i = 0; i < palette.length; i++) {
+         components[i * 3] = (palette[i] >> 16 & 0xFF) / 255.0;
+         components[i * 3 + 1] = (palette[i] >> 8 & 0xFF) / 255.0;
+         components[i * 3 + 2] = (palette[i] & 0xFF) / 255.0;
+      }
+      return new PaletteLookup(bits, (red, green, blue) -> {
+         final double r = red / 255.0;
+         final double g = green / 255.0;
+         final double b = blue / 255.0;
+         int closestIndex = 0;
+         double closestDistance = Double.MAX_VALUE;
+         for (int i = 0; i < palette.length; i++) {
+            final double d = distance.distance(r, g, b, components[i * 3], components[i * 3 + 1],
+               components[i * 3 + 2]);
+            if (d < closestDistance) {
+               closestIndex = i;
+               closestDistance = d;
+               if (d == 0) {
+                  break;
+               }
+            }
+         }
+         return closestIndex;
+      });
+   }
+
+   /**
+    * Maps an exact RGB value to the given index. Overrides need to be registered before the first lookup.
+    *
+    * @param rgb   the color as 0xRRGGBB
+    * @param index the palette index
+    * @return this lookup
+    */
+   public PaletteLookup override(final int rgb, final int index) {
+      if (table != null) {
+         throw new IllegalStateException("Overrides must be registered before the first lookup");
+      }
+      overrides.put(rgb & 0xFFFFFF, index);
+      return this;
+   }
+
+   /**
+    * Keeps the index of the given colors as the quantizer computes it for their exact RGB value. Where the table cell
+    * of a color holds a different index, the color is registered as an override when the table is built. Meant for
+    * the colors a device shows most, like its own palette and the Bitwig track colors. Needs to be called before the
+    * first lookup.
+    *
+    * @param rgbs the colors as 0xRRGGBB
+    * @return this lookup
+    */
+   public PaletteLookup exact(final int... rgbs) {
+      if (table != null) {
+         throw new IllegalStateException("Exact colors must be registered before the first lookup");
+      }
+      for (final int rgb : rgbs) {
+         exactColors.add(rgb & 0xFFFFFF);
+      }
+      return this;
+   }
+
+   /**
+    * Computes the index of a color without the table, from the overrides or else the quantizer. This is the result
+    * the table approximates.
+    *
+    * @param rgb the color as 0xRRGGBB
+    * @return the palette index
+    */
+   public int compute(final int rgb) {
+      final Integer index = overrides.get(rgb & 0xFFFFFF);
+      return index != null ? index : quantizer.toIndex(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+   }
+
+   /**
+    * Builds the table now instead of on the first lookup, e.g. during the initialization of the extension, so the
+    * first flush doesn't have to wait for it. Overrides can't be registered afterwards.
+    *
+    * @return this lookup
+    */
+   public PaletteLookup prepare() {
+      getTable();
+      return this;
+   }
+
+   /**
+    * @param red   the red component 0-255, values out of range are clamped
+    * @param green the green component 0-255, values out of range are clamped
+    * @param blue  the blue component 0-255, values out of range are clamped
+    * @return the palette index
+    */
+   public int lookup(final int red, final int green, final int blue) {
+      return lookup(clamp(red) << 16 | clamp(green) << 8 | clamp(blue));
+   }
+
+   /**
+    * @param rgb the color as 0xRRGGBB
+    * @return the palette index
+    */
+   public int lookup(final int rgb) {
+      final int value = getTable()[cell(rgb)];
+      if ((value & OVERRIDE_FLAG) == 0) {
+         return value;
+      }
+      final int found = Arrays.binarySearch(overrideColors, rgb & 0xFFFFFF);
+      return found >= 0 ? overrideIndexes[found] : value & (OVERRIDE_FLAG - 1);
+   }
+
+   private int cell(final int rgb) {
+      return (rgb >> 16 & 0xFF) >> shift << (bits * 2) | (rgb >> 8 & 0xFF) >> shift << bits | (rgb & 0xFF) >> shift;
+   }
+
+   private static int clamp(final int component) {
+      return Math.max(0, Math.min(255, component));
+   }
+
+   private short[] getTable() {
+      final short[] current = table;
+      return current != null ? current : build();
+   }
+
+   private synchronized short[] build() {
+      if (table != null) {
+         return table;
+      }
+      final int cells = 1 << bits * 3;
+      final int mask = (1 << bits) - 1;
+      final short[] values = new short[cells];
+      for (int cell = 0; cell < cells; cell++) {
+         values[cell] = (short) quantizer.toIndex(expand(cell >> bits * 2), expand(cell >> bits & mask),
+            expand(cell & mask));
+      }
+      final Map<Integer, Integer> resolved = new TreeMap<>(overrides);
+      for (final int rgb : exactColors) {
+         if (!resolved.containsKey(rgb)) {
+            final int index = compute(rgb);
+            if (values[cell(rgb)] != index) {
+               resolved.put(rgb, index);
+            }
+         }
+      }
+      overrideColors = new int[resolved.size()];
+      overrideIndexes = new int[resolved.size()];
+      int i = 0;
+      for (final Map.Entry<Integer, Integer> entry : resolved.entrySet()) {
+         final int rgb = entry.getKey();
+         overrideColors[i] = rgb;
+         overrideIndexes[i] = entry.getValue();
+         values[cell(rgb)] |= OVERRIDE_FLAG;
+         i++;
+      }
+      table = values;
+      return values;
+   }
+
+   /**
+    * Expands a reduced component to 8 bits by repeating its upper bits, so the table covers black and full
+    * intensity exactly.
+    */
+   private int expand(final int component) {
+      return component << shift | component >> (bits - shift);
+   }
+}
@@ -0,0 +1,83 @@
+package com.bitwig.extensions.framework.di;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Reads the component index generated at build time by the {@code ComponentIndexProcessor} in
+ * {@code src/processor}, which only runs as annotation processor and isn't part of the extension. The index lists all
+ * classes annotated with {@link Component}, so that only those classes need to be loaded instead of scanning
+ * the whole extension jar.
+ */
+final class ComponentIndex {
+    
+    private static final String INDEX_RESOURCE = "META-INF/bitwig/component-index";
+    
+    private ComponentIndex() {
+        // just a  utility class
+    }
+    
+    /**
+     * Looks up the component classes of the packages in the same order {@link PackageHelper#getClasses} returns
+     * them: the given packages first, followed by the package of the base class.
+     *
+     * @param baseClass the class of the extension
+     * @param packages  additional packages
+     * @return the classes or empty if no index is available
+     */
+    static Optional<List<Class<?>>> getClasses(final Class<?> baseClass, final Package... packages) throws
+        IOException,
+        ClassNotFoundException {
+        final ClassLoader classLoader = baseClass.getClassLoader();
+        final Optional<TreeSet<String>> index = readIndex(classLoader);
+        if (index.isEmpty()) {
+            return Optional.empty();
+        }
+        final List<Class<?>> classes = new ArrayList<>();
+        for (final Package pack : packages) {
+            addClasses(classes, index.get(), pack.getName(), classLoader);
+        }
+        addClasses(classes, index.get(), baseClass.getPackageName(), classLoader);
+        return Optional.of(classes);
+    }
+    
+    private static void addClasses(final List<Class<?>> classes, final TreeSet<String> index,
+        final String packageName, final ClassLoader classLoader) throws ClassNotFoundException {
+        final String prefix = packageName + ".";
+        for (final String className : index.tailSet(prefix)) {
+            if (!className.startsWith(prefix)) {
+                break;
+            }
+            classes.add(Class.forName(className, true, classLoader));
+        }
+    }
+    
+    private static Optional<TreeSet<String>> readIndex(final ClassLoader classLoader) throws IOException {
+        final Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return Optional.empty();
+        }
+        final TreeSet<String> classNames = new TreeSet<>();
+        while (resources.hasMoreElements()) {
+            try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        classNames.add(line);
+                    }
+                }
+            }
+        }
+        return Optional.of(classNames);
+    }
+}
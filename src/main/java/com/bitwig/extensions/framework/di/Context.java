@@ -1,18 +1,13 @@
 package com.bitwig.extensions.framework.di;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,6 +21,8 @@ import com.bitwig.extension.controller.api.Project;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.metrics.ExtensionMetrics;
+import com.bitwig.extensions.framework.time.TimerWheel;
 
 /**
  * A Dependency Inject context to be used within a Bitwig Extension content.
@@ -35,14 +32,20 @@ public class Context {
     private static ViewTracker viewTrackerGlobal = null;
     private final Map<Class<?>, Class<?>> serviceTypes = new HashMap<>();
     private final Map<Class<?>, Object> services = new HashMap<>();
-    private final List<ComponentClosure<?>> incompleteClosures = new ArrayList<>();
-    private final List<ComponentClosure<?>> incompleteSetterClosures = new ArrayList<>();
+    /**
+     * Components that couldn't be created yet, indexed by the types they are missing. Registering a type
+     * only needs to look at the closures waiting for that type.
+     */
+    private final Map<Class<?>, List<ComponentClosure<?>>> incompleteClosures = new HashMap<>();
+    /** Created components with setter injections still missing, indexed by the missing types. */
+    private final Map<Class<?>, List<ComponentClosure<?>>> incompleteSetterClosures = new HashMap<>();
     private static int counter = 0;
     
     private static class ComponentClosure<T> {
         final Class<?> clazz;
         final Set<Class<?>> missingComponents = new HashSet<>();
         final Set<Class<?>> missingSetters = new HashSet<>();
+        boolean waitingForSetters;
         T instance;
         
         ComponentClosure(final Class<?> clazz) {
@@ -68,9 +71,12 @@ public class Context {
      *     <li>{@link Application}</li>
      *     <li>{@link HardwareSurface}</li>
      *     <li>a layers object {@link Layers}</li>
+     *     <li>the {@link ExtensionMetrics} of the extension, which the layers count in</li>
+     *     <li>the {@link TimerWheel} all timed events of the extension share</li>
      * </ul>
      * The package of the extension and all sub-packages are scanned for other classes annotated with the
-     * {@link Component} annotation.
+     * {@link Component} annotation. If the component index generated at build time is available, the
+     * components are looked up there instead of scanning the extension jar.
      * Another way to create services is to create them via the {@link Context#create(Class)} method.
      * This instantiates the component and registers it as Service in the context. The service is access by
      * the class of the component.
@@ -95,21 +101,17 @@ public class Context {
     }
     
     private boolean invokeActivation(final Object comp) {
-        final Class<?> clazz = comp.getClass();
-        final Method[] methods = clazz.getMethods();
-        for (final Method method : methods) {
-            final Activate activateAnnotation = method.getAnnotation(Activate.class);
-            if (activateAnnotation != null && method.getParameterCount() == 0) {
-                try {
-                    method.invoke(comp);
-                    return true;
-                }
-                catch (final IllegalAccessException | InvocationTargetException exception) {
-                    throw new DiException("failed to activate component " + clazz.getName(), exception);
-                }
-            }
+        final Method method = InjectionPlan.of(comp.getClass()).getActivateMethod();
+        if (method == null) {
+            return false;
+        }
+        try {
+            method.invoke(comp);
+            return true;
+        }
+        catch (final IllegalAccessException | InvocationTargetException exception) {
+            throw new DiException("failed to activate component " + comp.getClass().getName(), exception);
         }
-        return false;
     }
     
     private record ComponentClassBind(Class<?> clazz, Component component) implements Comparable<ComponentClassBind> {
@@ -130,7 +132,9 @@ public class Context {
     
     private void scanPackage(final Class<?> baseClass, final Package... packages) {
         try {
-            final List<Class<?>> classes = PackageHelper.getClasses(baseClass, packages);
+            final Optional<List<Class<?>>> indexedClasses = ComponentIndex.getClasses(baseClass, packages);
+            final List<Class<?>> classes =
+                indexedClasses.isPresent() ? indexedClasses.get() : PackageHelper.getClasses(baseClass, packages);
             final List<ComponentClassBind> components = classes.stream()//
                 .map(ComponentClassBind::create) //
                 .flatMap(o -> o.stream()).sorted() //
@@ -146,7 +150,7 @@ public class Context {
     }
     
     private void registerInterfacesToService(final Class<?> clazz) {
-        final List<Class<?>> classInterfaces = getInterfaces(clazz);
+        final List<Class<?>> classInterfaces = InjectionPlan.of(clazz).getInterfaces();
         for (final Class<?> interfaceClass : classInterfaces) {
             serviceTypes.put(interfaceClass, clazz);
         }
@@ -157,7 +161,10 @@ public class Context {
         registerService(ControllerHost.class, host);
         registerService(Application.class, host.createApplication());
         registerService(HardwareSurface.class, host.createHardwareSurface());
-        registerService(Layers.class, new Layers(extension));
+        final ExtensionMetrics metrics = new ExtensionMetrics();
+        registerService(ExtensionMetrics.class, metrics);
+        registerService(Layers.class, new Layers(extension, metrics));
+        registerService(TimerWheel.class, new TimerWheel(host));
         registerService(Transport.class, host.createTransport());
         registerService(Project.class, host.getProject());
     }
@@ -224,18 +231,16 @@ public class Context {
     
     @SuppressWarnings("unchecked")
     private <T> void create(final ComponentClosure<T> closure) {
-        final Class<?> clazzToCreate = closure.clazz;
-        final Component componentAnnotation = clazzToCreate.getAnnotation(Component.class);
+        final InjectionPlan plan = InjectionPlan.of(closure.clazz);
         try {
-            final Constructor<?>[] constructors = clazzToCreate.getConstructors();
             T object = null;
             
-            Constructor<?> lastConstructor = null;
-            for (final Constructor<?> constructor : constructors) {
+            InjectionPlan.ConstructorInjection lastConstructor = null;
+            for (final InjectionPlan.ConstructorInjection constructor : plan.getConstructors()) {
                 lastConstructor = constructor;
-                final Object[] args = getConstructableArguments(constructor, componentAnnotation);
+                final Object[] args = getConstructableArguments(constructor.parameterTypes(), plan.getComponent());
                 if (args != null) {
-                    object = (T) constructor.newInstance(args);
+                    object = (T) constructor.constructor().newInstance(args);
                     break;
                 }
             }
@@ -243,10 +248,10 @@ public class Context {
                 throw new DiException(
                     String.format("Class %s has not available constructor", closure.clazz.getSimpleName()));
             }
-            closure.missingComponents.addAll(findMissingFieldInjection(closure));
+            final Object[] fieldServices = getFieldServices(plan, closure);
             
             if (object == null) {
-                closure.missingComponents.addAll(getMissingConstructorTypes(lastConstructor));
+                closure.missingComponents.addAll(getMissingTypes(lastConstructor.parameterTypes()));
                 return;
             }
             
@@ -254,25 +259,15 @@ public class Context {
                 return;
             }
             
-            final Field[] fields = clazzToCreate.getDeclaredFields();
-            for (final Field field : fields) {
-                final Inject injectAnnotation = field.getAnnotation(Inject.class);
-                if (injectAnnotation != null) {
-                    final boolean success = inject(object, field);
-                    if (!success) {
-                        closure.missingComponents.add(field.getType());
-                    }
-                }
+            final List<InjectionPlan.FieldInjection> fields = plan.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                fields.get(i).field().set(object, fieldServices[i]);
             }
             
             injectBySetter(object, closure);
             
-            final Method[] methods = clazzToCreate.getDeclaredMethods();
-            for (final Method method : methods) {
-                final PostConstruct postConstruct = method.getAnnotation(PostConstruct.class);
-                if (postConstruct != null && !Modifier.isPrivate(method.getModifiers())) {
-                    invokePostConstruct(object, method);
-                }
+            for (final InjectionPlan.MethodInjection postConstruct : plan.getPostConstructs()) {
+                invokePostConstruct(object, postConstruct);
             }
             closure.instance = object;
         }
@@ -283,10 +278,10 @@ public class Context {
     
     private <T> void registerService(final T object) {
         final Class<?> mainType = object.getClass();
-        final List<Class<?>> interfaces = getInterfaces(mainType);
-        final Component annotation = mainType.getAnnotation(Component.class);
+        final InjectionPlan plan = InjectionPlan.of(mainType);
+        final List<Class<?>> interfaces = plan.getInterfaces();
         services.put(mainType, object);
-        if (annotation != null) {
+        if (plan.getComponent() != null) {
             for (final Class<?> interfaceType : interfaces) {
                 services.put(interfaceType, object);
             }
@@ -302,45 +297,58 @@ public class Context {
             tryToCompleteIncompleteClosures(clazzToCreate);
             tryToCompleteIncompleteSetter(clazzToCreate);
         } else {
-            incompleteClosures.add(closure);
+            addIncompleteClosure(closure);
+        }
+    }
+    
+    private void addIncompleteClosure(final ComponentClosure<?> closure) {
+        for (final Class<?> missingType : closure.missingComponents) {
+            incompleteClosures.computeIfAbsent(missingType, type -> new ArrayList<>()).add(closure);
         }
     }
     
     private <T> void verifyIncompleteSetters(final ComponentClosure<T> closure) {
-        if (!closure.missingSetters.isEmpty() && !incompleteSetterClosures.contains(closure)) {
-            incompleteSetterClosures.add(closure);
+        if (!closure.missingSetters.isEmpty() && !closure.waitingForSetters) {
+            closure.waitingForSetters = true;
+            for (final Class<?> missingType : closure.missingSetters) {
+                incompleteSetterClosures.computeIfAbsent(missingType, type -> new ArrayList<>()).add(closure);
+            }
         }
     }
     
-    private <T> List<Class<?>> findMissingFieldInjection(final ComponentClosure<T> closure) {
-        final List<Class<?>> missingComponents = new ArrayList<>();
-        final Field[] fields = closure.clazz.getDeclaredFields();
-        for (final Field field : fields) {
-            final Inject injectAnnotation = field.getAnnotation(Inject.class);
-            if (injectAnnotation != null) {
-                final Object serviceObject = getServiceImpl(field.getType());
-                if (serviceObject == null) {
-                    missingComponents.add(field.getType());
-                }
+    /**
+     * Looks up the services for all injected fields of the plan. Types that aren't available are added to the
+     * missing components of the closure.
+     */
+    private Object[] getFieldServices(final InjectionPlan plan, final ComponentClosure<?> closure) {
+        final List<InjectionPlan.FieldInjection> fields = plan.getFields();
+        final Object[] fieldServices = new Object[fields.size()];
+        for (int i = 0; i < fieldServices.length; i++) {
+            final Class<?> type = fields.get(i).type();
+            fieldServices[i] = getServiceImpl(type);
+            if (fieldServices[i] == null) {
+                closure.missingComponents.add(type);
             }
         }
-        return missingComponents;
+        return fieldServices;
     }
     
     private void tryToCompleteIncompleteClosures(final Class<?> newType) {
-        if (incompleteClosures.isEmpty()) {
+        final List<ComponentClosure<?>> waitingClosures = incompleteClosures.remove(newType);
+        if (waitingClosures == null) {
             return;
         }
-        final Iterator<ComponentClosure<?>> it = incompleteClosures.iterator();
         final List<ComponentClosure<?>> completedClosures = new ArrayList<>();
-        while (it.hasNext()) {
-            final ComponentClosure<?> closure = it.next();
+        for (final ComponentClosure<?> closure : waitingClosures) {
             if (closure.missingComponents.remove(newType) && closure.missingComponents.isEmpty()) {
                 create(closure);
+                if (closure.instance == null) {
+                    addIncompleteClosure(closure);
+                    continue;
+                }
                 registerService(closure.instance);
                 completedClosures.add(closure);
                 verifyIncompleteSetters(closure);
-                it.remove();
             }
         }
         for (final ComponentClosure<?> completed : completedClosures) {
@@ -350,17 +358,17 @@ public class Context {
     }
     
     private void tryToCompleteIncompleteSetter(final Class<?> newType) {
-        if (incompleteSetterClosures.isEmpty()) {
+        final List<ComponentClosure<?>> waitingClosures = incompleteSetterClosures.remove(newType);
+        if (waitingClosures == null) {
             return;
         }
-        final Iterator<ComponentClosure<?>> it = incompleteSetterClosures.iterator();
-        while (it.hasNext()) {
-            final ComponentClosure<?> closure = it.next();
+        for (final ComponentClosure<?> closure : waitingClosures) {
             if (closure.instance != null && closure.missingSetters.remove(newType)
                 && closure.missingSetters.isEmpty()) {
                 try {
+                    closure.waitingForSetters = false;
                     injectBySetter(closure.instance, closure);
-                    it.remove();
+                    verifyIncompleteSetters(closure);
                 }
                 catch (final IllegalAccessException | InvocationTargetException exception) {
                     throw new DiException("Failed setter injection ", exception);
@@ -372,74 +380,35 @@ public class Context {
     private void injectBySetter(final Object object, final ComponentClosure<?> closure) throws
         IllegalAccessException,
         InvocationTargetException {
-        final Method[] methods = closure.clazz.getMethods();
-        
-        for (final Method method : methods) {
-            final Inject injectNotation = method.getAnnotation(Inject.class);
-            if (injectNotation != null && !Modifier.isPrivate(method.getModifiers())
-                && method.getParameterCount() == 1) {
-                final Object[] args = getMethodServiceArguments(method);
-                if (args != null) {
-                    method.invoke(object, args);
-                } else {
-                    closure.missingSetters.addAll(getMissingTypes(method));
-                }
+        for (final InjectionPlan.MethodInjection setter : InjectionPlan.of(closure.clazz).getSetters()) {
+            final Object[] args = getMethodServiceArguments(setter.parameterTypes());
+            if (args != null) {
+                setter.method().invoke(object, args);
+            } else {
+                closure.missingSetters.addAll(getMissingTypes(setter.parameterTypes()));
             }
         }
     }
     
-    private <T> void invokePostConstruct(final T object, final Method method) throws
+    private <T> void invokePostConstruct(final T object, final InjectionPlan.MethodInjection postConstruct) throws
         IllegalAccessException,
         InvocationTargetException {
-        if (method.getParameterCount() == 0) {
-            method.setAccessible(true);
-            method.invoke(object);
-            method.setAccessible(false);
+        if (postConstruct.parameterTypes().length == 0) {
+            postConstruct.method().invoke(object);
         } else {
             // TODO PostConstruct is not covered when incomplete, maybe then it will not be called
-            final Object[] args = getMethodServiceArguments(method);
+            final Object[] args = getMethodServiceArguments(postConstruct.parameterTypes());
             if (args != null) {
-                method.setAccessible(true);
-                method.invoke(object, args);
-                method.setAccessible(false);
-            }
-        }
-    }
-    
-    private <T> List<Class<?>> getMissingConstructorTypes(final Constructor<T> constructor) {
-        final List<Class<?>> missingTypes = new ArrayList<>();
-        final Parameter[] parameterTypes = constructor.getParameters();
-        for (final Parameter parameterType : parameterTypes) {
-            final Class<?> paramType = parameterType.getType();
-            final Object constructorObject = getServiceImpl(paramType);
-            if (constructorObject == null && paramType != String.class) {
-                missingTypes.add(paramType);
-            }
-        }
-        
-        return missingTypes;
-    }
-    
-    private List<Class<?>> getInterfaces(final Class<?> clazz) {
-        final List<Class<?>> interfaces = new ArrayList<>();
-        final Type[] classInterfaces = clazz.getGenericInterfaces();
-        for (final Type interfaceClass : classInterfaces) {
-            if (interfaceClass instanceof Class<?>) {
-                interfaces.add((Class<?>) interfaceClass);
+                postConstruct.method().invoke(object, args);
             }
         }
-        if (clazz.getSuperclass() != Object.class) {
-            interfaces.addAll(getInterfaces(clazz.getSuperclass()));
-        }
-        return interfaces;
     }
     
-    private <T> Object[] getConstructableArguments(final Constructor<T> constructor, final Component compAnnotation) {
-        final Parameter[] parameterTypes = constructor.getParameters();
-        final Object[] args = new Object[constructor.getParameterCount()];
+    private Object[] getConstructableArguments(final Class<?>[] parameterTypes, final Component compAnnotation) {
+        final Object[] args = new Object[parameterTypes.length];
         boolean foundName = false;
         for (int i = 0; i < parameterTypes.length; i++) {
-            final Class<?> paramType = parameterTypes[i].getType();
+            final Class<?> paramType = parameterTypes[i];
             Object constructorObject = getServiceImpl(paramType);
             if (constructorObject == null && paramType == String.class && !foundName && compAnnotation != null
                 && !compAnnotation.name().isBlank()) {
@@ -454,24 +423,22 @@ public class Context {
         return args;
     }
     
-    private List<Class<?>> getMissingTypes(final Method method) {
-        final List<Class<?>> missingComponents = new ArrayList<>();
-        for (final Parameter parameterType : method.getParameters()) {
-            final Class<?> paramType = parameterType.getType();
-            final Object toSetService = getServiceImpl(paramType);
-            if (toSetService == null) {
-                missingComponents.add(paramType);
+    private List<Class<?>> getMissingTypes(final Class<?>[] parameterTypes) {
+        final List<Class<?>> missingTypes = new ArrayList<>();
+        for (final Class<?> paramType : parameterTypes) {
+            final Object service = getServiceImpl(paramType);
+            if (service == null && paramType != String.class) {
+                missingTypes.add(paramType);
             }
         }
         
-        return missingComponents;
+        return missingTypes;
     }
     
-    private <T> Object[] getMethodServiceArguments(final Method method) {
-        final Parameter[] parameterTypes = method.getParameters();
-        final Object[] args = new Object[method.getParameterCount()];
+    private Object[] getMethodServiceArguments(final Class<?>[] parameterTypes) {
+        final Object[] args = new Object[parameterTypes.length];
         for (int i = 0; i < parameterTypes.length; i++) {
-            final Class<?> paramType = parameterTypes[i].getType();
+            final Class<?> paramType = parameterTypes[i];
             final Object toSetService = getServiceImpl(paramType);
             if (toSetService == null && paramType != String.class) {
                 return null;
@@ -482,20 +449,6 @@ public class Context {
         return args;
     }
     
-    private <T> boolean inject(final T object, final Field field) throws
-        IllegalArgumentException,
-        IllegalAccessException {
-        @SuppressWarnings("unchecked") final T serviceObject = (T) getServiceImpl(field.getType());
-        //TODO make injection possibly Optional
-        if (serviceObject != null) {
-            field.setAccessible(true);
-            field.set(object, serviceObject);
-            field.setAccessible(false);
-            return true;
-        }
-        return false;
-    }
-    
     @SuppressWarnings("unchecked")
     private <T> T getServiceImpl(final Class<T> serviceType) {
         final T serviceObject = (T) services.get(serviceType);
@@ -511,7 +464,7 @@ public class Context {
                 verifyIncompleteSetters(closure);
                 return closure.instance;
             } else {
-                incompleteClosures.add(closure);
+                addIncompleteClosure(closure);
             }
         }
         return null;
@@ -0,0 +1,128 @@
+package com.bitwig.extensions.framework.di;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the {@link Context} needs to know to create and inject a component class. The plan is computed
+ * once per class by reflection and then shared by all contexts, so creating the same component for several
+ * extensions (e.g. multiple MCU extenders) doesn't repeat the lookup of constructors, annotations and members.
+ */
+final class InjectionPlan {
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected InjectionPlan computeValue(final Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    record ConstructorInjection(Constructor<?> constructor, Class<?>[] parameterTypes) {
+    }
+
+    record FieldInjection(Field field, Class<?> type) {
+    }
+
+    record MethodInjection(Method method, Class<?>[] parameterTypes) {
+    }
+
+    private final Component component;
+    private final List<ConstructorInjection> constructors = new ArrayList<>();
+    private final List<FieldInjection> fields = new ArrayList<>();
+    private final List<MethodInjection> setters = new ArrayList<>();
+    private final List<MethodInjection> postConstructs = new ArrayList<>();
+    private final Method activateMethod;
+    private final List<Class<?>> interfaces;
+
+    private InjectionPlan(final Class<?> clazz) {
+        component = clazz.getAnnotation(Component.class);
+        for (final Constructor<?> constructor : clazz.getConstructors()) {
+            constructors.add(new ConstructorInjection(constructor, constructor.getParameterTypes()));
+        }
+        for (final Field field : clazz.getDeclaredFields()) {
+            if (field.getAnnotation(Inject.class) != null) {
+                field.setAccessible(true);
+                fields.add(new FieldInjection(field, field.getType()));
+            }
+        }
+        Method activate = null;
+        for (final Method method : clazz.getMethods()) {
+            if (method.getAnnotation(Inject.class) != null && !Modifier.isPrivate(method.getModifiers())
+                && method.getParameterCount() == 1) {
+                setters.add(new MethodInjection(method, method.getParameterTypes()));
+            }
+            if (activate == null && method.getAnnotation(Activate.class) != null && method.getParameterCount() == 0) {
+                activate = method;
+            }
+        }
+        activateMethod = activate;
+        for (final Method method : clazz.getDeclaredMethods()) {
+            if (method.getAnnotation(PostConstruct.class) != null && !Modifier.isPrivate(method.getModifiers())) {
+                method.setAccessible(true);
+                postConstructs.add(new MethodInjection(method, method.getParameterTypes()));
+            }
+        }
+        interfaces = List.copyOf(collectInterfaces(clazz));
+    }
+
+    static InjectionPlan of(final Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    /**
+     * @return the component annotation of the class or null
+     */
+    Component getComponent() {
+        return component;
+    }
+
+    List<ConstructorInjection> getConstructors() {
+        return constructors;
+    }
+
+    List<FieldInjection> getFields() {
+        return fields;
+    }
+
+    List<MethodInjection> getSetters() {
+        return setters;
+    }
+
+    List<MethodInjection> getPostConstructs() {
+        return postConstructs;
+    }
+
+    /**
+     * @return the first public method annotated with {@link Activate} without parameters or null
+     */
+    Method getActivateMethod() {
+        return activateMethod;
+    }
+
+    /**
+     * @return the interfaces of the class and all its super classes
+     */
+    List<Class<?>> getInterfaces() {
+        return interfaces;
+    }
+
+    private static List<Class<?>> collectInterfaces(final Class<?> clazz) {
+        final List<Class<?>> interfaces = new ArrayList<>();
+        final Type[] classInterfaces = clazz.getGenericInterfaces();
+        for (final Type interfaceClass : classInterfaces) {
+            if (interfaceClass instanceof Class<?>) {
+                interfaces.add((Class<?>) interfaceClass);
+            }
+        }
+        final Class<?> superclass = clazz.getSuperclass();
+        if (superclass != null && superclass != Object.class) {
+            interfaces.addAll(collectInterfaces(superclass));
+        }
+        return interfaces;
+    }
+}
@@ -0,0 +1,175 @@
+package com.bitwig.extensions.framework.display;
+
+import java.util.Arrays;
+
+/**
+ * Character framebuffer of a text display that is written by messages addressing a start position, like the LCDs of
+ * Mackie Control devices, where the characters of all rows form one address range.
+ * <p>
+ * Text is written into the buffer at any time, nothing is sent until {@link #flush(SpanWriter)}. The buffer
+ * remembers what has been sent and tracks the range of written characters, so a flush only looks at that range and
+ * sends the spans of characters that actually differ from the display. Two spans are merged into one message if the
+ * unchanged characters between them cost fewer bytes than the overhead of a separate message.
+ */
+public class LcdFrameBuffer {
+   /**
+    * Sends a span of characters to the display.
+    */
+   @FunctionalInterface
+   public interface SpanWriter {
+      /**
+       * @param position the display address of the first character
+       * @param chars    the characters of the whole buffer
+       * @param offset   the index of the first character to send
+       * @param length   the number of characters to send
+       */
+      void write(int position, byte[] chars, int offset, int length);
+   }
+
+   private static final byte UNKNOWN = 0;
+
+   private final int columns;
+   private final int messageOverhead;
+   private final byte[] content;
+   private final byte[] sent;
+   private int dirtyFrom;
+   private int dirtyTo;
+   private int changedRows;
+   private long sentMessages;
+   private long sentChars;
+
+   /**
+    * @param rows            the number of rows
+    * @param columns         the number of characters per row, which is also the address offset between rows
+    * @param messageOverhead the number of bytes a message needs besides the characters, header, address and end
+    */
+   public LcdFrameBuffer(final int rows, final int columns, final int messageOverhead) {
+      this.columns = columns;
+      this.messageOverhead = messageOverhead;
+      content = new byte[rows * columns];
+      sent = new byte[rows * columns];
+      Arrays.fill(content, (byte) ' ');
+      Arrays.fill(sent, UNKNOWN);
+      dirtyFrom = content.length;
+      dirtyTo = 0;
+   }
+
+   /**
+    * Writes text into a row. The text is padded with spaces or cut to the given length, and never exceeds the row.
+    * Characters outside of ASCII are replaced by '?'.
+    *
+    * @param row    the row
+    * @param column the first column
+    * @param text   the text
+    * @param length the number of characters to write
+    */
+   public void write(final int row, final int column, final CharSequence text, final int length) {
+      final int start = row * columns + column;
+      final int end = row * columns + Math.min(columns, column + length);
+      for (int i = start; i < end; i++) {
+         final int index = i - start;
+         final char c = index < text.length() ? text.charAt(index) : ' ';
+         setChar(i, c < 0x80 ? (byte) c : (byte) '?');
+      }
+   }
+
+   private void setChar(final int index, final byte value) {
+      if (content[index] != value) {
+         content[index] = value;
+         changedRows |= 1 << index / columns;
+      }
+      if (value != sent[index]) {
+         dirtyFrom = Math.min(dirtyFrom, index);
+         dirtyTo = Math.max(dirtyTo, index + 1);
+      }
+   }
+
+   /**
+    * Forgets what has been sent, so the next flush sends the whole buffer, e.g. after the display has been reset.
+    */
+   public void invalidate() {
+      Arrays.fill(sent, UNKNOWN);
+      dirtyFrom = 0;
+      dirtyTo = content.length;
+   }
+
+   /**
+    * @return true if the next flush has something to send
+    */
+   public boolean isDirty() {
+      return dirtyFrom < dirtyTo;
+   }
+
+   /**
+    * Sends all characters that differ from the display.
+    *
+    * @param writer sends a span of characters
+    */
+   public void flush(final SpanWriter writer) {
+      int spanStart = -1;
+      int spanEnd = -1;
+      for (int i = dirtyFrom; i < dirtyTo; i++) {
+         if (content[i] == sent[i]) {
+            continue;
+         }
+         if (spanStart != -1 && i - spanEnd > messageOverhead) {
+            send(writer, spanStart, spanEnd);
+            spanStart = -1;
+         }
+         if (spanStart == -1) {
+            spanStart = i;
+         }
+         spanEnd = i + 1;
+      }
+      if (spanStart != -1) {
+         send(writer, spanStart, spanEnd);
+      }
+      dirtyFrom = content.length;
+      dirtyTo = 0;
+   }
+
+   private void send(final SpanWriter writer, final int start, final int end) {
+      writer.write(start, content, start, end - start);
+      System.arraycopy(content, start, sent, start, end - start);
+      sentMessages++;
+      sentChars += end - start;
+   }
+
+   /**
+    * Returns the rows whose text changed since the last call, e.g. to update a simulation of the display.
+    *
+    * @return a bit mask with bit n set if row n changed
+    */
+   public int takeChangedRows() {
+      final int changed = changedRows;
+      changedRows = 0;
+      return changed;
+   }
+
+   /**
+    * @param row    the row
+    * @param length the number of characters
+    * @return the text of the row as it will be shown after the next flush
+    */
+   public String getText(final int row, final int length) {
+      final char[] text = new char[Math.min(length, columns)];
+      for (int i = 0; i < text.length; i++) {
+         text[i] = (char) content[row * columns + i];
+      }
+      return new String(text);
+   }
+
+   /**
+    * @return the number of messages sent
+    */
+   public long getSentMessages() {
+      return sentMessages;
+   }
+
+   /**
+    * @return the number of characters sent
+    */
+   public long getSentChars() {
+      return sentChars;
+   }
+}
@@ -0,0 +1,193 @@
+package com.bitwig.extensions.framework.meter;
+
+import java.util.Arrays;
+
+import com.bitwig.extensions.framework.time.TimeRepeatEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
+
+/**
+ * Collects the levels of a group of VU meters and transmits them once per frame instead of on every update.
+ * <p>
+ * Level observers only store the latest value with {@link #setLevel(int, int)}. On every frame the displayed level of
+ * each meter is derived from its input, taking peak hold and decay into account, and the {@link MeterListener} is
+ * called for every meter whose displayed level differs from what was last transmitted. After that the frame
+ * listener is called once if anything was transmitted, so devices that send all meters in one message can send a
+ * single burst per frame. The frame task only runs while a meter still has to change, an idle mixer costs nothing.
+ * <p>
+ * Like the rest of the framework the engine is meant to be used from the controller thread only.
+ */
+public class VuMeterEngine {
+   /** A frame time of 30ms, about the refresh rate of the meters on the hardware. */
+   public static final long DEFAULT_FRAME_TIME = 30;
+
+   /**
+    * Receives the levels to transmit.
+    */
+   @FunctionalInterface
+   public interface MeterListener {
+      /**
+       * @param meter the index of the meter
+       * @param level the level to display
+       */
+      void levelChanged(int meter, int level);
+   }
+
+   private final TimerWheel timerWheel;
+   private final long frameTime;
+   private final int[] input;
+   private final int[] level;
+   private final int[] sent;
+   private final int[] holdRemaining;
+   private MeterListener meterListener = (meter, level) -> {
+   };
+   private Runnable frameListener = () -> {
+   };
+   private int decay = 0;
+   private int peakHoldFrames = 0;
+   private TimeRepeatEvent frameEvent;
+
+   private long receivedUpdates;
+   private long sentUpdates;
+   private long sentFrames;
+
+   /**
+    * Creates an engine running at the {@link #DEFAULT_FRAME_TIME}.
+    *
+    * @param timerWheel the timer wheel running the frames
+    * @param meters     the number of meters
+    */
+   public VuMeterEngine(final TimerWheel timerWheel, final int meters) {
+      this(timerWheel, meters, DEFAULT_FRAME_TIME);
+   }
+
+   /**
+    * @param timerWheel the timer wheel running the frames
+    * @param meters     the number of meters
+    * @param frameTime  the time between two frames in ms
+    */
+   public VuMeterEngine(final TimerWheel timerWheel, final int meters, final long frameTime) {
+      this.timerWheel = timerWheel;
+      this.frameTime = frameTime;
+      input = new int[meters];
+      level = new int[meters];
+      sent = new int[meters];
+      holdRemaining = new int[meters];
+      Arrays.fill(sent, -1);
+   }
+
+   /**
+    * @param meterListener called for every meter whose level changed within a frame
+    */
+   public void setMeterListener(final MeterListener meterListener) {
+      this.meterListener = meterListener;
+   }
+
+   /**
+    * @param frameListener called at the end of every frame in which at least one level changed
+    */
+   public void setFrameListener(final Runnable frameListener) {
+      this.frameListener = frameListener;
+   }
+
+   /**
+    * @param decay the amount by which a falling level drops per frame, 0 makes the level follow the input directly
+    */
+   public void setDecay(final int decay) {
+      this.decay = Math.max(0, decay);
+   }
+
+   /**
+    * @param peakHoldFrames the number of frames a peak is held before the level falls, 0 for no peak hold
+    */
+   public void setPeakHold(final int peakHoldFrames) {
+      this.peakHoldFrames = Math.max(0, peakHoldFrames);
+   }
+
+   /**
+    * Stores the latest level of a meter, it is transmitted with the next frame.
+    *
+    * @param meter the index of the meter
+    * @param value the level
+    */
+   public void setLevel(final int meter, final int value) {
+      receivedUpdates++;
+      input[meter] = value;
+      if (value != level[meter] || level[meter] != sent[meter]) {
+         startFrames();
+      }
+   }
+
+   /**
+    * @param meter the index of the meter
+    * @return the level last transmitted for the meter or -1 if none was transmitted yet
+    */
+   public int getSentLevel(final int meter) {
+      return sent[meter];
+   }
+
+   /**
+    * Transmits all meters with the next frame, e.g. after the device has been cleared.
+    */
+   public void invalidate() {
+      Arrays.fill(sent, -1);
+      startFrames();
+   }
+
+   /**
+    * @return the number of levels received through {@link #setLevel(int, int)}
+    */
+   public long getReceivedUpdates() {
+      return receivedUpdates;
+   }
+
+   /**
+    * @return the number of levels passed to the meter listener
+    */
+   public long getSentUpdates() {
+      return sentUpdates;
+   }
+
+   /**
+    * @return the number of frames passed to the frame listener
+    */
+   public long getSentFrames() {
+      return sentFrames;
+   }
+
+   private void startFrames() {
+      if (frameEvent == null || frameEvent.isCompleted()) {
+         frameEvent = timerWheel.repeat(this::processFrame, frameTime, (int) frameTime);
+      }
+   }
+
+   private void processFrame() {
+      boolean changed = false;
+      boolean settled = true;
+      for (int meter = 0; meter < input.length; meter++) {
+         final int value = input[meter];
+         if (value >= level[meter]) {
+            level[meter] = value;
+            holdRemaining[meter] = peakHoldFrames;
+         } else if (holdRemaining[meter] > 0) {
+            holdRemaining[meter]--;
+         } else {
+            level[meter] = decay == 0 ? value : Math.max(value, level[meter] - decay);
+         }
+         if (level[meter] != sent[meter]) {
+            sent[meter] = level[meter];
+            sentUpdates++;
+            changed = true;
+            meterListener.levelChanged(meter, level[meter]);
+         }
+         settled &= level[meter] == value;
+      }
+      if (changed) {
+         sentFrames++;
+         frameListener.run();
+      }
+      if (settled) {
+         frameEvent.cancel();
+         frameEvent = null;
+      }
+   }
+}
@@ -0,0 +1,39 @@
+package com.bitwig.extensions.framework.metrics;
+
+/**
+ * A count of events of an {@link ExtensionMetrics}, which only counts while the metrics are enabled.
+ */
+public class Counter {
+   private final ExtensionMetrics metrics;
+   private final String name;
+   private long count;
+
+   Counter(final ExtensionMetrics metrics, final String name) {
+      this.metrics = metrics;
+      this.name = name;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   public void increment() {
+      if (metrics.isEnabled()) {
+         count++;
+      }
+   }
+
+   public void add(final long amount) {
+      if (metrics.isEnabled()) {
+         count += amount;
+      }
+   }
+
+   public long get() {
+      return count;
+   }
+
+   public void reset() {
+      count = 0;
+   }
+}
@@ -0,0 +1,243 @@
+package com.bitwig.extensions.framework.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extension.controller.api.SettableBooleanValue;
+import com.bitwig.extensions.framework.Layers;
+
+/**
+ * Counters and latency histograms of the hot paths of an extension: the duration of its flushes, the bindings the
+ * layers (de)activate, the light states the hardware surface evaluates and the MIDI messages and SysEx bytes sent
+ * per port.
+ * <p>
+ * An extension creates its metrics and passes them to its {@link Layers}, which then count the bindings they
+ * (de)activate and the light states the hardware evaluates. Extensions built on the dependency injection context get
+ * them as a service. An extension measures its flush with {@link #beginFlush()} and {@link #endFlush(long)} and
+ * counts its output by sending through ports wrapped with {@link #instrument(int, MidiOut)}. The metrics are
+ * disabled by default, which reduces all of this to a check of a flag and leaves the ports unwrapped.
+ * {@link #createSettings(ControllerHost)} adds a preference to enable them and an action in the document state that
+ * prints them to the console. The ports are only wrapped if the preference is set when the extension starts, so
+ * counting the MIDI output takes a restart of the extension:
+ *
+ * <pre>
+ * final ExtensionMetrics metrics = new ExtensionMetrics();
+ * mLayers = new Layers(this, metrics);
+ * metrics.createSettings(host); // before instrument()
+ * mMidiOut = metrics.instrument(0, host.getMidiOutPort(0));
+ * ...
+ * public void flush() {
+ *    final long start = metrics.beginFlush();
+ *    mHardwareSurface.updateHardware();
+ *    metrics.endFlush(start);
+ * }
+ * </pre>
+ */
+public class ExtensionMetrics {
+   private static final int MAX_PORTS = 16;
+
+   private final Map<String, Counter> counters = new LinkedHashMap<>();
+   private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+   private final LatencyHistogram flushDuration;
+   private final Counter bindingActivations;
+   private final Counter bindingDeactivations;
+   private final Counter lightStateEvaluations;
+   private final Counter[] midiMessages = new Counter[MAX_PORTS];
+   private final Counter[] sysexBytes = new Counter[MAX_PORTS];
+   private boolean enabled;
+
+   public ExtensionMetrics() {
+      flushDuration = histogram("flush.duration");
+      bindingActivations = counter("binding.activations");
+      bindingDeactivations = counter("binding.deactivations");
+      lightStateEvaluations = counter("light.evaluations");
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   public void setEnabled(final boolean enabled) {
+      this.enabled = enabled;
+   }
+
+   /**
+    * Adds the preference "Collect Metrics" which enables the metrics and the action "Print Metrics" to the document
+    * state which prints and resets them. Has to be called during the initialization of the extension, before the
+    * ports are instrumented.
+    *
+    * @param host the host
+    */
+   public void createSettings(final ControllerHost host) {
+      final SettableBooleanValue collect =
+         host.getPreferences().getBooleanSetting("Collect Metrics", "Diagnostics", false);
+      collect.markInterested();
+      setEnabled(collect.get());
+      collect.addValueObserver(this::setEnabled);
+      host.getDocumentState().getSignalSetting("Print Metrics", "Diagnostics", "Print").addSignalObserver(() -> {
+         dump(host::println);
+         reset();
+      });
+   }
+
+   /**
+    * @param name the name of the counter
+    * @return the counter with the name, created on first use
+    */
+   public Counter counter(final String name) {
+      return counters.computeIfAbsent(name, key -> new Counter(this, key));
+   }
+
+   /**
+    * @param name the name of the histogram
+    * @return the histogram with the name, created on first use
+    */
+   public LatencyHistogram histogram(final String name) {
+      return histograms.computeIfAbsent(name, key -> new LatencyHistogram(this, key));
+   }
+
+   /**
+    * @return the start time of the flush to pass to {@link #endFlush(long)}, 0 if the metrics are disabled
+    */
+   public long beginFlush() {
+      return enabled ? System.nanoTime() : 0;
+   }
+
+   public void endFlush(final long start) {
+      if (start != 0) {
+         flushDuration.record(System.nanoTime() - start);
+      }
+   }
+
+   public LatencyHistogram getFlushDuration() {
+      return flushDuration;
+   }
+
+   public void bindingsActivated(final int count) {
+      bindingActivations.add(count);
+   }
+
+   public void bindingDeactivated() {
+      bindingDeactivations.increment();
+   }
+
+   public void lightStateEvaluated() {
+      lightStateEvaluations.increment();
+   }
+
+   /**
+    * Counts a short message sent on a port.
+    */
+   public void midiSent(final int port) {
+      if (enabled) {
+         midiMessages(port).increment();
+      }
+   }
+
+   /**
+    * Counts a SysEx message sent on a port.
+    *
+    * @param length the length of the message in bytes
+    */
+   public void sysexSent(final int port, final int length) {
+      if (enabled) {
+         midiMessages(port).increment();
+         sysexBytes(port).add(length);
+      }
+   }
+
+   private Counter midiMessages(final int port) {
+      final int index = port & (MAX_PORTS - 1);
+      if (midiMessages[index] == null) {
+         midiMessages[index] = counter("midi.out[" + index + "].messages");
+      }
+      return midiMessages[index];
+   }
+
+   private Counter sysexBytes(final int port) {
+      final int index = port & (MAX_PORTS - 1);
+      if (sysexBytes[index] == null) {
+         sysexBytes[index] = counter("midi.out[" + index + "].sysexBytes");
+      }
+      return sysexBytes[index];
+   }
+
+   /**
+    * Wraps a port so the messages sent through it are counted while the metrics are enabled. If they are disabled
+    * the port is returned as it is, so sending through it costs nothing.
+    *
+    * @param port    the port index
+    * @param midiOut the port
+    * @return the counting port, or the port itself if the metrics are disabled
+    */
+   public MidiOut instrument(final int port, final MidiOut midiOut) {
+      if (!enabled) {
+         return midiOut;
+      }
+      return (MidiOut) Proxy.newProxyInstance(MidiOut.class.getClassLoader(), new Class<?>[] {MidiOut.class},
+         (proxy, method, args) -> {
+            if (enabled && args != null) {
+               count(port, method, args);
+            }
+            try {
+               return method.invoke(midiOut, args);
+            } catch (final InvocationTargetException exception) {
+               throw exception.getCause();
+            }
+         });
+   }
+
+   private void count(final int port, final Method method, final Object[] args) {
+      if (method.getName().equals("sendMidi")) {
+         midiSent(port);
+      } else if (method.getName().equals("sendSysex") && args.length == 1) {
+         if (args[0] instanceof byte[] data) {
+            sysexSent(port, data.length);
+         } else if (args[0] instanceof String hex) {
+            sysexSent(port, hexLength(hex));
+         }
+      }
+   }
+
+   private static int hexLength(final String hex) {
+      int digits = 0;
+      for (int i = 0; i < hex.length(); i++) {
+         if (Character.digit(hex.charAt(i), 16) >= 0) {
+            digits++;
+         }
+      }
+      return digits / 2;
+   }
+
+   /**
+    * Writes one line per counter and histogram, counters with their average per flush.
+    *
+    * @param out the receiver of the lines, e.g. {@code host::println}
+    */
+   public void dump(final Consumer<String> out) {
+      final long flushes = flushDuration.getCount();
+      out.accept("Metrics (" + (enabled ? "enabled" : "disabled") + ")");
+      for (final LatencyHistogram histogram : histograms.values()) {
+         out.accept("  " + histogram);
+      }
+      for (final Counter counter : counters.values()) {
+         if (flushes > 0) {
+            out.accept("  %s: %d (%.2f/flush)".formatted(counter.getName(), counter.get(),
+               (double) counter.get() / flushes));
+         } else {
+            out.accept("  %s: %d".formatted(counter.getName(), counter.get()));
+         }
+      }
+   }
+
+   public void reset() {
+      counters.values().forEach(Counter::reset);
+      histograms.values().forEach(LatencyHistogram::reset);
+   }
+}
@@ -0,0 +1,114 @@
+package com.bitwig.extensions.framework.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with a fixed relative precision, like an HDR histogram.
+ * <p>
+ * Values below 32 ns are counted exactly, larger values in buckets whose width grows with the value, so every value
+ * is resolved to about 3% over the whole range. Recording is a few shifts and an array increment, the histogram
+ * doesn't allocate after it has been created.
+ */
+public class LatencyHistogram {
+   private static final int SUB_BUCKET_BITS = 5;
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+   private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+   private static final int MAX_SHIFT = 63 - SUB_BUCKET_BITS;
+   private static final int BUCKETS = MAX_SHIFT * HALF_SUB_BUCKETS + SUB_BUCKETS;
+
+   private final ExtensionMetrics metrics;
+   private final String name;
+   private final long[] counts = new long[BUCKETS];
+   private long count;
+   private long total;
+   private long max;
+
+   LatencyHistogram(final ExtensionMetrics metrics, final String name) {
+      this.metrics = metrics;
+      this.name = name;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * Records a duration if the metrics are enabled.
+    *
+    * @param nanos the duration in ns
+    */
+   public void record(final long nanos) {
+      if (!metrics.isEnabled()) {
+         return;
+      }
+      final long value = Math.max(0, nanos);
+      counts[bucketIndex(value)]++;
+      count++;
+      total += value;
+      max = Math.max(max, value);
+   }
+
+   static int bucketIndex(final long value) {
+      if (value < SUB_BUCKETS) {
+         return (int) value;
+      }
+      // keep the 5 most significant bits, the mantissa is then between 16 and 31
+      final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+   }
+
+   static long bucketUpperBound(final int index) {
+      if (index < SUB_BUCKETS) {
+         return index;
+      }
+      final int shift = index / HALF_SUB_BUCKETS - 1;
+      final long mantissa = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+      return ((mantissa + 1) << shift) - 1;
+   }
+
+   public long getCount() {
+      return count;
+   }
+
+   public long getMax() {
+      return max;
+   }
+
+   public double getMean() {
+      return count == 0 ? 0 : (double) total / count;
+   }
+
+   /**
+    * @param percentile the percentile, 0 to 100
+    * @return the value below or at which the given percentage of the recorded values are, within the precision of
+    * the histogram
+    */
+   public long getValueAtPercentile(final double percentile) {
+      if (count == 0) {
+         return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+         seen += counts[i];
+         if (seen >= rank) {
+            return Math.min(bucketUpperBound(i), max);
+         }
+      }
+      return max;
+   }
+
+   public void reset() {
+      Arrays.fill(counts, 0);
+      count = 0;
+      total = 0;
+      max = 0;
+   }
+
+   @Override
+   public String toString() {
+      return "%s: n=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus".formatted(name, count,
+         getMean() / 1000.0, getValueAtPercentile(50) / 1000.0, getValueAtPercentile(90) / 1000.0,
+         getValueAtPercentile(99) / 1000.0, max / 1000.0);
+   }
+}
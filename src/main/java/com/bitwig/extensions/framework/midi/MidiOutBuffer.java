@@ -0,0 +1,206 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Collects short MIDI messages for a port and sends them on {@link #flush()}.
+ * <p>
+ * Messages are addressed by status byte and first data byte. Writing an address again before the next flush
+ * replaces the pending value, and a value equal to the one last transmitted on that address isn't sent at all. A
+ * budget limits how many messages a single flush transmits, the rest stays queued for the next flush. This keeps
+ * LED and ring updates of large grids from flooding the port.
+ * <p>
+ * Only channel voice messages are buffered, other messages are passed through. Messages on the same data byte but
+ * other channels of the same message type are assumed to control the same element (e.g. static, flashing and
+ * pulsing colors of a pad), so sending one of them forgets the last values of the others and the pending messages
+ * are transmitted in the order they were last written.
+ */
+public class MidiOutBuffer {
+   private static final byte NONE = -1;
+   private static final int FIRST_STATUS = 0x80;
+   private static final int END_STATUS = 0xF0;
+   private static final int ADDRESSES = (END_STATUS - FIRST_STATUS) * 128;
+
+   private final MidiOut midiOut;
+   private final int budget;
+   private final byte[] pendingValues = new byte[ADDRESSES];
+   private final byte[] sentValues = new byte[ADDRESSES];
+   private final int[] queuePosition = new int[ADDRESSES];
+   private int[] queue = new int[128];
+   private int queueSize;
+   private int pendingCount;
+
+   /**
+    * Creates a buffer without a limit on the number of messages per flush.
+    *
+    * @param midiOut the port
+    */
+   public MidiOutBuffer(final MidiOut midiOut) {
+      this(midiOut, 0);
+   }
+
+   /**
+    * @param midiOut the port
+    * @param budget  the maximum number of messages sent by one flush, 0 for no limit
+    */
+   public MidiOutBuffer(final MidiOut midiOut, final int budget) {
+      this.midiOut = midiOut;
+      this.budget = budget;
+      Arrays.fill(pendingValues, NONE);
+      Arrays.fill(sentValues, NONE);
+   }
+
+   /**
+    * Queues a short message, replacing a pending message to the same address.
+    *
+    * @param status the status byte
+    * @param data1  the first data byte, which is part of the address
+    * @param data2  the value
+    */
+   public void sendMidi(final int status, final int data1, final int data2) {
+      if (status < FIRST_STATUS || status >= END_STATUS) {
+         midiOut.sendMidi(status, data1, data2);
+         return;
+      }
+      final int address = address(status, data1);
+      final byte value = (byte) (data2 & 0x7F);
+      if (pendingValues[address] == NONE) {
+         if (sentValues[address] == value) {
+            return;
+         }
+         pendingCount++;
+      }
+      pendingValues[address] = value;
+      forgetOtherChannels(status, data1);
+      enqueue(address);
+   }
+
+   /**
+    * Sends a short message right away, bypassing the queue. A pending message to the same address is dropped.
+    */
+   public void sendMidiImmediate(final int status, final int data1, final int data2) {
+      if (status < FIRST_STATUS || status >= END_STATUS) {
+         midiOut.sendMidi(status, data1, data2);
+         return;
+      }
+      final int address = address(status, data1);
+      if (pendingValues[address] != NONE) {
+         pendingValues[address] = NONE;
+         pendingCount--;
+      }
+      transmit(address, (byte) (data2 & 0x7F));
+   }
+
+   /**
+    * Sends the pending messages, at most as many as the budget allows.
+    *
+    * @return true if messages remain queued for the next flush
+    */
+   public boolean flush() {
+      if (pendingCount == 0) {
+         queueSize = 0;
+         return false;
+      }
+      int sent = 0;
+      int index = 0;
+      for (; index < queueSize && (budget == 0 || sent < budget); index++) {
+         final int address = queue[index];
+         if (queuePosition[address] != index || pendingValues[address] == NONE) {
+            continue; // superseded by a later write
+         }
+         final byte value = pendingValues[address];
+         pendingValues[address] = NONE;
+         pendingCount--;
+         if (sentValues[address] != value) {
+            transmit(address, value);
+            sent++;
+         }
+      }
+      compact(index);
+      return pendingCount > 0;
+   }
+
+   /**
+    * @return true if messages are waiting to be sent
+    */
+   public boolean hasPending() {
+      return pendingCount > 0;
+   }
+
+   /**
+    * Forgets all transmitted values, so every address is sent again on the next write. Use this when the device
+    * state is lost, e.g. after a mode change or reconnect.
+    */
+   public void invalidate() {
+      Arrays.fill(sentValues, NONE);
+   }
+
+   /**
+    * Forgets the transmitted values of an element, so the next write to it is sent again.
+    *
+    * @param status the status byte, the values on all channels of its message type are forgotten
+    * @param data1  the first data byte
+    */
+   public void invalidate(final int status, final int data1) {
+      if (status < FIRST_STATUS || status >= END_STATUS) {
+         return;
+      }
+      final int type = status & 0xF0;
+      for (int channel = 0; channel < 16; channel++) {
+         sentValues[address(type | channel, data1)] = NONE;
+      }
+   }
+
+   private static int address(final int status, final int data1) {
+      return (status - FIRST_STATUS) << 7 | (data1 & 0x7F);
+   }
+
+   private void transmit(final int address, final byte value) {
+      final int status = (address >> 7) + FIRST_STATUS;
+      final int data1 = address & 0x7F;
+      midiOut.sendMidi(status, data1, value);
+      forgetOtherChannels(status, data1);
+      sentValues[address] = value;
+   }
+
+   /**
+    * A message on another channel of the element will replace what this one shows, so their last values can't be
+    * used to drop writes anymore.
+    */
+   private void forgetOtherChannels(final int status, final int data1) {
+      final int type = status & 0xF0;
+      for (int channel = 0; channel < 16; channel++) {
+         if ((type | channel) != status) {
+            sentValues[address(type | channel, data1)] = NONE;
+         }
+      }
+   }
+
+   private void enqueue(final int address) {
+      if (queueSize == queue.length) {
+         compact(0);
+         if (queueSize == queue.length) {
+            queue = Arrays.copyOf(queue, queue.length * 2);
+         }
+      }
+      queuePosition[address] = queueSize;
+      queue[queueSize++] = address;
+   }
+
+   /**
+    * Removes the entries before the given index and all superseded entries from the queue.
+    */
+   private void compact(final int from) {
+      int size = 0;
+      for (int index = from; index < queueSize; index++) {
+         final int address = queue[index];
+         if (queuePosition[address] == index && pendingValues[address] != NONE) {
+            queuePosition[address] = size;
+            queue[size++] = address;
+         }
+      }
+      queueSize = size;
+   }
+}
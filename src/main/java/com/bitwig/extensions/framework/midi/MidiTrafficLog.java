@@ -0,0 +1,213 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The binary format of the MIDI traffic written by {@link MidiTrafficRecorder}.
+ * <p>
+ * A log starts with the magic bytes "BWML" and a version byte, followed by one record per event. A record is the
+ * time since the previous record in microseconds as unsigned LEB128 varint and a type byte: the kind in bits 6-7,
+ * bit 5 set for SysEx and the port in bits 0-3. A short message continues with its three bytes, a SysEx message
+ * with its length as varint and its bytes including F0 and F7, a flush has no further data.
+ */
+public final class MidiTrafficLog {
+   public static final String FILE_EXTENSION = ".bwmidi";
+
+   private static final byte[] MAGIC = {'B', 'W', 'M', 'L'};
+   private static final int VERSION = 1;
+   private static final int SYSEX_FLAG = 0x20;
+   private static final int PORT_MASK = 0x0F;
+
+   public enum Kind {
+      /** A message sent by the extension. */
+      OUT,
+      /** A message received by the extension. */
+      IN,
+      /** A flush of the extension. */
+      FLUSH
+   }
+
+   /**
+    * An event of the log.
+    *
+    * @param time   the time since the start of the recording in microseconds
+    * @param kind   the kind of event
+    * @param port   the port index
+    * @param status the status byte, 0xF0 for SysEx
+    * @param data1  the first data byte of a short message
+    * @param data2  the second data byte of a short message
+    * @param sysex  the complete SysEx message or null
+    */
+   public record Entry(long time, Kind kind, int port, int status, int data1, int data2, byte[] sysex) {
+      public boolean isSysex() {
+         return sysex != null;
+      }
+
+      /**
+       * @return the number of bytes the message takes on the wire, 0 for a flush
+       */
+      public int size() {
+         if (kind == Kind.FLUSH) {
+            return 0;
+         }
+         return sysex != null ? sysex.length : 3;
+      }
+
+      /**
+       * @param other another entry
+       * @return true if both entries are the same message on the same port, regardless of the time
+       */
+      public boolean sameMessage(final Entry other) {
+         return kind == other.kind && port == other.port && status == other.status && data1 == other.data1
+            && data2 == other.data2 && Arrays.equals(sysex, other.sysex);
+      }
+
+      @Override
+      public String toString() {
+         if (kind == Kind.FLUSH) {
+            return "%10d FLUSH".formatted(time);
+         }
+         if (sysex != null) {
+            final StringBuilder sb = new StringBuilder();
+            for (final byte value : sysex) {
+               sb.append(String.format("%02X ", value & 0xFF));
+            }
+            return "%10d %-3s [%d] %s".formatted(time, kind, port, sb.toString().trim());
+         }
+         return "%10d %-3s [%d] %02X %02X %02X".formatted(time, kind, port, status, data1, data2);
+      }
+   }
+
+   private MidiTrafficLog() {
+   }
+
+   static void writeHeader(final OutputStream out) throws IOException {
+      out.write(MAGIC);
+      out.write(VERSION);
+   }
+
+   static void writeShort(final OutputStream out, final long delta, final Kind kind, final int port,
+                          final int status, final int data1, final int data2) throws IOException {
+      writeVarint(out, delta);
+      out.write(kind.ordinal() << 6 | port & PORT_MASK);
+      out.write(status);
+      out.write(data1);
+      out.write(data2);
+   }
+
+   static void writeSysex(final OutputStream out, final long delta, final Kind kind, final int port,
+                          final byte[] data) throws IOException {
+      writeVarint(out, delta);
+      out.write(kind.ordinal() << 6 | SYSEX_FLAG | port & PORT_MASK);
+      writeVarint(out, data.length);
+      out.write(data);
+   }
+
+   static void writeFlush(final OutputStream out, final long delta) throws IOException {
+      writeVarint(out, delta);
+      out.write(Kind.FLUSH.ordinal() << 6);
+   }
+
+   private static void writeVarint(final OutputStream out, final long value) throws IOException {
+      long remaining = value;
+      while (remaining >= 0x80) {
+         out.write((int) (remaining & 0x7F | 0x80));
+         remaining >>>= 7;
+      }
+      out.write((int) remaining);
+   }
+
+   /**
+    * Reads a log. A record cut off at the end, e.g. because the extension wasn't shut down, is ignored.
+    *
+    * @param file the log file
+    * @return the entries in the order they were recorded
+    */
+   public static List<Entry> read(final Path file) throws IOException {
+      try (final InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+         return read(in);
+      }
+   }
+
+   public static List<Entry> read(final InputStream in) throws IOException {
+      final byte[] magic = in.readNBytes(MAGIC.length);
+      if (!Arrays.equals(magic, MAGIC)) {
+         throw new IOException("Not a MIDI traffic log");
+      }
+      final int version = in.read();
+      if (version != VERSION) {
+         throw new IOException("Unsupported MIDI traffic log version " + version);
+      }
+      final List<Entry> entries = new ArrayList<>();
+      long time = 0;
+      try {
+         while (true) {
+            final long delta = readVarint(in);
+            if (delta < 0) {
+               break;
+            }
+            time += delta;
+            final int type = readByte(in);
+            final Kind kind = Kind.values()[type >> 6];
+            final int port = type & PORT_MASK;
+            if (kind == Kind.FLUSH) {
+               entries.add(new Entry(time, kind, 0, 0, 0, 0, null));
+            } else if ((type & SYSEX_FLAG) != 0) {
+               final long length = readVarint(in);
+               if (length < 0 || length > Integer.MAX_VALUE) {
+                  break;
+               }
+               final byte[] data = in.readNBytes((int) length);
+               if (data.length != length) {
+                  break;
+               }
+               entries.add(new Entry(time, kind, port, SysexWriter.SYSEX_START, 0, 0, data));
+            } else {
+               entries.add(new Entry(time, kind, port, readByte(in), readByte(in), readByte(in), null));
+            }
+         }
+      } catch (final EOFException exception) {
+         // truncated last record
+      }
+      return entries;
+   }
+
+   private static int readByte(final InputStream in) throws IOException {
+      final int value = in.read();
+      if (value < 0) {
+         throw new EOFException();
+      }
+      return value;
+   }
+
+   /**
+    * @return the value or -1 at the end of the stream
+    */
+   private static long readVarint(final InputStream in) throws IOException {
+      long value = 0;
+      int shift = 0;
+      while (true) {
+         final int b = in.read();
+         if (b < 0) {
+            if (shift == 0) {
+               return -1;
+            }
+            throw new EOFException();
+         }
+         value |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return value;
+         }
+         shift += 7;
+      }
+   }
+}
@@ -0,0 +1,251 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.bitwig.extension.api.util.midi.ShortMidiMessage;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiIn;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Records the MIDI traffic of an extension into a compact binary log, see {@link MidiTrafficLog}, to compare what
+ * different versions of an extension send and to replay the input offline.
+ * <p>
+ * The ports of the extension are wrapped with {@link #record(int, MidiOut)} and {@link #record(int, MidiIn)} when
+ * the extension obtains them. Messages sent through a wrapped output and messages delivered to the callbacks set on
+ * a wrapped input are written with their time, {@link #markFlush()} marks the end of a flush of the extension.
+ * Messages a port handles internally, like those of note inputs and hardware action matchers, are not seen.
+ * <p>
+ * Recording is off unless the system property {@value #LOG_DIRECTORY_PROPERTY} or the environment variable
+ * {@value #LOG_DIRECTORY_ENV} names a directory for the logs. When it is off, the ports are returned as they are and
+ * recording costs nothing.
+ */
+public class MidiTrafficRecorder {
+   public static final String LOG_DIRECTORY_PROPERTY = "bitwig.extensions.midi.log.dir";
+   public static final String LOG_DIRECTORY_ENV = "BITWIG_EXTENSIONS_MIDI_LOG_DIR";
+
+   private static final MidiTrafficRecorder DISABLED = new MidiTrafficRecorder();
+   private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+   private final OutputStream out;
+   private final ControllerHost host;
+   private final long startTime;
+   private long lastTime;
+   private boolean failed;
+
+   private MidiTrafficRecorder() {
+      out = null;
+      host = null;
+      startTime = 0;
+   }
+
+   /**
+    * Creates a recorder writing to the given stream.
+    *
+    * @param out  the stream, closed by {@link #close()}
+    * @param host the host to report write errors to, can be null
+    */
+   public MidiTrafficRecorder(final OutputStream out, final ControllerHost host) throws IOException {
+      this.out = out;
+      this.host = host;
+      this.startTime = System.nanoTime();
+      MidiTrafficLog.writeHeader(out);
+   }
+
+   /**
+    * Creates a recorder for an extension if recording is configured.
+    *
+    * @param host the host
+    * @param name the name of the extension, used for the name of the log file
+    * @return a recorder writing a new log in the configured directory, or a recorder that doesn't record
+    */
+   public static MidiTrafficRecorder create(final ControllerHost host, final String name) {
+      String directory = System.getProperty(LOG_DIRECTORY_PROPERTY);
+      if (directory == null || directory.isBlank()) {
+         directory = System.getenv(LOG_DIRECTORY_ENV);
+      }
+      if (directory == null || directory.isBlank()) {
+         return DISABLED;
+      }
+      final String fileName = name.replaceAll("[^A-Za-z0-9_-]+", "_") + "-" + LocalDateTime.now().format(FILE_TIME)
+         + MidiTrafficLog.FILE_EXTENSION;
+      final Path file = Path.of(directory, fileName);
+      try {
+         Files.createDirectories(file.getParent());
+         final MidiTrafficRecorder recorder =
+            new MidiTrafficRecorder(new BufferedOutputStream(Files.newOutputStream(file)), host);
+         host.println("Recording MIDI traffic to " + file);
+         return recorder;
+      } catch (final IOException exception) {
+         host.errorln("Failed to record MIDI traffic to " + file + ": " + exception.getMessage());
+         return DISABLED;
+      }
+   }
+
+   public boolean isRecording() {
+      return out != null && !failed;
+   }
+
+   /**
+    * @param port    the port index, 0 to 15
+    * @param midiOut the port
+    * @return the port recording all messages sent through it, or the port itself if recording is off
+    */
+   public MidiOut record(final int port, final MidiOut midiOut) {
+      if (!isRecording()) {
+         return midiOut;
+      }
+      return (MidiOut) Proxy.newProxyInstance(MidiOut.class.getClassLoader(), new Class<?>[] {MidiOut.class},
+         (proxy, method, args) -> {
+            if (args != null) {
+               recordOut(port, method, args);
+            }
+            return forward(midiOut, method, args);
+         });
+   }
+
+   private void recordOut(final int port, final Method method, final Object[] args) {
+      if (method.getName().equals("sendMidi") && args.length == 3) {
+         writeShort(MidiTrafficLog.Kind.OUT, port, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+      } else if (method.getName().equals("sendSysex") && args.length == 1) {
+         if (args[0] instanceof byte[] data) {
+            writeSysex(MidiTrafficLog.Kind.OUT, port, data);
+         } else if (args[0] instanceof String hex) {
+            writeSysex(MidiTrafficLog.Kind.OUT, port, SysexWriter.fromHex(hex));
+         }
+      }
+   }
+
+   /**
+    * @param port   the port index, 0 to 15
+    * @param midiIn the port
+    * @return the port recording all messages delivered to the callbacks set on it, or the port itself if recording
+    * is off
+    */
+   public MidiIn record(final int port, final MidiIn midiIn) {
+      if (!isRecording()) {
+         return midiIn;
+      }
+      return (MidiIn) Proxy.newProxyInstance(MidiIn.class.getClassLoader(), new Class<?>[] {MidiIn.class},
+         (proxy, method, args) -> {
+            final String name = method.getName();
+            if ((name.equals("setMidiCallback") || name.equals("setSysexCallback")) && args.length == 1
+               && args[0] != null) {
+               final Object[] recordingArgs = {recordingCallback(port, method.getParameterTypes()[0], args[0])};
+               return forward(midiIn, method, recordingArgs);
+            }
+            return forward(midiIn, method, args);
+         });
+   }
+
+   private Object recordingCallback(final int port, final Class<?> callbackType, final Object callback) {
+      final InvocationHandler handler = (proxy, method, args) -> {
+         if (method.getDeclaringClass() == Object.class) {
+            return forward(callback, method, args);
+         }
+         if (args != null) {
+            recordIn(port, method, args);
+         }
+         return forward(callback, method, args);
+      };
+      return Proxy.newProxyInstance(callbackType.getClassLoader(), new Class<?>[] {callbackType}, handler);
+   }
+
+   private void recordIn(final int port, final Method method, final Object[] args) {
+      if (method.getName().equals("midiReceived")) {
+         if (args.length == 3) {
+            writeShort(MidiTrafficLog.Kind.IN, port, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+         } else if (args.length == 1 && args[0] instanceof ShortMidiMessage message) {
+            writeShort(MidiTrafficLog.Kind.IN, port, message.getStatusByte(), message.getData1(),
+               message.getData2());
+         }
+      } else if (method.getName().equals("sysexDataReceived") && args.length == 1
+         && args[0] instanceof String hex) {
+         writeSysex(MidiTrafficLog.Kind.IN, port, SysexWriter.fromHex(hex));
+      }
+   }
+
+   private static Object forward(final Object target, final Method method, final Object[] args) throws Throwable {
+      try {
+         return method.invoke(target, args);
+      } catch (final InvocationTargetException exception) {
+         throw exception.getCause();
+      }
+   }
+
+   /**
+    * Marks the end of a flush of the extension.
+    */
+   public synchronized void markFlush() {
+      if (!isRecording()) {
+         return;
+      }
+      try {
+         MidiTrafficLog.writeFlush(out, nextDelta());
+      } catch (final IOException exception) {
+         fail(exception);
+      }
+   }
+
+   private synchronized void writeShort(final MidiTrafficLog.Kind kind, final int port, final int status,
+                                        final int data1, final int data2) {
+      if (!isRecording()) {
+         return;
+      }
+      try {
+         MidiTrafficLog.writeShort(out, nextDelta(), kind, port, status, data1, data2);
+      } catch (final IOException exception) {
+         fail(exception);
+      }
+   }
+
+   private synchronized void writeSysex(final MidiTrafficLog.Kind kind, final int port, final byte[] data) {
+      if (!isRecording()) {
+         return;
+      }
+      try {
+         MidiTrafficLog.writeSysex(out, nextDelta(), kind, port, data);
+      } catch (final IOException exception) {
+         fail(exception);
+      }
+   }
+
+   private long nextDelta() {
+      final long time = (System.nanoTime() - startTime) / 1000;
+      final long delta = Math.max(0, time - lastTime);
+      lastTime = Math.max(lastTime, time);
+      return delta;
+   }
+
+   private void fail(final IOException exception) {
+      failed = true;
+      if (host != null) {
+         host.errorln("Stopped recording MIDI traffic: " + exception.getMessage());
+      }
+   }
+
+   /**
+    * Ends the recording and closes the log.
+    */
+   public synchronized void close() {
+      if (out == null) {
+         return;
+      }
+      try {
+         out.close();
+      } catch (final IOException exception) {
+         fail(exception);
+      }
+      failed = true;
+   }
+}
@@ -0,0 +1,179 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.time.TimeRepeatEvent;
+import com.bitwig.extensions.framework.time.TimerWheel;
+
+/**
+ * Schedules the pitch bend messages that move the motor faders of a port.
+ * <p>
+ * Parameter observers only store the latest target of a fader with {@link #setTarget(int, int)}. Targets are sent on
+ * a frame task, so every fader moves at most once per frame no matter how fast automation changes the parameter.
+ * Changes within the deadband are held back until the target stops moving, the fader then still ends up on the exact
+ * value. While a fader is touched nothing is sent to it, as the motor would fight the hand, and on release it snaps to
+ * the latest target. The frame task only runs while a fader still has to move. Where the next frame is too late, e.g.
+ * when parking the faders on exit, {@link #sendNow(int, int)} writes to the port directly.
+ * <p>
+ * Like the rest of the framework the scheduler is meant to be used from the controller thread only.
+ */
+public class MotorFaderScheduler {
+   /** A frame time of 20ms, which limits every fader to 50 updates per second. */
+   public static final long DEFAULT_FRAME_TIME = 20;
+   public static final int MAX_VALUE = 16383;
+
+   private static final int CHANNELS = 16;
+
+   private final TimerWheel timerWheel;
+   private final MidiOut midiOut;
+   private final long frameTime;
+   private final int[] target = new int[CHANNELS];
+   private final int[] previousTarget = new int[CHANNELS];
+   private final int[] sent = new int[CHANNELS];
+   private final boolean[] touched = new boolean[CHANNELS];
+   private int deadband = 0;
+   private TimeRepeatEvent frameEvent;
+
+   private long receivedUpdates;
+   private long sentUpdates;
+
+   /**
+    * Creates a scheduler running at the {@link #DEFAULT_FRAME_TIME}.
+    *
+    * @param timerWheel the timer wheel running the frames
+    * @param midiOut    the port of the faders
+    */
+   public MotorFaderScheduler(final TimerWheel timerWheel, final MidiOut midiOut) {
+      this(timerWheel, midiOut, DEFAULT_FRAME_TIME);
+   }
+
+   /**
+    * @param timerWheel the timer wheel running the frames
+    * @param midiOut    the port of the faders
+    * @param frameTime  the minimum time between two updates of a fader in ms
+    */
+   public MotorFaderScheduler(final TimerWheel timerWheel, final MidiOut midiOut, final long frameTime) {
+      this.timerWheel = timerWheel;
+      this.midiOut = midiOut;
+      this.frameTime = frameTime;
+      Arrays.fill(target, -1);
+      Arrays.fill(previousTarget, -1);
+      Arrays.fill(sent, -1);
+   }
+
+   /**
+    * @param deadband the largest change of a 14-bit value that is held back while the target is still moving
+    */
+   public void setDeadband(final int deadband) {
+      this.deadband = Math.max(0, deadband);
+   }
+
+   /**
+    * Stores the position a fader should move to, it is sent with the next frame.
+    *
+    * @param channel the pitch bend channel of the fader
+    * @param value   the 14-bit position, values out of range are clamped
+    */
+   public void setTarget(final int channel, final int value) {
+      receivedUpdates++;
+      target[channel] = Math.max(0, Math.min(MAX_VALUE, value));
+      if (!touched[channel] && target[channel] != sent[channel]) {
+         startFrames();
+      }
+   }
+
+   /**
+    * Sets the target of a fader and sends it right away, bypassing the frames, the deadband and the touch state.
+    *
+    * @param channel the pitch bend channel of the fader
+    * @param value   the 14-bit position, values out of range are clamped
+    */
+   public void sendNow(final int channel, final int value) {
+      receivedUpdates++;
+      target[channel] = Math.max(0, Math.min(MAX_VALUE, value));
+      previousTarget[channel] = target[channel];
+      send(channel);
+   }
+
+   /**
+    * @param channel the pitch bend channel of the fader
+    * @return the latest target of the fader or -1 if none was set yet
+    */
+   public int getTarget(final int channel) {
+      return target[channel];
+   }
+
+   /**
+    * Suspends the updates of a fader while it is touched. On release the fader is moved to its latest target right
+    * away.
+    *
+    * @param channel the pitch bend channel of the fader
+    * @param touched the touch state
+    */
+   public void setTouched(final int channel, final boolean touched) {
+      this.touched[channel] = touched;
+      if (!touched) {
+         refresh(channel);
+      }
+   }
+
+   /**
+    * Sends the latest target of a fader right away, e.g. after the device has been reset. Does nothing while the
+    * fader is touched.
+    *
+    * @param channel the pitch bend channel of the fader
+    */
+   public void refresh(final int channel) {
+      if (!touched[channel] && target[channel] >= 0) {
+         send(channel);
+      }
+   }
+
+   /**
+    * @return the number of targets received through {@link #setTarget(int, int)}
+    */
+   public long getReceivedUpdates() {
+      return receivedUpdates;
+   }
+
+   /**
+    * @return the number of pitch bend messages sent
+    */
+   public long getSentUpdates() {
+      return sentUpdates;
+   }
+
+   private void startFrames() {
+      if (frameEvent == null || frameEvent.isCompleted()) {
+         frameEvent = timerWheel.repeat(this::processFrame, frameTime, (int) frameTime);
+      }
+   }
+
+   private void processFrame() {
+      boolean settled = true;
+      for (int channel = 0; channel < CHANNELS; channel++) {
+         final int value = target[channel];
+         if (touched[channel] || value == sent[channel]) {
+            continue;
+         }
+         if (sent[channel] < 0 || Math.abs(value - sent[channel]) > deadband || value == previousTarget[channel]) {
+            send(channel);
+         } else {
+            settled = false;
+         }
+         previousTarget[channel] = value;
+      }
+      if (settled) {
+         frameEvent.cancel();
+         frameEvent = null;
+      }
+   }
+
+   private void send(final int channel) {
+      final int value = target[channel];
+      sent[channel] = value;
+      sentUpdates++;
+      midiOut.sendMidi(0xE0 | channel, value & 0x7F, value >> 7);
+   }
+}
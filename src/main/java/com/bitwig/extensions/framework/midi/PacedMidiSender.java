@@ -0,0 +1,390 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Sends MIDI messages to a port no faster than the device can take them, without blocking the controller thread.
+ * <p>
+ * Many devices drop messages that arrive in quick succession or need time to switch into a mode before they accept
+ * further messages. Instead of sleeping between the messages, which stalls every extension running in the host,
+ * messages are queued and sent by tasks scheduled with {@link ControllerHost#scheduleTask(Runnable, long)}. A token
+ * bucket limits the rate: up to {@code burst} messages can be sent at once, after that one message per
+ * {@code intervalMillis / burst} ms. A message sent while nothing is queued and the bucket isn't empty goes out
+ * immediately.
+ * <p>
+ * Messages are queued in two priority classes. {@link Priority#LIVE} messages, the feedback of the device, are sent
+ * before {@link Priority#CONFIG} messages, so a long configuration sequence doesn't delay the LEDs and displays.
+ * Within a class the messages keep their order. A message can name a target, e.g. a pad or a display, and replaces a
+ * message to the same target that is still queued, keeping its position. Sequences continue asynchronously with
+ * {@link #then(Priority, Runnable)}, which runs an action once the messages queued before it were sent, and
+ * {@link #delay(Priority, int)}, which holds the port for a while when it is reached, e.g. while the device
+ * switches modes:
+ *
+ * <pre>
+ * sender.sendSysex(Priority.CONFIG, null, ENTER_DAW_MODE);
+ * sender.delay(Priority.CONFIG, 30);
+ * sender.then(Priority.CONFIG, this::refreshDevice);
+ * </pre>
+ * <p>
+ * The sender is used on the controller thread and measures time in ms.
+ */
+public class PacedMidiSender {
+   private static final long IDLE = Long.MAX_VALUE;
+
+   /**
+    * The priority class of a message.
+    */
+   public enum Priority {
+      /** Feedback of the current state, sent first. */
+      LIVE,
+      /** Configuration of the device, e.g. during initialization, sent when no feedback is queued. */
+      CONFIG
+   }
+
+   private enum Kind {
+      SHORT,
+      SYSEX,
+      ACTION,
+      DELAY
+   }
+
+   private static final class Entry {
+      private final Kind kind;
+      private final Object target;
+      private Object payload;
+      private int status;
+      private int data1;
+      private int data2;
+
+      private Entry(final Kind kind, final Object target) {
+         this.kind = kind;
+         this.target = target;
+      }
+   }
+
+   private final ControllerHost host;
+   private final MidiOut midiOut;
+   private final LongSupplier clock;
+   private final int burst;
+   private final int intervalMillis;
+   private final long capacity;
+   private final ArrayDeque<Entry> liveQueue = new ArrayDeque<>();
+   private final ArrayDeque<Entry> configQueue = new ArrayDeque<>();
+   private final Map<Object, Entry> queuedTargets = new HashMap<>();
+   private long credit;
+   private long lastRefill;
+   private long holdUntil;
+   private long scheduledTime = IDLE;
+
+   /**
+    * Creates a sender without a limit on the rate, which only queues messages behind delays.
+    *
+    * @param host    the host
+    * @param midiOut the port
+    */
+   public PacedMidiSender(final ControllerHost host, final MidiOut midiOut) {
+      this(host, midiOut, 1, 0);
+   }
+
+   /**
+    * Creates a sender that keeps a minimum gap between two messages.
+    *
+    * @param host         the host
+    * @param midiOut      the port
+    * @param minGapMillis the minimum time between two messages in ms
+    */
+   public PacedMidiSender(final ControllerHost host, final MidiOut midiOut, final int minGapMillis) {
+      this(host, midiOut, 1, minGapMillis);
+   }
+
+   /**
+    * @param host           the host
+    * @param midiOut        the port
+    * @param burst          the number of messages that can be sent at once
+    * @param intervalMillis the time in ms in which the bucket refills, 0 for no limit
+    */
+   public PacedMidiSender(final ControllerHost host, final MidiOut midiOut, final int burst,
+                          final int intervalMillis) {
+      this(host, midiOut, burst, intervalMillis, () -> System.nanoTime() / 1_000_000L);
+   }
+
+   /**
+    * @param host           the host
+    * @param midiOut        the port
+    * @param burst          the number of messages that can be sent at once
+    * @param intervalMillis the time in ms in which the bucket refills, 0 for no limit
+    * @param clock          the time in ms, e.g. a virtual clock when running without Bitwig Studio
+    */
+   public PacedMidiSender(final ControllerHost host, final MidiOut midiOut, final int burst,
+                          final int intervalMillis, final LongSupplier clock) {
+      assert burst > 0 && intervalMillis >= 0;
+
+      this.host = host;
+      this.midiOut = midiOut;
+      this.clock = clock;
+      this.burst = burst;
+      this.intervalMillis = intervalMillis;
+      // the credit counts ms times burst, a message costs intervalMillis of it
+      this.capacity = (long) burst * intervalMillis;
+      this.credit = capacity;
+      this.lastRefill = clock.getAsLong();
+      this.holdUntil = lastRefill;
+   }
+
+   public MidiOut getMidiOut() {
+      return midiOut;
+   }
+
+   /**
+    * Sends a short message with live priority.
+    */
+   public void sendMidi(final int status, final int data1, final int data2) {
+      sendMidi(Priority.LIVE, null, status, data1, data2);
+   }
+
+   /**
+    * Sends a short message.
+    *
+    * @param priority the priority class
+    * @param target   replaces a queued message with an equal target, null if the message replaces none
+    */
+   public void sendMidi(final Priority priority, final Object target, final int status, final int data1,
+                        final int data2) {
+      final Entry entry = new Entry(Kind.SHORT, target);
+      entry.status = status;
+      entry.data1 = data1;
+      entry.data2 = data2;
+      enqueue(priority, entry);
+   }
+
+   /**
+    * Sends a SysEx message with live priority.
+    *
+    * @param data the message, copied if it has to be queued
+    */
+   public void sendSysex(final byte[] data) {
+      sendSysex(Priority.LIVE, null, data);
+   }
+
+   /**
+    * Sends a SysEx message with live priority.
+    *
+    * @param hex the message as hex string
+    */
+   public void sendSysex(final String hex) {
+      sendSysex(Priority.LIVE, null, hex);
+   }
+
+   /**
+    * Sends a SysEx message.
+    *
+    * @param priority the priority class
+    * @param target   replaces a queued message with an equal target, null if the message replaces none
+    * @param data     the message, copied if it has to be queued, so the caller may reuse the array
+    */
+   public void sendSysex(final Priority priority, final Object target, final byte[] data) {
+      final Entry entry = new Entry(Kind.SYSEX, target);
+      entry.payload = data;
+      enqueue(priority, entry);
+   }
+
+   /**
+    * Sends a SysEx message.
+    *
+    * @param priority the priority class
+    * @param target   replaces a queued message with an equal target, null if the message replaces none
+    * @param hex      the message as hex string
+    */
+   public void sendSysex(final Priority priority, final Object target, final String hex) {
+      final Entry entry = new Entry(Kind.SYSEX, target);
+      entry.payload = hex;
+      enqueue(priority, entry);
+   }
+
+   /**
+    * Runs an action once the messages of the priority class queued so far were sent, immediately if nothing is
+    * queued.
+    */
+   public void then(final Priority priority, final Runnable action) {
+      final Entry entry = new Entry(Kind.ACTION, null);
+      entry.payload = action;
+      enqueue(priority, entry);
+   }
+
+   /**
+    * Holds the port for the given time once the messages of the priority class queued so far were sent. Messages
+    * of both classes wait for the delay to pass.
+    */
+   public void delay(final Priority priority, final int millis) {
+      final Entry entry = new Entry(Kind.DELAY, null);
+      entry.data1 = millis;
+      enqueue(priority, entry);
+   }
+
+   /**
+    * @param target the target of a message
+    * @return true if a message to the target is still queued
+    */
+   public boolean isQueued(final Object target) {
+      return queuedTargets.containsKey(target);
+   }
+
+   /**
+    * Removes the queued message to a target, e.g. because a newer message to another target covers its content.
+    *
+    * @param target the target of the message
+    */
+   public void cancel(final Object target) {
+      final Entry entry = queuedTargets.remove(target);
+      if (entry != null && !liveQueue.remove(entry)) {
+         configQueue.remove(entry);
+      }
+   }
+
+   /**
+    * @return true if no messages are queued and the port isn't held by a delay
+    */
+   public boolean isIdle() {
+      return liveQueue.isEmpty() && configQueue.isEmpty() && clock.getAsLong() >= holdUntil;
+   }
+
+   /**
+    * Sends all queued messages and runs the queued actions at once, ignoring the rate and the delays. Meant for
+    * {@code exit()}, when scheduled tasks won't run anymore.
+    */
+   public void drain() {
+      holdUntil = Long.MIN_VALUE;
+      Entry entry;
+      while ((entry = next()) != null) {
+         if (entry.kind == Kind.ACTION) {
+            ((Runnable) entry.payload).run();
+         } else if (entry.kind != Kind.DELAY) {
+            transmit(entry);
+         }
+      }
+      scheduledTime = IDLE;
+      holdUntil = clock.getAsLong();
+   }
+
+   private Entry next() {
+      final Entry entry = liveQueue.isEmpty() ? configQueue.poll() : liveQueue.poll();
+      if (entry != null && entry.target != null) {
+         queuedTargets.remove(entry.target);
+      }
+      return entry;
+   }
+
+   private void enqueue(final Priority priority, final Entry entry) {
+      if (entry.target != null) {
+         final Entry queued = queuedTargets.get(entry.target);
+         if (queued != null && queued.kind == entry.kind) {
+            queued.payload = copy(entry.payload);
+            queued.status = entry.status;
+            queued.data1 = entry.data1;
+            queued.data2 = entry.data2;
+            return;
+         }
+      }
+      final long now = clock.getAsLong();
+      if (liveQueue.isEmpty() && configQueue.isEmpty() && now >= holdUntil && process(entry, now)) {
+         return;
+      }
+      entry.payload = copy(entry.payload);
+      (priority == Priority.LIVE ? liveQueue : configQueue).add(entry);
+      if (entry.target != null) {
+         queuedTargets.put(entry.target, entry);
+      }
+      schedule(Math.max(now, holdUntil), now);
+   }
+
+   private static Object copy(final Object payload) {
+      return payload instanceof byte[] data ? data.clone() : payload;
+   }
+
+   /**
+    * @return false if the entry is a message and the bucket is empty
+    */
+   private boolean process(final Entry entry, final long now) {
+      switch (entry.kind) {
+         case DELAY -> holdUntil = now + entry.data1;
+         case ACTION -> ((Runnable) entry.payload).run();
+         default -> {
+            if (!takeCredit(now)) {
+               return false;
+            }
+            transmit(entry);
+         }
+      }
+      return true;
+   }
+
+   private void transmit(final Entry entry) {
+      if (entry.kind == Kind.SHORT) {
+         midiOut.sendMidi(entry.status, entry.data1, entry.data2);
+      } else if (entry.payload instanceof byte[] data) {
+         midiOut.sendSysex(data);
+      } else {
+         midiOut.sendSysex((String) entry.payload);
+      }
+   }
+
+   private boolean takeCredit(final long now) {
+      if (intervalMillis == 0) {
+         return true;
+      }
+      credit = Math.min(capacity, credit + (now - lastRefill) * burst);
+      lastRefill = now;
+      if (credit < intervalMillis) {
+         return false;
+      }
+      credit -= intervalMillis;
+      return true;
+   }
+
+   private void schedule(final long time, final long now) {
+      if (time >= scheduledTime) {
+         return;
+      }
+      scheduledTime = time;
+      host.scheduleTask(() -> onTask(time), Math.max(0, time - now));
+   }
+
+   private void onTask(final long time) {
+      // a task superseded by an earlier one is dropped, the earlier one already pumped the queues
+      if (time != scheduledTime) {
+         return;
+      }
+      scheduledTime = IDLE;
+      pump();
+   }
+
+   private void pump() {
+      while (true) {
+         final long now = clock.getAsLong();
+         if (now < holdUntil) {
+            schedule(holdUntil, now);
+            return;
+         }
+         final ArrayDeque<Entry> queue = liveQueue.isEmpty() ? configQueue : liveQueue;
+         final Entry entry = queue.peek();
+         if (entry == null) {
+            return;
+         }
+         if (!process(entry, now)) {
+            schedule(now + (intervalMillis - credit + burst - 1) / burst, now);
+            return;
+         }
+         // an action may have queued further entries behind this one
+         queue.remove(entry);
+         if (entry.target != null) {
+            queuedTargets.remove(entry.target);
+         }
+      }
+   }
+}
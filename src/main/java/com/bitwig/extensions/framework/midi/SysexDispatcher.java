@@ -0,0 +1,100 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.function.Consumer;
+
+/**
+ * Routes received SysEx messages to handlers registered for a message prefix.
+ * <p>
+ * The hex string delivered by the host is decoded into a {@link SysexMessage} once and then looked up byte by byte in
+ * a prefix trie, so the cost of dispatching doesn't grow with the number of registered messages. If several
+ * registered prefixes match, the longest one wins. Use {@link #handleSysex(String)} as the sysex callback of a
+ * {@link com.bitwig.extension.controller.api.MidiIn}.
+ */
+public class SysexDispatcher {
+   private static class Node {
+      private Node[] children;
+      private Consumer<SysexMessage> handler;
+
+      private Node child(final int value) {
+         return children == null ? null : children[value];
+      }
+
+      private Node getOrCreateChild(final int value) {
+         if (children == null) {
+            children = new Node[256];
+         }
+         if (children[value] == null) {
+            children[value] = new Node();
+         }
+         return children[value];
+      }
+   }
+
+   private final Node root = new Node();
+   private final SysexMessage message = new SysexMessage();
+   private Consumer<SysexMessage> fallback;
+
+   /**
+    * Registers a handler for all messages starting with the given bytes. A handler registered before for the same
+    * prefix is replaced.
+    *
+    * @param prefix  the prefix as hex string like "f0 47 00 53", spaces are ignored
+    * @param handler the handler
+    * @return this dispatcher
+    */
+   public SysexDispatcher register(final String prefix, final Consumer<SysexMessage> handler) {
+      if (prefix.replace(" ", "").length() % 2 != 0) {
+         throw new IllegalArgumentException("SysEx prefix must consist of whole bytes: " + prefix);
+      }
+      return register(SysexWriter.fromHex(prefix), handler);
+   }
+
+   /**
+    * Registers a handler for all messages starting with the given bytes. A handler registered before for the same
+    * prefix is replaced.
+    *
+    * @param prefix  the prefix
+    * @param handler the handler
+    * @return this dispatcher
+    */
+   public SysexDispatcher register(final byte[] prefix, final Consumer<SysexMessage> handler) {
+      Node node = root;
+      for (final byte value : prefix) {
+         node = node.getOrCreateChild(value & 0xFF);
+      }
+      node.handler = handler;
+      return this;
+   }
+
+   /**
+    * @param fallback handler for messages no registered prefix matches
+    */
+   public void setFallback(final Consumer<SysexMessage> fallback) {
+      this.fallback = fallback;
+   }
+
+   /**
+    * Decodes and dispatches a message.
+    *
+    * @param hex the message as hex string without spaces, as delivered by the host
+    */
+   public void handleSysex(final String hex) {
+      message.decode(hex);
+      Node node = root;
+      Consumer<SysexMessage> handler = root.handler;
+      int prefixLength = 0;
+      for (int i = 0; i < message.length() && node != null; i++) {
+         node = node.child(message.get(i));
+         if (node != null && node.handler != null) {
+            handler = node.handler;
+            prefixLength = i + 1;
+         }
+      }
+      if (handler != null) {
+         message.setPrefixLength(prefixLength);
+         handler.accept(message);
+      } else if (fallback != null) {
+         fallback.accept(message);
+      }
+   }
+}
@@ -0,0 +1,113 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.Arrays;
+
+/**
+ * A received SysEx message decoded from the hex string the host delivers. The bytes are decoded once and the
+ * accessors read the fields directly from them.
+ * <p>
+ * A message is owned by its {@link SysexDispatcher} and reused for the next message received, so handlers must not
+ * hold on to it.
+ */
+public class SysexMessage {
+   private byte[] bytes = new byte[128];
+   private int length;
+   private int prefixLength;
+   private String hex;
+
+   void decode(final String hex) {
+      this.hex = hex;
+      final int size = hex.length() / 2;
+      if (size > bytes.length) {
+         bytes = new byte[Math.max(size, bytes.length * 2)];
+      }
+      for (int i = 0; i < size; i++) {
+         bytes[i] = (byte) (nibble(hex.charAt(i * 2)) << 4 | nibble(hex.charAt(i * 2 + 1)));
+      }
+      length = size;
+      prefixLength = 0;
+   }
+
+   void setPrefixLength(final int prefixLength) {
+      this.prefixLength = prefixLength;
+   }
+
+   private static int nibble(final char c) {
+      if (c <= '9') {
+         return c - '0';
+      }
+      return (c | 0x20) - 'a' + 10;
+   }
+
+   /**
+    * @return the number of bytes including the leading F0 and the trailing F7
+    */
+   public int length() {
+      return length;
+   }
+
+   /**
+    * @return the length of the registered prefix the message was dispatched on
+    */
+   public int getPrefixLength() {
+      return prefixLength;
+   }
+
+   /**
+    * @param index the byte index
+    * @return the byte as unsigned value
+    */
+   public int get(final int index) {
+      return bytes[index] & 0xFF;
+   }
+
+   /**
+    * @param index the byte index
+    * @return the lower 7 bits of the byte
+    */
+   public int value(final int index) {
+      return bytes[index] & 0x7F;
+   }
+
+   /**
+    * @param index the index of the first byte
+    * @return the 14-bit value of two data bytes, most significant first
+    */
+   public int value14(final int index) {
+      return (bytes[index] & 0x7F) << 7 | bytes[index + 1] & 0x7F;
+   }
+
+   /**
+    * @param index  the index of the first character
+    * @param length the maximum number of characters, the text ends early at a 0 byte or the end of the message
+    * @return the bytes as ASCII text
+    */
+   public String text(final int index, final int length) {
+      final int end = Math.min(index + length, this.length);
+      final StringBuilder sb = new StringBuilder(Math.max(0, end - index));
+      for (int i = index; i < end && bytes[i] != 0 && bytes[i] != (byte) SysexWriter.SYSEX_END; i++) {
+         sb.append((char) (bytes[i] & 0x7F));
+      }
+      return sb.toString();
+   }
+
+   /**
+    * @param prefix bytes to compare with
+    * @return true if the message starts with the given bytes
+    */
+   public boolean startsWith(final byte[] prefix) {
+      return prefix.length <= length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+   }
+
+   /**
+    * @return the message as received from the host, e.g. for logging
+    */
+   public String toHex() {
+      return hex;
+   }
+
+   @Override
+   public String toString() {
+      return hex;
+   }
+}
@@ -0,0 +1,284 @@
+package com.bitwig.extensions.framework.midi;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Builds SysEx messages directly as bytes, so display updates don't have to be formatted as hex strings that are
+ * parsed again by the host.
+ * <p>
+ * A writer is meant to be kept per driver and reused for every message. The message is written into an internal
+ * buffer and handed out in an array of exactly the message length taken from a pool, so sending a message of a
+ * length that has been sent before doesn't allocate. The pooled array is only valid until the next message of the
+ * same length is taken from the writer.
+ */
+public class SysexWriter {
+   public static final int SYSEX_START = 0xF0;
+   public static final int SYSEX_END = 0xF7;
+
+   private static final int MAX_POOLED_LENGTH = 512;
+
+   private final byte[][] pool = new byte[MAX_POOLED_LENGTH + 1][];
+   private byte[] buffer;
+   private int length;
+
+   public SysexWriter() {
+      this(128);
+   }
+
+   /**
+    * @param capacity the initial size of the buffer, it grows if a message doesn't fit
+    */
+   public SysexWriter(final int capacity) {
+      buffer = new byte[capacity];
+   }
+
+   /**
+    * Parses a hex string like "F0 00 20 29" into bytes. Meant for header templates that are parsed once.
+    *
+    * @param hex hex digits, optionally separated by spaces
+    * @return the bytes
+    */
+   public static byte[] fromHex(final String hex) {
+      final String digits = hex.replace(" ", "");
+      final byte[] bytes = new byte[digits.length() / 2];
+      for (int i = 0; i < bytes.length; i++) {
+         bytes[i] = (byte) Integer.parseInt(digits.substring(i * 2, i * 2 + 2), 16);
+      }
+      return bytes;
+   }
+
+   /**
+    * Starts a new message with the given header, which usually includes the leading F0.
+    *
+    * @param header the header bytes
+    * @return this writer
+    */
+   public SysexWriter begin(final byte[] header) {
+      length = 0;
+      return bytes(header);
+   }
+
+   /**
+    * Appends a byte as is.
+    */
+   public SysexWriter raw(final int value) {
+      ensureCapacity(1);
+      buffer[length++] = (byte) value;
+      return this;
+   }
+
+   /**
+    * Appends bytes as they are.
+    */
+   public SysexWriter bytes(final byte[] values) {
+      return bytes(values, 0, values.length);
+   }
+
+   /**
+    * Appends a range of bytes as they are.
+    */
+   public SysexWriter bytes(final byte[] values, final int offset, final int count) {
+      ensureCapacity(count);
+      System.arraycopy(values, offset, buffer, length, count);
+      length += count;
+      return this;
+   }
+
+   /**
+    * Appends a data byte, only the lower 7 bits are used.
+    */
+   public SysexWriter data(final int value) {
+      return raw(value & 0x7F);
+   }
+
+   /**
+    * Appends a 14-bit value as two data bytes, most significant first.
+    */
+   public SysexWriter data14(final int value) {
+      return raw(value >> 7 & 0x7F).raw(value & 0x7F);
+   }
+
+   /**
+    * Appends 8-bit data packed into 7-bit bytes. Each group of up to 7 bytes is preceded by a byte holding their
+    * most significant bits, the first byte of the group in bit 0.
+    */
+   public SysexWriter packed(final byte[] values, final int offset, final int count) {
+      ensureCapacity(count + (count + 6) / 7);
+      for (int group = 0; group < count; group += 7) {
+         final int groupSize = Math.min(7, count - group);
+         int msbs = 0;
+         for (int i = 0; i < groupSize; i++) {
+            msbs |= (values[offset + group + i] >> 7 & 1) << i;
+         }
+         buffer[length++] = (byte) msbs;
+         for (int i = 0; i < groupSize; i++) {
+            buffer[length++] = (byte) (values[offset + group + i] & 0x7F);
+         }
+      }
+      return this;
+   }
+
+   /**
+    * Appends the text as 7-bit ASCII, see {@link #transliterate(char)}.
+    *
+    * @param text      the text
+    * @param maxLength the maximum number of bytes written
+    * @return this writer
+    */
+   public SysexWriter ascii(final CharSequence text, final int maxLength) {
+      ensureCapacity(maxLength);
+      final int end = length + maxLength;
+      for (int i = 0; i < text.length() && length < end; i++) {
+         final char c = text.charAt(i);
+         if (c < 128) {
+            buffer[length++] = (byte) c;
+         } else {
+            final String replacement = transliterate(c);
+            for (int j = 0; j < replacement.length() && length < end; j++) {
+               buffer[length++] = (byte) replacement.charAt(j);
+            }
+         }
+      }
+      return this;
+   }
+
+   /**
+    * Appends the text as 7-bit ASCII.
+    */
+   public SysexWriter ascii(final CharSequence text) {
+      return ascii(text, text.length() * 2);
+   }
+
+   /**
+    * Appends the text as 7-bit ASCII with a fixed length, shorter texts are padded with the given byte.
+    */
+   public SysexWriter ascii(final CharSequence text, final int length, final int padding) {
+      final int end = this.length + length;
+      ascii(text, length);
+      while (this.length < end) {
+         buffer[this.length++] = (byte) padding;
+      }
+      return this;
+   }
+
+   /**
+    * Appends the trailing F7.
+    */
+   public SysexWriter end() {
+      return raw(SYSEX_END);
+   }
+
+   /**
+    * @return the number of bytes written since {@link #begin(byte[])}
+    */
+   public int length() {
+      return length;
+   }
+
+   /**
+    * @param other       bytes to compare with
+    * @param otherLength the number of bytes used in other
+    * @return true if the message is equal to the given bytes
+    */
+   public boolean contentEquals(final byte[] other, final int otherLength) {
+      return Arrays.equals(buffer, 0, length, other, 0, otherLength);
+   }
+
+   /**
+    * Copies the message to the start of the target, e.g. to remember the last message sent.
+    *
+    * @param target the array to copy to
+    * @return the target or a new array if the target is too small for the message
+    */
+   public byte[] copyInto(final byte[] target) {
+      final byte[] result = target.length < length ? new byte[length] : target;
+      System.arraycopy(buffer, 0, result, 0, length);
+      return result;
+   }
+
+   /**
+    * Copies the message into a pooled array of the message length.
+    *
+    * @return the message, valid until the next message of the same length is taken from this writer
+    */
+   public byte[] toByteArray() {
+      if (length > MAX_POOLED_LENGTH) {
+         return Arrays.copyOf(buffer, length);
+      }
+      byte[] message = pool[length];
+      if (message == null) {
+         message = new byte[length];
+         pool[length] = message;
+      }
+      System.arraycopy(buffer, 0, message, 0, length);
+      return message;
+   }
+
+   /**
+    * Sends the message.
+    */
+   public void send(final MidiOut midiOut) {
+      midiOut.sendSysex(toByteArray());
+   }
+
+   /**
+    * Replaces characters displays can't show with 7-bit ASCII.
+    *
+    * @param c a character outside of 7-bit ASCII
+    * @return the replacement, which can be longer than one character
+    */
+   public static String transliterate(final char c) {
+      switch (c) {
+         case 'Á':
+         case 'À':
+         case 'Â':
+         case 'Ä':
+            return "A";
+         case 'É':
+         case 'È':
+         case 'Ê':
+            return "E";
+         case 'Ó':
+         case 'Ò':
+         case 'Ô':
+         case 'Ö':
+            return "O";
+         case 'Ú':
+         case 'Ù':
+         case 'Û':
+         case 'Ü':
+            return "U";
+         case 'á':
+         case 'à':
+         case 'â':
+         case 'ä':
+            return "a";
+         case 'é':
+         case 'è':
+         case 'ê':
+            return "e";
+         case 'ó':
+         case 'ò':
+         case 'ô':
+         case 'ö':
+            return "o";
+         case 'ú':
+         case 'ù':
+         case 'û':
+         case 'ü':
+            return "u";
+         case 'ß':
+            return "ss";
+         default:
+            return "?";
+      }
+   }
+
+   private void ensureCapacity(final int additional) {
+      if (length + additional > buffer.length) {
+         buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+      }
+   }
+}
@@ -0,0 +1,187 @@
+package com.bitwig.extensions.framework.sequencer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.bitwig.extension.controller.api.NoteStep;
+import com.bitwig.extension.controller.api.NoteStep.State;
+
+/**
+ * Keeps track of the notes in the step window of a cursor clip, so sequencers can look up a step without calling
+ * {@link com.bitwig.extension.controller.api.Clip#getStep(int, int, int)} for every key.
+ * <p>
+ * Register {@link #update(NoteStep)} as note step observer of the clip. For every step the keys holding a note start
+ * and the keys holding a sustained note are kept as bit sets, so the state of a step and its first note are found
+ * without scanning all keys.
+ */
+public class NoteStepIndex {
+   public static final int ALL_CHANNELS = -1;
+
+   private static final int KEYS = 128;
+   private static final int WORDS = KEYS / Long.SIZE;
+
+   private final int steps;
+   private final int channel;
+   private final long[] noteOnKeys;
+   private final long[] sustainKeys;
+   private final NoteStep[] noteSteps;
+
+   /**
+    * Creates an index for the notes on all channels.
+    *
+    * @param steps the number of steps of the clip window
+    */
+   public NoteStepIndex(final int steps) {
+      this(steps, ALL_CHANNELS);
+   }
+
+   /**
+    * @param steps   the number of steps of the clip window
+    * @param channel the channel of the notes to index or {@link #ALL_CHANNELS}
+    */
+   public NoteStepIndex(final int steps, final int channel) {
+      this.steps = steps;
+      this.channel = channel;
+      noteOnKeys = new long[steps * WORDS];
+      sustainKeys = new long[steps * WORDS];
+      noteSteps = new NoteStep[steps * KEYS];
+   }
+
+   /**
+    * Updates the index with a step reported by the clip. Steps outside of the window are ignored.
+    *
+    * @param noteStep the changed step
+    */
+   public void update(final NoteStep noteStep) {
+      final int step = noteStep.x();
+      final int key = noteStep.y();
+      if (step < 0 || step >= steps || key < 0 || key >= KEYS) {
+         return;
+      }
+      if (channel != ALL_CHANNELS && noteStep.channel() != channel) {
+         return;
+      }
+      final int word = step * WORDS + (key >> 6);
+      final long bit = 1L << key;
+      noteOnKeys[word] &= ~bit;
+      sustainKeys[word] &= ~bit;
+      switch (noteStep.state()) {
+         case NoteOn -> noteOnKeys[word] |= bit;
+         case NoteSustain -> sustainKeys[word] |= bit;
+         default -> {
+         }
+      }
+      noteSteps[step * KEYS + key] = noteStep.state() == State.Empty ? null : noteStep;
+   }
+
+   /**
+    * Forgets all notes, e.g. when the clip changes.
+    */
+   public void clear() {
+      Arrays.fill(noteOnKeys, 0);
+      Arrays.fill(sustainKeys, 0);
+      Arrays.fill(noteSteps, null);
+   }
+
+   /**
+    * @return the number of steps of the clip window
+    */
+   public int getSteps() {
+      return steps;
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @return true if a note starts on the step
+    */
+   public boolean hasNoteOn(final int step) {
+      return any(noteOnKeys, step);
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @param key  the key
+    * @return true if a note of the key starts on the step
+    */
+   public boolean isNoteOn(final int step, final int key) {
+      return (noteOnKeys[step * WORDS + (key >> 6)] & 1L << key) != 0;
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @return {@link State#NoteOn} if any note starts on the step, otherwise {@link State#NoteSustain} if any note is
+    * held on it, otherwise {@link State#Empty}
+    */
+   public State getState(final int step) {
+      if (any(noteOnKeys, step)) {
+         return State.NoteOn;
+      }
+      if (any(sustainKeys, step)) {
+         return State.NoteSustain;
+      }
+      return State.Empty;
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @param key  the key
+    * @return the step of the key as last reported by the clip or null if the step is empty
+    */
+   public NoteStep getNoteStep(final int step, final int key) {
+      return noteSteps[step * KEYS + key];
+   }
+
+   /**
+    * @param step    the step in the clip window
+    * @param fromKey the key to start searching from
+    * @return the lowest key from fromKey on that starts a note on the step or -1
+    */
+   public int nextNoteOnKey(final int step, final int fromKey) {
+      for (int index = fromKey >> 6; index < WORDS && fromKey < KEYS; index++) {
+         long bits = noteOnKeys[step * WORDS + index];
+         if (index == fromKey >> 6) {
+            bits &= -1L << fromKey;
+         }
+         if (bits != 0) {
+            return index * Long.SIZE + Long.numberOfTrailingZeros(bits);
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @return the note with the lowest key starting on the step or null
+    */
+   public NoteStep getFirstNoteOn(final int step) {
+      final int key = nextNoteOnKey(step, 0);
+      return key == -1 ? null : noteSteps[step * KEYS + key];
+   }
+
+   /**
+    * @param step   the step in the clip window
+    * @param action called for every note starting on the step in key order
+    */
+   public void forEachNoteOn(final int step, final Consumer<NoteStep> action) {
+      for (int key = nextNoteOnKey(step, 0); key != -1; key = nextNoteOnKey(step, key + 1)) {
+         action.accept(noteSteps[step * KEYS + key]);
+      }
+   }
+
+   /**
+    * @param step the step in the clip window
+    * @return a new list of the notes starting on the step in key order
+    */
+   public List<NoteStep> getNoteOns(final int step) {
+      final List<NoteStep> notes = new ArrayList<>();
+      forEachNoteOn(step, notes::add);
+      return notes;
+   }
+
+   private static boolean any(final long[] keys, final int step) {
+      final int offset = step * WORDS;
+      return (keys[offset] | keys[offset + 1]) != 0;
+   }
+}
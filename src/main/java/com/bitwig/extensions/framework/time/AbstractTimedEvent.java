@@ -1,16 +1,33 @@
 package com.bitwig.extensions.framework.time;
 
+import java.util.function.LongSupplier;
+
 public abstract class AbstractTimedEvent implements TimedEvent {
-   protected final long startTime;
+   protected static final long NANOS_PER_MILLI = 1_000_000L;
+   static final LongSupplier SYSTEM_CLOCK = System::nanoTime;
+
+   protected long startTime;
    protected boolean completed;
    protected final long delayTime;
+   /** The time source in ns, taken over from the {@link TimerWheel} the event is queued on. */
+   protected LongSupplier clock = SYSTEM_CLOCK;
 
    public AbstractTimedEvent(final long delayTime) {
-      startTime = System.currentTimeMillis();
+      startTime = clock.getAsLong();
       completed = false;
       this.delayTime = delayTime;
    }
 
+   /**
+    * Moves the event to the clock of a wheel, the delay then starts at the current time of that clock.
+    */
+   void attach(final LongSupplier clock) {
+      if (this.clock != clock) {
+         this.clock = clock;
+         startTime = clock.getAsLong();
+      }
+   }
+
    public void cancel() {
       completed = true;
    }
@@ -0,0 +1,169 @@
+package com.bitwig.extensions.framework.time;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.controller.api.Transport;
+
+/**
+ * A beat clock following the transport of the host, shared by all tempo synced lights of an extension.
+ * <p>
+ * The position of the transport is only delivered every few ms, so lights that compute their phase from
+ * {@code Transport.getPosition()} step instead of moving smoothly, and computing it for every pad in every flush
+ * repeats the same work many times. The clock is sampled once per frame with {@link #sample()}, typically at the
+ * start of {@code flush()}. While the transport plays, the position between two updates of the host is interpolated
+ * from the tempo. The accessors {@link #phase(double)} and {@link #pulse(double)} then only read the sampled
+ * position, the pulses of the last few rates are cached for the frame.
+ * <p>
+ * Listeners added with {@link #addPhaseListener(double, PhaseListener)} are notified when a sample crosses a
+ * multiple of their divisor, e.g. on every beat or bar.
+ * <p>
+ * Like the rest of the framework the clock is meant to be used from the controller thread only.
+ */
+public class BeatClock {
+   private static final int PULSE_CACHE_SIZE = 4;
+   /**
+    * Interpolated positions run slightly ahead of the host if the tempo changes. Backward corrections smaller than
+    * this are absorbed by holding the position, larger ones are jumps of the transport and taken over.
+    */
+   private static final double MAX_CORRECTION = 0.25;
+
+   /**
+    * Notified when the beat position crosses a multiple of the divisor of the listener.
+    */
+   @FunctionalInterface
+   public interface PhaseListener {
+      /**
+       * @param index the beat position divided by the divisor, rounded down
+       */
+      void phaseCrossed(long index);
+   }
+
+   private static final class PhaseWatch {
+      private final double divisor;
+      private final PhaseListener listener;
+      private long index;
+
+      private PhaseWatch(final double divisor, final PhaseListener listener, final long index) {
+         this.divisor = divisor;
+         this.listener = listener;
+         this.index = index;
+      }
+   }
+
+   private final Transport transport;
+   private final LongSupplier clock;
+   private final List<PhaseWatch> watches = new ArrayList<>();
+   private final double[] cachedRates = new double[PULSE_CACHE_SIZE];
+   private final double[] cachedPulses = new double[PULSE_CACHE_SIZE];
+   private int cachedCount;
+   private double hostPosition;
+   private long hostPositionTime;
+   private boolean playing;
+   private double position;
+
+   public BeatClock(final Transport transport) {
+      this(transport, () -> System.nanoTime() / 1_000_000L);
+   }
+
+   /**
+    * @param transport the transport to follow
+    * @param clock     the time in ms, e.g. a virtual clock when running without Bitwig Studio
+    */
+   public BeatClock(final Transport transport, final LongSupplier clock) {
+      this.transport = transport;
+      this.clock = clock;
+      this.hostPositionTime = clock.getAsLong();
+      transport.tempo().value().markInterested();
+      transport.getPosition().addValueObserver(this::handlePosition);
+      transport.isPlaying().addValueObserver(this::handlePlaying);
+   }
+
+   private void handlePosition(final double position) {
+      hostPosition = position;
+      hostPositionTime = clock.getAsLong();
+   }
+
+   private void handlePlaying(final boolean playing) {
+      // interpolation starts from the last reported position when playback starts
+      handlePosition(hostPosition);
+      this.playing = playing;
+   }
+
+   /**
+    * Samples the position of the transport for the current frame and notifies the phase listeners of the
+    * multiples crossed since the last sample.
+    */
+   public void sample() {
+      double next = hostPosition;
+      if (playing) {
+         final double bpm = transport.tempo().value().getRaw();
+         next += (clock.getAsLong() - hostPositionTime) * bpm / 60000.0;
+         if (next < position && position - next < MAX_CORRECTION) {
+            next = position;
+         }
+      }
+      position = next;
+      cachedCount = 0;
+      for (final PhaseWatch watch : watches) {
+         final long index = (long) Math.floor(next / watch.divisor);
+         if (index != watch.index) {
+            watch.index = index;
+            watch.listener.phaseCrossed(index);
+         }
+      }
+   }
+
+   /**
+    * @return the beat position of the last sample
+    */
+   public double getBeatPosition() {
+      return position;
+   }
+
+   public boolean isPlaying() {
+      return playing;
+   }
+
+   /**
+    * @param divisor the length of a cycle in beats, e.g. 1 for a beat or 4 for a 4/4 bar
+    * @return the position within the cycle, from 0 inclusive to 1 exclusive
+    */
+   public double phase(final double divisor) {
+      final double cycles = position / divisor;
+      return cycles - Math.floor(cycles);
+   }
+
+   /**
+    * A pulse following the cosine of the beat position, 1 on every full cycle and 0 half way between.
+    *
+    * @param rate the number of cycles per beat
+    * @return the pulse, from 0 to 1
+    */
+   public double pulse(final double rate) {
+      for (int i = 0; i < cachedCount; i++) {
+         if (cachedRates[i] == rate) {
+            return cachedPulses[i];
+         }
+      }
+      final double pulse = 0.5 + 0.5 * Math.cos(position * rate * 2 * Math.PI);
+      final int slot = cachedCount < PULSE_CACHE_SIZE ? cachedCount++ : PULSE_CACHE_SIZE - 1;
+      cachedRates[slot] = rate;
+      cachedPulses[slot] = pulse;
+      return pulse;
+   }
+
+   /**
+    * Adds a listener notified by {@link #sample()} when the beat position crosses a multiple of the divisor, in
+    * either direction.
+    *
+    * @param divisor  the length of a cycle in beats
+    * @param listener the listener
+    */
+   public void addPhaseListener(final double divisor, final PhaseListener listener) {
+      assert divisor > 0;
+
+      watches.add(new PhaseWatch(divisor, listener, (long) Math.floor(position / divisor)));
+   }
+}
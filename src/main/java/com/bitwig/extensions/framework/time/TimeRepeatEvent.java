@@ -4,7 +4,7 @@ import java.util.function.IntConsumer;
 
 public class TimeRepeatEvent extends AbstractTimedEvent {
    private final int repeatTime;
-   private long repeatTimer = -1;
+   private long repeatTimer;
    private int repeatCount = 0;
    private final IntConsumer action;
 
@@ -26,13 +26,18 @@ public class TimeRepeatEvent extends AbstractTimedEvent {
       if (completed) {
          return;
       }
-      final long passedTime = System.currentTimeMillis() - startTime;
-      if (repeatTimer == -1 && passedTime > delayTime) {
+      final long now = clock.getAsLong();
+      if (now - getDueTime() >= 0) {
          action.accept(++repeatCount);
-         repeatTimer = System.currentTimeMillis();
-      } else if (repeatTimer > 0 && (System.currentTimeMillis() - repeatTimer) >= repeatTime) {
-         action.accept(++repeatCount);
-         repeatTimer = System.currentTimeMillis();
+         repeatTimer = now;
+      }
+   }
+
+   @Override
+   public long getDueTime() {
+      if (repeatCount == 0) {
+         return startTime + delayTime * NANOS_PER_MILLI;
       }
+      return repeatTimer + repeatTime * NANOS_PER_MILLI;
    }
 }
@@ -12,10 +12,14 @@ public class TimedDelayEvent extends AbstractTimedEvent {
       if (completed) {
          return;
       }
-      final long passedTime = System.currentTimeMillis() - startTime;
-      if (passedTime >= delayTime) {
+      if (clock.getAsLong() - getDueTime() >= 0) {
          timedAction.run();
          completed = true;
       }
    }
+
+   @Override
+   public long getDueTime() {
+      return startTime + delayTime * NANOS_PER_MILLI;
+   }
 }
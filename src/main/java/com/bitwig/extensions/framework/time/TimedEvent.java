@@ -11,4 +11,9 @@ public interface TimedEvent {
    void cancel();
 
    void process();
+
+   /**
+    * @return the {@link System#nanoTime()} at which the event wants to be processed next
+    */
+   long getDueTime();
 }
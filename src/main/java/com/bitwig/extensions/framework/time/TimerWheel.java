@@ -0,0 +1,240 @@
+package com.bitwig.extensions.framework.time;
+
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+
+/**
+ * Processes the {@link TimedEvent}s of an extension on a hashed timer wheel.
+ * <p>
+ * Events are sorted into slots by their {@link TimedEvent#getDueTime() due time}, so a wake up only looks at the
+ * slots that have become due instead of processing every queued event. A host task is only scheduled for the next
+ * tick that actually holds a due event, and none at all while the wheel is empty, so an idle controller doesn't
+ * poll.
+ * <p>
+ * Time is measured with {@link System#nanoTime()} unless another clock is passed to the constructor, e.g. the virtual
+ * clock of a test harness that replays MIDI deterministically. Code that derives state from time, like a blink phase,
+ * should read it from {@link #getTime()} so it runs on the same clock.
+ * <p>
+ * Like the rest of the framework the wheel is meant to be used from the controller thread only.
+ */
+public class TimerWheel {
+   private static final int WHEEL_SIZE = 64;
+   private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+   private static final long DEFAULT_TICK_TIME = 10;
+
+   private static class Entry {
+      private final TimedEvent event;
+      private long deadlineTick;
+      private Entry next;
+
+      private Entry(final TimedEvent event) {
+         this.event = event;
+      }
+   }
+
+   private final ControllerHost host;
+   private final LongSupplier clock;
+   private final long tickNanos;
+   private final long origin;
+   private final Entry[] slots = new Entry[WHEEL_SIZE];
+   private final TreeSet<Long> scheduledWakeUps = new TreeSet<>();
+   private long currentTick;
+   private int pendingEvents;
+
+   public TimerWheel(final ControllerHost host) {
+      this(host, DEFAULT_TICK_TIME);
+   }
+
+   /**
+    * @param host  the host used to schedule the wake-ups
+    * @param clock the time in ns
+    */
+   public TimerWheel(final ControllerHost host, final LongSupplier clock) {
+      this(host, DEFAULT_TICK_TIME, clock);
+   }
+
+   /**
+    * @param host     the host used to schedule the wake-ups
+    * @param tickTime the resolution of the wheel in ms
+    */
+   public TimerWheel(final ControllerHost host, final long tickTime) {
+      this(host, tickTime, AbstractTimedEvent.SYSTEM_CLOCK);
+   }
+
+   /**
+    * @param host     the host used to schedule the wake-ups
+    * @param tickTime the resolution of the wheel in ms
+    * @param clock    the time in ns
+    */
+   public TimerWheel(final ControllerHost host, final long tickTime, final LongSupplier clock) {
+      this.host = host;
+      this.clock = clock;
+      this.tickNanos = tickTime * AbstractTimedEvent.NANOS_PER_MILLI;
+      this.origin = clock.getAsLong();
+   }
+
+   /**
+    * @return the current time of the clock of the wheel in ns
+    */
+   public long getTime() {
+      return clock.getAsLong();
+   }
+
+   /**
+    * Adds an event to the wheel. The event is processed once it becomes due and stays on the wheel until it is
+    * completed or cancelled.
+    *
+    * @param event the event to schedule
+    */
+   public void queueEvent(final TimedEvent event) {
+      if (event.isCompleted()) {
+         return;
+      }
+      if (event instanceof AbstractTimedEvent timedEvent) {
+         timedEvent.attach(clock);
+      }
+      if (pendingEvents == 0) {
+         // nothing can be skipped, so an idle wheel just catches up with the clock
+         currentTick = Math.max(currentTick, elapsedTicks(clock.getAsLong()));
+      }
+      insert(new Entry(event));
+      pendingEvents++;
+      requestWakeUp();
+   }
+
+   /**
+    * Runs the action once after the given delay.
+    *
+    * @param action    the action
+    * @param delayTime the delay in ms
+    * @return the event, which can be used to cancel the action
+    */
+   public TimedDelayEvent delay(final Runnable action, final long delayTime) {
+      final TimedDelayEvent event = new TimedDelayEvent(action, delayTime);
+      queueEvent(event);
+      return event;
+   }
+
+   /**
+    * Runs the action repeatedly after an initial delay until the returned event is cancelled.
+    *
+    * @param action     the action
+    * @param delayTime  the delay in ms before the first invocation
+    * @param repeatTime the time in ms between invocations
+    * @return the event, which needs to be cancelled to stop the repetition
+    */
+   public TimeRepeatEvent repeat(final Runnable action, final long delayTime, final int repeatTime) {
+      final TimeRepeatEvent event = new TimeRepeatEvent(action, delayTime, repeatTime);
+      queueEvent(event);
+      return event;
+   }
+
+   /**
+    * @return true if no events are waiting to be processed
+    */
+   public boolean isIdle() {
+      return pendingEvents == 0;
+   }
+
+   private long toTick(final long nanoTime) {
+      // round up, an event must never be processed before it is due
+      return -Math.floorDiv(origin - nanoTime, tickNanos);
+   }
+
+   private long elapsedTicks(final long nanoTime) {
+      return Math.floorDiv(nanoTime - origin, tickNanos);
+   }
+
+   private void insert(final Entry entry) {
+      entry.deadlineTick = Math.max(toTick(entry.event.getDueTime()), currentTick + 1);
+      final int slot = (int) (entry.deadlineTick & WHEEL_MASK);
+      entry.next = slots[slot];
+      slots[slot] = entry;
+   }
+
+   private void onWakeUp(final long tick) {
+      scheduledWakeUps.remove(tick);
+      final long nowTick = elapsedTicks(clock.getAsLong());
+      if (nowTick > currentTick) {
+         final long firstTick = Math.max(currentTick + 1, nowTick - WHEEL_MASK);
+         Entry reinserted = null;
+         for (long t = firstTick; t <= nowTick; t++) {
+            reinserted = processSlot((int) (t & WHEEL_MASK), nowTick, reinserted);
+         }
+         currentTick = nowTick;
+         while (reinserted != null) {
+            final Entry next = reinserted.next;
+            insert(reinserted);
+            reinserted = next;
+         }
+      }
+      requestWakeUp();
+   }
+
+   /**
+    * Processes all due entries of a slot. Entries that still need to run again are unlinked and prepended to the
+    * given reinsert list, so they can't be processed twice in one wake-up.
+    */
+   private Entry processSlot(final int slot, final long nowTick, Entry reinserted) {
+      Entry previous = null;
+      Entry entry = slots[slot];
+      while (entry != null) {
+         final Entry next = entry.next;
+         final TimedEvent event = entry.event;
+         if (!event.isCompleted() && entry.deadlineTick <= nowTick) {
+            event.process();
+         }
+         if (event.isCompleted() || entry.deadlineTick <= nowTick) {
+            if (previous == null) {
+               slots[slot] = next;
+            } else {
+               previous.next = next;
+            }
+            if (event.isCompleted()) {
+               pendingEvents--;
+            } else {
+               entry.next = reinserted;
+               reinserted = entry;
+            }
+         } else {
+            previous = entry;
+         }
+         entry = next;
+      }
+      return reinserted;
+   }
+
+   private void requestWakeUp() {
+      if (pendingEvents == 0) {
+         return;
+      }
+      final long nextTick = findNextDeadlineTick();
+      if (!scheduledWakeUps.isEmpty() && scheduledWakeUps.first() <= nextTick) {
+         return;
+      }
+      scheduledWakeUps.add(nextTick);
+      final long delayNanos = origin + nextTick * tickNanos - clock.getAsLong();
+      final long delay = Math.max(1, (delayNanos + AbstractTimedEvent.NANOS_PER_MILLI - 1)
+         / AbstractTimedEvent.NANOS_PER_MILLI);
+      host.scheduleTask(() -> onWakeUp(nextTick), delay);
+   }
+
+   /**
+    * Walks the slots in tick order and returns the first tick that holds an entry due in the current revolution
+    * of the wheel. If all entries are further away, the earliest deadline found is used.
+    */
+   private long findNextDeadlineTick() {
+      long earliest = Long.MAX_VALUE;
+      for (long t = currentTick + 1; t <= currentTick + WHEEL_SIZE; t++) {
+         for (Entry entry = slots[(int) (t & WHEEL_MASK)]; entry != null; entry = entry.next) {
+            if (entry.deadlineTick == t) {
+               return t;
+            }
+            earliest = Math.min(earliest, entry.deadlineTick);
+         }
+      }
+      return earliest;
+   }
+}
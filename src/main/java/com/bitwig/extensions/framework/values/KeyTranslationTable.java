@@ -0,0 +1,214 @@
+package com.bitwig.extensions.framework.values;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.bitwig.extension.controller.api.NoteInput;
+
+/**
+ * The key and velocity translation tables of a {@link NoteInput}.
+ * <p>
+ * Pad layers used to fill a boxed table and hand it to the host on every change of mode, scale or scroll position,
+ * even if the pads ended up playing the same notes. Here the tables are plain int arrays and a table is only sent to
+ * the host if it differs from the one sent before. Layouts that depend on a few parameters, like a drum pad grid
+ * scrolled to an offset, are computed once per key and offset with {@link #apply(Object, int, Layout)} and kept in a
+ * small cache. With {@link #setScrollSteps(int...)} the tables one scroll step away from the current offset are
+ * computed in advance, so scrolling only has to look them up.
+ * <p>
+ * All users of a note input share the same instance, obtained with {@link #of(NoteInput)}, so that the table sent
+ * last is known no matter which of them sent it. An entry of -1 in a key translation table disables the key.
+ */
+public class KeyTranslationTable {
+   public static final int SIZE = 128;
+   private static final int MAX_CACHED_TABLES = 64;
+   private static final int[] NO_STEPS = new int[0];
+
+   /**
+    * Computes a key translation table.
+    */
+   @FunctionalInterface
+   public interface Layout {
+      /**
+       * @param table  the table to fill, all keys are set to -1
+       * @param offset the offset the table is computed for, e.g. the first note of the pads
+       */
+      void fill(int[] table, int offset);
+   }
+
+   private static final class TableKey {
+      private final Object layout;
+      private final int offset;
+
+      private TableKey(final Object layout, final int offset) {
+         this.layout = layout;
+         this.offset = offset;
+      }
+
+      @Override
+      public boolean equals(final Object obj) {
+         return obj instanceof TableKey other && offset == other.offset && layout.equals(other.layout);
+      }
+
+      @Override
+      public int hashCode() {
+         return layout.hashCode() * 31 + offset;
+      }
+   }
+
+   private static final Map<NoteInput, KeyTranslationTable> NOTE_INPUT_TO_TABLE = new WeakHashMap<>();
+
+   private final NoteInput noteInput;
+   private final int[] sentKeys = new int[SIZE];
+   private final int[] sentVelocities = new int[SIZE];
+   private final Integer[] boxed = new Integer[SIZE];
+   private final Map<TableKey, int[]> cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<TableKey, int[]> eldest) {
+         return size() > MAX_CACHED_TABLES;
+      }
+   };
+   private boolean keysSent;
+   private boolean velocitiesSent;
+   private int[] scrollSteps = NO_STEPS;
+
+   private KeyTranslationTable(final NoteInput noteInput) {
+      this.noteInput = noteInput;
+   }
+
+   /**
+    * @param noteInput the note input
+    * @return the translation tables of the note input
+    */
+   public static KeyTranslationTable of(final NoteInput noteInput) {
+      synchronized (NOTE_INPUT_TO_TABLE) {
+         return NOTE_INPUT_TO_TABLE.computeIfAbsent(noteInput, KeyTranslationTable::new);
+      }
+   }
+
+   /**
+    * Creates a layout mapping consecutive keys to consecutive notes starting at the offset, as used by drum pads.
+    * Keys whose note would be below 0 or above 127 are disabled, e.g. when the offset is scrolled below 0.
+    *
+    * @param firstKey the key of the first pad
+    * @param count    the number of pads
+    */
+   public static Layout consecutive(final int firstKey, final int count) {
+      return (table, offset) -> {
+         for (int i = 0; i < count; i++) {
+            final int note = offset + i;
+            table[firstKey + i] = note >= 0 && note < SIZE ? note : -1;
+         }
+      };
+   }
+
+   /**
+    * Sets the distances to the current offset for which {@link #apply(Object, int, Layout)} computes tables in
+    * advance, e.g. 4 and 16 for a grid scrolling by a row or by a page. The tables are computed in both directions.
+    */
+   public void setScrollSteps(final int... steps) {
+      scrollSteps = steps.clone();
+   }
+
+   /**
+    * Applies a layout that is its own cache key.
+    */
+   public void apply(final Layout layout, final int offset) {
+      apply(layout, offset, layout);
+   }
+
+   /**
+    * Applies the table of a layout at an offset, computed on first use.
+    *
+    * @param key    identifies the table together with the offset, e.g. a scale and its root note, must implement
+    *               equals and hashCode if it isn't a constant
+    * @param offset the offset, e.g. the note of the first pad
+    * @param layout computes the table if it isn't cached
+    */
+   public void apply(final Object key, final int offset, final Layout layout) {
+      apply(table(key, offset, layout));
+      for (final int step : scrollSteps) {
+         table(key, offset - step, layout);
+         table(key, offset + step, layout);
+      }
+   }
+
+   private int[] table(final Object key, final int offset, final Layout layout) {
+      return cache.computeIfAbsent(new TableKey(key, offset), tableKey -> {
+         final int[] table = new int[SIZE];
+         Arrays.fill(table, -1);
+         layout.fill(table, offset);
+         return table;
+      });
+   }
+
+   /**
+    * Sends a key translation table to the host unless it equals the table sent last.
+    *
+    * @param table the table, copied so the caller may reuse it
+    */
+   public void apply(final int[] table) {
+      assert table.length == SIZE;
+
+      if (keysSent && Arrays.equals(table, sentKeys)) {
+         return;
+      }
+      System.arraycopy(table, 0, sentKeys, 0, SIZE);
+      keysSent = true;
+      noteInput.setKeyTranslationTable(box(table));
+   }
+
+   /**
+    * Disables all keys.
+    */
+   public void clear() {
+      if (keysSent && isCleared()) {
+         return;
+      }
+      Arrays.fill(sentKeys, -1);
+      keysSent = true;
+      noteInput.setKeyTranslationTable(box(sentKeys));
+   }
+
+   private boolean isCleared() {
+      for (final int note : sentKeys) {
+         if (note != -1) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Sends a velocity translation table to the host unless it equals the table sent last.
+    *
+    * @param table the table, copied so the caller may reuse it
+    */
+   public void applyVelocities(final int[] table) {
+      assert table.length == SIZE;
+
+      if (velocitiesSent && Arrays.equals(table, sentVelocities)) {
+         return;
+      }
+      System.arraycopy(table, 0, sentVelocities, 0, SIZE);
+      velocitiesSent = true;
+      noteInput.setVelocityTranslationTable(box(table));
+   }
+
+   /**
+    * @param key the key, 0 to 127
+    * @return the note the key plays according to the table sent last, -1 if it is disabled
+    */
+   public int getNote(final int key) {
+      return keysSent ? sentKeys[key] : key;
+   }
+
+   private Integer[] box(final int[] table) {
+      // values from -1 to 127 are taken from the Integer cache, boxing doesn't allocate
+      for (int i = 0; i < SIZE; i++) {
+         boxed[i] = table[i];
+      }
+      return boxed;
+   }
+}
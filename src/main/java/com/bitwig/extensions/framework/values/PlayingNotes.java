@@ -0,0 +1,170 @@
+package com.bitwig.extensions.framework.values;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.bitwig.extension.controller.api.PlayingNote;
+import com.bitwig.extension.controller.api.Track;
+
+/**
+ * The notes currently playing on a track, kept as a 128 bit set and a velocity per key.
+ * <p>
+ * {@link com.bitwig.extension.controller.api.PlayingNoteArrayValue} delivers the playing notes as an array, so
+ * finding out whether a key plays means scanning it. Pad lights that do this for every pad in every flush cost the
+ * number of pads times the number of sounding notes. This class observes the value once per track, updates the bit
+ * set and the velocities when the notes change and answers {@link #isPlaying(int)} and {@link #velocity(int)} with
+ * an array lookup. Listeners are notified of the keys that started, stopped or changed their velocity, either for
+ * one key or for all keys.
+ * <p>
+ * All users of a track share the same instance, obtained with {@link #of(Track)}.
+ */
+public class PlayingNotes {
+   private static final int KEYS = 128;
+
+   /**
+    * Notified when a key starts or stops playing or changes its velocity.
+    */
+   @FunctionalInterface
+   public interface NoteChangeListener {
+      /**
+       * @param key      the key
+       * @param velocity the velocity of the playing note, 0 if the key stopped playing
+       */
+      void noteChanged(int key, int velocity);
+   }
+
+   private static final Map<Track, PlayingNotes> TRACK_TO_NOTES = new WeakHashMap<>();
+
+   private long playingLow;
+   private long playingHigh;
+   private int count;
+   private final byte[] velocities = new byte[KEYS];
+   private final byte[] nextVelocities = new byte[KEYS];
+   private final int[] changedKeys = new int[KEYS];
+   private int changedCount;
+   private final List<NoteChangeListener> listeners = new ArrayList<>();
+   @SuppressWarnings("unchecked")
+   private final List<NoteChangeListener>[] keyListeners = new List[KEYS];
+
+   /**
+    * Creates an instance that isn't bound to a track, the notes are set with {@link #update(PlayingNote[])}.
+    */
+   public PlayingNotes() {
+   }
+
+   /**
+    * @param track the track
+    * @return the playing notes of the track, observing them on first use
+    */
+   public static PlayingNotes of(final Track track) {
+      synchronized (TRACK_TO_NOTES) {
+         return TRACK_TO_NOTES.computeIfAbsent(track, key -> {
+            final PlayingNotes notes = new PlayingNotes();
+            key.playingNotes().addValueObserver(notes::update);
+            return notes;
+         });
+      }
+   }
+
+   /**
+    * @param key the key, 0 to 127
+    * @return true if a note plays on the key
+    */
+   public boolean isPlaying(final int key) {
+      return ((key < 64 ? playingLow : playingHigh) >>> (key & 63) & 1L) != 0;
+   }
+
+   /**
+    * @param key the key, 0 to 127
+    * @return the velocity of the note playing on the key, 0 if none plays
+    */
+   public int velocity(final int key) {
+      return velocities[key];
+   }
+
+   /**
+    * @return the number of keys playing
+    */
+   public int count() {
+      return count;
+   }
+
+   public boolean isAnyPlaying() {
+      return count > 0;
+   }
+
+   /**
+    * Adds a listener for all keys.
+    */
+   public void addListener(final NoteChangeListener listener) {
+      listeners.add(listener);
+   }
+
+   /**
+    * Adds a listener for a single key.
+    */
+   public void addListener(final int key, final NoteChangeListener listener) {
+      if (keyListeners[key] == null) {
+         keyListeners[key] = new ArrayList<>(1);
+      }
+      keyListeners[key].add(listener);
+   }
+
+   /**
+    * Takes over the notes delivered by {@link com.bitwig.extension.controller.api.PlayingNoteArrayValue} and notifies
+    * the listeners of the keys that changed.
+    */
+   public void update(final PlayingNote[] notes) {
+      long low = 0;
+      long high = 0;
+      for (final PlayingNote note : notes) {
+         final int key = note.pitch();
+         if (key < 64) {
+            low |= 1L << key;
+         } else {
+            high |= 1L << (key & 63);
+         }
+         nextVelocities[key] = (byte) Math.max(1, note.velocity());
+      }
+      final long changedLow = playingLow | low;
+      final long changedHigh = playingHigh | high;
+      playingLow = low;
+      playingHigh = high;
+      count = Long.bitCount(low) + Long.bitCount(high);
+      changedCount = 0;
+      applyVelocities(changedLow, 0);
+      applyVelocities(changedHigh, 64);
+      // the listeners are notified once the state of all keys is updated
+      for (int i = 0; i < changedCount; i++) {
+         final int key = changedKeys[i];
+         notifyListeners(key, velocities[key]);
+      }
+   }
+
+   private void applyVelocities(final long keys, final int offset) {
+      long remaining = keys;
+      while (remaining != 0) {
+         final int key = offset + Long.numberOfTrailingZeros(remaining);
+         remaining &= remaining - 1;
+         final int velocity = isPlaying(key) ? nextVelocities[key] : 0;
+         nextVelocities[key] = 0;
+         if (velocity != velocities[key]) {
+            velocities[key] = (byte) velocity;
+            changedKeys[changedCount++] = key;
+         }
+      }
+   }
+
+   private void notifyListeners(final int key, final int velocity) {
+      for (final NoteChangeListener listener : listeners) {
+         listener.noteChanged(key, velocity);
+      }
+      if (keyListeners[key] != null) {
+         for (final NoteChangeListener listener : keyListeners[key]) {
+            listener.noteChanged(key, velocity);
+         }
+      }
+   }
+}
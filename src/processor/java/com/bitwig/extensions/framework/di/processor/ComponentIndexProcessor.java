@@ -0,0 +1,95 @@
+package com.bitwig.extensions.framework.di.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the names of all classes annotated with
+ * {@link com.bitwig.extensions.framework.di.Component} into a resource, so that the dependency injection
+ * context can look up components without scanning the extension jar at startup.
+ * <p>
+ * The processor is compiled before the rest of the extensions and only relies on the annotation name, so it
+ * has no dependency on the framework classes.
+ */
+@SupportedAnnotationTypes(ComponentIndexProcessor.COMPONENT_ANNOTATION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    
+    static final String COMPONENT_ANNOTATION = "com.bitwig.extensions.framework.di.Component";
+    
+    /**
+     * Location of the index in the class output. Needs to match
+     * {@link com.bitwig.extensions.framework.di.ComponentIndex}.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/bitwig/component-index";
+    
+    private final Set<String> componentClasses = new TreeSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isIndexedComponent(element)) {
+                    final TypeElement type = (TypeElement) element;
+                    componentClasses.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                    originatingElements.add(type);
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Only top level classes are indexed, which matches the classes found by scanning the packages of a
+     * packaged extension.
+     */
+    private static boolean isIndexedComponent(final Element element) {
+        return element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)
+            && ((TypeElement) element).getNestingKind() == NestingKind.TOP_LEVEL;
+    }
+    
+    private void writeIndex() {
+        try {
+            final FileObject resource = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE,
+                    originatingElements.toArray(Element[]::new));
+            try (final Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + ", do not edit\n");
+                for (final String className : componentClasses) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (final IOException exception) {
+            processingEnv.getMessager()
+                .printMessage(Diagnostic.Kind.WARNING, "Failed to write component index: " + exception.getMessage());
+        }
+    }
+}
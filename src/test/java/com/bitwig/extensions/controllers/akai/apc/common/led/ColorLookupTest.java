@@ -0,0 +1,18 @@
+package com.bitwig.extensions.controllers.akai.apc.common.led;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.color.BitwigPalette;
+
+class ColorLookupTest {
+    @Test
+    void trackColorsMapAsComputedWithoutTheTable() {
+        for (final int rgb : BitwigPalette.trackColors()) {
+            final int index = ColorLookup.toColor((rgb >> 16 & 0xFF) / 255f, (rgb >> 8 & 0xFF) / 255f,
+                (rgb & 0xFF) / 255f);
+            assertEquals(ColorLookup.LOOKUP.compute(rgb), index, Integer.toHexString(rgb));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bitwig.extensions.controllers.akai.apc40_mkii;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.api.Color;
+import com.bitwig.extensions.framework.color.BitwigPalette;
+
+class RGBLedStateTest
+{
+   @Test
+   void paletteColorsMapAsComputedWithoutTheTable()
+   {
+      for (int i = 0; i < 128; i++)
+      {
+         final Color color = RGBLedState.getColorForColorValue(i);
+         final int rgb = color.getRed255() << 16 | color.getGreen255() << 8 | color.getBlue255();
+         assertEquals(RGBLedState.CLOSEST_COLOR_LOOKUP.compute(rgb), RGBLedState.getClosestColorIndex(color),
+            "palette color " + i);
+      }
+   }
+
+   @Test
+   void trackColorsMapAsComputedWithoutTheTable()
+   {
+      for (final int rgb : BitwigPalette.trackColors())
+      {
+         final Color color = Color.fromRGB255(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+         assertEquals(RGBLedState.CLOSEST_COLOR_LOOKUP.compute(rgb), RGBLedState.getClosestColorIndex(color),
+            Integer.toHexString(rgb));
+      }
+   }
+}
@@ -0,0 +1,63 @@
+package com.bitwig.extensions.controllers.mackie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.controllers.mackie.definition.MackieMcuProExtensionDefinition;
+import com.bitwig.extensions.harness.FlushStats;
+import com.bitwig.extensions.harness.MidiEvent;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Boots the MCU Pro extension with the offline harness on an empty project.
+ */
+class MackieMcuProExtensionTest {
+   private static final int SETTLE_TIME = 500;
+   private static final int FRAME_TIME = 16;
+   private static final int IDLE_FLUSHES = 20;
+
+   private OfflineHarness harness;
+
+   @BeforeEach
+   void boot() {
+      harness = new OfflineHarness();
+      final MackieMcuProExtension extension = new MackieMcuProExtensionDefinition().createInstance(harness.getHost());
+      extension.setClock(harness.getClock()::getNanoTime);
+      harness.boot(extension);
+      harness.advance(SETTLE_TIME);
+      harness.flush();
+      harness.advance(SETTLE_TIME);
+      harness.flush();
+   }
+
+   @Test
+   void idleFlushesSendNothing() {
+      for (int i = 0; i < IDLE_FLUSHES; i++) {
+         harness.advance(FRAME_TIME);
+         final FlushStats stats = harness.flush();
+         assertEquals(0, stats.messages(), () -> "flush " + stats);
+         assertEquals(0, stats.bytes(), () -> "flush " + stats);
+      }
+   }
+
+   @Test
+   void exitParksTheFaders() {
+      harness.takeOutput();
+      harness.exit();
+      final List<MidiEvent> output = harness.takeOutput();
+      for (int channel = 0; channel < 8; channel++) {
+         final MidiEvent parked = MidiEvent.shortMessage(0, 0, 0xE0 | channel, 0, 0);
+         assertTrue(output.stream().anyMatch(event -> sameMessage(event, parked)), "fader " + channel);
+      }
+   }
+
+   private static boolean sameMessage(final MidiEvent event, final MidiEvent expected) {
+      return !event.isSysex() && event.port() == expected.port() && event.status() == expected.status()
+         && event.data1() == expected.data1() && event.data2() == expected.data2();
+   }
+}
@@ -0,0 +1,18 @@
+package com.bitwig.extensions.controllers.nativeinstruments.maschine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.color.BitwigPalette;
+
+class NIColorUtilTest {
+   @Test
+   void trackColorsMapAsComputedWithoutTheTable() {
+      for (final int rgb : BitwigPalette.trackColors()) {
+         final int index = NIColorUtil.convertColorX((rgb >> 16 & 0xFF) / 255f, (rgb >> 8 & 0xFF) / 255f,
+            (rgb & 0xFF) / 255f);
+         assertEquals(NIColorUtil.colorLookup.compute(rgb), index, Integer.toHexString(rgb));
+      }
+   }
+}
@@ -0,0 +1,151 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.midi.SysexWriter;
+import com.bitwig.extensions.harness.ApiStubs;
+import com.bitwig.extensions.harness.MidiEvent;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+/**
+ * Boots the Launchpad Pro extension with the offline harness and checks the LED frames it sends. The hardware
+ * surface of the harness doesn't update any lights, so the tests set the LED states during the flush themselves.
+ */
+class LaunchpadProControllerExtensionTest {
+   private static final int STARTUP_TIME = 4000;
+
+   private OfflineHarness harness;
+   private LaunchpadProControllerExtension extension;
+   private Runnable ledUpdates = () -> {
+   };
+
+   @BeforeEach
+   void boot() {
+      harness = new OfflineHarness();
+      extension = (LaunchpadProControllerExtension) new LaunchpadProControllerExtensionDefinition()
+         .createInstance(harness.getHost());
+      extension.setClock(harness.getClock()::getTime);
+      harness.boot(extension);
+      ApiStubs.answer(harness.getHost().createHardwareSurface(), "updateHardware", args -> {
+         ledUpdates.run();
+         return null;
+      });
+   }
+
+   private void flushWith(final Runnable updates) {
+      ledUpdates = updates;
+      harness.flush();
+      ledUpdates = () -> {
+      };
+   }
+
+   private void setPad(final int x, final int y, final Color color) {
+      extension.updateButtonLed(extension.getPadButton(x, y), LedState.of(color));
+   }
+
+   /**
+    * @return the frame the extension sends for the given LED states, as sysex hex string
+    */
+   private String frame(final String command, final Object... padsAndColors) {
+      final StringBuilder clear = new StringBuilder();
+      final StringBuilder color = new StringBuilder();
+      final StringBuilder pulse = new StringBuilder();
+      for (int i = 0; i < padsAndColors.length; i += 2) {
+         final int[] pad = (int[]) padsAndColors[i];
+         extension.getPadButton(pad[0], pad[1])
+            .appendLedUpdate(LedState.of((Color) padsAndColors[i + 1]), clear, color, pulse);
+      }
+      final String ledUpdate = command.equals("0A") ? clear.toString() : color.toString();
+      return hex(SysexWriter.fromHex("F0 00 20 29 02 10 " + command + ledUpdate + " F7"));
+   }
+
+   private static int[] pad(final int x, final int y) {
+      return new int[] {x, y};
+   }
+
+   /**
+    * @return the LED frames sent since the last call, as sysex hex strings
+    */
+   private List<String> takeLedFrames() {
+      final List<String> frames = new ArrayList<>();
+      for (final MidiEvent event : harness.takeOutput()) {
+         if (event.isSysex() && event.sysex().length > 7 && isLedCommand(event.sysex()[6])) {
+            frames.add(hex(event.sysex()));
+         }
+      }
+      return frames;
+   }
+
+   private static boolean isLedCommand(final byte command) {
+      return command == 0x0A || command == 0x0B || command == 0x28;
+   }
+
+   private static String hex(final byte[] data) {
+      final StringBuilder sb = new StringBuilder();
+      for (final byte value : data) {
+         sb.append(String.format("%02X", value & 0xFF));
+      }
+      return sb.toString();
+   }
+
+   @Test
+   void ledChangesDuringTheStartupTimeAreSentWithTheirLatestState() {
+      flushWith(() -> setPad(0, 0, Color.RED));
+      flushWith(() -> setPad(1, 0, Color.GREEN));
+      flushWith(() -> setPad(0, 0, Color.OFF));
+      harness.advance(STARTUP_TIME - 1);
+      assertEquals(List.of(), takeLedFrames());
+
+      harness.advance(1);
+      // shift and undo are lit during the initialization
+      assertEquals(List.of(hex(SysexWriter.fromHex("F0 00 20 29 02 10 0B 50 63 63 63 F7")),
+         hex(SysexWriter.fromHex("F0 00 20 29 02 10 0B 3C 63 63 63 F7")), frame("0B", pad(1, 0), Color.GREEN),
+         frame("0A", pad(0, 0), Color.OFF)), takeLedFrames());
+   }
+
+   @Test
+   void sentFramesClearThePendingLeds() {
+      harness.advance(STARTUP_TIME);
+      harness.takeOutput();
+
+      flushWith(() -> setPad(0, 0, Color.RED));
+      assertEquals(List.of(frame("0B", pad(0, 0), Color.RED)), takeLedFrames());
+
+      flushWith(() -> setPad(1, 0, Color.GREEN));
+      assertEquals(List.of(frame("0B", pad(1, 0), Color.GREEN)), takeLedFrames());
+
+      flushWith(() -> {
+      });
+      assertEquals(List.of(), takeLedFrames());
+   }
+
+   @Test
+   void largeUpdatesAreSplitIntoSeveralFrames() {
+      harness.advance(STARTUP_TIME);
+      harness.takeOutput();
+
+      flushWith(() -> {
+         for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+               setPad(x, y, Color.BLUE);
+            }
+         }
+      });
+
+      final List<String> frames = takeLedFrames();
+      assertEquals(2, frames.size(), frames::toString);
+      for (int y = 0; y < 8; y++) {
+         for (int x = 0; x < 8; x++) {
+            final String padFrame = frame("0B", pad(x, y), Color.BLUE);
+            final String entry = padFrame.substring(14, padFrame.length() - 2);
+            assertEquals(1, frames.stream().filter(frame -> frame.contains(entry)).count(), entry);
+         }
+      }
+   }
+}
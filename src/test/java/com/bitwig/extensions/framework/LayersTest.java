@@ -0,0 +1,232 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class LayersTest {
+   /**
+    * Records its (de)activations in the event list of the test.
+    */
+   private final class RecordingBinding extends Binding<Object, String> {
+      private RecordingBinding(final Object control, final String name) {
+         super(control, control, name);
+      }
+
+      @Override
+      protected void deactivate() {
+         events.add("-" + getTarget());
+      }
+
+      @Override
+      protected void activate() {
+         events.add("+" + getTarget());
+      }
+   }
+
+   private final List<String> events = new ArrayList<>();
+   private final Object control1 = new Object();
+   private final Object control2 = new Object();
+   private final Object control3 = new Object();
+   private Layers layers;
+
+   @BeforeEach
+   void setUp() {
+      final ControllerExtension extension = new ControllerExtension(null, new OfflineHarness().getHost()) {
+         @Override
+         public void init() {
+         }
+
+         @Override
+         public void exit() {
+         }
+
+         @Override
+         public void flush() {
+         }
+      };
+      layers = new Layers(extension);
+   }
+
+   private RecordingBinding bind(final Layer layer, final Object control, final String name) {
+      final RecordingBinding binding = new RecordingBinding(control, name);
+      layer.addBinding(binding);
+      return binding;
+   }
+
+   @Test
+   void higherActiveLayerShadowsTheLowerBinding() {
+      final Layer lower = new Layer(layers, "lower");
+      final Layer upper = new Layer(layers, "upper");
+      final RecordingBinding lowerBinding = bind(lower, control1, "lower");
+      final RecordingBinding upperBinding = bind(upper, control1, "upper");
+
+      lower.activate();
+      upper.activate();
+
+      assertFalse(lowerBinding.isActive());
+      assertTrue(upperBinding.isActive());
+      assertEquals(List.of("+lower", "-lower", "+upper"), events);
+   }
+
+   @Test
+   void higherLayerDoesNotShadowBindingsOfOtherControls() {
+      final Layer lower = new Layer(layers, "lower");
+      final Layer upper = new Layer(layers, "upper");
+      final RecordingBinding lowerBinding = bind(lower, control1, "lower");
+      bind(upper, control2, "upper");
+
+      lower.activate();
+      upper.activate();
+
+      assertTrue(lowerBinding.isActive());
+   }
+
+   @Test
+   void layerThatDoesNotReplaceBindingsBelowKeepsTheLowerBindingActive() {
+      final Layer lower = new Layer(layers, "lower");
+      final Layer upper = new Layer(layers, "upper");
+      final RecordingBinding lowerBinding = bind(lower, control1, "lower");
+      final RecordingBinding upperBinding = bind(upper, control1, "upper");
+      upper.setShouldReplaceBindingsInLayersBelow(false);
+
+      lower.activate();
+      upper.activate();
+
+      assertTrue(lowerBinding.isActive());
+      assertTrue(upperBinding.isActive());
+      assertEquals(List.of("+lower", "+upper"), events);
+   }
+
+   @Test
+   void replacingLayerBelowANonReplacingOneStillShadowsTheBottomLayer() {
+      final Layer bottom = new Layer(layers, "bottom");
+      final Layer middle = new Layer(layers, "middle");
+      final Layer top = new Layer(layers, "top");
+      final RecordingBinding bottomBinding = bind(bottom, control1, "bottom");
+      final RecordingBinding middleBinding = bind(middle, control1, "middle");
+      final RecordingBinding topBinding = bind(top, control1, "top");
+      top.setShouldReplaceBindingsInLayersBelow(false);
+
+      bottom.activate();
+      middle.activate();
+      top.activate();
+
+      assertFalse(bottomBinding.isActive());
+      assertTrue(middleBinding.isActive());
+      assertTrue(topBinding.isActive());
+   }
+
+   @Test
+   void deactivatingTheTopLayerRestoresTheLowerBinding() {
+      final Layer lower = new Layer(layers, "lower");
+      final Layer upper = new Layer(layers, "upper");
+      final RecordingBinding lowerBinding = bind(lower, control1, "lower");
+      final RecordingBinding upperBinding = bind(upper, control1, "upper");
+      lower.activate();
+      upper.activate();
+      events.clear();
+
+      upper.deactivate();
+
+      assertTrue(lowerBinding.isActive());
+      assertFalse(upperBinding.isActive());
+      assertEquals(List.of("-upper", "+lower"), events);
+   }
+
+   @Test
+   void reactivatedBindingsFollowTheLayerOrderAfterAllDeactivations() {
+      final Layer base = new Layer(layers, "base");
+      final Layer middle = new Layer(layers, "middle");
+      final Layer top = new Layer(layers, "top");
+      bind(base, control1, "base1");
+      bind(base, control2, "base2");
+      bind(middle, control3, "middle3");
+      bind(top, control3, "top3");
+      bind(top, control2, "top2");
+      bind(top, control1, "top1");
+      base.activate();
+      middle.activate();
+      top.activate();
+      events.clear();
+
+      top.deactivate();
+
+      assertEquals(List.of("-top3", "-top2", "-top1", "+base1", "+base2", "+middle3"), events);
+      assertEquals(List.of("base1", "base2", "middle3"),
+         layers.getActiveBindings().stream().map(binding -> (String) binding.getTarget()).toList());
+   }
+
+   @Test
+   void batchedModeSwitchOnlyAppliesTheFinalState() {
+      final Layer base = new Layer(layers, "base");
+      final Layer modeA = new Layer(layers, "modeA");
+      final Layer modeB = new Layer(layers, "modeB");
+      bind(base, control1, "base1");
+      bind(modeA, control1, "modeA1");
+      bind(modeB, control1, "modeB1");
+      bind(modeB, control2, "modeB2");
+      base.activate();
+      modeA.activate();
+      events.clear();
+
+      layers.batch(() -> {
+         modeA.deactivate();
+         modeB.activate();
+      });
+
+      assertEquals(List.of("-modeA1", "+modeB1", "+modeB2"), events);
+   }
+
+   @Test
+   void nestedBatchResolvesOnlyAtTheOuterEnd() {
+      final Layer lower = new Layer(layers, "lower");
+      final Layer upper = new Layer(layers, "upper");
+      bind(lower, control1, "lower");
+      bind(upper, control1, "upper");
+      lower.activate();
+      events.clear();
+
+      layers.beginUpdate();
+      layers.batch(() -> {
+         upper.activate();
+         lower.deactivate();
+      });
+
+      assertTrue(layers.isUpdating());
+      assertEquals(List.of(), events);
+
+      layers.endUpdate();
+
+      assertFalse(layers.isUpdating());
+      assertEquals(List.of("-lower", "+upper"), events);
+   }
+
+   @Test
+   void exceptionInsideBatchStillEndsTheUpdate() {
+      final Layer layer = new Layer(layers, "layer");
+      final RecordingBinding binding = bind(layer, control1, "layer");
+
+      assertThrows(IllegalStateException.class, () -> layers.batch(() -> {
+         layer.activate();
+         throw new IllegalStateException();
+      }));
+
+      assertFalse(layers.isUpdating());
+      assertTrue(binding.isActive());
+
+      layer.deactivate();
+
+      assertFalse(binding.isActive());
+   }
+}
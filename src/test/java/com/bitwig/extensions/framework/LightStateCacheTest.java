@@ -0,0 +1,128 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.HardwareLightVisualState;
+import com.bitwig.extension.controller.api.InternalHardwareLightState;
+
+class LightStateCacheTest {
+   private static final class KeyState extends InternalHardwareLightState {
+      private final int key;
+
+      private KeyState(final int key) {
+         this.key = key;
+      }
+
+      @Override
+      public HardwareLightVisualState getVisualState() {
+         return null;
+      }
+
+      @Override
+      public boolean equals(final Object obj) {
+         return obj instanceof KeyState other && key == other.key;
+      }
+
+      @Override
+      public int hashCode() {
+         return key;
+      }
+   }
+
+   private int created;
+
+   private KeyState create(final int key) {
+      created++;
+      return new KeyState(key);
+   }
+
+   @Test
+   void denseKeysAreCreatedOnce() {
+      final LightStateCache<KeyState> cache = new LightStateCache<>(this::create, 128);
+
+      final KeyState state = cache.get(21);
+      assertEquals(21, state.key);
+      assertSame(state, cache.get(21));
+      assertEquals(1, created);
+      assertEquals(1, cache.size());
+   }
+
+   @Test
+   void hashedKeysAreCreatedOnce() {
+      final LightStateCache<KeyState> cache = new LightStateCache<>(this::create, 128);
+
+      final KeyState state = cache.get(0xFF8000);
+      assertSame(state, cache.get(0xFF8000));
+      assertSame(cache.get(-1), cache.get(-1));
+      assertNotSame(state, cache.get(0xFF8001));
+      assertEquals(3, created);
+      assertEquals(3, cache.size());
+   }
+
+   @Test
+   void statesSurviveGrowingTheTable() {
+      final LightStateCache<KeyState> cache = new LightStateCache<>(this::create);
+      final KeyState[] states = new KeyState[1000];
+      for (int i = 0; i < states.length; i++) {
+         states[i] = cache.get(i * 0x10101);
+      }
+
+      for (int i = 0; i < states.length; i++) {
+         assertSame(states[i], cache.get(i * 0x10101));
+         assertEquals(i * 0x10101, states[i].key);
+      }
+      assertEquals(states.length, created);
+      assertEquals(states.length, cache.size());
+   }
+
+   @Test
+   void concurrentLookupsCreateEachStateOnce() throws InterruptedException {
+      final AtomicInteger concurrentlyCreated = new AtomicInteger();
+      final LightStateCache<KeyState> cache = new LightStateCache<>(key -> {
+         concurrentlyCreated.incrementAndGet();
+         return new KeyState(key);
+      }, 128);
+      final int keys = 5000;
+      final KeyState[][] seen = new KeyState[4][keys];
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < seen.length; t++) {
+         final KeyState[] states = seen[t];
+         final Thread thread = new Thread(() -> {
+            try {
+               start.await();
+            } catch (final InterruptedException exception) {
+               return;
+            }
+            for (int i = 0; i < keys; i++) {
+               states[i] = cache.get(i * 0x101);
+            }
+         });
+         thread.start();
+         threads.add(thread);
+      }
+      start.countDown();
+      for (final Thread thread : threads) {
+         thread.join();
+      }
+
+      for (int i = 0; i < keys; i++) {
+         assertEquals(i * 0x101, seen[0][i].key);
+         for (int t = 1; t < seen.length; t++) {
+            assertSame(seen[0][i], seen[t][i]);
+         }
+         assertSame(seen[0][i], cache.get(i * 0x101));
+      }
+      assertEquals(keys, concurrentlyCreated.get());
+      assertEquals(keys, cache.size());
+   }
+}
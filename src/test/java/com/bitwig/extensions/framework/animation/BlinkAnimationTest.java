@@ -0,0 +1,58 @@
+package com.bitwig.extensions.framework.animation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class BlinkAnimationTest {
+   private OfflineHarness harness;
+   private BlinkAnimation blink;
+   private boolean isOn;
+
+   @BeforeEach
+   void createAnimation() {
+      harness = new OfflineHarness();
+      final AnimationScheduler scheduler = new AnimationScheduler(harness.getHost(), harness.getClock()::getTime);
+      blink = new BlinkAnimation(scheduler, () -> isOn, () -> false, 0.1, 0.1);
+   }
+
+   @Test
+   void blinkStartsWithItsOnPhase() {
+      harness.advance(150);
+      isOn = true;
+      assertTrue(blink.get());
+
+      harness.advance(110);
+      assertFalse(blink.get());
+
+      harness.advance(100);
+      assertTrue(blink.get());
+   }
+
+   @Test
+   void blinkRestartsWithItsOnPhase() {
+      isOn = true;
+      blink.get();
+      harness.advance(150);
+      isOn = false;
+      blink.get();
+
+      isOn = true;
+      assertTrue(blink.get());
+   }
+
+   @Test
+   void sharedPhaseFollowsTheSchedulerClock() {
+      blink.setPhaseShared(true);
+      harness.advance(150);
+      isOn = true;
+      assertFalse(blink.get());
+
+      harness.advance(60);
+      assertTrue(blink.get());
+   }
+}
@@ -0,0 +1,82 @@
+package com.bitwig.extensions.framework.color;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PaletteLookupTest {
+   private static final int[] PALETTE = {0x000000, 0xFF0000, 0x00FF00, 0x0000FF, 0xFFFFFF};
+
+   private static PaletteLookup nearest() {
+      return PaletteLookup.nearest(PaletteLookup.BITS_15, PALETTE, ColorDistance.RGB);
+   }
+
+   @Test
+   void colorsMapToTheNearestPaletteEntry() {
+      final PaletteLookup lookup = nearest();
+
+      assertEquals(0, lookup.lookup(0x101010));
+      assertEquals(1, lookup.lookup(0xF01008));
+      assertEquals(2, lookup.lookup(0x20E010));
+      assertEquals(3, lookup.lookup(0x0818C0));
+      assertEquals(4, lookup.lookup(0xEEEEEE));
+   }
+
+   @Test
+   void componentsOutOfRangeAreClamped() {
+      final PaletteLookup lookup = nearest();
+
+      assertEquals(lookup.lookup(0xFF0000), lookup.lookup(300, -5, 0));
+   }
+
+   @Test
+   void overrideOnlyAppliesToTheExactColor() {
+      final PaletteLookup lookup = nearest().override(0xF01008, 4);
+
+      assertEquals(4, lookup.lookup(0xF01008));
+      // same table cell at 5 bits per component
+      assertEquals(1, lookup.lookup(0xF11109));
+   }
+
+   @Test
+   void exactColorsKeepTheIndexComputedForThemOverTheirCell() {
+      // 0x80 and 0x82 share a cell at 5 bits per component, which is computed for red 0x84
+      final PaletteLookup.Quantizer quantizer = (red, green, blue) -> red > 0x80 ? 1 : 0;
+      final PaletteLookup lookup = new PaletteLookup(PaletteLookup.BITS_15, quantizer).exact(0x800000, 0x820000);
+
+      assertEquals(1, new PaletteLookup(PaletteLookup.BITS_15, quantizer).lookup(0x800000));
+      assertEquals(0, lookup.lookup(0x800000));
+      assertEquals(0, lookup.compute(0x800000));
+      assertEquals(1, lookup.lookup(0x820000));
+      assertEquals(1, lookup.lookup(0x810000));
+   }
+
+   @Test
+   void overridesMustBeRegisteredBeforeTheTableIsBuilt() {
+      final PaletteLookup lookup = nearest().prepare();
+
+      assertThrows(IllegalStateException.class, () -> lookup.override(0x123456, 1));
+   }
+
+   @Test
+   void tableIsBuiltOnceWithOneQuantizerCallPerCell() {
+      final int[] calls = new int[1];
+      final PaletteLookup lookup = new PaletteLookup(PaletteLookup.BITS_15, (red, green, blue) -> {
+         calls[0]++;
+         return red > 127 ? 1 : 0;
+      });
+
+      lookup.prepare();
+      assertEquals(1 << 15, calls[0]);
+      lookup.lookup(0xFFFFFF);
+      lookup.lookup(0x000000);
+      lookup.prepare();
+      assertEquals(1 << 15, calls[0]);
+   }
+
+   @Test
+   void unsupportedResolutionIsRejected() {
+      assertThrows(IllegalArgumentException.class, () -> new PaletteLookup(8, (red, green, blue) -> 0));
+   }
+}
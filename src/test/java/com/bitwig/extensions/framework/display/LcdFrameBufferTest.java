@@ -0,0 +1,106 @@
+package com.bitwig.extensions.framework.display;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LcdFrameBufferTest {
+   private static final int COLUMNS = 56;
+   private static final int MESSAGE_OVERHEAD = 8;
+
+   private final LcdFrameBuffer buffer = new LcdFrameBuffer(2, COLUMNS, MESSAGE_OVERHEAD);
+   private final List<String> spans = new ArrayList<>();
+
+   private List<String> flush() {
+      spans.clear();
+      buffer.flush((position, chars, offset, length) -> spans.add(
+         position + ":" + new String(chars, offset, length, StandardCharsets.US_ASCII)));
+      return spans;
+   }
+
+   @Test
+   void flushSendsOnlyTheWrittenRange() {
+      buffer.write(1, 7, "Kick", 7);
+
+      assertTrue(buffer.isDirty());
+      assertEquals(List.of("63:Kick   "), flush());
+      assertFalse(buffer.isDirty());
+   }
+
+   @Test
+   void unchangedTextIsNotSentAgain() {
+      buffer.write(0, 0, "Kick", 7);
+      flush();
+
+      buffer.write(0, 0, "Kick", 7);
+      assertFalse(buffer.isDirty());
+      assertEquals(List.of(), flush());
+   }
+
+   @Test
+   void onlyTheChangedCharactersAreSent() {
+      buffer.write(0, 0, "-6.0dB", 7);
+      flush();
+
+      buffer.write(0, 0, "-6.5dB", 7);
+      assertEquals(List.of("3:5"), flush());
+      assertEquals(2, buffer.getSentMessages());
+   }
+
+   @Test
+   void closeChangesAreMergedIntoOneMessage() {
+      buffer.write(0, 0, "abcdefgh", 8);
+      flush();
+
+      buffer.write(0, 0, "Xbcdefgh", 8);
+      buffer.write(0, 5, "Y", 1);
+      assertEquals(List.of("0:XbcdeY"), flush());
+   }
+
+   @Test
+   void distantChangesAreSentSeparately() {
+      buffer.write(0, 0, "Kick", 7);
+      buffer.write(0, 49, "Master", 7);
+      flush();
+
+      buffer.write(0, 0, "Kack", 7);
+      buffer.write(0, 49, "Mister", 7);
+      assertEquals(List.of("1:a", "50:i"), flush());
+   }
+
+   @Test
+   void invalidateSendsTheWholeBuffer() {
+      buffer.write(0, 0, "Kick", 7);
+      flush();
+
+      buffer.invalidate();
+      final List<String> sent = flush();
+      assertEquals(1, sent.size());
+      assertEquals("0:Kick" + " ".repeat(2 * COLUMNS - 4), sent.get(0));
+   }
+
+   @Test
+   void textIsPaddedCutAndLimitedToAscii() {
+      buffer.write(0, 50, "R\u00fcck", 3);
+      buffer.write(1, 52, "Overlong", 10);
+
+      assertEquals("R?c", buffer.getText(0, COLUMNS).substring(50, 53));
+      assertEquals("Over", buffer.getText(1, COLUMNS).substring(52));
+   }
+
+   @Test
+   void changedRowsAreReportedOnce() {
+      buffer.write(1, 0, "Pad", 7);
+
+      assertEquals(0b10, buffer.takeChangedRows());
+      assertEquals(0, buffer.takeChangedRows());
+      buffer.write(1, 0, "Pad", 7);
+      assertEquals(0, buffer.takeChangedRows());
+   }
+}
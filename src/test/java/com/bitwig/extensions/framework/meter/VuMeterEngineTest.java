@@ -0,0 +1,116 @@
+package com.bitwig.extensions.framework.meter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.time.TimerWheel;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class VuMeterEngineTest {
+   private static final int FRAME_TIME = (int) VuMeterEngine.DEFAULT_FRAME_TIME;
+
+   private OfflineHarness harness;
+   private TimerWheel timerWheel;
+   private VuMeterEngine engine;
+   private final List<String> transmitted = new ArrayList<>();
+
+   @BeforeEach
+   void createEngine() {
+      harness = new OfflineHarness();
+      timerWheel = harness.createTimerWheel();
+      engine = new VuMeterEngine(timerWheel, 4);
+      engine.setMeterListener((meter, level) -> transmitted.add(meter + ":" + level));
+      engine.setFrameListener(() -> transmitted.add("frame"));
+   }
+
+   @Test
+   void firstFrameTransmitsAllMeters() {
+      engine.setLevel(1, 2);
+      harness.advance(FRAME_TIME);
+
+      assertEquals(List.of("0:0", "1:2", "2:0", "3:0", "frame"), transmitted);
+   }
+
+   @Test
+   void updatesWithinAFrameAreCoalesced() {
+      engine.setLevel(0, 0);
+      harness.advance(FRAME_TIME);
+      transmitted.clear();
+
+      engine.setLevel(0, 3);
+      engine.setLevel(0, 7);
+      engine.setLevel(0, 5);
+      engine.setLevel(2, 9);
+      assertTrue(transmitted.isEmpty());
+
+      harness.advance(FRAME_TIME);
+      assertEquals(List.of("0:5", "2:9", "frame"), transmitted);
+      assertEquals(5, engine.getReceivedUpdates());
+      assertEquals(6, engine.getSentUpdates());
+      assertEquals(2, engine.getSentFrames());
+   }
+
+   @Test
+   void unchangedLevelIsNotTransmittedAgain() {
+      engine.setLevel(1, 6);
+      harness.advance(FRAME_TIME);
+      transmitted.clear();
+
+      engine.setLevel(1, 6);
+      harness.advance(10 * FRAME_TIME);
+      assertTrue(transmitted.isEmpty());
+   }
+
+   @Test
+   void framesStopOnceAllMetersSettled() {
+      engine.setLevel(0, 4);
+      harness.advance(10 * FRAME_TIME);
+
+      assertTrue(timerWheel.isIdle());
+      assertEquals(0, harness.getClock().getPendingTasks());
+   }
+
+   @Test
+   void fallingLevelDecays() {
+      engine.setDecay(2);
+      engine.setLevel(0, 10);
+      harness.advance(FRAME_TIME);
+      transmitted.clear();
+
+      engine.setLevel(0, 3);
+      harness.advance(10 * FRAME_TIME);
+      assertEquals(List.of("0:8", "frame", "0:6", "frame", "0:4", "frame", "0:3", "frame"), transmitted);
+   }
+
+   @Test
+   void peakIsHeldBeforeTheLevelFalls() {
+      engine.setPeakHold(2);
+      engine.setLevel(0, 10);
+      harness.advance(FRAME_TIME);
+      transmitted.clear();
+
+      engine.setLevel(0, 0);
+      harness.advance(2 * FRAME_TIME);
+      assertTrue(transmitted.isEmpty());
+      harness.advance(FRAME_TIME);
+      assertEquals(List.of("0:0", "frame"), transmitted);
+   }
+
+   @Test
+   void invalidateTransmitsAllMetersAgain() {
+      engine.setLevel(0, 5);
+      harness.advance(FRAME_TIME);
+      transmitted.clear();
+
+      engine.invalidate();
+      harness.advance(FRAME_TIME);
+      assertEquals(List.of("0:5", "1:0", "2:0", "3:0", "frame"), transmitted);
+      assertEquals(5, engine.getSentLevel(0));
+   }
+}
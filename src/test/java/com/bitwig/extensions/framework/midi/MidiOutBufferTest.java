@@ -0,0 +1,118 @@
+package com.bitwig.extensions.framework.midi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.harness.MidiEvent;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class MidiOutBufferTest {
+   private OfflineHarness harness;
+
+   @BeforeEach
+   void createHarness() {
+      harness = new OfflineHarness();
+   }
+
+   private MidiOutBuffer buffer(final int budget) {
+      return new MidiOutBuffer(harness.getMidiOut(0), budget);
+   }
+
+   private static MidiEvent message(final int status, final int data1, final int data2) {
+      return MidiEvent.shortMessage(0, 0, status, data1, data2);
+   }
+
+   @Test
+   void nothingIsSentBeforeFlush() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0x90, 36, 5);
+
+      assertTrue(harness.takeOutput().isEmpty());
+      assertTrue(buffer.hasPending());
+      assertFalse(buffer.flush());
+      assertEquals(List.of(message(0x90, 36, 5)), harness.takeOutput());
+   }
+
+   @Test
+   void laterWriteReplacesPendingValue() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0x90, 36, 5);
+      buffer.sendMidi(0x90, 36, 9);
+      buffer.flush();
+
+      assertEquals(List.of(message(0x90, 36, 9)), harness.takeOutput());
+   }
+
+   @Test
+   void unchangedValueIsNotSentAgain() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0x90, 36, 5);
+      buffer.flush();
+      harness.takeOutput();
+
+      buffer.sendMidi(0x90, 36, 5);
+      assertFalse(buffer.hasPending());
+      buffer.flush();
+      assertTrue(harness.takeOutput().isEmpty());
+
+      buffer.invalidate();
+      buffer.sendMidi(0x90, 36, 5);
+      buffer.flush();
+      assertEquals(List.of(message(0x90, 36, 5)), harness.takeOutput());
+   }
+
+   @Test
+   void budgetKeepsTheRestForTheNextFlush() {
+      final MidiOutBuffer buffer = buffer(2);
+      buffer.sendMidi(0x90, 36, 1);
+      buffer.sendMidi(0x90, 37, 2);
+      buffer.sendMidi(0x90, 38, 3);
+
+      assertTrue(buffer.flush());
+      assertEquals(List.of(message(0x90, 36, 1), message(0x90, 37, 2)), harness.takeOutput());
+      assertFalse(buffer.flush());
+      assertEquals(List.of(message(0x90, 38, 3)), harness.takeOutput());
+   }
+
+   @Test
+   void otherChannelOfTheSameElementIsSentAgain() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0x90, 36, 5);
+      buffer.flush();
+      // a flashing color on channel 2 replaces the static color of the pad
+      buffer.sendMidi(0x91, 36, 7);
+      buffer.flush();
+      buffer.sendMidi(0x90, 36, 5);
+      buffer.flush();
+
+      assertEquals(List.of(message(0x90, 36, 5), message(0x91, 36, 7), message(0x90, 36, 5)),
+         harness.takeOutput());
+   }
+
+   @Test
+   void immediateMessageDropsPendingOne() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0xB0, 16, 64);
+      buffer.sendMidiImmediate(0xB0, 16, 100);
+
+      assertEquals(List.of(message(0xB0, 16, 100)), harness.takeOutput());
+      assertFalse(buffer.hasPending());
+      buffer.flush();
+      assertTrue(harness.takeOutput().isEmpty());
+   }
+
+   @Test
+   void systemMessagesArePassedThrough() {
+      final MidiOutBuffer buffer = buffer(0);
+      buffer.sendMidi(0xF8, 0, 0);
+
+      assertEquals(List.of(message(0xF8, 0, 0)), harness.takeOutput());
+      assertFalse(buffer.hasPending());
+   }
+}
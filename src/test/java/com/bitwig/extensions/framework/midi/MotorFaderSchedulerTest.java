@@ -0,0 +1,113 @@
+package com.bitwig.extensions.framework.midi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.time.TimerWheel;
+import com.bitwig.extensions.harness.MidiEvent;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class MotorFaderSchedulerTest {
+   private static final int FRAME_TIME = (int) MotorFaderScheduler.DEFAULT_FRAME_TIME;
+
+   private OfflineHarness harness;
+   private TimerWheel timerWheel;
+   private MotorFaderScheduler scheduler;
+
+   @BeforeEach
+   void createScheduler() {
+      harness = new OfflineHarness();
+      timerWheel = harness.createTimerWheel();
+      scheduler = new MotorFaderScheduler(timerWheel, harness.getMidiOut(0));
+   }
+
+   private static MidiEvent pitchBend(final long time, final int channel, final int value) {
+      return MidiEvent.shortMessage(time, 0, 0xE0 | channel, value & 0x7F, value >> 7);
+   }
+
+   @Test
+   void targetsWithinAFrameAreCoalesced() {
+      scheduler.setTarget(0, 100);
+      scheduler.setTarget(0, 200);
+      scheduler.setTarget(0, 8000);
+      assertTrue(harness.getOutput().isEmpty());
+
+      harness.advance(10 * FRAME_TIME);
+      assertEquals(List.of(pitchBend(FRAME_TIME, 0, 8000)), harness.takeOutput());
+      assertEquals(3, scheduler.getReceivedUpdates());
+      assertEquals(1, scheduler.getSentUpdates());
+   }
+
+   @Test
+   void targetsAreClamped() {
+      scheduler.setTarget(3, 20000);
+      harness.advance(FRAME_TIME);
+
+      assertEquals(List.of(pitchBend(FRAME_TIME, 3, MotorFaderScheduler.MAX_VALUE)), harness.takeOutput());
+   }
+
+   @Test
+   void smallChangeIsHeldUntilTheTargetStopsMoving() {
+      scheduler.setDeadband(64);
+      scheduler.setTarget(0, 8000);
+      harness.advance(FRAME_TIME);
+      harness.takeOutput();
+
+      scheduler.setTarget(0, 8030);
+      harness.advance(FRAME_TIME);
+      assertTrue(harness.getOutput().isEmpty());
+      harness.advance(FRAME_TIME);
+      assertEquals(List.of(pitchBend(3 * FRAME_TIME, 0, 8030)), harness.takeOutput());
+   }
+
+   @Test
+   void largeChangeIsSentWithTheNextFrame() {
+      scheduler.setDeadband(64);
+      scheduler.setTarget(0, 8000);
+      harness.advance(FRAME_TIME);
+      harness.takeOutput();
+
+      scheduler.setTarget(0, 9000);
+      harness.advance(FRAME_TIME);
+      assertEquals(List.of(pitchBend(2 * FRAME_TIME, 0, 9000)), harness.takeOutput());
+   }
+
+   @Test
+   void touchedFaderIsHeldAndSnapsToTheTargetOnRelease() {
+      scheduler.setTouched(1, true);
+      scheduler.setTarget(1, 5000);
+      harness.advance(5 * FRAME_TIME);
+      assertTrue(harness.getOutput().isEmpty());
+
+      scheduler.setTouched(1, false);
+      assertEquals(List.of(pitchBend(5 * FRAME_TIME, 1, 5000)), harness.takeOutput());
+   }
+
+   @Test
+   void sendNowBypassesTheFrames() {
+      scheduler.setTarget(2, 4000);
+      scheduler.setTouched(2, true);
+      scheduler.sendNow(2, 0);
+
+      assertEquals(List.of(pitchBend(0, 2, 0)), harness.takeOutput());
+      // the release refreshes the fader with the parked position, the earlier target is gone
+      scheduler.setTouched(2, false);
+      harness.advance(5 * FRAME_TIME);
+      assertEquals(List.of(pitchBend(0, 2, 0)), harness.takeOutput());
+   }
+
+   @Test
+   void framesStopOnceAllFadersSettled() {
+      scheduler.setTarget(0, 1000);
+      scheduler.setTarget(1, 2000);
+      harness.advance(10 * FRAME_TIME);
+
+      assertTrue(timerWheel.isIdle());
+      assertEquals(0, harness.getClock().getPendingTasks());
+   }
+}
@@ -0,0 +1,129 @@
+package com.bitwig.extensions.framework.midi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.midi.PacedMidiSender.Priority;
+import com.bitwig.extensions.harness.MidiEvent;
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class PacedMidiSenderTest {
+   private static final int STARTUP_TIME = 4000;
+
+   private OfflineHarness harness;
+
+   @BeforeEach
+   void createHarness() {
+      harness = new OfflineHarness();
+   }
+
+   private PacedMidiSender createSender(final int burst, final int intervalMillis) {
+      return new PacedMidiSender(harness.getHost(), harness.getMidiOut(0), burst, intervalMillis,
+         harness.getClock()::getTime);
+   }
+
+   private static MidiEvent noteOn(final long time, final int key, final int velocity) {
+      return MidiEvent.shortMessage(time, 0, 0x90, key, velocity);
+   }
+
+   @Test
+   void burstGoesOutAtOnceAndTheRestAtTheRefillRate() {
+      final PacedMidiSender sender = createSender(2, 10);
+      for (int key = 0; key < 5; key++) {
+         sender.sendMidi(0x90, key, 127);
+      }
+      assertEquals(List.of(noteOn(0, 0, 127), noteOn(0, 1, 127)), harness.takeOutput());
+
+      harness.advance(20);
+      assertEquals(List.of(noteOn(5, 2, 127), noteOn(10, 3, 127), noteOn(15, 4, 127)), harness.takeOutput());
+   }
+
+   @Test
+   void liveMessagesOvertakeConfigMessagesHeldByAConfigDelay() {
+      final PacedMidiSender sender = createSender(1, 0);
+      sender.sendMidi(Priority.CONFIG, null, 0x90, 1, 1);
+      sender.delay(Priority.CONFIG, 30);
+      sender.sendMidi(Priority.CONFIG, null, 0x90, 2, 1);
+      sender.sendMidi(Priority.LIVE, null, 0x90, 3, 1);
+      assertEquals(List.of(noteOn(0, 1, 1)), harness.takeOutput());
+
+      harness.advance(29);
+      assertTrue(harness.getOutput().isEmpty());
+
+      harness.advance(1);
+      assertEquals(List.of(noteOn(30, 3, 1), noteOn(30, 2, 1)), harness.takeOutput());
+      assertTrue(sender.isIdle());
+   }
+
+   @Test
+   void messageToAQueuedTargetReplacesItInPlace() {
+      final PacedMidiSender sender = createSender(1, 0);
+      sender.delay(Priority.LIVE, 10);
+      sender.sendMidi(Priority.LIVE, "pad", 0x90, 1, 10);
+      sender.sendMidi(Priority.LIVE, null, 0x90, 2, 10);
+      sender.sendMidi(Priority.LIVE, "pad", 0x90, 1, 20);
+      assertTrue(sender.isQueued("pad"));
+
+      harness.advance(10);
+      assertEquals(List.of(noteOn(10, 1, 20), noteOn(10, 2, 10)), harness.takeOutput());
+      assertFalse(sender.isQueued("pad"));
+   }
+
+   @Test
+   void cancelledMessageIsNotSent() {
+      final PacedMidiSender sender = createSender(1, 0);
+      sender.delay(Priority.LIVE, 10);
+      sender.sendMidi(Priority.CONFIG, "display", 0x90, 1, 10);
+      sender.sendMidi(Priority.LIVE, null, 0x90, 2, 10);
+      sender.cancel("display");
+      assertFalse(sender.isQueued("display"));
+
+      harness.advance(10);
+      assertEquals(List.of(noteOn(10, 2, 10)), harness.takeOutput());
+   }
+
+   @Test
+   void drainSendsEverythingAtOnceAndRunsTheActions() {
+      final PacedMidiSender sender = createSender(1, 100);
+      final List<String> actions = new ArrayList<>();
+      sender.delay(Priority.CONFIG, 1000);
+      sender.sendMidi(Priority.CONFIG, null, 0x90, 1, 1);
+      sender.then(Priority.CONFIG, () -> actions.add("done"));
+      sender.sendMidi(Priority.LIVE, null, 0x90, 2, 1);
+      sender.sendMidi(Priority.LIVE, null, 0x90, 3, 1);
+
+      sender.drain();
+      assertEquals(List.of(noteOn(0, 2, 1), noteOn(0, 3, 1), noteOn(0, 1, 1)), harness.takeOutput());
+      assertEquals(List.of("done"), actions);
+      assertTrue(sender.isIdle());
+
+      harness.advance(1000);
+      assertTrue(harness.getOutput().isEmpty());
+   }
+
+   @Test
+   void startupHoldSendsTheLatestStateOfEveryTarget() {
+      final PacedMidiSender sender = createSender(1, 0);
+      sender.delay(Priority.LIVE, STARTUP_TIME);
+      sender.sendSysex("F0 01 F7");
+      for (int velocity = 1; velocity <= 3; velocity++) {
+         sender.sendMidi(Priority.LIVE, "pad 1", 0x90, 1, velocity);
+         sender.sendMidi(Priority.LIVE, "pad 2", 0x90, 2, velocity * 10);
+         harness.advance(1000);
+      }
+      assertTrue(harness.getOutput().isEmpty());
+
+      harness.advance(STARTUP_TIME);
+      final List<MidiEvent> output = harness.takeOutput();
+      assertEquals(3, output.size());
+      assertTrue(output.get(0).isSysex());
+      assertEquals(List.of(noteOn(STARTUP_TIME, 1, 3), noteOn(STARTUP_TIME, 2, 30)), output.subList(1, 3));
+   }
+}
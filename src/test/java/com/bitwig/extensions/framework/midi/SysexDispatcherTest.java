@@ -0,0 +1,75 @@
+package com.bitwig.extensions.framework.midi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SysexDispatcherTest {
+   private final SysexDispatcher dispatcher = new SysexDispatcher();
+   private final List<String> received = new ArrayList<>();
+
+   @BeforeEach
+   void registerHandlers() {
+      dispatcher.register("f0 47 00 53", handler("device"));
+      dispatcher.register("f0 47 00 53 60", handler("session"));
+      dispatcher.register("f0 00 20 29", handler("novation"));
+   }
+
+   /**
+    * The dispatcher reuses its message, so the handlers only record what they need to check.
+    */
+   private Consumer<SysexMessage> handler(final String name) {
+      return message -> received.add(name + " " + message.getPrefixLength() + " " + message.toHex());
+   }
+
+   @Test
+   void longestMatchingPrefixWins() {
+      dispatcher.handleSysex("f0470053600001f7");
+      dispatcher.handleSysex("f0470053610001f7");
+
+      assertEquals(List.of("session 5 f0470053600001f7", "device 4 f0470053610001f7"), received);
+   }
+
+   @Test
+   void unmatchedMessagesGoToTheFallback() {
+      dispatcher.setFallback(handler("fallback"));
+      dispatcher.handleSysex("f07e000601f7");
+      dispatcher.handleSysex("f000202902f7");
+
+      assertEquals(List.of("fallback 0 f07e000601f7", "novation 4 f000202902f7"), received);
+   }
+
+   @Test
+   void unmatchedMessagesWithoutFallbackAreIgnored() {
+      dispatcher.handleSysex("f07e000601f7");
+
+      assertEquals(List.of(), received);
+   }
+
+   @Test
+   void messageShorterThanThePrefixDoesNotMatch() {
+      dispatcher.setFallback(handler("fallback"));
+      dispatcher.handleSysex("f04700");
+
+      assertEquals(List.of("fallback 0 f04700"), received);
+   }
+
+   @Test
+   void registeringAPrefixAgainReplacesTheHandler() {
+      dispatcher.register("f0 00 20 29", handler("launchpad"));
+      dispatcher.handleSysex("f000202902f7");
+
+      assertEquals(List.of("launchpad 4 f000202902f7"), received);
+   }
+
+   @Test
+   void prefixMustConsistOfWholeBytes() {
+      assertThrows(IllegalArgumentException.class, () -> dispatcher.register("f0 4", handler("broken")));
+   }
+}
@@ -0,0 +1,96 @@
+package com.bitwig.extensions.framework.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.harness.OfflineHarness;
+
+class TimerWheelTest {
+   private OfflineHarness harness;
+   private TimerWheel timerWheel;
+   private final List<Long> fired = new ArrayList<>();
+
+   @BeforeEach
+   void createWheel() {
+      harness = new OfflineHarness();
+      timerWheel = harness.createTimerWheel();
+   }
+
+   private void fire() {
+      fired.add(harness.getClock().getTime());
+   }
+
+   @Test
+   void delayRunsOnceWhenDue() {
+      timerWheel.delay(this::fire, 100);
+
+      harness.advance(99);
+      assertTrue(fired.isEmpty());
+      harness.advance(1);
+      assertEquals(List.of(100L), fired);
+      harness.advance(1000);
+      assertEquals(1, fired.size());
+      assertTrue(timerWheel.isIdle());
+   }
+
+   @Test
+   void delayBeyondOneRevolutionIsNotRunEarly() {
+      // 64 slots of 10 ms, so the delay wraps around the wheel several times
+      timerWheel.delay(this::fire, 2000);
+
+      harness.advance(1999);
+      assertTrue(fired.isEmpty());
+      harness.advance(1);
+      assertEquals(List.of(2000L), fired);
+   }
+
+   @Test
+   void repeatRunsUntilCancelled() {
+      final TimeRepeatEvent event = timerWheel.repeat(this::fire, 0, 100);
+
+      // without a delay the first run is on the next tick of 10 ms
+      harness.advance(450);
+      assertEquals(List.of(10L, 110L, 210L, 310L, 410L), fired);
+      event.cancel();
+      harness.advance(1000);
+      assertEquals(5, fired.size());
+      assertTrue(timerWheel.isIdle());
+   }
+
+   @Test
+   void cancelledDelayDoesNotRun() {
+      final TimedDelayEvent event = timerWheel.delay(this::fire, 100);
+      event.cancel();
+
+      harness.advance(1000);
+      assertTrue(fired.isEmpty());
+      assertTrue(timerWheel.isIdle());
+   }
+
+   @Test
+   void idleWheelSchedulesNoTasks() {
+      timerWheel.delay(this::fire, 50);
+      assertFalse(timerWheel.isIdle());
+
+      harness.advance(100);
+      assertEquals(0, harness.getClock().getPendingTasks());
+   }
+
+   @Test
+   void eventsRunInDueOrder() {
+      final List<String> order = new ArrayList<>();
+      timerWheel.delay(() -> order.add("late"), 300);
+      timerWheel.delay(() -> order.add("early"), 100);
+      timerWheel.delay(() -> order.add("middle"), 200);
+
+      harness.advance(300);
+      assertEquals(List.of("early", "middle", "late"), order);
+   }
+}
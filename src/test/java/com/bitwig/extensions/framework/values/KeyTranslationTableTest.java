@@ -0,0 +1,139 @@
+package com.bitwig.extensions.framework.values;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.NoteInput;
+import com.bitwig.extensions.harness.ApiStubs;
+
+class KeyTranslationTableTest {
+   private static final int FIRST_PAD = 36;
+   private static final int PADS = 16;
+
+   private NoteInput noteInput;
+   private KeyTranslationTable table;
+   private final List<int[]> sentKeys = new ArrayList<>();
+   private final List<int[]> sentVelocities = new ArrayList<>();
+   private int layoutFills;
+
+   @BeforeEach
+   void createTable() {
+      noteInput = ApiStubs.create(NoteInput.class);
+      ApiStubs.answer(noteInput, "setKeyTranslationTable", args -> sentKeys.add(unbox((Object[]) args[0])));
+      ApiStubs.answer(noteInput, "setVelocityTranslationTable",
+         args -> sentVelocities.add(unbox((Object[]) args[0])));
+      table = KeyTranslationTable.of(noteInput);
+   }
+
+   /**
+    * The table sends the same boxed array every time, so it is copied.
+    */
+   private static int[] unbox(final Object[] boxed) {
+      return Arrays.stream(boxed).mapToInt(value -> (Integer) value).toArray();
+   }
+
+   private static int[] drumPads(final int offset) {
+      final int[] expected = new int[KeyTranslationTable.SIZE];
+      Arrays.fill(expected, -1);
+      for (int i = 0; i < PADS; i++) {
+         final int note = offset + i;
+         expected[FIRST_PAD + i] = note >= 0 && note < KeyTranslationTable.SIZE ? note : -1;
+      }
+      return expected;
+   }
+
+   private KeyTranslationTable.Layout countingDrumPads() {
+      final KeyTranslationTable.Layout layout = KeyTranslationTable.consecutive(FIRST_PAD, PADS);
+      return (keys, offset) -> {
+         layoutFills++;
+         layout.fill(keys, offset);
+      };
+   }
+
+   @Test
+   void sameInstanceForTheSameNoteInput() {
+      assertSame(table, KeyTranslationTable.of(noteInput));
+   }
+
+   @Test
+   void equalTableIsNotSentAgain() {
+      table.apply(drumPads(36));
+      table.apply(drumPads(36));
+      table.apply(drumPads(40));
+
+      assertEquals(2, sentKeys.size());
+      assertArrayEquals(drumPads(36), sentKeys.get(0));
+      assertArrayEquals(drumPads(40), sentKeys.get(1));
+      assertEquals(40, table.getNote(FIRST_PAD));
+   }
+
+   @Test
+   void clearIsOnlySentOnce() {
+      table.clear();
+      table.clear();
+
+      assertEquals(1, sentKeys.size());
+      assertEquals(-1, table.getNote(FIRST_PAD));
+   }
+
+   @Test
+   void keysPlayThemselvesUntilATableIsSent() {
+      assertEquals(FIRST_PAD, table.getNote(FIRST_PAD));
+   }
+
+   @Test
+   void consecutiveDisablesKeysOutsideTheNoteRange() {
+      table.apply(KeyTranslationTable.consecutive(FIRST_PAD, PADS), 120);
+      assertArrayEquals(drumPads(120), sentKeys.get(0));
+      assertEquals(-1, table.getNote(FIRST_PAD + 8));
+
+      table.apply(KeyTranslationTable.consecutive(FIRST_PAD, PADS), -4);
+      assertArrayEquals(drumPads(-4), sentKeys.get(1));
+      assertEquals(-1, table.getNote(FIRST_PAD + 3));
+      assertEquals(0, table.getNote(FIRST_PAD + 4));
+   }
+
+   @Test
+   void layoutIsComputedOncePerOffset() {
+      final KeyTranslationTable.Layout layout = countingDrumPads();
+      table.apply(layout, 36);
+      table.apply(layout, 52);
+      table.apply(layout, 36);
+
+      assertEquals(2, layoutFills);
+      assertEquals(3, sentKeys.size());
+   }
+
+   @Test
+   void scrollStepsAreComputedInAdvance() {
+      final KeyTranslationTable.Layout layout = countingDrumPads();
+      table.setScrollSteps(4, 16);
+      table.apply(layout, 36);
+      assertEquals(5, layoutFills);
+
+      table.apply(layout, 40);
+      table.apply(layout, 20);
+      assertArrayEquals(drumPads(20), sentKeys.get(sentKeys.size() - 1));
+      // 40 and 20 were computed in advance, only their new neighbours 44, 24, 56, 16 and 4 are computed
+      assertEquals(5 + 3 + 2, layoutFills);
+   }
+
+   @Test
+   void equalVelocityTableIsNotSentAgain() {
+      final int[] velocities = new int[KeyTranslationTable.SIZE];
+      Arrays.fill(velocities, 127);
+      table.applyVelocities(velocities);
+      table.applyVelocities(velocities.clone());
+
+      assertEquals(1, sentVelocities.size());
+      assertArrayEquals(velocities, sentVelocities.get(0));
+   }
+}
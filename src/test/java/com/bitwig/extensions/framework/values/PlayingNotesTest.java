@@ -0,0 +1,90 @@
+package com.bitwig.extensions.framework.values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.PlayingNote;
+
+class PlayingNotesTest {
+   private final PlayingNotes notes = new PlayingNotes();
+   private final List<String> changes = new ArrayList<>();
+
+   private record Note(int pitch, int velocity) implements PlayingNote {
+   }
+
+   @BeforeEach
+   void addListener() {
+      notes.addListener((key, velocity) -> changes.add(key + ":" + velocity));
+   }
+
+   @Test
+   void playingKeysAreLookedUpInTheBitSet() {
+      notes.update(new PlayingNote[] {new Note(36, 100), new Note(100, 64)});
+
+      assertTrue(notes.isPlaying(36));
+      assertTrue(notes.isPlaying(100));
+      assertFalse(notes.isPlaying(37));
+      assertEquals(100, notes.velocity(36));
+      assertEquals(0, notes.velocity(37));
+      assertEquals(2, notes.count());
+      assertTrue(notes.isAnyPlaying());
+   }
+
+   @Test
+   void onlyChangedKeysAreNotified() {
+      notes.update(new PlayingNote[] {new Note(36, 100), new Note(38, 90)});
+      changes.clear();
+
+      notes.update(new PlayingNote[] {new Note(38, 90), new Note(127, 10), new Note(36, 50)});
+      assertEquals(List.of("36:50", "127:10"), changes);
+      changes.clear();
+
+      notes.update(new PlayingNote[] {new Note(127, 10)});
+      assertEquals(List.of("36:0", "38:0"), changes);
+      assertEquals(1, notes.count());
+   }
+
+   @Test
+   void unchangedNotesNotifyNothing() {
+      notes.update(new PlayingNote[] {new Note(60, 100)});
+      changes.clear();
+
+      notes.update(new PlayingNote[] {new Note(60, 100)});
+      assertEquals(List.of(), changes);
+   }
+
+   @Test
+   void zeroVelocityStillCountsAsPlaying() {
+      notes.update(new PlayingNote[] {new Note(64, 0)});
+
+      assertTrue(notes.isPlaying(64));
+      assertEquals(1, notes.velocity(64));
+      assertEquals(List.of("64:1"), changes);
+   }
+
+   @Test
+   void keyListenersOnlyHearTheirKey() {
+      final List<Integer> velocities = new ArrayList<>();
+      notes.addListener(40, (key, velocity) -> velocities.add(velocity));
+
+      notes.update(new PlayingNote[] {new Note(40, 70), new Note(41, 80)});
+      notes.update(new PlayingNote[] {new Note(41, 80)});
+      assertEquals(List.of(70, 0), velocities);
+   }
+
+   @Test
+   void listenersSeeTheStateOfAllKeys() {
+      final List<Integer> counts = new ArrayList<>();
+      notes.addListener((key, velocity) -> counts.add(notes.count()));
+
+      notes.update(new PlayingNote[] {new Note(1, 10), new Note(2, 20), new Note(3, 30)});
+      assertEquals(List.of(3, 3, 3), counts);
+   }
+}
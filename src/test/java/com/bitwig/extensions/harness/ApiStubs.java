@@ -0,0 +1,273 @@
+package com.bitwig.extensions.harness;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bitwig.extension.api.Color;
+
+/**
+ * Creates in-memory stand-ins for interfaces of the controller API, so an extension can be booted without Bitwig
+ * Studio.
+ * <p>
+ * A stand-in behaves like an empty project: every getter returns another stand-in that is created on first use and
+ * then stays the same for the same arguments, so a track bank hands out the same track for the same index and the
+ * same value object for the same getter. Values keep what is set on them and notify their observers, which lets a
+ * harness push a state into the extension by calling {@code set} on a value the extension observes. Getters of
+ * primitive types return 0 or false unless a value has been set or an answer is registered with
+ * {@link #answer(Object, String, Answer)}.
+ */
+public final class ApiStubs {
+   /**
+    * Replaces the default behaviour of a method of one stand-in.
+    */
+   @FunctionalInterface
+   public interface Answer {
+      Object invoke(Object[] args) throws Throwable;
+   }
+
+   private static final class Handler implements InvocationHandler {
+      private final Class<?> type;
+      private final Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+      private final Map<String, Object> children = new HashMap<>();
+      private final Map<String, Answer> answers = new HashMap<>();
+      private final List<Object> observers = new ArrayList<>();
+      private Object value;
+
+      private Handler(final Class<?> type, final Type[] typeArguments, final Object value) {
+         this.type = type;
+         this.value = value;
+         bind(type, typeArguments);
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+         final Object[] arguments = args == null ? new Object[0] : args;
+         final String name = method.getName();
+         final Answer answer = answers.get(name);
+         if (answer != null) {
+            return answer.invoke(arguments);
+         }
+         if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+               case "equals" -> proxy == arguments[0];
+               case "hashCode" -> System.identityHashCode(proxy);
+               default -> type.getSimpleName() + "@stub";
+            };
+         }
+         if (name.startsWith("add") && name.endsWith("Observer") && arguments.length > 0) {
+            observers.add(arguments[arguments.length - 1]);
+            return null;
+         }
+         if (arguments.length == 1 && (name.equals("set") || name.equals("setImmediately"))
+            && !isStub(arguments[0])) {
+            setValue(arguments[0]);
+            return null;
+         }
+         if (arguments.length == 0 && name.equals("get") && accepts(method.getReturnType(), value)
+            && value != null) {
+            return value;
+         }
+         if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+         }
+         final Type returnType = resolve(method.getGenericReturnType());
+         final Class<?> rawReturnType = rawType(returnType);
+         if (rawReturnType.isInterface()) {
+            final String key = childKey(method, arguments);
+            Object child = children.get(key);
+            if (child == null) {
+               final Object initial = name.startsWith("get") && name.endsWith("Setting") && arguments.length > 0
+                  ? arguments[arguments.length - 1] : null;
+               child = create(rawReturnType, typeArguments(returnType), initial);
+               children.put(key, child);
+            }
+            return child;
+         }
+         return defaultValue(method.getReturnType());
+      }
+
+      private void setValue(final Object newValue) {
+         value = newValue;
+         for (final Object observer : observers) {
+            notify(observer, newValue);
+         }
+      }
+
+      private static void notify(final Object observer, final Object newValue) {
+         for (final Class<?> callbackType : observer.getClass().getInterfaces()) {
+            for (final Method callback : callbackType.getMethods()) {
+               if (callback.isDefault() || callback.getParameterCount() != 1
+                  || !accepts(callback.getParameterTypes()[0], newValue)) {
+                  continue;
+               }
+               try {
+                  callback.invoke(observer, newValue);
+               } catch (final ReflectiveOperationException exception) {
+                  throw new IllegalStateException(exception);
+               }
+               return;
+            }
+         }
+      }
+
+      private void bind(final Class<?> c, final Type[] arguments) {
+         final TypeVariable<?>[] variables = c.getTypeParameters();
+         for (int i = 0; i < variables.length && i < arguments.length; i++) {
+            bindings.putIfAbsent(variables[i], arguments[i]);
+         }
+         for (final Type superType : c.getGenericInterfaces()) {
+            bind(rawType(superType), resolveAll(typeArguments(superType)));
+         }
+      }
+
+      private Type resolve(final Type t) {
+         Type resolved = t;
+         while (resolved instanceof TypeVariable<?> && bindings.containsKey(resolved)) {
+            resolved = bindings.get(resolved);
+         }
+         if (resolved instanceof TypeVariable<?> variable) {
+            return variable.getBounds()[0];
+         }
+         return resolved;
+      }
+
+      private Type[] resolveAll(final Type[] types) {
+         final Type[] resolved = new Type[types.length];
+         for (int i = 0; i < types.length; i++) {
+            resolved[i] = types[i] instanceof TypeVariable<?> ? resolve(types[i]) : types[i];
+         }
+         return resolved;
+      }
+   }
+
+   private ApiStubs() {
+   }
+
+   /**
+    * @param type the API interface
+    * @return a new stand-in
+    */
+   public static <T> T create(final Class<T> type) {
+      return create(type, new Type[0], null);
+   }
+
+   private static <T> T create(final Class<T> type, final Type[] typeArguments, final Object value) {
+      return type.cast(Proxy.newProxyInstance(ApiStubs.class.getClassLoader(), new Class<?>[] {type},
+         new Handler(type, typeArguments, value)));
+   }
+
+   /**
+    * Registers the behaviour of all methods with the given name of a stand-in.
+    *
+    * @param stub   a stand-in created by this class
+    * @param method the method name
+    * @param answer the behaviour
+    */
+   public static void answer(final Object stub, final String method, final Answer answer) {
+      handler(stub).answers.put(method, answer);
+   }
+
+   /**
+    * Sets the value of a stand-in and notifies its observers, the same as calling its {@code set} method.
+    *
+    * @param stub  a stand-in created by this class
+    * @param value the new value
+    */
+   public static void setValue(final Object stub, final Object value) {
+      handler(stub).setValue(value);
+   }
+
+   /**
+    * @param stub a stand-in created by this class
+    * @return the number of observers registered on it
+    */
+   public static int getObserverCount(final Object stub) {
+      return handler(stub).observers.size();
+   }
+
+   public static boolean isStub(final Object object) {
+      return object != null && Proxy.isProxyClass(object.getClass())
+         && Proxy.getInvocationHandler(object) instanceof Handler;
+   }
+
+   private static Handler handler(final Object stub) {
+      if (!isStub(stub)) {
+         throw new IllegalArgumentException("Not a stand-in: " + stub);
+      }
+      return (Handler) Proxy.getInvocationHandler(stub);
+   }
+
+   private static String childKey(final Method method, final Object[] arguments) {
+      final StringBuilder key = new StringBuilder(method.getName());
+      for (final Object argument : arguments) {
+         key.append('|');
+         if (argument == null || argument instanceof Number || argument instanceof String
+            || argument instanceof Boolean || argument instanceof Character || argument instanceof Enum) {
+            key.append(argument);
+         } else {
+            key.append(argument.getClass().getName());
+         }
+      }
+      return key.toString();
+   }
+
+   private static boolean accepts(final Class<?> parameterType, final Object value) {
+      if (value == null) {
+         return !parameterType.isPrimitive();
+      }
+      if (parameterType.isPrimitive()) {
+         return Array.get(Array.newInstance(parameterType, 1), 0).getClass() == value.getClass();
+      }
+      return parameterType.isInstance(value);
+   }
+
+   static Object defaultValue(final Class<?> type) {
+      if (type == void.class) {
+         return null;
+      }
+      if (type.isPrimitive()) {
+         return Array.get(Array.newInstance(type, 1), 0);
+      }
+      if (type == String.class) {
+         return "";
+      }
+      if (type.isArray()) {
+         return Array.newInstance(type.getComponentType(), 0);
+      }
+      if (type.isEnum()) {
+         final Object[] constants = type.getEnumConstants();
+         return constants.length > 0 ? constants[0] : null;
+      }
+      if (type == Color.class) {
+         return Color.nullColor();
+      }
+      return null;
+   }
+
+   private static Type[] typeArguments(final Type type) {
+      return type instanceof ParameterizedType parameterized ? parameterized.getActualTypeArguments() : new Type[0];
+   }
+
+   static Class<?> rawType(final Type type) {
+      if (type instanceof Class<?> c) {
+         return c;
+      }
+      if (type instanceof ParameterizedType parameterized) {
+         return (Class<?>) parameterized.getRawType();
+      }
+      if (type instanceof GenericArrayType array) {
+         return Array.newInstance(rawType(array.getGenericComponentType()), 0).getClass();
+      }
+      return Object.class;
+   }
+}
@@ -0,0 +1,15 @@
+package com.bitwig.extensions.harness;
+
+/**
+ * What happened between two flushes of the offline host.
+ *
+ * @param messages       the number of MIDI messages sent since the previous flush, including the flush itself
+ * @param bytes          the number of bytes of these messages
+ * @param allocatedBytes the bytes allocated by the extension's flush, -1 if the JVM can't measure it
+ */
+public record FlushStats(int messages, long bytes, long allocatedBytes) {
+   @Override
+   public String toString() {
+      return "%d messages, %d bytes, %d bytes allocated".formatted(messages, bytes, allocatedBytes);
+   }
+}
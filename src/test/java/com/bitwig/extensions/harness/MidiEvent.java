@@ -0,0 +1,65 @@
+package com.bitwig.extensions.harness;
+
+import java.util.Arrays;
+
+/**
+ * A MIDI message recorded by the offline host.
+ *
+ * @param time   the time of the {@link VirtualClock} in ms
+ * @param port   the port index
+ * @param status the status byte, 0xF0 for SysEx
+ * @param data1  the first data byte of a short message
+ * @param data2  the second data byte of a short message
+ * @param sysex  the complete SysEx message or null for a short message
+ */
+public record MidiEvent(long time, int port, int status, int data1, int data2, byte[] sysex) {
+   public static MidiEvent shortMessage(final long time, final int port, final int status, final int data1,
+                                        final int data2) {
+      return new MidiEvent(time, port, status, data1, data2, null);
+   }
+
+   public static MidiEvent sysexMessage(final long time, final int port, final byte[] data) {
+      return new MidiEvent(time, port, 0xF0, 0, 0, data);
+   }
+
+   public boolean isSysex() {
+      return sysex != null;
+   }
+
+   /**
+    * @return the number of bytes the message takes on the wire
+    */
+   public int size() {
+      return sysex != null ? sysex.length : 3;
+   }
+
+   @Override
+   public String toString() {
+      if (sysex != null) {
+         final StringBuilder sb = new StringBuilder();
+         for (final byte value : sysex) {
+            sb.append(String.format("%02X ", value & 0xFF));
+         }
+         return "%6d [%d] %s".formatted(time, port, sb.toString().trim());
+      }
+      return "%6d [%d] %02X %02X %02X".formatted(time, port, status, data1, data2);
+   }
+
+   @Override
+   public boolean equals(final Object o) {
+      if (this == o) {
+         return true;
+      }
+      if (!(o instanceof MidiEvent other)) {
+         return false;
+      }
+      return time == other.time && port == other.port && status == other.status && data1 == other.data1
+         && data2 == other.data2 && Arrays.equals(sysex, other.sysex);
+   }
+
+   @Override
+   public int hashCode() {
+      return 31 * (31 * (31 * (31 * Long.hashCode(time) + port) + status) + (data1 << 7 | data2))
+         + Arrays.hashCode(sysex);
+   }
+}
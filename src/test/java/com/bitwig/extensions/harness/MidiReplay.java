@@ -0,0 +1,214 @@
+package com.bitwig.extensions.harness;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extensions.framework.midi.MidiTrafficLog;
+import com.bitwig.extensions.framework.midi.MidiTrafficRecorder;
+
+/**
+ * Replays the input of a log written by {@link MidiTrafficRecorder} into an extension running in the
+ * {@link OfflineHarness} and compares what the extension sends with the output of the log.
+ * <p>
+ * The input messages are delivered with the recorded timing on the virtual clock and the extension is flushed where
+ * the log has a flush. Timed events of the extension run on the same clock, so a replay produces the same output
+ * every time. Both the recorded and the replayed output are reported with their data rate, the messages per
+ * flush and the number of redundant writes, which repeat the value a LED, fader or display already has. Running the
+ * replay against two versions of an extension shows whether a change reduces the traffic without changing what the
+ * device ends up showing.
+ * <p>
+ * Since the harness doesn't evaluate hardware matchers, only input the extension handles in its own MIDI callbacks
+ * has an effect, and the recorded output of a session with a real host contains more than the replay can produce.
+ */
+public class MidiReplay {
+   /**
+    * Statistics of a stream of output messages.
+    */
+   public record TrafficStats(int messages, long bytes, long durationMicros, int flushes, int redundantWrites) {
+      public double bytesPerSecond() {
+         return durationMicros == 0 ? 0 : bytes * 1_000_000.0 / durationMicros;
+      }
+
+      public double messagesPerFlush() {
+         return flushes == 0 ? messages : (double) messages / flushes;
+      }
+
+      @Override
+      public String toString() {
+         return "%d messages, %d bytes in %.1f s, %.0f bytes/s, %.2f messages/flush, %d redundant".formatted(
+            messages, bytes, durationMicros / 1_000_000.0, bytesPerSecond(), messagesPerFlush(), redundantWrites);
+      }
+   }
+
+   /**
+    * The result of a replay.
+    *
+    * @param recorded   the output of the log
+    * @param replayed   the output of the replay
+    * @param mismatches the number of positions at which the outputs differ, including the surplus of the longer one
+    * @param firstDiff  the index of the first difference or -1 if the outputs are the same
+    */
+   public record Result(List<MidiTrafficLog.Entry> recorded, List<MidiTrafficLog.Entry> replayed, int mismatches,
+                        int firstDiff) {
+      public boolean matches() {
+         return firstDiff < 0;
+      }
+   }
+
+   private MidiReplay() {
+   }
+
+   /**
+    * Replays the input of a log.
+    *
+    * @param entries    the entries of the log
+    * @param definition the definition of the extension to replay into
+    * @return the recorded and the replayed output, with flush entries where the extension was flushed
+    */
+   public static Result replay(final List<MidiTrafficLog.Entry> entries,
+                               final ControllerExtensionDefinition definition) {
+      final OfflineHarness harness = new OfflineHarness();
+      harness.boot(definition);
+      final List<MidiTrafficLog.Entry> recorded = new ArrayList<>();
+      final List<MidiTrafficLog.Entry> replayed = new ArrayList<>();
+      long time = 0;
+      for (final MidiTrafficLog.Entry entry : entries) {
+         final long elapsedMillis = entry.time() / 1000 - time / 1000;
+         if (elapsedMillis > 0) {
+            harness.advance(elapsedMillis);
+         }
+         time = entry.time();
+         switch (entry.kind()) {
+            case OUT -> recorded.add(entry);
+            case IN -> {
+               if (entry.isSysex()) {
+                  harness.sendSysex(entry.port(), toHex(entry.sysex()));
+               } else {
+                  harness.sendMidi(entry.port(), entry.status(), entry.data1(), entry.data2());
+               }
+            }
+            case FLUSH -> {
+               recorded.add(entry);
+               harness.flush();
+               collect(harness, replayed, time);
+               replayed.add(entry);
+            }
+         }
+      }
+      collect(harness, replayed, time);
+      harness.exit();
+      collect(harness, replayed, time);
+
+      final List<MidiTrafficLog.Entry> recordedOut = messages(recorded);
+      final List<MidiTrafficLog.Entry> replayedOut = messages(replayed);
+      int mismatches = Math.abs(recordedOut.size() - replayedOut.size());
+      int firstDiff = recordedOut.size() == replayedOut.size() ? -1
+         : Math.min(recordedOut.size(), replayedOut.size());
+      for (int i = 0; i < Math.min(recordedOut.size(), replayedOut.size()); i++) {
+         if (!recordedOut.get(i).sameMessage(replayedOut.get(i))) {
+            mismatches++;
+            if (firstDiff < 0 || i < firstDiff) {
+               firstDiff = i;
+            }
+         }
+      }
+      return new Result(recorded, replayed, mismatches, firstDiff);
+   }
+
+   private static void collect(final OfflineHarness harness, final List<MidiTrafficLog.Entry> replayed,
+                               final long time) {
+      for (final MidiEvent event : harness.takeOutput()) {
+         replayed.add(new MidiTrafficLog.Entry(time, MidiTrafficLog.Kind.OUT, event.port(), event.status(),
+            event.data1(), event.data2(), event.sysex()));
+      }
+   }
+
+   private static List<MidiTrafficLog.Entry> messages(final List<MidiTrafficLog.Entry> entries) {
+      return entries.stream().filter(entry -> entry.kind() != MidiTrafficLog.Kind.FLUSH).toList();
+   }
+
+   /**
+    * @param entries output entries, with flush entries where the extension was flushed
+    * @return the statistics of the messages
+    */
+   public static TrafficStats stats(final List<MidiTrafficLog.Entry> entries) {
+      final Map<Integer, Integer> lastShortValues = new HashMap<>();
+      final Map<String, byte[]> lastSysex = new HashMap<>();
+      int messages = 0;
+      long bytes = 0;
+      int flushes = 0;
+      int redundant = 0;
+      long start = -1;
+      long end = 0;
+      for (final MidiTrafficLog.Entry entry : entries) {
+         if (start < 0) {
+            start = entry.time();
+         }
+         end = entry.time();
+         if (entry.kind() == MidiTrafficLog.Kind.FLUSH) {
+            flushes++;
+            continue;
+         }
+         messages++;
+         bytes += entry.size();
+         if (entry.isSysex()) {
+            // messages with the same header, e.g. writes to the same display line, replace each other
+            final byte[] data = entry.sysex();
+            final String key = entry.port() + ":" + toHex(Arrays.copyOf(data, Math.min(data.length, 8)));
+            final byte[] previous = lastSysex.put(key, data);
+            if (Arrays.equals(previous, data)) {
+               redundant++;
+            }
+         } else {
+            final int key = entry.port() << 16 | entry.status() << 8 | entry.data1();
+            final Integer previous = lastShortValues.put(key, entry.data2());
+            if (previous != null && previous == entry.data2()) {
+               redundant++;
+            }
+         }
+      }
+      return new TrafficStats(messages, bytes, start < 0 ? 0 : end - start, flushes, redundant);
+   }
+
+   private static String toHex(final byte[] data) {
+      final StringBuilder sb = new StringBuilder(data.length * 2);
+      for (final byte value : data) {
+         sb.append(String.format("%02x", value & 0xFF));
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Replays a log and prints the statistics and the first difference.
+    *
+    * @param args the log file and the class name of the extension definition
+    */
+   public static void main(final String[] args) throws Exception {
+      if (args.length < 2) {
+         System.err.println("Usage: MidiReplay <log file> <extension definition class>");
+         System.exit(1);
+      }
+      final List<MidiTrafficLog.Entry> entries = MidiTrafficLog.read(Path.of(args[0]));
+      final ControllerExtensionDefinition definition =
+         (ControllerExtensionDefinition) Class.forName(args[1]).getDeclaredConstructor().newInstance();
+      final Result result = replay(entries, definition);
+      System.out.println("recorded: " + stats(result.recorded()));
+      System.out.println("replayed: " + stats(result.replayed()));
+      if (result.matches()) {
+         System.out.println("output matches");
+         return;
+      }
+      System.out.printf("%d difference(s), first at message %d%n", result.mismatches(), result.firstDiff());
+      final List<MidiTrafficLog.Entry> recordedOut = messages(result.recorded());
+      final List<MidiTrafficLog.Entry> replayedOut = messages(result.replayed());
+      final int index = result.firstDiff();
+      System.out.println("  recorded: " + (index < recordedOut.size() ? recordedOut.get(index) : "-"));
+      System.out.println("  replayed: " + (index < replayedOut.size() ? replayedOut.get(index) : "-"));
+      System.exit(1);
+   }
+}
@@ -0,0 +1,302 @@
+package com.bitwig.extensions.harness;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bitwig.extension.callback.ShortMidiDataReceivedCallback;
+import com.bitwig.extension.callback.SysexMidiDataReceivedCallback;
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiIn;
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.midi.SysexWriter;
+import com.bitwig.extensions.framework.time.TimerWheel;
+
+/**
+ * Boots a controller extension without Bitwig Studio and drives it with synthetic MIDI.
+ * <p>
+ * The host, the MIDI ports and everything the extension creates through them (hardware surface, transport, banks,
+ * values) are stand-ins from {@link ApiStubs}. Tasks scheduled on the host run on a {@link VirtualClock}, MIDI sent
+ * by the extension is recorded with the virtual time, and {@link #flush()} reports how many messages and how much
+ * allocation each flush of the extension costs:
+ *
+ * <pre>
+ * final OfflineHarness harness = new OfflineHarness();
+ * harness.boot(new IconP1mExtensionDefinition());
+ * harness.sendMidi(0, 0x90, 0x5E, 0x7F);
+ * harness.advance(100);
+ * final FlushStats stats = harness.flush();
+ * </pre>
+ * <p>
+ * Limitations: the hardware surface doesn't evaluate the MIDI matchers of its controls, so synthetic MIDI reaches
+ * only the callbacks the extension registers on its {@link MidiIn} ports directly. Controls can be driven through
+ * the stand-ins of their actions instead. Timer wheels created with {@link #createTimerWheel()}, and those of
+ * extensions that are given {@link VirtualClock#getNanoTime()} as their clock before booting, run on the virtual
+ * clock, so their events fire deterministically with {@link #advance(long)}. Code that reads
+ * {@link System#nanoTime()} itself has to be run with {@link #runFor(long)}, which keeps the virtual clock in step
+ * with real time.
+ */
+public class OfflineHarness {
+   private final VirtualClock clock = new VirtualClock();
+   private final ControllerHost host;
+   private final Map<Integer, MidiIn> midiIns = new HashMap<>();
+   private final Map<Integer, MidiOut> midiOuts = new HashMap<>();
+   private final Map<Integer, ShortMidiDataReceivedCallback> midiCallbacks = new HashMap<>();
+   private final Map<Integer, SysexMidiDataReceivedCallback> sysexCallbacks = new HashMap<>();
+   private final List<MidiEvent> output = new ArrayList<>();
+   private final List<String> log = new ArrayList<>();
+   private final com.sun.management.ThreadMXBean threadBean;
+   private ControllerExtension extension;
+   private boolean flushRequested;
+   private int flushedOutput;
+   private long recordingAllocation;
+
+   public OfflineHarness() {
+      host = ApiStubs.create(ControllerHost.class);
+      ApiStubs.answer(host, "scheduleTask", args -> {
+         if (args[0] instanceof Runnable action) {
+            clock.schedule(action, ((Number) args[args.length - 1]).longValue());
+         }
+         return null;
+      });
+      ApiStubs.answer(host, "requestFlush", args -> {
+         flushRequested = true;
+         return null;
+      });
+      ApiStubs.answer(host, "println", args -> {
+         log.add(String.valueOf(args[0]));
+         return null;
+      });
+      ApiStubs.answer(host, "errorln", args -> {
+         log.add("ERROR " + args[0]);
+         return null;
+      });
+      ApiStubs.answer(host, "getMidiInPort", args -> getMidiIn((Integer) args[0]));
+      ApiStubs.answer(host, "getMidiOutPort", args -> getMidiOut((Integer) args[0]));
+      threadBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+         && bean.isThreadAllocatedMemorySupported() ? bean : null;
+      if (threadBean != null) {
+         threadBean.setThreadAllocatedMemoryEnabled(true);
+      }
+   }
+
+   /**
+    * Creates the extension of the definition and initializes it.
+    *
+    * @param definition the definition of the extension
+    * @return the running extension
+    */
+   public ControllerExtension boot(final ControllerExtensionDefinition definition) {
+      return boot(definition.createInstance(host));
+   }
+
+   /**
+    * Initializes an extension created for the host of the harness.
+    *
+    * @param extension the extension
+    * @return the running extension
+    */
+   public ControllerExtension boot(final ControllerExtension extension) {
+      this.extension = extension;
+      extension.init();
+      return extension;
+   }
+
+   /**
+    * @return a timer wheel on the virtual clock
+    */
+   public TimerWheel createTimerWheel() {
+      return new TimerWheel(host, clock::getNanoTime);
+   }
+
+   public ControllerHost getHost() {
+      return host;
+   }
+
+   public VirtualClock getClock() {
+      return clock;
+   }
+
+   public MidiIn getMidiIn(final int port) {
+      return midiIns.computeIfAbsent(port, this::createMidiIn);
+   }
+
+   public MidiOut getMidiOut(final int port) {
+      return midiOuts.computeIfAbsent(port, this::createMidiOut);
+   }
+
+   private MidiIn createMidiIn(final int port) {
+      final MidiIn midiIn = ApiStubs.create(MidiIn.class);
+      ApiStubs.answer(midiIn, "setMidiCallback", args -> {
+         midiCallbacks.put(port, (ShortMidiDataReceivedCallback) args[0]);
+         return null;
+      });
+      ApiStubs.answer(midiIn, "setSysexCallback", args -> {
+         sysexCallbacks.put(port, (SysexMidiDataReceivedCallback) args[0]);
+         return null;
+      });
+      return midiIn;
+   }
+
+   private MidiOut createMidiOut(final int port) {
+      final MidiOut midiOut = ApiStubs.create(MidiOut.class);
+      ApiStubs.answer(midiOut, "sendMidi", args -> {
+         record(MidiEvent.shortMessage(clock.getTime(), port, (Integer) args[0], (Integer) args[1],
+            (Integer) args[2]));
+         return null;
+      });
+      ApiStubs.answer(midiOut, "sendSysex", args -> {
+         final byte[] data = args[0] instanceof String hex ? SysexWriter.fromHex(hex) : ((byte[]) args[0]).clone();
+         record(MidiEvent.sysexMessage(clock.getTime(), port, data));
+         return null;
+      });
+      return midiOut;
+   }
+
+   private void record(final MidiEvent event) {
+      // the recording is not part of what the extension allocates
+      final long allocatedBefore = allocatedBytes();
+      output.add(event);
+      recordingAllocation += allocatedBytes() - allocatedBefore;
+   }
+
+   /**
+    * Delivers a short MIDI message to the callback of an input port.
+    */
+   public void sendMidi(final int port, final int status, final int data1, final int data2) {
+      final ShortMidiDataReceivedCallback callback = midiCallbacks.get(port);
+      if (callback != null) {
+         callback.midiReceived(status, data1, data2);
+      }
+   }
+
+   /**
+    * Delivers a SysEx message to the callback of an input port.
+    *
+    * @param hex the message as hex string, e.g. "f0 00 00 66 14 01 f7"
+    */
+   public void sendSysex(final int port, final String hex) {
+      final SysexMidiDataReceivedCallback callback = sysexCallbacks.get(port);
+      if (callback != null) {
+         callback.sysexDataReceived(hex.replace(" ", "").toLowerCase());
+      }
+   }
+
+   /**
+    * Advances the virtual clock, running the tasks that become due.
+    *
+    * @param millis the period in ms
+    */
+   public void advance(final long millis) {
+      clock.advance(millis);
+   }
+
+   /**
+    * Runs the virtual clock in step with real time, for code that measures time with {@link System#nanoTime()}.
+    * Flushes whenever the extension requested one.
+    *
+    * @param millis the period in ms
+    */
+   public void runFor(final long millis) throws InterruptedException {
+      final long start = System.nanoTime();
+      long elapsed = 0;
+      while (elapsed < millis) {
+         Thread.sleep(1);
+         final long now = (System.nanoTime() - start) / 1_000_000L;
+         clock.advance(now - elapsed);
+         elapsed = now;
+         if (flushRequested) {
+            flush();
+         }
+      }
+   }
+
+   public boolean isFlushRequested() {
+      return flushRequested;
+   }
+
+   /**
+    * Calls the flush of the extension like the host does.
+    *
+    * @return the messages sent since the previous flush and the bytes the extension allocated during this flush
+    */
+   public FlushStats flush() {
+      flushRequested = false;
+      recordingAllocation = 0;
+      final long allocatedBefore = allocatedBytes();
+      extension.flush();
+      final long allocated = threadBean == null ? -1 : allocatedBytes() - allocatedBefore - recordingAllocation;
+      int bytes = 0;
+      for (int i = flushedOutput; i < output.size(); i++) {
+         bytes += output.get(i).size();
+      }
+      final FlushStats stats = new FlushStats(output.size() - flushedOutput, bytes, allocated);
+      flushedOutput = output.size();
+      return stats;
+   }
+
+   private long allocatedBytes() {
+      return threadBean == null ? 0 : threadBean.getCurrentThreadAllocatedBytes();
+   }
+
+   /**
+    * @return all MIDI messages sent by the extension
+    */
+   public List<MidiEvent> getOutput() {
+      return output;
+   }
+
+   /**
+    * @return the MIDI messages sent by the extension since the last call, which are removed from the recording
+    */
+   public List<MidiEvent> takeOutput() {
+      final List<MidiEvent> taken = new ArrayList<>(output);
+      output.clear();
+      flushedOutput = 0;
+      return taken;
+   }
+
+   /**
+    * @return the lines printed to the console of the host
+    */
+   public List<String> getLog() {
+      return log;
+   }
+
+   public void exit() {
+      extension.exit();
+   }
+
+   /**
+    * Boots an extension and prints the cost of its flushes.
+    *
+    * @param args the class name of the extension definition and optionally the number of flushes
+    */
+   public static void main(final String[] args) throws Exception {
+      if (args.length == 0) {
+         System.err.println("Usage: OfflineHarness <extension definition class> [flushes]");
+         System.exit(1);
+      }
+      final int flushes = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+      final OfflineHarness harness = new OfflineHarness();
+      harness.boot((ControllerExtensionDefinition) Class.forName(args[0]).getDeclaredConstructor().newInstance());
+      harness.advance(100);
+      System.out.println("init: " + harness.flush());
+      long messages = 0;
+      long allocated = 0;
+      for (int i = 0; i < flushes; i++) {
+         harness.advance(16);
+         final FlushStats stats = harness.flush();
+         messages += stats.messages();
+         allocated += stats.allocatedBytes();
+      }
+      System.out.printf("idle: %.1f messages/flush, %.0f bytes allocated/flush%n", (double) messages / flushes,
+         (double) allocated / flushes);
+      harness.exit();
+      harness.getLog().forEach(System.out::println);
+   }
+}
@@ -0,0 +1,67 @@
+package com.bitwig.extensions.harness;
+
+import java.util.PriorityQueue;
+
+/**
+ * The clock of the offline host. Tasks scheduled with
+ * {@link com.bitwig.extension.controller.api.ControllerHost#scheduleTask(Runnable, long)} are queued on it and only
+ * run when the clock is advanced, so a run is reproducible.
+ */
+public class VirtualClock {
+   private record Task(long dueTime, long sequence, Runnable action) implements Comparable<Task> {
+      @Override
+      public int compareTo(final Task other) {
+         final int byTime = Long.compare(dueTime, other.dueTime);
+         return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+      }
+   }
+
+   private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+   private long time;
+   private long sequence;
+
+   /**
+    * @return the current time in ms since the start of the host
+    */
+   public long getTime() {
+      return time;
+   }
+
+   /**
+    * @return the current time in ns, for code that takes a clock like {@link System#nanoTime()}
+    */
+   public long getNanoTime() {
+      return time * 1_000_000L;
+   }
+
+   /**
+    * @param action the task
+    * @param delay  the delay in ms
+    */
+   public void schedule(final Runnable action, final long delay) {
+      tasks.add(new Task(time + Math.max(0, delay), sequence++, action));
+   }
+
+   /**
+    * Advances the clock, running every task that becomes due in order. Tasks scheduled by a task run within the
+    * same call if they are due before the end of the period.
+    *
+    * @param millis the period in ms
+    */
+   public void advance(final long millis) {
+      final long end = time + millis;
+      while (!tasks.isEmpty() && tasks.peek().dueTime() <= end) {
+         final Task task = tasks.poll();
+         time = Math.max(time, task.dueTime());
+         task.action().run();
+      }
+      time = end;
+   }
+
+   /**
+    * @return the number of tasks waiting to become due
+    */
+   public int getPendingTasks() {
+      return tasks.size();
+   }
+}